@@ -703,6 +703,11 @@ public class AbstractAgent implements Agent, LaneFactory, DataFactory, SwimRef,
     return schedule().setTimer(millis, timer);
   }
 
+  @Override
+  public final TimerRef setTimer(long millis, long slackMillis, TimerFunction timer) {
+    return schedule().setTimer(millis, slackMillis, timer);
+  }
+
   @Override
   public void close() {
     this.context.close();
@@ -14,6 +14,7 @@
 
 package swim.api.data;
 
+import java.util.Map;
 import swim.structure.Form;
 import swim.structure.Value;
 import swim.util.OrderedMap;
@@ -45,6 +46,12 @@ public interface MapData<K, V> extends OrderedMap<K, V> {
 
   void take(int keep);
 
+  /**
+   * Puts all {@code items} into this map in a single atomic update, and
+   * returns a snapshot of this map as it was immediately before the update.
+   */
+  OrderedMap<K, V> getAndPutAll(Map<? extends K, ? extends V> items);
+
   OrderedMap<K, V> snapshot();
 
   void close();
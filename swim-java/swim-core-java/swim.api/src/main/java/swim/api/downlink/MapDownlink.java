@@ -174,6 +174,14 @@ public interface MapDownlink<K, V> extends Downlink, ObservableOrderedMap<K, V>,
   @Override
   MapDownlink<K, V> open();
 
+  /**
+   * Puts all entries of {@code map} into this downlink as a single batch: the
+   * downlink's state is updated once, update callbacks run for every entry in
+   * one pass, and the updated keys are cued up to the remote lane at once.
+   */
+  @Override
+  void putAll(Map<? extends K, ? extends V> map);
+
   @Override
   Cursor<K> keyIterator();
 }
@@ -25,6 +25,7 @@ import swim.api.lane.function.DidEnter;
 import swim.api.lane.function.DidLeave;
 import swim.api.lane.function.DidUplink;
 import swim.api.lane.function.OnCueKey;
+import swim.api.lane.function.OnCueKeys;
 import swim.api.lane.function.OnSyncMap;
 import swim.api.lane.function.WillCommand;
 import swim.api.lane.function.WillEnter;
@@ -45,6 +46,22 @@ public interface DemandMapLane<K, V> extends Lane {
 
   <V2> DemandMapLane<K, V2> valueClass(Class<V2> valueClass);
 
+  /**
+   * Returns the number of milliseconds for which a value computed for a cued
+   * key is cached, and shared by all uplinks of this lane, or {@code 0} if
+   * computed values are not cached.
+   */
+  long cacheMillis();
+
+  /**
+   * Caches the value computed for each cued key for {@code cacheMillis}
+   * milliseconds, if positive, sharing it with all uplinks of this lane.
+   * Cueing, removing, or invalidating a key discards its cached value.  The
+   * cache is bounded in size; expired values are swept periodically, and the
+   * soonest to expire is evicted when a full cache takes a new key.
+   */
+  DemandMapLane<K, V> cacheMillis(long cacheMillis);
+
   @Override
   DemandMapLane<K, V> isSigned(boolean isSigned);
 
@@ -56,6 +73,16 @@ public interface DemandMapLane<K, V> extends Lane {
 
   DemandMapLane<K, V> onCue(OnCueKey<K, V> onCue);
 
+  /**
+   * Computes the values of cued keys in batches.  Keys cued while a batch is
+   * pending join the batch, which runs asynchronously on the lane's stage,
+   * or, if every {@code OnCueKeys} observer is preemptive, on the first
+   * uplink to pull one of its keys.  The computed values are cached until
+   * their keys are cued again, or until they expire after
+   * {@link #cacheMillis()}, or after a short hold if no cache time is set.
+   */
+  DemandMapLane<K, V> onCueKeys(OnCueKeys<K, V> onCueKeys);
+
   DemandMapLane<K, V> onSync(OnSyncMap<K, V> onSync);
 
   @Override
@@ -103,4 +130,9 @@ public interface DemandMapLane<K, V> extends Lane {
   void cue(K key);
 
   void remove(K key);
+
+  /**
+   * Discards the cached value of {@code key}, if any, without cueing it.
+   */
+  void invalidate(K key);
 }
@@ -60,6 +60,22 @@ public interface ListLane<V> extends Lane, KeyedList<V>, ObservableList<V> {
 
   ListLane<V> isTransient(boolean isTransient);
 
+  /**
+   * Returns the number of recent changes this lane retains, so that links
+   * resyncing from a position in its log receive only the changes they
+   * missed, or {@code 0} if this lane keeps no log.
+   */
+  int logCapacity();
+
+  /**
+   * Retains up to {@code logCapacity} recent changes to this lane, so that
+   * links resyncing after a brief disconnect receive only the changes they
+   * missed, rather than the whole lane.  A {@code logCapacity} of {@code 0}
+   * disables the log.  Defaults to the {@code swim.lane.log.capacity} system
+   * property, or {@code 0} if unset.
+   */
+  ListLane<V> logCapacity(int logCapacity);
+
   @Override
   ListLane<V> isSigned(boolean isSigned);
 
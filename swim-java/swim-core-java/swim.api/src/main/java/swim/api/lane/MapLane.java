@@ -67,6 +67,22 @@ public interface MapLane<K, V> extends Lane, ObservableOrderedMap<K, V>, MapInle
 
   MapLane<K, V> isTransient(boolean isTransient);
 
+  /**
+   * Returns the number of recent changes this lane retains, so that links
+   * resyncing from a position in its log receive only the changes they
+   * missed, or {@code 0} if this lane keeps no log.
+   */
+  int logCapacity();
+
+  /**
+   * Retains up to {@code logCapacity} recent changes to this lane, so that
+   * links resyncing after a brief disconnect receive only the changes they
+   * missed, rather than the whole lane.  A {@code logCapacity} of {@code 0}
+   * disables the log.  Defaults to the {@code swim.lane.log.capacity} system
+   * property, or {@code 0} if unset.
+   */
+  MapLane<K, V> logCapacity(int logCapacity);
+
   @Override
   MapLane<K, V> isSigned(boolean isSigned);
 
@@ -150,6 +166,14 @@ public interface MapLane<K, V> extends Lane, ObservableOrderedMap<K, V>, MapInle
 
   OrderedMap<K, V> snapshot();
 
+  /**
+   * Puts all entries of {@code map} into this lane as a single batch: the
+   * lane's data is updated once, update callbacks run for every entry in one
+   * pass, and linked uplinks are cued with all updated keys at once.
+   */
+  @Override
+  void putAll(Map<? extends K, ? extends V> map);
+
   @Override
   Cursor<K> keyIterator();
 }
@@ -37,6 +37,26 @@ public interface SupplyLane<V> extends Lane {
 
   <V2> SupplyLane<V2> valueClass(Class<V2> valueClass);
 
+  /**
+   * Returns the maximum number of recently supplied values this lane retains
+   * to replay to links that sync, or {@code 0} if it retains none.
+   */
+  int historySize();
+
+  /**
+   * Returns the maximum age, in milliseconds, of the supplied values this
+   * lane replays to links that sync, or {@code 0} if their age is unbounded.
+   */
+  long historyMillis();
+
+  /**
+   * Retains up to {@code historySize} of the most recently supplied values,
+   * no older than {@code historyMillis} milliseconds, if positive, and
+   * replays them to links that sync.  All uplinks of the lane share the
+   * retained values.
+   */
+  SupplyLane<V> history(int historySize, long historyMillis);
+
   @Override
   SupplyLane<V> isSigned(boolean isSigned);
 
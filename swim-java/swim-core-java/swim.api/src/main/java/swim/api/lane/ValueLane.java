@@ -14,6 +14,7 @@
 
 package swim.api.lane;
 
+import java.util.function.Function;
 import swim.api.http.function.DecodeRequestHttp;
 import swim.api.http.function.DidRequestHttp;
 import swim.api.http.function.DidRespondHttp;
@@ -50,6 +51,15 @@ public interface ValueLane<V> extends Lane, ObservableValue<V>, Inlet<V>, Outlet
 
   ValueLane<V> isTransient(boolean isTransient);
 
+  /**
+   * Returns {@code true} if sets and commands whose value equals the current
+   * value of this lane are ignored, without invoking lane callbacks or
+   * sending events to uplinks.
+   */
+  boolean isDeduplicated();
+
+  ValueLane<V> isDeduplicated(boolean isDeduplicated);
+
   @Override
   ValueLane<V> isSigned(boolean isSigned);
 
@@ -112,4 +122,19 @@ public interface ValueLane<V> extends Lane, ObservableValue<V>, Inlet<V>, Outlet
 
   @Override
   V set(V newValue);
+
+  /**
+   * Sets the value of this lane to {@code newValue} if, and only if, its
+   * current value equals {@code expectedValue}, atomically with respect to
+   * all other updates of this lane.  Returns {@code true} if the value was
+   * set.
+   */
+  boolean compareAndSet(V expectedValue, V newValue);
+
+  /**
+   * Atomically replaces the value of this lane with the result of applying
+   * {@code function} to its current value, retrying if the lane is updated
+   * concurrently.  Returns the new value.
+   */
+  V update(Function<? super V, ? extends V> function);
 }
@@ -0,0 +1,28 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.api.lane.function;
+
+import java.util.Collection;
+import java.util.Map;
+import swim.concurrent.Preemptive;
+
+/**
+ * Computes the values of a batch of cued demand map lane keys in a single
+ * pass.  Keys absent from the returned map fall back to {@link OnCueKey}.
+ */
+@FunctionalInterface
+public interface OnCueKeys<K, V> extends Preemptive {
+  Map<K, V> onCue(Collection<K> keys);
+}
@@ -200,11 +200,38 @@ public class BTreeMap<K, V, U> extends BTreeContext<K, V> implements ReducedMap<
     return oldRoot.get(key, this);
   }
 
+  /**
+   * Puts all entries of {@code map} into this {@code BTreeMap} with a single
+   * atomic update of the tree root, so that concurrent readers observe either
+   * none or all of the new entries.
+   */
   @Override
   public void putAll(Map<? extends K, ? extends V> map) {
-    for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
-      put(entry.getKey(), entry.getValue());
-    }
+    getAndPutAll(map);
+  }
+
+  /**
+   * Puts all entries of {@code map} into this {@code BTreeMap} with a single
+   * atomic update of the tree root, and returns an immutable copy of the
+   * tree as it was immediately before the update, from which the replaced
+   * values can be read consistently.
+   */
+  public BTree<K, V> getAndPutAll(Map<? extends K, ? extends V> map) {
+    do {
+      final BTreePage<K, V, U> oldRoot = this.root;
+      BTreePage<K, V, U> newRoot = oldRoot;
+      for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+        final BTreePage<K, V, U> page = newRoot.updated(entry.getKey(), entry.getValue(), this);
+        if (page.size() > newRoot.size()) {
+          newRoot = page.balanced(this);
+        } else {
+          newRoot = page;
+        }
+      }
+      if (oldRoot == newRoot || ROOT.compareAndSet(this, oldRoot, newRoot)) {
+        return new BTree<K, V>(oldRoot);
+      }
+    } while (true);
   }
 
   @Override
@@ -17,6 +17,7 @@ package swim.collections;
 import java.util.AbstractMap;
 import org.testng.annotations.Test;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.fail;
 
 public class BTreeMapSpec {
@@ -46,6 +47,50 @@ public class BTreeMapSpec {
     }
   }
 
+  @Test
+  public void testPutAll() {
+    final BTreeMap<Integer, Integer, ?> tree = new BTreeMap<Integer, Integer, Object>();
+    HashTrieMap<Integer, Integer> entries = HashTrieMap.empty();
+    for (int i = 0; i < 4096; i += 2) {
+      entries = entries.updated(i, i);
+    }
+    tree.putAll(entries);
+    assertEquals(tree.size(), 2048);
+    entries = HashTrieMap.empty();
+    for (int i = 0; i < 4096; i += 1) {
+      entries = entries.updated(i, -i);
+    }
+    tree.putAll(entries);
+    assertEquals(tree.size(), 4096);
+    for (int i = 0; i < 4096; i += 1) {
+      assertEquals((int) tree.getIndex(i).getKey(), i);
+      assertEquals((int) tree.get(i), -i);
+    }
+  }
+
+  @Test
+  public void testGetAndPutAll() {
+    final BTreeMap<Integer, Integer, ?> tree = new BTreeMap<Integer, Integer, Object>();
+    for (int i = 0; i < 1024; i += 2) {
+      tree.put(i, i);
+    }
+    HashTrieMap<Integer, Integer> entries = HashTrieMap.empty();
+    for (int i = 0; i < 1024; i += 1) {
+      entries = entries.updated(i, -i);
+    }
+    final BTree<Integer, Integer> oldTree = tree.getAndPutAll(entries);
+    assertEquals(oldTree.size(), 512);
+    assertEquals(tree.size(), 1024);
+    for (int i = 0; i < 1024; i += 1) {
+      if ((i & 1) == 0) {
+        assertEquals((int) oldTree.get(i), i);
+      } else {
+        assertNull(oldTree.get(i));
+      }
+      assertEquals((int) tree.get(i), -i);
+    }
+  }
+
   @Test
   public void testRemove() {
     final BTreeMap<Integer, Integer, ?> tree = new BTreeMap<Integer, Integer, Object>();
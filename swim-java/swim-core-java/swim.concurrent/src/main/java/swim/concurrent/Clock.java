@@ -18,9 +18,14 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Hashed wheel timer {@link Schedule}.
+ * Hierarchical hashed wheel timer {@link Schedule}.  Timers that fire within
+ * one revolution of the clock are queued directly on the clock {@link #dial};
+ * timers that fire further in the future are queued on successively coarser
+ * overflow dials, and cascade down to finer dials as their deadlines draw
+ * near, so that no timer is revisited on every revolution of the clock.
  */
 public class Clock implements Schedule {
   /**
@@ -30,6 +35,14 @@ public class Clock implements Schedule {
    */
   final ClockQueue[] dial;
 
+  /**
+   * Immutable array of overflow dials, each containing {@link #tickCount}
+   * lock-free queues of timer events to cascade down to the next finer dial.
+   * Each bucket of overflow dial {@code i} spans {@code tickCount^(i + 1)}
+   * clock ticks.
+   */
+  final ClockQueue[][] overflow;
+
   /**
    * Barrier used to sequence clock startup.
    */
@@ -61,6 +74,24 @@ public class Clock implements Schedule {
    */
   final int tickCount;
 
+  /**
+   * Base 2 logarithm of {@link #tickCount}.
+   */
+  final int tickShift;
+
+  /**
+   * Number of timer events currently linked into clock queues, including
+   * cancelled events that have yet to be reclaimed.
+   */
+  final LongAdder eventCount;
+
+  /**
+   * Number of cancelled timer events still linked into clock queues.
+   * Cancelled events get eagerly reclaimed by the clock thread once they
+   * outnumber live events.
+   */
+  final LongAdder deadCount;
+
   /**
    * Atomic bit field with {@link #STARTED} and {@link #STOPPED} flags.
    */
@@ -91,6 +122,7 @@ public class Clock implements Schedule {
     tickCount |= tickCount >> 16;
     tickCount = tickCount + 1;
     this.tickCount = tickCount;
+    this.tickShift = Integer.numberOfTrailingZeros(tickCount);
 
     // Initialize the clock dial with one revolution worth of clock ticks.
     this.dial = new ClockQueue[tickCount];
@@ -98,6 +130,24 @@ public class Clock implements Schedule {
       this.dial[i] = new ClockQueue((long) i);
     }
 
+    // Initialize enough overflow dials to span OVERFLOW_BITS worth of ticks;
+    // timers beyond the outermost dial revolve around it until they're due.
+    final int overflowCount = this.tickShift > 0
+                            ? (OVERFLOW_BITS + this.tickShift - 1) / this.tickShift - 1
+                            : 0;
+    this.overflow = new ClockQueue[overflowCount][];
+    for (int level = 0; level < overflowCount; level += 1) {
+      final ClockQueue[] dial = new ClockQueue[tickCount];
+      for (int i = 0; i < tickCount; i += 1) {
+        dial[i] = new ClockQueue((long) i);
+      }
+      this.overflow[level] = dial;
+    }
+
+    // Initialize the timer event counters.
+    this.eventCount = new LongAdder();
+    this.deadCount = new LongAdder();
+
     // Initialize the barrier used to sequence clock startup.
     this.startLatch = new CountDownLatch(1);
 
@@ -221,7 +271,7 @@ public class Clock implements Schedule {
     start();
 
     // Create the context that binds the timer to this clock.
-    final ClockTimer context = new ClockTimer(this, timer);
+    final ClockTimer context = new ClockTimer(this, timer, 0L);
     if (timer instanceof Timer) {
       ((Timer) timer).setTimerContext(context);
     }
@@ -232,15 +282,25 @@ public class Clock implements Schedule {
 
   @Override
   public TimerRef setTimer(long millis, TimerFunction timer) {
+    return setTimer(millis, 0L, timer);
+  }
+
+  @Override
+  public TimerRef setTimer(long millis, long slackMillis, TimerFunction timer) {
     if (millis < 0L) {
       throw new TimerException("negative timeout: " + Long.toString(millis));
     }
+    if (slackMillis < 0L) {
+      throw new TimerException("negative slack: " + Long.toString(slackMillis));
+    }
 
     // Ensure that the clock has started.
     start();
 
+    // Convert the slack to a whole number of clock ticks.
+    final long slackTicks = slackMillis * 1000000L / this.tickNanos;
     // Create the context that binds the timer to this clock.
-    final ClockTimer context = new ClockTimer(this, timer);
+    final ClockTimer context = new ClockTimer(this, timer, slackTicks);
     if (timer instanceof Timer) {
       ((Timer) timer).setTimerContext(context);
     }
@@ -270,10 +330,15 @@ public class Clock implements Schedule {
     // Divide the deadline by the tick interval to get the tick sequence number
     // at which to fire the timer, rounding up to the next tick.
     long targetTick = (deadline + (this.tickNanos - 1L)) / this.tickNanos;
-    // Take the modulus of the target tick with respect to to the number of
-    // ticks per clock revolution, yielding the index in the dial at which to
-    // insert the event.
-    int targetHand = (int) (targetTick % (long) this.tickCount);
+    // Check if the timer permits its execution to be deferred.
+    final long slackTicks = context.slackTicks;
+    if (slackTicks > 0L) {
+      // Round the target tick up to the largest power of two multiple of ticks
+      // that fits within the slack, so that timers with nearby deadlines
+      // coalesce onto the same tick.
+      final long coalesceTicks = Long.highestOneBit(slackTicks + 1L);
+      targetTick = (targetTick + (coalesceTicks - 1L)) & -coalesceTicks;
+    }
 
     // Create a timer event to insert into the clock.
     final ClockEvent newEvent = new ClockEvent(0L, targetTick, context, context.timer);
@@ -284,61 +349,65 @@ public class Clock implements Schedule {
     if (oldEvent != null) {
       // Remove the timer from the previously scheduled event;
       // linearization point for timer cancellation.
-      oldEvent.cancel();
+      if (oldEvent.cancel() != null) {
+        // The previously scheduled event lingers in its queue until reclaimed.
+        this.deadCount.increment();
+      }
     }
 
-    // Get the event queue for the target hand of the clock.
-    ClockQueue queue = this.dial[targetHand];
-    // Capture the current foot of the queue.
-    ClockEvent foot = queue.foot;
-    // Search for the last event of in the queue, starting with foot.
-    ClockEvent prev = foot;
+    // Insert the new event relative to the last tick whose overflow events
+    // have definitely finished cascading, so that the new event can't
+    // overtake earlier events for the same tick that have yet to cascade.
+    this.eventCount.increment();
+    insert(newEvent, Math.max(0L, this.thread.tick - 1L));
+  }
+
+  /**
+   * Inserts a timer {@code newEvent} into the finest dial of the clock whose
+   * current revolution, as of the given clock {@code tick}, spans the event's
+   * target tick.  A stale {@code tick} can only select a coarser dial than
+   * necessary.
+   */
+  final void insert(ClockEvent newEvent, long tick) {
+    long targetTick = newEvent.targetTick;
+    // Find the finest dial whose current revolution spans the target tick,
+    // falling back to the outermost overflow dial for timers beyond its horizon.
+    int level = 0;
+    while (level < this.overflow.length) {
+      final int revolutionShift = (level + 1) * this.tickShift;
+      if ((targetTick >> revolutionShift) == (tick >> revolutionShift)) {
+        break;
+      }
+      level += 1;
+    }
+
+    // Loop while the target dial is an overflow dial.
+    while (level > 0) {
+      // Compute the cascade sequence number of the overflow bucket that spans
+      // the target tick.
+      final long targetSequence = targetTick >> (level * this.tickShift);
+      final int targetHand = (int) (targetSequence % (long) this.tickCount);
+      final ClockQueue queue = this.overflow[level - 1][targetHand];
+      if (queue.insert(targetSequence, newEvent)) {
+        return;
+      }
+      // The clock thread has already cascaded the target bucket, meaning that
+      // the target tick now lies within the revolution of the next finer dial.
+      level -= 1;
+    }
+
+    // Take the modulus of the target tick with respect to to the number of
+    // ticks per clock revolution, yielding the index in the dial at which to
+    // insert the event.
+    int targetHand = (int) (targetTick % (long) this.tickCount);
     // Loop until the event is inserted into the first queue that will execute
     // after the timer deadline.
-    do {
-      // Load the next event after the currently referenced last event.
-      final ClockEvent next = prev.next;
-      if (next == null) {
-        // prev is the last event in the queue.
-        if (targetTick >= prev.insertTick) {
-          // prev was inserted before the target tick, indicating that the
-          // timer thread hasn't finished executing the target tick yet.
-          // prev.insertTick is the next tick sequence number that the clock
-          // thread will execute for the queue; set event.insertTick to match.
-          newEvent.insertTick = prev.insertTick;
-          // Try to insert the new event to the end of the queue;
-          // linearization point for timer scheduling.
-          if (ClockEvent.NEXT.compareAndSet(prev, null, newEvent)) {
-            // Only update the foot reference if it lags at least two events
-            // behind the last event in the queue.
-            if (prev != foot) {
-              // Try to update the foot reference; ok if this fails.
-              ClockQueue.FOOT.compareAndSet(queue, foot, newEvent);
-            }
-            break;
-          }
-          // Lost insertion race to another thread; try again.
-        } else {
-          // The clock thread is currently executing, or has already executed,
-          // the target tick; try the next hand of the clock.
-          targetTick += 1L;
-          targetHand = (int) (targetTick % (long) this.tickCount);
-          queue = this.dial[targetHand];
-          foot = queue.foot;
-          prev = foot;
-        }
-      } else {
-        // Jump to the new foot, if the previously loaded foot lags at least two
-        // events behind the prev event; otherwise advance to the next event.
-        final ClockEvent newFoot = queue.foot;
-        if (foot != newFoot) {
-          foot = newFoot;
-          prev = foot;
-        } else {
-          prev = next;
-        }
-      }
-    } while (true);
+    while (!this.dial[targetHand].insert(targetTick, newEvent)) {
+      // The clock thread is currently executing, or has already executed,
+      // the target tick; try the next hand of the clock.
+      targetTick += 1L;
+      targetHand = (int) (targetTick % (long) this.tickCount);
+    }
   }
 
   /**
@@ -367,6 +436,15 @@ public class Clock implements Schedule {
     // stub
   }
 
+  /**
+   * Dispatches any timers whose execution was deferred by {@link
+   * #runTimer(TimerFunction, Runnable)} during the current clock tick.
+   * Invoked by the clock thread after firing all timers due at each tick.
+   */
+  protected void flushTimers() {
+    // stub
+  }
+
   /**
    * Lifecycle callback invoked before the clock thread stops.
    */
@@ -485,6 +563,12 @@ public class Clock implements Schedule {
    */
   static final int STOPPED = 1 << 1;
 
+  /**
+   * Number of bits of tick sequence numbers spanned by the clock dial, plus
+   * all of its overflow dials.
+   */
+  static final int OVERFLOW_BITS = 32;
+
   /**
    * Atomic {@link #status} field updater, used to linearize clock startup and
    * shutdown.
@@ -528,6 +612,12 @@ final class ClockTimer implements TimerContext {
    */
   final TimerFunction timer;
 
+  /**
+   * Number of clock ticks by which execution of the {@code timer} may be
+   * deferred in order to coalesce it with timers that have nearby deadlines.
+   */
+  final long slackTicks;
+
   /**
    * Atomic reference to the currently scheduled event that will execute the
    * {@code timer} when fired; {@code null} when the {@code timer} is not
@@ -537,11 +627,12 @@ final class ClockTimer implements TimerContext {
 
   /**
    * Constructs a new {@code ClockTimer} that binds the {@code timer} to the
-   * {@code clock}.
+   * {@code clock}, with {@code slackTicks} of permitted execution delay.
    */
-  ClockTimer(Clock clock, TimerFunction timer) {
+  ClockTimer(Clock clock, TimerFunction timer, long slackTicks) {
     this.clock = clock;
     this.timer = timer;
+    this.slackTicks = slackTicks;
   }
 
   @Override
@@ -574,6 +665,8 @@ final class ClockTimer implements TimerContext {
       final TimerFunction timer = event.cancel();
       // Check if the timer event hadn't yet been fired or cancelled.
       if (timer != null) {
+        // The cancelled event lingers in its queue until reclaimed.
+        this.clock.deadCount.increment();
         // Invoke timer cancellation introspection callbacks.
         if (timer instanceof Timer) {
           ((Timer) timer).timerDidCancel();
@@ -620,6 +713,59 @@ final class ClockQueue {
     this.foot = head;
   }
 
+  /**
+   * Appends {@code newEvent} to the end of this queue, if this queue has yet
+   * to execute the {@code targetTick} sequence number.  Returns {@code false}
+   * if the clock thread is currently executing, or has already executed, the
+   * {@code targetTick} sequence number for this queue.
+   */
+  boolean insert(long targetTick, ClockEvent newEvent) {
+    // Capture the current foot of the queue.
+    ClockEvent foot = this.foot;
+    // Search for the last event of in the queue, starting with foot.
+    ClockEvent prev = foot;
+    do {
+      // Load the next event after the currently referenced last event.
+      final ClockEvent next = prev.next;
+      if (next == null) {
+        // prev is the last event in the queue.
+        if (targetTick >= prev.insertTick) {
+          // prev was inserted before the target tick, indicating that the
+          // timer thread hasn't finished executing the target tick yet.
+          // prev.insertTick is the next tick sequence number that the clock
+          // thread will execute for the queue; set event.insertTick to match.
+          newEvent.insertTick = prev.insertTick;
+          // Try to insert the new event to the end of the queue;
+          // linearization point for timer scheduling.
+          if (ClockEvent.NEXT.compareAndSet(prev, null, newEvent)) {
+            // Only update the foot reference if it lags at least two events
+            // behind the last event in the queue.
+            if (prev != foot) {
+              // Try to update the foot reference; ok if this fails.
+              FOOT.compareAndSet(this, foot, newEvent);
+            }
+            return true;
+          }
+          // Lost insertion race to another thread; try again.
+        } else {
+          // The clock thread is currently executing, or has already executed,
+          // the target tick.
+          return false;
+        }
+      } else {
+        // Jump to the new foot, if the previously loaded foot lags at least two
+        // events behind the prev event; otherwise advance to the next event.
+        final ClockEvent newFoot = this.foot;
+        if (foot != newFoot) {
+          foot = newFoot;
+          prev = foot;
+        } else {
+          prev = next;
+        }
+      }
+    } while (true);
+  }
+
   /**
    * Atomic {@link #foot} field updater, used to optimize event insertion.
    */
@@ -725,8 +871,11 @@ final class ClockThread extends Thread {
 
   /**
    * Next tick sequence number that this {@code ClockThread} will execute.
+   * Volatile, because schedulers read it to pick the dial into which to
+   * insert new events; the write that advances it publishes the cascades
+   * of the executed tick.
    */
-  long tick;
+  volatile long tick;
 
   /**
    * Constructs a new {@code ClockThread} that fires events for {@code clock}.
@@ -750,9 +899,19 @@ final class ClockThread extends Thread {
       }
       clock.startTime = startTime;
 
+      // Execute the start tick, whose deadline is the clock start time,
+      // before releasing threads waiting for the clock to start, so that
+      // timers scheduled after the clock starts fire no earlier than the next
+      // tick, rather than racing the start tick.  No timers can have been
+      // scheduled yet, so this only seals the start tick's queues.
+      cascadeTick(clock, 0L);
+      executeTick(clock, 0L);
+      this.tick = 1L;
+
       // Linearization point for clock start.
       clock.startLatch.countDown();
       clock.didStart();
+      clock.didTick(0L, 0L);
 
       // Loop while the clock has not been stopped.
       do {
@@ -761,8 +920,18 @@ final class ClockThread extends Thread {
         final long waitedMillis = waitForTick(clock, tick);
         // Check if we had a nominal wakeup.
         if (waitedMillis != Long.MIN_VALUE) {
+          // Cascade overflow events due within the coming revolution.
+          cascadeTick(clock, tick);
           // Execute the clock tick.
           executeTick(clock, tick);
+          // Dispatch any timers deferred during the tick.
+          clock.flushTimers();
+          // Reclaim cancelled events, if they've come to outnumber live events.
+          final long deadCount = clock.deadCount.sum();
+          if (deadCount >= (long) clock.tickCount * (long) (clock.overflow.length + 1)
+              && deadCount >= clock.eventCount.sum() - deadCount) {
+            sweep(clock);
+          }
           // Invoke the clock tick introspection callback, with a measure of the
           // clock latency.
           clock.didTick(tick, waitedMillis);
@@ -839,6 +1008,95 @@ final class ClockThread extends Thread {
     } while (true);
   }
 
+  /**
+   * Cascades all {@code clock} overflow events whose overflow buckets begin
+   * at the target {@code tick} down to finer dials, starting with the
+   * coarsest overflow dial.
+   */
+  static void cascadeTick(final Clock clock, final long tick) {
+    for (int level = clock.overflow.length; level > 0; level -= 1) {
+      final int levelShift = level * clock.tickShift;
+      // Check if the target tick begins a bucket of the overflow dial.
+      if ((tick & ((1L << levelShift) - 1L)) == 0L) {
+        cascadeQueue(clock, level, tick >> levelShift);
+      }
+    }
+  }
+
+  /**
+   * Reinserts all events in the bucket of the {@code clock} overflow dial at
+   * the given {@code level} with the target cascade {@code sequence} number
+   * into finer dials of the clock.
+   */
+  static void cascadeQueue(final Clock clock, final int level, final long sequence) {
+    final int levelShift = level * clock.tickShift;
+    // Compute the cascade sequence number for the next revolution of the dial.
+    final long nextSequence = sequence + (long) clock.tickCount;
+    // Get the event queue for the target hand of the overflow dial.
+    final ClockQueue queue = clock.overflow[level - 1][(int) (sequence % (long) clock.tickCount)];
+    // The first event to keep in the queue.
+    ClockEvent head = null;
+    // The last event to keep in the queue.
+    ClockEvent prev = null;
+    // The next queued event to process.
+    ClockEvent next = queue.head;
+    // The sentinel event that will be inserted at the end of the queue to
+    // complete the cascade, preventing further insertion of events into this
+    // revolution of the bucket.
+    final ClockEvent nextFoot = new ClockEvent(nextSequence, nextSequence, null, null);
+    // Loop until no events scheduled for this bucket remain in the queue.
+    do {
+      if (next.context != null) {
+        final TimerFunction timer = next.timer;
+        if (timer == null) {
+          // The next event was cancelled; drop it from the queue.
+          clock.deadCount.decrement();
+          clock.eventCount.decrement();
+        } else if ((next.targetTick >> levelShift) <= sequence) {
+          // The next event is due within the span of this bucket; move its
+          // timer to a new event, and insert it into a finer dial.
+          final ClockEvent newEvent = new ClockEvent(0L, next.targetTick, next.context, timer);
+          // Try to replace the timer's current event with the new event;
+          // linearization point for timer cascade.
+          if (ClockTimer.EVENT.compareAndSet(next.context, next, newEvent)) {
+            next.cancel();
+            clock.insert(newEvent, sequence << levelShift);
+          } else {
+            // The timer was concurrently cancelled or rescheduled.
+            clock.deadCount.decrement();
+            clock.eventCount.decrement();
+          }
+        } else {
+          // The next event is due beyond the horizon of the outermost dial.
+          if (prev != null) {
+            prev.next = next;
+          } else {
+            head = next;
+          }
+          prev = next;
+        }
+      }
+      // Check if the next event is the last in the queue.
+      if (next.next == null) {
+        // Try to finish the cascade by appending a sentinel event to the end
+        // of the queue.
+        if (ClockEvent.NEXT.compareAndSet(next, null, nextFoot)) {
+          ClockQueue.FOOT.set(queue, nextFoot);
+          if (prev != null) {
+            // Unlink all events after the last kept event.
+            prev.next = nextFoot;
+          } else {
+            head = nextFoot;
+          }
+          queue.head = head;
+          break;
+        }
+      }
+      // Advance to the next event in the queue.
+      next = next.next;
+    } while (true);
+  }
+
   /**
    * Executes all {@code clock} timers set to fire at the target {@code tick}.
    */
@@ -867,6 +1125,11 @@ final class ClockThread extends Thread {
         // Clear the event from the associated timer context.
         if (next.context != null) {
           ClockTimer.EVENT.compareAndSet(next.context, next, null);
+          clock.eventCount.decrement();
+          if (timer == null) {
+            // The event was cancelled before it fired.
+            clock.deadCount.decrement();
+          }
         }
         if (timer != null) {
           // The timer wasn't cancelled; fire the event.
@@ -896,6 +1159,10 @@ final class ClockThread extends Thread {
         }
         // The next event is now the last known event to keep in the queue.
         prev = next;
+      } else if (next.context != null) {
+        // The next event was cancelled; drop it from the queue.
+        clock.deadCount.decrement();
+        clock.eventCount.decrement();
       }
       // Check if the next event is the last in the queue.
       if (next.next == null) {
@@ -908,9 +1175,12 @@ final class ClockThread extends Thread {
           // cancelled or fired; update the foot of the queue to reference the
           // new foot event.
           ClockQueue.FOOT.set(queue, nextFoot);
-          // Check if no events were kept in the queue.
-          if (head == null) {
-            // In which case the new foot is also the new head.
+          if (prev != null) {
+            // Unlink any fired or cancelled events after the last kept event.
+            prev.next = nextFoot;
+          } else {
+            // No events were kept in the queue, so the new foot is also the
+            // new head.
             head = nextFoot;
           }
           // Update the head of the queue.
@@ -923,6 +1193,50 @@ final class ClockThread extends Thread {
     } while (true);
   }
 
+  /**
+   * Unlinks all cancelled events from every queue of the {@code clock}.
+   * The last event of each queue always remains linked, because concurrent
+   * schedulers may be appending events to it.
+   */
+  static void sweep(final Clock clock) {
+    sweepDial(clock, clock.dial);
+    for (int level = 0; level < clock.overflow.length; level += 1) {
+      sweepDial(clock, clock.overflow[level]);
+    }
+  }
+
+  /**
+   * Unlinks all cancelled events from every queue of a {@code clock} {@code dial}.
+   */
+  static void sweepDial(final Clock clock, final ClockQueue[] dial) {
+    for (int hand = 0; hand < dial.length; hand += 1) {
+      final ClockQueue queue = dial[hand];
+      // The last event to keep in the queue.
+      ClockEvent prev = null;
+      // The next queued event to process.
+      ClockEvent next = queue.head;
+      do {
+        final ClockEvent after = next.next;
+        if (after != null && !next.isScheduled()) {
+          // The next event is a cancelled event, or a stale sentinel, that
+          // isn't the last event in the queue; bypass it.
+          if (next.context != null) {
+            clock.deadCount.decrement();
+            clock.eventCount.decrement();
+          }
+          if (prev != null) {
+            prev.next = after;
+          } else {
+            queue.head = after;
+          }
+        } else {
+          prev = next;
+        }
+        next = after;
+      } while (next != null);
+    }
+  }
+
   /**
    * Total number of clock threads that have ever been instantiated.  Used to
    * uniquely name clock threads.
@@ -0,0 +1,185 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.concurrent;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Lock-free, unbounded, multiple producer, single consumer FIFO queue, backed
+ * by a linked list of fixed size array chunks.  Producers claim array slots
+ * with a single atomic increment, and only allocate when a chunk fills up,
+ * rather than allocating a linked node per queued value.
+ *
+ * The {@link #poll()} and {@link #peek()} methods must only be invoked by one
+ * consumer thread at a time.  The {@link #add(Object)} method may be invoked
+ * concurrently by any number of producer threads.  A value is visible to the
+ * consumer once its {@code add} call returns; a producer that has claimed a
+ * slot, but not yet published its value, appears absent to the consumer.
+ * Producers that subsequently signal the consumer, by cueing a task or
+ * setting a flag, are therefore guaranteed that their value will be observed.
+ *
+ * Consumers are not serialized by the queue.  Only use a chunk queue where
+ * the consuming code provably runs on one thread at a time, such as the body
+ * of a single {@link Task}; use a {@code ConcurrentLinkedQueue} otherwise.
+ */
+public class ConcurrentChunkQueue<T> {
+  final int chunkSize;
+  volatile ConcurrentChunk head;
+  volatile int headIndex;
+  volatile ConcurrentChunk tail;
+
+  public ConcurrentChunkQueue(int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("non-positive chunk size: " + chunkSize);
+    }
+    this.chunkSize = chunkSize;
+    final ConcurrentChunk chunk = new ConcurrentChunk(chunkSize);
+    this.head = chunk;
+    this.tail = chunk;
+  }
+
+  public ConcurrentChunkQueue() {
+    this(CHUNK_SIZE);
+  }
+
+  /**
+   * Returns {@code true} if this queue has no values available to the
+   * consumer.  May be invoked by any thread, but only reflects a recent
+   * state of the queue.
+   */
+  public boolean isEmpty() {
+    final ConcurrentChunk chunk = this.head;
+    final int index = this.headIndex;
+    if (index < this.chunkSize) {
+      return chunk.slots.get(index) == null;
+    } else {
+      final ConcurrentChunk next = chunk.next;
+      return next == null || next.slots.get(0) == null;
+    }
+  }
+
+  public void add(T value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    ConcurrentChunk chunk = this.tail;
+    do {
+      final int index = ConcurrentChunk.CLAIM.getAndIncrement(chunk);
+      if (index < this.chunkSize) {
+        // Publish the value in the claimed slot.
+        chunk.slots.lazySet(index, value);
+        return;
+      }
+      // Chunk full; link a new chunk pre-populated with the value.
+      ConcurrentChunk next = chunk.next;
+      if (next == null) {
+        final ConcurrentChunk newChunk = new ConcurrentChunk(this.chunkSize, value);
+        if (ConcurrentChunk.NEXT.compareAndSet(chunk, null, newChunk)) {
+          TAIL.compareAndSet(this, chunk, newChunk);
+          return;
+        }
+        // Another producer linked the next chunk first.
+        next = chunk.next;
+      }
+      // Help advance the tail, and retry in the next chunk.
+      TAIL.compareAndSet(this, chunk, next);
+      chunk = next;
+    } while (true);
+  }
+
+  @SuppressWarnings("unchecked")
+  public T peek() {
+    ConcurrentChunk chunk = this.head;
+    int index = this.headIndex;
+    if (index == this.chunkSize) {
+      chunk = chunk.next;
+      if (chunk == null) {
+        return null;
+      }
+      index = 0;
+    }
+    return (T) chunk.slots.get(index);
+  }
+
+  @SuppressWarnings("unchecked")
+  public T poll() {
+    ConcurrentChunk chunk = this.head;
+    int index = this.headIndex;
+    if (index == this.chunkSize) {
+      // Current chunk exhausted; advance to the next chunk, if linked.
+      final ConcurrentChunk next = chunk.next;
+      if (next == null) {
+        return null;
+      }
+      chunk = next;
+      index = 0;
+      HEAD.lazySet(this, chunk);
+    }
+    final Object value = chunk.slots.get(index);
+    if (value != null) {
+      chunk.slots.lazySet(index, null);
+      HEAD_INDEX.lazySet(this, index + 1);
+    }
+    return (T) value;
+  }
+
+  static final int CHUNK_SIZE;
+
+  @SuppressWarnings("unchecked")
+  static final AtomicReferenceFieldUpdater<ConcurrentChunkQueue<?>, ConcurrentChunk> TAIL =
+      AtomicReferenceFieldUpdater.newUpdater((Class<ConcurrentChunkQueue<?>>) (Class<?>) ConcurrentChunkQueue.class, ConcurrentChunk.class, "tail");
+
+  @SuppressWarnings("unchecked")
+  static final AtomicReferenceFieldUpdater<ConcurrentChunkQueue<?>, ConcurrentChunk> HEAD =
+      AtomicReferenceFieldUpdater.newUpdater((Class<ConcurrentChunkQueue<?>>) (Class<?>) ConcurrentChunkQueue.class, ConcurrentChunk.class, "head");
+
+  @SuppressWarnings("unchecked")
+  static final AtomicIntegerFieldUpdater<ConcurrentChunkQueue<?>> HEAD_INDEX =
+      AtomicIntegerFieldUpdater.newUpdater((Class<ConcurrentChunkQueue<?>>) (Class<?>) ConcurrentChunkQueue.class, "headIndex");
+
+  static {
+    int chunkSize;
+    try {
+      chunkSize = Integer.parseInt(System.getProperty("swim.queue.chunk.size"));
+    } catch (NumberFormatException error) {
+      chunkSize = 32;
+    }
+    CHUNK_SIZE = chunkSize;
+  }
+}
+
+final class ConcurrentChunk {
+  final AtomicReferenceArray<Object> slots;
+  volatile int claim;
+  volatile ConcurrentChunk next;
+
+  ConcurrentChunk(int size) {
+    this.slots = new AtomicReferenceArray<Object>(size);
+  }
+
+  ConcurrentChunk(int size, Object value) {
+    this.slots = new AtomicReferenceArray<Object>(size);
+    this.slots.lazySet(0, value);
+    this.claim = 1;
+  }
+
+  static final AtomicIntegerFieldUpdater<ConcurrentChunk> CLAIM =
+      AtomicIntegerFieldUpdater.newUpdater(ConcurrentChunk.class, "claim");
+
+  static final AtomicReferenceFieldUpdater<ConcurrentChunk, ConcurrentChunk> NEXT =
+      AtomicReferenceFieldUpdater.newUpdater(ConcurrentChunk.class, ConcurrentChunk.class, "next");
+}
@@ -14,6 +14,15 @@
 
 package swim.concurrent;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.BiFunction;
+
 /**
  * Factory functions for {@link Cont}inuation combinators.
  */
@@ -53,6 +62,142 @@ public final class Conts {
     return (Cont<T>) ignore;
   }
 
+  /**
+   * Returns a list of {@code count} component continuations that, when all
+   * completed successfully, complete the given {@code cont}inuation with the
+   * list of component values, in component order; and when any component is
+   * failed with an error, fails the given {@code cont}inuation with the first
+   * such error.  Only the first completion of each component counts; later
+   * completions of the same component are ignored.  Components complete
+   * without dispatching; the given {@code cont}inuation is invoked exactly
+   * once, by the thread that completes the aggregate.  Pass a {@link
+   * Stage#call(Cont) Call} as the {@code cont} to execute the aggregate
+   * completion with a single stage dispatch.
+   */
+  public static <T> List<Cont<T>> allOf(int count, Cont<List<T>> cont) {
+    if (count < 0) {
+      throw new IllegalArgumentException("negative count: " + count);
+    } else if (count == 0) {
+      ConstantCont.bind(cont, Collections.<T>emptyList());
+      return Collections.emptyList();
+    }
+    return parts(new AllOfCont<T>(count, cont), count);
+  }
+
+  /**
+   * Returns one {@code Call} for each of the given {@code calls}, in
+   * iteration order, that completes its underlying call, and that counts
+   * toward an {@link #allOf(int, Cont) allOf} aggregate of all {@code calls}
+   * if, and only if, it caused the completion of its underlying call.
+   */
+  public static <T> List<Call<T>> allOf(Collection<? extends Call<T>> calls, Cont<List<T>> cont) {
+    if (calls.isEmpty()) {
+      ConstantCont.bind(cont, Collections.<T>emptyList());
+      return Collections.emptyList();
+    }
+    return parts(new AllOfCont<T>(calls.size(), cont), calls);
+  }
+
+  /**
+   * Returns a list of {@code count} component continuations that complete
+   * the given {@code cont}inuation with the first successfully bound value;
+   * and when all {@code count} components fail, fail the given {@code
+   * cont}inuation with the last error.  Only the first completion of each
+   * component counts, and completions after the aggregate completes are
+   * ignored.  Pass a {@link Stage#call(Cont) Call} as the {@code cont} to
+   * execute the aggregate completion with a single stage dispatch.
+   */
+  public static <T> List<Cont<T>> anyOf(int count, Cont<T> cont) {
+    if (count <= 0) {
+      throw new IllegalArgumentException("non-positive count: " + count);
+    }
+    return parts(new AnyOfCont<T>(count, cont), count);
+  }
+
+  /**
+   * Returns one {@code Call} for each of the given {@code calls}, in
+   * iteration order, that completes its underlying call, and that counts
+   * toward an {@link #anyOf(int, Cont) anyOf} aggregate of all {@code calls}
+   * if, and only if, it caused the completion of its underlying call.
+   */
+  public static <T> List<Call<T>> anyOf(Collection<? extends Call<T>> calls, Cont<T> cont) {
+    if (calls.isEmpty()) {
+      throw new IllegalArgumentException("no calls");
+    }
+    return parts(new AnyOfCont<T>(calls.size(), cont), calls);
+  }
+
+  /**
+   * Returns a list of {@code count} component continuations that fold each
+   * successfully bound value into an accumulated result, starting from
+   * {@code identity}, and that complete the given {@code cont}inuation with
+   * the accumulated result once all {@code count} components have been
+   * bound; when any component fails with an error, fail the given {@code
+   * cont}inuation with the first such error.  Only the first completion of
+   * each component counts.  The {@code accumulator} may be invoked
+   * concurrently, and retried under contention, so it must be free of side
+   * effects, and associative and commutative in the folded values.  Pass a
+   * {@link Stage#call(Cont) Call} as the {@code cont} to execute the
+   * aggregate completion with a single stage dispatch.
+   */
+  public static <T, U> List<Cont<T>> reduce(int count, U identity, BiFunction<U, ? super T, U> accumulator,
+                                             Cont<U> cont) {
+    if (count < 0) {
+      throw new IllegalArgumentException("negative count: " + count);
+    } else if (count == 0) {
+      ConstantCont.bind(cont, identity);
+      return Collections.emptyList();
+    }
+    return parts(new ReduceCont<T, U>(count, identity, accumulator, cont), count);
+  }
+
+  /**
+   * Returns one {@code Call} for each of the given {@code calls}, in
+   * iteration order, that completes its underlying call, and that counts
+   * toward a {@link #reduce(int, Object, BiFunction, Cont) reduce} aggregate
+   * of all {@code calls} if, and only if, it caused the completion of its
+   * underlying call.
+   */
+  public static <T, U> List<Call<T>> reduce(Collection<? extends Call<T>> calls, U identity,
+                                             BiFunction<U, ? super T, U> accumulator, Cont<U> cont) {
+    if (calls.isEmpty()) {
+      ConstantCont.bind(cont, identity);
+      return Collections.emptyList();
+    }
+    return parts(new ReduceCont<T, U>(calls.size(), identity, accumulator, cont), calls);
+  }
+
+  static <T> List<Cont<T>> parts(ContsAggregate<T> aggregate, int count) {
+    final ArrayList<Cont<T>> parts = new ArrayList<Cont<T>>(count);
+    for (int i = 0; i < count; i += 1) {
+      parts.add(new ContsPart<T>(aggregate, i));
+    }
+    return Collections.unmodifiableList(parts);
+  }
+
+  static <T> List<Call<T>> parts(ContsAggregate<T> aggregate, Collection<? extends Call<T>> calls) {
+    final ArrayList<Call<T>> parts = new ArrayList<Call<T>>(calls.size());
+    int i = 0;
+    for (Call<T> call : calls) {
+      parts.add(new ContsPartCall<T>(aggregate, i, call));
+      i += 1;
+    }
+    return Collections.unmodifiableList(parts);
+  }
+
+  /**
+   * Returns a {@code Cont}inuation that forwards its first completion to the
+   * given {@code cont}inuation, and that fails the given {@code cont}inuation
+   * with a {@link ContException} if not completed within {@code millis}
+   * milliseconds, as measured by the given {@code schedule}.  Completions
+   * after the timeout are ignored.
+   */
+  public static <T> Cont<T> timeout(Schedule schedule, long millis, Cont<T> cont) {
+    final TimeoutCont<T> timeout = new TimeoutCont<T>(millis, cont);
+    timeout.timer = schedule.setTimer(millis, timeout);
+    return timeout;
+  }
+
   /**
    * Returns {@code true} if {@code throwable} is a recoverable exception;
    * returns {@code false} if {@code throwable} cannot be recovered from.
@@ -96,6 +241,289 @@ final class ConstantCont<X, T> implements Cont<X>, Runnable {
   public void trap(Throwable error) {
     this.cont.trap(error);
   }
+
+  static <T> void bind(Cont<T> cont, T value) {
+    try {
+      cont.bind(value);
+    } catch (Throwable error) {
+      cont.trap(error);
+    }
+  }
+}
+
+/**
+ * Fan-in state shared by the component continuations of a combinator.
+ */
+interface ContsAggregate<T> {
+  void bindPart(int index, T value);
+
+  void trapPart(Throwable error);
+}
+
+/**
+ * Component continuation of a {@link ContsAggregate} that forwards only its
+ * first completion, so that a component completed twice counts once.
+ */
+final class ContsPart<T> implements Cont<T> {
+  final ContsAggregate<T> aggregate;
+  final int index;
+  volatile int done;
+
+  ContsPart(ContsAggregate<T> aggregate, int index) {
+    this.aggregate = aggregate;
+    this.index = index;
+  }
+
+  @Override
+  public void bind(T value) {
+    if (DONE.compareAndSet(this, 0, 1)) {
+      this.aggregate.bindPart(this.index, value);
+    }
+  }
+
+  @Override
+  public void trap(Throwable error) {
+    if (DONE.compareAndSet(this, 0, 1)) {
+      this.aggregate.trapPart(error);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  static final AtomicIntegerFieldUpdater<ContsPart<?>> DONE =
+      AtomicIntegerFieldUpdater.newUpdater((Class<ContsPart<?>>) (Class<?>) ContsPart.class, "done");
+}
+
+/**
+ * Component {@code Call} of a {@link ContsAggregate} that completes an
+ * underlying {@code Call}, and that forwards its completion to the aggregate
+ * only if it caused the completion of the underlying {@code Call}.
+ */
+final class ContsPartCall<T> implements Call<T> {
+  final ContsAggregate<T> aggregate;
+  final int index;
+  final Call<T> call;
+
+  ContsPartCall(ContsAggregate<T> aggregate, int index, Call<T> call) {
+    this.aggregate = aggregate;
+    this.index = index;
+    this.call = call;
+  }
+
+  @Override
+  public Cont<T> cont() {
+    return this.call.cont();
+  }
+
+  @Override
+  public void bind(T value) {
+    if (!tryBind(value)) {
+      throw new ContException("continuation already completed");
+    }
+  }
+
+  @Override
+  public void trap(Throwable error) {
+    if (!tryTrap(error)) {
+      throw new ContException("continuation already completed");
+    }
+  }
+
+  @Override
+  public boolean tryBind(T value) {
+    if (this.call.tryBind(value)) {
+      this.aggregate.bindPart(this.index, value);
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public boolean tryTrap(Throwable error) {
+    if (this.call.tryTrap(error)) {
+      this.aggregate.trapPart(error);
+      return true;
+    }
+    return false;
+  }
+}
+
+final class AllOfCont<T> implements ContsAggregate<T> {
+  final Cont<List<T>> cont;
+  final Object[] values;
+  volatile int remaining;
+  volatile int done;
+
+  AllOfCont(int count, Cont<List<T>> cont) {
+    this.cont = cont;
+    this.values = new Object[count];
+    this.remaining = count;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void bindPart(int index, T value) {
+    this.values[index] = value;
+    // The atomic decrement publishes the value to the completing thread.
+    if (REMAINING.decrementAndGet(this) == 0 && DONE.compareAndSet(this, 0, 1)) {
+      ConstantCont.bind(this.cont, Collections.unmodifiableList(Arrays.asList((T[]) this.values)));
+    }
+  }
+
+  @Override
+  public void trapPart(Throwable error) {
+    if (DONE.compareAndSet(this, 0, 1)) {
+      this.cont.trap(error);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  static final AtomicIntegerFieldUpdater<AllOfCont<?>> REMAINING =
+      AtomicIntegerFieldUpdater.newUpdater((Class<AllOfCont<?>>) (Class<?>) AllOfCont.class, "remaining");
+
+  @SuppressWarnings("unchecked")
+  static final AtomicIntegerFieldUpdater<AllOfCont<?>> DONE =
+      AtomicIntegerFieldUpdater.newUpdater((Class<AllOfCont<?>>) (Class<?>) AllOfCont.class, "done");
+}
+
+final class AnyOfCont<T> implements ContsAggregate<T> {
+  final Cont<T> cont;
+  volatile int remaining;
+  volatile int done;
+
+  AnyOfCont(int count, Cont<T> cont) {
+    this.cont = cont;
+    this.remaining = count;
+  }
+
+  @Override
+  public void bindPart(int index, T value) {
+    if (DONE.compareAndSet(this, 0, 1)) {
+      ConstantCont.bind(this.cont, value);
+    }
+  }
+
+  @Override
+  public void trapPart(Throwable error) {
+    if (REMAINING.decrementAndGet(this) == 0 && DONE.compareAndSet(this, 0, 1)) {
+      this.cont.trap(error);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  static final AtomicIntegerFieldUpdater<AnyOfCont<?>> REMAINING =
+      AtomicIntegerFieldUpdater.newUpdater((Class<AnyOfCont<?>>) (Class<?>) AnyOfCont.class, "remaining");
+
+  @SuppressWarnings("unchecked")
+  static final AtomicIntegerFieldUpdater<AnyOfCont<?>> DONE =
+      AtomicIntegerFieldUpdater.newUpdater((Class<AnyOfCont<?>>) (Class<?>) AnyOfCont.class, "done");
+}
+
+final class ReduceCont<T, U> implements ContsAggregate<T> {
+  final BiFunction<U, ? super T, U> accumulator;
+  final Cont<U> cont;
+  volatile U state;
+  volatile int remaining;
+  volatile int done;
+
+  ReduceCont(int count, U identity, BiFunction<U, ? super T, U> accumulator, Cont<U> cont) {
+    this.accumulator = accumulator;
+    this.cont = cont;
+    this.state = identity;
+    this.remaining = count;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void bindPart(int index, T value) {
+    if (this.done != 0) {
+      return;
+    }
+    U oldState;
+    U newState;
+    try {
+      do {
+        oldState = this.state;
+        newState = this.accumulator.apply(oldState, value);
+      } while (!STATE.compareAndSet(this, oldState, newState));
+    } catch (Throwable error) {
+      if (Conts.isNonFatal(error)) {
+        trapPart(error);
+        return;
+      } else {
+        throw error;
+      }
+    }
+    // All folds happen before their decrements, so the completing thread
+    // observes the fully accumulated state.
+    if (REMAINING.decrementAndGet(this) == 0 && DONE.compareAndSet(this, 0, 1)) {
+      ConstantCont.bind(this.cont, this.state);
+    }
+  }
+
+  @Override
+  public void trapPart(Throwable error) {
+    if (DONE.compareAndSet(this, 0, 1)) {
+      this.cont.trap(error);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  static final AtomicReferenceFieldUpdater<ReduceCont<?, ?>, Object> STATE =
+      AtomicReferenceFieldUpdater.newUpdater((Class<ReduceCont<?, ?>>) (Class<?>) ReduceCont.class, Object.class, "state");
+
+  @SuppressWarnings("unchecked")
+  static final AtomicIntegerFieldUpdater<ReduceCont<?, ?>> REMAINING =
+      AtomicIntegerFieldUpdater.newUpdater((Class<ReduceCont<?, ?>>) (Class<?>) ReduceCont.class, "remaining");
+
+  @SuppressWarnings("unchecked")
+  static final AtomicIntegerFieldUpdater<ReduceCont<?, ?>> DONE =
+      AtomicIntegerFieldUpdater.newUpdater((Class<ReduceCont<?, ?>>) (Class<?>) ReduceCont.class, "done");
+}
+
+final class TimeoutCont<T> implements Cont<T>, TimerFunction {
+  final long millis;
+  final Cont<T> cont;
+  volatile TimerRef timer;
+  volatile int done;
+
+  TimeoutCont(long millis, Cont<T> cont) {
+    this.millis = millis;
+    this.cont = cont;
+  }
+
+  @Override
+  public void bind(T value) {
+    if (DONE.compareAndSet(this, 0, 1)) {
+      cancelTimeout();
+      ConstantCont.bind(this.cont, value);
+    }
+  }
+
+  @Override
+  public void trap(Throwable error) {
+    if (DONE.compareAndSet(this, 0, 1)) {
+      cancelTimeout();
+      this.cont.trap(error);
+    }
+  }
+
+  @Override
+  public void runTimer() {
+    if (DONE.compareAndSet(this, 0, 1)) {
+      this.cont.trap(new ContException("timed out after " + this.millis + "ms"));
+    }
+  }
+
+  void cancelTimeout() {
+    final TimerRef timer = this.timer;
+    if (timer != null) {
+      timer.cancel();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  static final AtomicIntegerFieldUpdater<TimeoutCont<?>> DONE =
+      AtomicIntegerFieldUpdater.newUpdater((Class<TimeoutCont<?>>) (Class<?>) TimeoutCont.class, "done");
 }
 
 final class IgnoreCont<T> implements Cont<T> {
@@ -0,0 +1,189 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.concurrent;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link Theater} that records queue wait and run time histograms for each
+ * type of task it executes, and exposes its task profiles and thread pool
+ * gauges.  Tasks are grouped by the type returned from {@link
+ * #taskType(TaskFunction)}, which defaults to the name of the task's class;
+ * subclasses can override {@code taskType} to group tasks along domain
+ * specific lines.
+ */
+public class InstrumentedTheater extends Theater {
+  /**
+   * Task statistics, keyed by task type.
+   */
+  final ConcurrentHashMap<String, TaskProfile> taskProfiles;
+
+  public InstrumentedTheater(String name, int parallelism, Schedule schedule) {
+    super(name, parallelism, schedule);
+    this.taskProfiles = new ConcurrentHashMap<String, TaskProfile>();
+  }
+
+  public InstrumentedTheater(String name, int parallelism) {
+    this(name, parallelism, null);
+  }
+
+  public InstrumentedTheater(String name) {
+    this(name, Runtime.getRuntime().availableProcessors(), null);
+  }
+
+  public InstrumentedTheater() {
+    this(null, Runtime.getRuntime().availableProcessors(), null);
+  }
+
+  /**
+   * Returns the name of this theater's thread pool.
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Returns the key under which to record the statistics of {@code task}.
+   */
+  protected String taskType(TaskFunction task) {
+    return task.getClass().getName();
+  }
+
+  /**
+   * Returns the statistics recorded for tasks of the given {@code type};
+   * returns {@code null} if no task of that type has executed.
+   */
+  public TaskProfile getTaskProfile(String type) {
+    return this.taskProfiles.get(type);
+  }
+
+  /**
+   * Returns an iterator over the statistics of every type of task executed
+   * by this theater.
+   */
+  public Iterator<TaskProfile> taskProfileIterator() {
+    return this.taskProfiles.values().iterator();
+  }
+
+  TaskProfile taskProfile(TaskFunction task) {
+    final String type = taskType(task);
+    TaskProfile profile = this.taskProfiles.get(type);
+    if (profile == null) {
+      final TaskProfile newProfile = new TaskProfile(type);
+      profile = this.taskProfiles.putIfAbsent(type, newProfile);
+      if (profile == null) {
+        profile = newProfile;
+      }
+    }
+    return profile;
+  }
+
+  @Override
+  protected boolean isTimingTasks() {
+    return true;
+  }
+
+  @Override
+  protected void taskDidMeasure(TaskFunction task, long waitNanos, long runNanos) {
+    taskProfile(task).didRun(waitNanos, runNanos);
+  }
+
+  @Override
+  protected void taskDidFail(TaskFunction task, Throwable error) {
+    taskProfile(task).didFail();
+  }
+
+  /**
+   * Returns the target number of worker threads in the thread pool.
+   */
+  public int getParallelism() {
+    return this.pool.getParallelism();
+  }
+
+  /**
+   * Returns the number of worker threads that have started, but not yet
+   * terminated.
+   */
+  public int getPoolSize() {
+    return this.pool.getPoolSize();
+  }
+
+  /**
+   * Returns the estimated number of worker threads that are currently
+   * executing tasks.
+   */
+  public int getActiveThreadCount() {
+    return this.pool.getActiveThreadCount();
+  }
+
+  /**
+   * Returns the estimated number of worker threads that are neither blocked
+   * nor waiting for work.
+   */
+  public int getRunningThreadCount() {
+    return this.pool.getRunningThreadCount();
+  }
+
+  /**
+   * Returns the estimated number of tasks queued by worker threads.
+   */
+  public long getQueuedTaskCount() {
+    return this.pool.getQueuedTaskCount();
+  }
+
+  /**
+   * Returns the estimated number of tasks submitted by external threads that
+   * have not yet started executing.
+   */
+  public int getQueuedSubmissionCount() {
+    return this.pool.getQueuedSubmissionCount();
+  }
+
+  /**
+   * Returns the estimated number of tasks stolen between worker queues.
+   */
+  public long getStealCount() {
+    return this.pool.getStealCount();
+  }
+
+  /**
+   * Returns the ratio of active worker threads to the target parallelism;
+   * values at or above {@code 1.0} indicate a saturated pool.
+   */
+  public double getSaturation() {
+    return (double) this.pool.getActiveThreadCount() / (double) this.pool.getParallelism();
+  }
+
+  /**
+   * Returns the queue wait and run time statistics for every type of task
+   * executed by this theater, keyed by task type.
+   */
+  public Map<String, TaskProfile> getTaskProfiles() {
+    return Collections.unmodifiableMap(this.taskProfiles);
+  }
+
+  /**
+   * Discards all recorded task statistics.
+   */
+  public void resetTaskProfiles() {
+    final Iterator<TaskProfile> profiles = this.taskProfiles.values().iterator();
+    while (profiles.hasNext()) {
+      profiles.next().reset();
+    }
+  }
+}
@@ -0,0 +1,139 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.concurrent;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent histogram of nanosecond durations, with power of two bucket
+ * boundaries.  Recording a sample increments a single striped counter, so
+ * samples can be recorded from many threads with little contention.
+ * Quantiles are accurate to within a factor of two.
+ */
+public class LatencyHistogram {
+  /**
+   * Sample counts, indexed by the number of significant bits in the sampled
+   * duration; bucket {@code i} counts durations in the range
+   * {@code [2^(i-1), 2^i)}.
+   */
+  final LongAdder[] buckets;
+
+  /**
+   * Sum of all sampled durations.
+   */
+  final LongAdder totalNanos;
+
+  /**
+   * Longest sampled duration.
+   */
+  volatile long maxNanos;
+
+  public LatencyHistogram() {
+    this.buckets = new LongAdder[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i += 1) {
+      this.buckets[i] = new LongAdder();
+    }
+    this.totalNanos = new LongAdder();
+  }
+
+  /**
+   * Records a sampled duration of {@code nanos} nanoseconds.
+   */
+  public void record(long nanos) {
+    if (nanos < 0L) {
+      nanos = 0L;
+    }
+    this.buckets[64 - Long.numberOfLeadingZeros(nanos)].increment();
+    this.totalNanos.add(nanos);
+    long maxNanos;
+    do {
+      maxNanos = this.maxNanos;
+    } while (nanos > maxNanos && !MAX_NANOS.compareAndSet(this, maxNanos, nanos));
+  }
+
+  /**
+   * Returns the number of sampled durations.
+   */
+  public long count() {
+    long count = 0L;
+    for (int i = 0; i < BUCKET_COUNT; i += 1) {
+      count += this.buckets[i].sum();
+    }
+    return count;
+  }
+
+  /**
+   * Returns the sum of all sampled durations, in nanoseconds.
+   */
+  public long totalNanos() {
+    return this.totalNanos.sum();
+  }
+
+  /**
+   * Returns the longest sampled duration, in nanoseconds.
+   */
+  public long maxNanos() {
+    return this.maxNanos;
+  }
+
+  /**
+   * Returns the mean sampled duration, in nanoseconds; returns {@code 0} if
+   * no durations have been sampled.
+   */
+  public long meanNanos() {
+    final long count = count();
+    return count != 0L ? totalNanos() / count : 0L;
+  }
+
+  /**
+   * Returns an upper bound on the {@code quantile} fraction of sampled
+   * durations, in nanoseconds; returns {@code 0} if no durations have been
+   * sampled.
+   */
+  public long quantileNanos(double quantile) {
+    final long[] counts = new long[BUCKET_COUNT];
+    long count = 0L;
+    for (int i = 0; i < BUCKET_COUNT; i += 1) {
+      counts[i] = this.buckets[i].sum();
+      count += counts[i];
+    }
+    final long rank = (long) Math.ceil(quantile * count);
+    long seen = 0L;
+    for (int i = 0; i < BUCKET_COUNT; i += 1) {
+      seen += counts[i];
+      if (seen >= rank && counts[i] != 0L) {
+        return i < 63 ? (1L << i) - 1L : Long.MAX_VALUE;
+      }
+    }
+    return 0L;
+  }
+
+  /**
+   * Discards all sampled durations.
+   */
+  public void reset() {
+    for (int i = 0; i < BUCKET_COUNT; i += 1) {
+      this.buckets[i].reset();
+    }
+    this.totalNanos.reset();
+    this.maxNanos = 0L;
+  }
+
+  static final int BUCKET_COUNT = 65;
+
+  static final AtomicLongFieldUpdater<LatencyHistogram> MAX_NANOS =
+      AtomicLongFieldUpdater.newUpdater(LatencyHistogram.class, "maxNanos");
+}
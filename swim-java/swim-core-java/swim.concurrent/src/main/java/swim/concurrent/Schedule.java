@@ -33,4 +33,18 @@ public interface Schedule {
    * status of, reschedule, and cancel {@code timer}.
    */
   TimerRef setTimer(long millis, TimerFunction timer);
+
+  /**
+   * Schedules {@code timer} to execute after {@code millis} milliseconds
+   * have elapsed, permitting execution to be deferred by up to {@code
+   * slackMillis} additional milliseconds so that timers with nearby deadlines
+   * can be coalesced, and executed together.  Returns a {@code TimerRef} that
+   * can be used to check the status of, reschedule, and cancel {@code timer};
+   * rescheduling the timer retains its slack.  Schedules that don't coalesce
+   * timers ignore the slack, and execute {@code timer} after exactly {@code
+   * millis} milliseconds, as by {@link #setTimer(long, TimerFunction)}.
+   */
+  default TimerRef setTimer(long millis, long slackMillis, TimerFunction timer) {
+    return setTimer(millis, timer);
+  }
 }
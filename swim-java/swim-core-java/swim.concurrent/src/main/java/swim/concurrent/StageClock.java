@@ -16,7 +16,9 @@ package swim.concurrent;
 
 /**
  * {@link Clock} that invokes timer functions on an execution {@link Stage},
- * rather than on the clock thread.
+ * rather than on the clock thread.  Timers that fire during the same clock
+ * tick are dispatched to the stage in batches of up to {@link #batchSize}
+ * timers per task.
  */
 public class StageClock extends Clock {
   /**
@@ -24,23 +26,50 @@ public class StageClock extends Clock {
    */
   protected final Stage stage;
 
+  /**
+   * Maximum number of timers to execute in a single stage task.
+   */
+  protected final int batchSize;
+
+  /**
+   * Batch of timers fired during the current clock tick that have yet to be
+   * dispatched to the {@link #stage}; only accessed by the clock thread.
+   */
+  StageClockBatch batch;
+
   /**
    * Constructs a new {@code StageClock} with a timer resolution of {@code
    * tickMillis} milliseconds, and a clock period of {@code tickCount} ticks
-   * per revolution, that executes timer functions on the {@code stage}.
+   * per revolution, that executes timer functions on the {@code stage} in
+   * batches of up to {@code batchSize} timers per task.
    */
-  public StageClock(Stage stage, int tickMillis, int tickCount) {
+  public StageClock(Stage stage, int tickMillis, int tickCount, int batchSize) {
     super(tickMillis, tickCount);
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException(Integer.toString(batchSize));
+    }
     this.stage = stage;
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Constructs a new {@code StageClock} with a timer resolution of {@code
+   * tickMillis} milliseconds, and a clock period of {@code tickCount} ticks
+   * per revolution, that executes timer functions on the {@code stage} in
+   * batches of up to {@link #BATCH_SIZE} timers per task.
+   */
+  public StageClock(Stage stage, int tickMillis, int tickCount) {
+    this(stage, tickMillis, tickCount, BATCH_SIZE);
   }
 
   /**
    * Constructs a new {@code StageClock} with a timer resolution of {@link
    * #TICK_MILLIS} milliseconds, and a clock period of {@link #TICK_COUNT}
-   * ticks per revolution, that executes timer functions on the {@code stage}.
+   * ticks per revolution, that executes timer functions on the {@code stage}
+   * in batches of up to {@link #BATCH_SIZE} timers per task.
    */
   public StageClock(Stage stage) {
-    this(stage, TICK_MILLIS, TICK_COUNT);
+    this(stage, TICK_MILLIS, TICK_COUNT, BATCH_SIZE);
   }
 
   /**
@@ -52,10 +81,109 @@ public class StageClock extends Clock {
 
   /**
    * Schedules the {@code runnable} to invoke {@code timer.runTimer()}
-   * on the execution {@link #stage}.
+   * on the execution {@link #stage}, batched together with other timers
+   * that fire during the same clock tick.
    */
   @Override
   protected void runTimer(TimerFunction timer, Runnable runnable) {
-    this.stage.execute(runnable);
+    if (this.batchSize > 1) {
+      StageClockBatch batch = this.batch;
+      if (batch == null) {
+        batch = new StageClockBatch(this, this.batchSize);
+        this.batch = batch;
+      }
+      batch.add(timer, runnable);
+      if (batch.size == this.batchSize) {
+        this.batch = null;
+        this.stage.execute(batch);
+      }
+    } else {
+      this.stage.execute(runnable);
+    }
+  }
+
+  /**
+   * Schedules the partially filled batch of timers fired during the current
+   * clock tick, if any, to execute on the {@link #stage}.
+   */
+  @Override
+  protected void flushTimers() {
+    final StageClockBatch batch = this.batch;
+    if (batch != null) {
+      this.batch = null;
+      this.stage.execute(batch);
+    }
+  }
+
+  /**
+   * Default maximum number of timers to execute in a single stage task.
+   * Defaults to the value of the {@code swim.clock.batch.size} system
+   * property, if defined; otherwise defaults to {@code 64} timers per task.
+   */
+  public static final int BATCH_SIZE;
+
+  static {
+    // Initialize the default number of timers per stage task.
+    int batchSize;
+    try {
+      batchSize = Integer.parseInt(System.getProperty("swim.clock.batch.size"));
+    } catch (NumberFormatException e) {
+      batchSize = 64;
+    }
+    BATCH_SIZE = batchSize;
+  }
+}
+
+/**
+ * Stage task that executes a batch of timers fired during the same clock tick.
+ */
+final class StageClockBatch implements Runnable {
+  /**
+   * {@code StageClock} that fired the timers.
+   */
+  final StageClock clock;
+
+  /**
+   * Timer functions in the batch, used to report timer failures.
+   */
+  final TimerFunction[] timers;
+
+  /**
+   * Runnables that invoke the timer functions in the batch.
+   */
+  final Runnable[] runnables;
+
+  /**
+   * Number of timers in the batch.
+   */
+  int size;
+
+  StageClockBatch(StageClock clock, int capacity) {
+    this.clock = clock;
+    this.timers = new TimerFunction[capacity];
+    this.runnables = new Runnable[capacity];
+  }
+
+  void add(TimerFunction timer, Runnable runnable) {
+    final int index = this.size;
+    this.timers[index] = timer;
+    this.runnables[index] = runnable;
+    this.size = index + 1;
+  }
+
+  @Override
+  public void run() {
+    final int size = this.size;
+    for (int i = 0; i < size; i += 1) {
+      try {
+        this.runnables[i].run();
+      } catch (Throwable error) {
+        if (Conts.isNonFatal(error)) {
+          this.clock.timerDidFail(this.timers[i], error);
+        } else {
+          throw error;
+        }
+      }
+    }
   }
 }
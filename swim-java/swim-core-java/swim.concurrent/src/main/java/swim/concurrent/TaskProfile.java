@@ -0,0 +1,106 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.concurrent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Queue wait and run time statistics for a type of task executed by an
+ * {@link InstrumentedTheater}.  Accessors follow JavaBean conventions so
+ * that profiles can be exposed as JMX open data.
+ */
+public class TaskProfile {
+  final String type;
+  final LatencyHistogram waitTime;
+  final LatencyHistogram runTime;
+  final LongAdder failures;
+
+  public TaskProfile(String type) {
+    this.type = type;
+    this.waitTime = new LatencyHistogram();
+    this.runTime = new LatencyHistogram();
+    this.failures = new LongAdder();
+  }
+
+  public String getType() {
+    return this.type;
+  }
+
+  /**
+   * Returns the histogram of nanoseconds tasks of this type spent cued,
+   * waiting for a pool thread.
+   */
+  public LatencyHistogram waitTime() {
+    return this.waitTime;
+  }
+
+  /**
+   * Returns the histogram of nanoseconds tasks of this type spent running.
+   */
+  public LatencyHistogram runTime() {
+    return this.runTime;
+  }
+
+  public long getRunCount() {
+    return this.runTime.count();
+  }
+
+  public long getFailureCount() {
+    return this.failures.sum();
+  }
+
+  public long getMeanWaitNanos() {
+    return this.waitTime.meanNanos();
+  }
+
+  public long getP99WaitNanos() {
+    return this.waitTime.quantileNanos(0.99);
+  }
+
+  public long getMaxWaitNanos() {
+    return this.waitTime.maxNanos();
+  }
+
+  public long getTotalRunNanos() {
+    return this.runTime.totalNanos();
+  }
+
+  public long getMeanRunNanos() {
+    return this.runTime.meanNanos();
+  }
+
+  public long getP99RunNanos() {
+    return this.runTime.quantileNanos(0.99);
+  }
+
+  public long getMaxRunNanos() {
+    return this.runTime.maxNanos();
+  }
+
+  void didRun(long waitNanos, long runNanos) {
+    this.waitTime.record(waitNanos);
+    this.runTime.record(runNanos);
+  }
+
+  void didFail() {
+    this.failures.increment();
+  }
+
+  void reset() {
+    this.waitTime.reset();
+    this.runTime.reset();
+    this.failures.reset();
+  }
+}
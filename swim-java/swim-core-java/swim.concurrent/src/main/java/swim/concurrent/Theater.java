@@ -165,6 +165,12 @@ public class Theater implements Stage, Thread.UncaughtExceptionHandler {
     return this.schedule.setTimer(millis, timer);
   }
 
+  @Override
+  public TimerRef setTimer(long millis, long slackMillis, TimerFunction timer) {
+    start();
+    return this.schedule.setTimer(millis, slackMillis, timer);
+  }
+
   /**
    * Lifecycle callback invoked before the thread pool starts up.
    */
@@ -225,6 +231,26 @@ public class Theater implements Stage, Thread.UncaughtExceptionHandler {
     // stub
   }
 
+  /**
+   * Returns {@code true} if this {@code Theater} should measure how long cued
+   * tasks wait for, and run for, and report the measurements to {@link
+   * #taskDidMeasure(TaskFunction, long, long)}.  Returns {@code false} by
+   * default, to avoid reading the system clock on every task dispatch.
+   */
+  protected boolean isTimingTasks() {
+    return false;
+  }
+
+  /**
+   * Introspection callback invoked after a cued {@code task} has executed,
+   * with the number of nanoseconds the task waited between being cued and
+   * starting to run, and the number of nanoseconds the task ran for.  Only
+   * invoked when {@link #isTimingTasks()} returns {@code true}.
+   */
+  protected void taskDidMeasure(TaskFunction task, long waitNanos, long runNanos) {
+    // stub
+  }
+
   /**
    * Introspection callback invoked before a {@code cont} call is cued for
    * execution.
@@ -324,6 +350,12 @@ class TheaterTask implements TaskContext, Runnable, ForkJoinPool.ManagedBlocker
    */
   volatile int status;
 
+  /**
+   * {@code System.nanoTime()} at which the task was last submitted to the
+   * thread pool; only recorded when the theater is timing tasks.
+   */
+  long cueTime;
+
   TheaterTask(Theater theater, TaskFunction task) {
     this.theater = theater;
     this.task = task;
@@ -361,6 +393,9 @@ class TheaterTask implements TaskContext, Runnable, ForkJoinPool.ManagedBlocker
       if (this.task instanceof Task) {
         ((Task) this.task).taskWillCue();
       }
+      if (this.theater.isTimingTasks()) {
+        this.cueTime = System.nanoTime();
+      }
       this.theater.execute(this);
       return true;
     } else {
@@ -397,6 +432,8 @@ class TheaterTask implements TaskContext, Runnable, ForkJoinPool.ManagedBlocker
     } while (!STATUS.compareAndSet(this, oldStatus, newStatus));
 
     if ((oldStatus & CUED) != 0) {
+      final boolean timing = this.theater.isTimingTasks();
+      final long runTime = timing ? System.nanoTime() : 0L;
       this.theater.taskWillRun(this.task);
       try {
         if (this.task instanceof Task && ((Task) this.task).taskWillBlock()) {
@@ -408,6 +445,9 @@ class TheaterTask implements TaskContext, Runnable, ForkJoinPool.ManagedBlocker
       } catch (Throwable error) {
         this.theater.taskDidFail(this.task, error);
       }
+      if (timing) {
+        this.theater.taskDidMeasure(this.task, runTime - this.cueTime, System.nanoTime() - runTime);
+      }
     }
 
     do {
@@ -419,6 +459,9 @@ class TheaterTask implements TaskContext, Runnable, ForkJoinPool.ManagedBlocker
       if (this.task instanceof Task) {
         ((Task) this.task).taskWillCue();
       }
+      if (this.theater.isTimingTasks()) {
+        this.cueTime = System.nanoTime();
+      }
       this.theater.execute(this);
     }
   }
@@ -0,0 +1,112 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.concurrent;
+
+import java.util.concurrent.CyclicBarrier;
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class ConcurrentChunkQueueSpec {
+  @Test
+  public void pollEmptyQueue() {
+    final ConcurrentChunkQueue<String> queue = new ConcurrentChunkQueue<String>(4);
+    assertTrue(queue.isEmpty());
+    assertNull(queue.peek());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  public void pollValuesInOrderAcrossChunks() {
+    final ConcurrentChunkQueue<Integer> queue = new ConcurrentChunkQueue<Integer>(4);
+    for (int i = 0; i < 10; i += 1) {
+      queue.add(i);
+    }
+    assertFalse(queue.isEmpty());
+    for (int i = 0; i < 10; i += 1) {
+      assertEquals(queue.peek(), Integer.valueOf(i));
+      assertEquals(queue.poll(), Integer.valueOf(i));
+    }
+    assertTrue(queue.isEmpty());
+    assertNull(queue.poll());
+  }
+
+  @Test
+  public void interleaveAddsAndPolls() {
+    final ConcurrentChunkQueue<Integer> queue = new ConcurrentChunkQueue<Integer>(3);
+    int next = 0;
+    for (int i = 0; i < 100; i += 1) {
+      queue.add(2 * i);
+      queue.add(2 * i + 1);
+      assertEquals(queue.poll(), Integer.valueOf(next));
+      next += 1;
+    }
+    while (!queue.isEmpty()) {
+      assertEquals(queue.poll(), Integer.valueOf(next));
+      next += 1;
+    }
+    assertEquals(next, 200);
+  }
+
+  @Test
+  public void pollConcurrentlyAddedValues() throws Exception {
+    final int producerCount = 4;
+    final int valueCount = 10000;
+    final ConcurrentChunkQueue<Integer> queue = new ConcurrentChunkQueue<Integer>(16);
+    final CyclicBarrier barrier = new CyclicBarrier(producerCount);
+    final Thread[] producers = new Thread[producerCount];
+    for (int p = 0; p < producerCount; p += 1) {
+      final int producer = p;
+      producers[p] = new Thread() {
+        @Override
+        public void run() {
+          try {
+            barrier.await();
+            for (int i = 0; i < valueCount; i += 1) {
+              queue.add(producer * valueCount + i);
+            }
+          } catch (Exception error) {
+            throw new RuntimeException(error);
+          }
+        }
+      };
+      producers[p].start();
+    }
+    final int[] lastValues = new int[producerCount];
+    for (int p = 0; p < producerCount; p += 1) {
+      lastValues[p] = -1;
+    }
+    int received = 0;
+    while (received < producerCount * valueCount) {
+      final Integer value = queue.poll();
+      if (value != null) {
+        final int producer = value / valueCount;
+        final int index = value % valueCount;
+        // Values from each producer must be received in the order added.
+        assertEquals(index, lastValues[producer] + 1);
+        lastValues[producer] = index;
+        received += 1;
+      } else {
+        Thread.yield();
+      }
+    }
+    for (int p = 0; p < producerCount; p += 1) {
+      producers[p].join();
+    }
+    assertTrue(queue.isEmpty());
+  }
+}
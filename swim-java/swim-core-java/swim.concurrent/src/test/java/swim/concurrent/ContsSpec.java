@@ -0,0 +1,192 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.concurrent;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiFunction;
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class ContsSpec {
+  @Test
+  public void bindAllOfInComponentOrder() throws InterruptedException {
+    final TestTheater theater = new TestTheater();
+    try {
+      theater.start();
+      final Sync<List<String>> sync = new Sync<List<String>>();
+      final List<Cont<String>> parts = Conts.allOf(3, theater.call(sync));
+      parts.get(2).bind("c");
+      parts.get(0).bind("a");
+      parts.get(1).bind("b");
+      assertEquals(sync.await(1000L), Arrays.asList("a", "b", "c"));
+    } finally {
+      theater.stop();
+    }
+  }
+
+  @Test
+  public void trapAllOfWithFirstError() throws InterruptedException {
+    final Throwable error = new RuntimeException("first");
+    final Sync<List<String>> sync = new Sync<List<String>>();
+    final List<Cont<String>> parts = Conts.allOf(3, sync);
+    parts.get(0).bind("a");
+    parts.get(1).trap(error);
+    parts.get(2).trap(new RuntimeException("second"));
+    try {
+      sync.await(1000L);
+      fail();
+    } catch (Throwable cause) {
+      assertEquals(cause, error);
+    }
+  }
+
+  @Test
+  public void countEachAllOfComponentOnce() throws InterruptedException {
+    final Sync<List<String>> sync = new Sync<List<String>>();
+    final List<Cont<String>> parts = Conts.allOf(2, sync);
+    parts.get(0).bind("a");
+    parts.get(0).bind("b");
+    parts.get(0).trap(new RuntimeException());
+    assertFalse(sync.isReleasable());
+    parts.get(1).bind("c");
+    assertEquals(sync.await(1000L), Arrays.asList("a", "c"));
+  }
+
+  @Test
+  public void bindAllOfCalls() throws InterruptedException {
+    final TestTheater theater = new TestTheater();
+    try {
+      theater.start();
+      final Sync<String> sync0 = new Sync<String>();
+      final Sync<String> sync1 = new Sync<String>();
+      final Sync<List<String>> sync = new Sync<List<String>>();
+      final List<Call<String>> calls = Conts.allOf(Arrays.asList(theater.call(sync0), theater.call(sync1)),
+                                                   theater.call(sync));
+      assertTrue(calls.get(1).tryBind("b"));
+      assertFalse(calls.get(1).tryBind("x"));
+      calls.get(0).bind("a");
+      try {
+        calls.get(0).bind("y");
+        fail();
+      } catch (ContException expected) {
+        // already completed
+      }
+      assertEquals(sync.await(1000L), Arrays.asList("a", "b"));
+      assertEquals(sync0.await(1000L), "a");
+      assertEquals(sync1.await(1000L), "b");
+    } finally {
+      theater.stop();
+    }
+  }
+
+  @Test
+  public void bindEmptyAllOf() throws InterruptedException {
+    final Sync<List<String>> sync = new Sync<List<String>>();
+    assertTrue(Conts.allOf(0, sync).isEmpty());
+    assertTrue(sync.await(1000L).isEmpty());
+  }
+
+  @Test
+  public void bindAnyOfWithFirstValue() throws InterruptedException {
+    final Sync<String> sync = new Sync<String>();
+    final List<Cont<String>> any = Conts.anyOf(3, sync);
+    any.get(0).trap(new RuntimeException());
+    any.get(1).bind("b");
+    any.get(2).bind("c");
+    assertEquals(sync.await(1000L), "b");
+  }
+
+  @Test
+  public void trapAnyOfWhenAllFail() throws InterruptedException {
+    final Throwable error = new RuntimeException("last");
+    final Sync<String> sync = new Sync<String>();
+    final List<Cont<String>> any = Conts.anyOf(2, sync);
+    any.get(0).trap(new RuntimeException("first"));
+    any.get(0).trap(new RuntimeException("again"));
+    assertFalse(sync.isReleasable());
+    any.get(1).trap(error);
+    try {
+      sync.await(1000L);
+      fail();
+    } catch (Throwable cause) {
+      assertEquals(cause, error);
+    }
+  }
+
+  @Test
+  public void reduceConcurrentCompletions() throws InterruptedException {
+    final int count = 1000;
+    final TestTheater theater = new TestTheater();
+    try {
+      theater.start();
+      final Sync<Long> sync = new Sync<Long>();
+      final List<Cont<Integer>> sum = Conts.reduce(count, 0L, new BiFunction<Long, Integer, Long>() {
+        @Override
+        public Long apply(Long total, Integer value) {
+          return total + value;
+        }
+      }, theater.call(sync));
+      for (int i = 1; i <= count; i += 1) {
+        final int value = i;
+        theater.execute(new Runnable() {
+          @Override
+          public void run() {
+            sum.get(value - 1).bind(value);
+            sum.get(value - 1).bind(value);
+          }
+        });
+      }
+      assertEquals(sync.await(5000L), Long.valueOf((long) count * (count + 1) / 2));
+    } finally {
+      theater.stop();
+    }
+  }
+
+  @Test
+  public void trapTimeout() throws InterruptedException {
+    final TestTheater theater = new TestTheater();
+    try {
+      theater.start();
+      final Sync<String> sync = new Sync<String>();
+      Conts.timeout(theater, 100L, sync);
+      try {
+        sync.await(5000L);
+        fail();
+      } catch (ContException cause) {
+        assertFalse(cause instanceof SyncException);
+      }
+    } finally {
+      theater.stop();
+    }
+  }
+
+  @Test
+  public void bindBeforeTimeout() throws InterruptedException {
+    final TestTheater theater = new TestTheater();
+    try {
+      theater.start();
+      final Sync<String> sync = new Sync<String>();
+      final Cont<String> cont = Conts.timeout(theater, 1000L, sync);
+      cont.bind("done");
+      assertEquals(sync.await(5000L), "done");
+    } finally {
+      theater.stop();
+    }
+  }
+}
@@ -0,0 +1,70 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.concurrent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class InstrumentedTheaterSpec {
+  @Test
+  public void histogramQuantiles() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < 99; i += 1) {
+      histogram.record(100L);
+    }
+    histogram.record(100000L);
+    assertEquals(histogram.count(), 100L);
+    assertEquals(histogram.maxNanos(), 100000L);
+    assertEquals(histogram.totalNanos(), 99L * 100L + 100000L);
+    assertEquals(histogram.quantileNanos(0.5), 127L);
+    assertEquals(histogram.quantileNanos(0.99), 127L);
+    assertEquals(histogram.quantileNanos(1.0), 131071L);
+    histogram.reset();
+    assertEquals(histogram.count(), 0L);
+    assertEquals(histogram.quantileNanos(0.99), 0L);
+  }
+
+  @Test
+  public void profileTasksByType() throws InterruptedException {
+    final InstrumentedTheater theater = new InstrumentedTheater("InstrumentedTheaterSpec.profile");
+    final int runs = 100;
+    final CountDownLatch ran = new CountDownLatch(runs);
+    try {
+      theater.start();
+      final TaskRef task = theater.task(new AbstractTask() {
+        @Override
+        public void runTask() {
+          ran.countDown();
+        }
+      });
+      for (int i = 0; i < runs; i += 1) {
+        task.cue();
+        while (task.isCued()) {
+          Thread.yield();
+        }
+      }
+      assertTrue(ran.await(5, TimeUnit.SECONDS));
+    } finally {
+      theater.stop();
+    }
+    assertEquals(theater.getTaskProfiles().size(), 1);
+    final TaskProfile profile = theater.getTaskProfiles().values().iterator().next();
+    assertEquals(profile.getRunCount(), (long) runs);
+    assertEquals(profile.getFailureCount(), 0L);
+  }
+}
@@ -324,6 +324,147 @@ public class MockClockSpec {
     }
   }
 
+  @Test
+  public void scheduleATimerForSeveralOverflowRevolutionsInTheFuture() {
+    final MockClock clock = new MockClock(100, 4);
+    final CountDownLatch fire = new CountDownLatch(1);
+    try {
+      clock.start();
+      clock.setTimer(69L * 100L, new AbstractTimer() {
+        @Override
+        public void runTimer() {
+          assertEquals(clock.tick(), 69L);
+          assertEquals(fire.getCount(), 1);
+          fire.countDown();
+        }
+      });
+
+      clock.tick(68);
+      assertEquals(fire.getCount(), 1);
+
+      clock.tick(1);
+      clock.await(fire);
+    } finally {
+      clock.stop();
+    }
+  }
+
+  @Test
+  public void fireSameTickTimersInSchedulingOrderWhileTicking() throws InterruptedException {
+    final int schedulerCount = 4;
+    final int timerCount = 500;
+    final MockClock clock = new MockClock(100, 4);
+    final CountDownLatch fire = new CountDownLatch(schedulerCount * timerCount);
+    final int[] fired = new int[schedulerCount];
+    final Thread[] schedulers = new Thread[schedulerCount];
+    try {
+      clock.start();
+      for (int i = 0; i < schedulerCount; i += 1) {
+        final int scheduler = i;
+        schedulers[i] = new Thread() {
+          @Override
+          public void run() {
+            for (int j = 0; j < timerCount; j += 1) {
+              final int sequence = j;
+              // Schedule across overflow revolutions while the clock ticks.
+              clock.setTimer(50L * 100L, new AbstractTimer() {
+                @Override
+                public void runTimer() {
+                  assertEquals(fired[scheduler], sequence);
+                  fired[scheduler] = sequence + 1;
+                  fire.countDown();
+                }
+              });
+              if (j % 50 == 0) {
+                Thread.yield();
+              }
+            }
+          }
+        };
+        schedulers[i].start();
+      }
+      boolean scheduling;
+      do {
+        clock.tick(1);
+        scheduling = false;
+        for (int i = 0; i < schedulerCount; i += 1) {
+          scheduling = scheduling || schedulers[i].isAlive();
+        }
+      } while (scheduling);
+
+      clock.tick(60);
+      clock.await(fire, 5000);
+      for (int i = 0; i < schedulerCount; i += 1) {
+        assertEquals(fired[i], timerCount);
+      }
+    } finally {
+      for (int i = 0; i < schedulerCount; i += 1) {
+        if (schedulers[i] != null) {
+          schedulers[i].join();
+        }
+      }
+      clock.stop();
+    }
+  }
+
+  @Test
+  public void reclaimCancelledOverflowTimers() {
+    final MockClock clock = new MockClock(100, 4);
+    try {
+      clock.start();
+      for (int i = 0; i < 1000; i += 1) {
+        final TimerRef timer = clock.setTimer(50L * 100L, new AbstractTimer() {
+          @Override
+          public void runTimer() {
+            fail();
+          }
+        });
+        timer.cancel();
+      }
+      assertEquals(clock.eventCount.sum(), 1000L);
+
+      clock.tick(1);
+      clock.halfTick();
+      assertTrue(clock.eventCount.sum() <= 1L);
+      clock.halfTick();
+
+      clock.tick(50);
+    } finally {
+      clock.stop();
+    }
+  }
+
+  @Test
+  public void coalesceTimersWithSlack() {
+    final MockClock clock = new MockClock(100, 512);
+    final CountDownLatch fire = new CountDownLatch(2);
+    try {
+      clock.start();
+      clock.setTimer(100L, 300L, new AbstractTimer() {
+        @Override
+        public void runTimer() {
+          assertEquals(clock.tick(), 4L);
+          fire.countDown();
+        }
+      });
+      clock.setTimer(300L, 300L, new AbstractTimer() {
+        @Override
+        public void runTimer() {
+          assertEquals(clock.tick(), 4L);
+          fire.countDown();
+        }
+      });
+
+      clock.tick(3);
+      assertEquals(fire.getCount(), 2);
+
+      clock.tick(1);
+      clock.await(fire);
+    } finally {
+      clock.stop();
+    }
+  }
+
   @Test
   public void scheduleATimerForPastTime() {
     final MockClock clock = new MockClock(100, 512);
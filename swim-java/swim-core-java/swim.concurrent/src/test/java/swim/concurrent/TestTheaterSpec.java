@@ -259,6 +259,27 @@ public class TestTheaterSpec {
     }
   }
 
+  @Test
+  public void runBatchedTimers() {
+    final TestTheater theater = new TestTheater();
+    final int timerCount = 1000;
+    final CountDownLatch fire = new CountDownLatch(timerCount);
+    try {
+      theater.start();
+      for (int i = 0; i < timerCount; i += 1) {
+        theater.setTimer(10L, 10L, new AbstractTimer() {
+          @Override
+          public void runTimer() {
+            fire.countDown();
+          }
+        });
+      }
+      theater.await(fire);
+    } finally {
+      theater.stop();
+    }
+  }
+
   @Test
   public void bindContCall() {
     final TestTheater theater = new TestTheater();
@@ -0,0 +1,391 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+/**
+ * Annotation processor that generates lane and agent type registries for
+ * Web Agent classes at compile time, so that the runtime can materialize
+ * agents and planes without reflecting on their fields.
+ * <p>
+ * For every agent class that declares {@code @SwimLane} fields, the processor
+ * generates a {@code <Class>_SwimLanes} class, in the same package, whose
+ * static {@code laneAccessors()} method returns one {@code AgentLaneAccessor}
+ * per lane field.  For every plane class that declares {@code @SwimAgent} or
+ * {@code @SwimRoute} fields, the processor generates a {@code
+ * <Class>_SwimAgentTypes} class whose static {@code agentTypeAccessors()}
+ * method returns one {@code AgentTypeAccessor} per {@code AgentType} field.
+ * Nested class names are flattened by replacing {@code $} with {@code _}.
+ * <p>
+ * Registries are an optimization, not a requirement: classes whose fields
+ * can't be accessed from generated code, such as classes with private lane
+ * fields, get no registry, and the runtime falls back to reflection for them.
+ * The processor reports a note diagnostic on each private field that
+ * prevents a registry from being generated.
+ */
+public class SwimProcessor extends AbstractProcessor {
+  final Set<String> generatedNames;
+
+  public SwimProcessor() {
+    this.generatedNames = new HashSet<String>();
+  }
+
+  @Override
+  public Set<String> getSupportedAnnotationTypes() {
+    final Set<String> annotationTypes = new LinkedHashSet<String>();
+    annotationTypes.add(SWIM_LANE);
+    annotationTypes.add(SWIM_AGENT);
+    annotationTypes.add(SWIM_ROUTE);
+    return annotationTypes;
+  }
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    final Set<TypeElement> agentClasses = new LinkedHashSet<TypeElement>();
+    final Set<TypeElement> planeClasses = new LinkedHashSet<TypeElement>();
+    for (TypeElement annotation : annotations) {
+      final String annotationName = annotation.getQualifiedName().toString();
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element.getKind() == ElementKind.FIELD) {
+          final Element enclosingElement = element.getEnclosingElement();
+          if (enclosingElement instanceof TypeElement) {
+            if (SWIM_LANE.equals(annotationName)) {
+              agentClasses.add((TypeElement) enclosingElement);
+            } else {
+              planeClasses.add((TypeElement) enclosingElement);
+            }
+          }
+        }
+      }
+    }
+    for (TypeElement agentClass : agentClasses) {
+      generateLaneRegistry(agentClass);
+    }
+    for (TypeElement planeClass : planeClasses) {
+      generateAgentTypeRegistry(planeClass);
+    }
+    return false;
+  }
+
+  void generateLaneRegistry(TypeElement agentClass) {
+    final Elements elements = this.processingEnv.getElementUtils();
+    final Types types = this.processingEnv.getTypeUtils();
+    final TypeElement agentElement = elements.getTypeElement(AGENT);
+    final TypeElement laneElement = elements.getTypeElement(LANE);
+    if (agentElement == null || laneElement == null || elements.getTypeElement(AGENT_LANE_ACCESSOR) == null
+        || !isAccessible(agentClass)
+        || !types.isAssignable(types.erasure(agentClass.asType()), types.erasure(agentElement.asType()))) {
+      return;
+    }
+    final String agentName = agentClass.getQualifiedName().toString();
+    final TypeMirror laneType = types.erasure(laneElement.asType());
+
+    final StringBuilder accessors = new StringBuilder();
+    for (Element member : agentClass.getEnclosedElements()) {
+      if (member.getKind() != ElementKind.FIELD) {
+        continue;
+      }
+      final VariableElement field = (VariableElement) member;
+      final AnnotationMirror swimLane = annotationMirror(field, SWIM_LANE);
+      final TypeMirror fieldType = field.asType();
+      if (swimLane == null || !types.isAssignable(types.erasure(fieldType), laneType)) {
+        continue;
+      }
+      if (field.getModifiers().contains(Modifier.PRIVATE)) {
+        noteReflectionFallback(field, "private lane field " + field.getSimpleName(), agentName);
+        return;
+      }
+      final String fieldTypeName = typeName(types.erasure(fieldType));
+      if (fieldTypeName == null) {
+        return;
+      }
+
+      String laneTypeLiteral = "null";
+      String argumentsLiteral = "null";
+      if (fieldType.getKind() == TypeKind.DECLARED) {
+        final List<? extends TypeMirror> typeArguments = ((DeclaredType) fieldType).getTypeArguments();
+        if (!typeArguments.isEmpty()) {
+          laneTypeLiteral = fieldTypeName + ".class";
+          final StringBuilder arguments = new StringBuilder("new java.lang.reflect.Type[] {");
+          for (int i = 0, n = typeArguments.size(); i < n; i += 1) {
+            if (i > 0) {
+              arguments.append(", ");
+            }
+            final TypeMirror typeArgument = typeArguments.get(i);
+            if (isClassType(typeArgument)) {
+              final String typeArgumentName = typeName(typeArgument);
+              if (typeArgumentName == null) {
+                return;
+              }
+              arguments.append(typeArgumentName).append(".class");
+            } else {
+              arguments.append("null");
+            }
+          }
+          argumentsLiteral = arguments.append('}').toString();
+        }
+      }
+
+      final String fieldName = field.getSimpleName().toString();
+      final String fieldRef = (field.getModifiers().contains(Modifier.STATIC) ? agentName : "agent") + '.' + fieldName;
+      final String laneUri = elements.getConstantExpression(annotationValue(swimLane, "value"));
+      final AnnotationMirror swimResident = annotationMirror(field, SWIM_RESIDENT);
+      final AnnotationMirror swimTransient = annotationMirror(field, SWIM_TRANSIENT);
+
+      accessors.append("      new ").append(AGENT_LANE_ACCESSOR).append('<').append(agentName).append(">(")
+               .append(laneUri).append(", ").append(laneTypeLiteral).append(", ").append(argumentsLiteral).append(", ")
+               .append(booleanLiteral(swimResident)).append(", ").append(booleanLiteral(swimTransient)).append(") {\n")
+               .append("        @Override\n")
+               .append("        public Object getLane(").append(agentName).append(" agent) {\n")
+               .append("          return ").append(fieldRef).append(";\n")
+               .append("        }\n")
+               .append("        @Override\n")
+               .append("        public void setLane(").append(agentName).append(" agent, Object lane) {\n");
+      if (field.getModifiers().contains(Modifier.FINAL)) {
+        accessors.append("          throw new swim.api.agent.AgentException(")
+                 .append(elements.getConstantExpression("final lane field " + fieldName + " of " + agentName
+                                                        + " must be initialized"))
+                 .append(");\n");
+      } else {
+        accessors.append("          ").append(fieldRef).append(" = (").append(fieldTypeName).append(") lane;\n");
+      }
+      accessors.append("        }\n")
+               .append("      },\n");
+    }
+
+    final StringBuilder body = new StringBuilder();
+    body.append("  @SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+        .append("  public static ").append(AGENT_LANE_ACCESSOR).append("<?>[] laneAccessors() {\n")
+        .append("    return new ").append(AGENT_LANE_ACCESSOR).append("<?>[] {\n")
+        .append(accessors)
+        .append("    };\n")
+        .append("  }\n");
+    writeRegistry(agentClass, LANE_REGISTRY_SUFFIX, body.toString());
+  }
+
+  void generateAgentTypeRegistry(TypeElement planeClass) {
+    final Elements elements = this.processingEnv.getElementUtils();
+    final Types types = this.processingEnv.getTypeUtils();
+    final TypeElement planeElement = elements.getTypeElement(PLANE);
+    final TypeElement agentTypeElement = elements.getTypeElement(AGENT_TYPE);
+    if (planeElement == null || agentTypeElement == null || elements.getTypeElement(AGENT_TYPE_ACCESSOR) == null
+        || !isAccessible(planeClass)
+        || !types.isAssignable(types.erasure(planeClass.asType()), types.erasure(planeElement.asType()))) {
+      return;
+    }
+    final String planeName = planeClass.getQualifiedName().toString();
+    final TypeMirror agentType = types.erasure(agentTypeElement.asType());
+
+    final StringBuilder accessors = new StringBuilder();
+    for (Element member : planeClass.getEnclosedElements()) {
+      if (member.getKind() != ElementKind.FIELD
+          || !types.isAssignable(types.erasure(member.asType()), agentType)) {
+        continue;
+      }
+      if (member.getModifiers().contains(Modifier.PRIVATE)) {
+        noteReflectionFallback(member, "private agent type field " + member.getSimpleName(), planeName);
+        return;
+      }
+      final AnnotationMirror swimAgent = annotationMirror(member, SWIM_AGENT);
+      final AnnotationMirror swimRoute = annotationMirror(member, SWIM_ROUTE);
+      final String agentName = swimAgent != null ? elements.getConstantExpression(annotationValue(swimAgent, "name")) : "null";
+      final String agentRoute = swimRoute != null ? elements.getConstantExpression(annotationValue(swimRoute, "value")) : "null";
+      final String fieldRef = (member.getModifiers().contains(Modifier.STATIC) ? planeName : "plane")
+                            + '.' + member.getSimpleName();
+
+      accessors.append("      new ").append(AGENT_TYPE_ACCESSOR).append('<').append(planeName).append(">(")
+               .append(agentName).append(", ").append(agentRoute).append(") {\n")
+               .append("        @Override\n")
+               .append("        public swim.api.agent.AgentType<?> getAgentType(").append(planeName).append(" plane) {\n")
+               .append("          return ").append(fieldRef).append(";\n")
+               .append("        }\n")
+               .append("      },\n");
+    }
+
+    final StringBuilder body = new StringBuilder();
+    body.append("  @SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+        .append("  public static ").append(AGENT_TYPE_ACCESSOR).append("<?>[] agentTypeAccessors() {\n")
+        .append("    return new ").append(AGENT_TYPE_ACCESSOR).append("<?>[] {\n")
+        .append(accessors)
+        .append("    };\n")
+        .append("  }\n");
+    writeRegistry(planeClass, AGENT_TYPE_REGISTRY_SUFFIX, body.toString());
+  }
+
+  /**
+   * Reports that the class named {@code typeName} gets no generated registry
+   * because of the inaccessible {@code what} at {@code element}, so that
+   * authors can see which classes fall back to runtime reflection.
+   */
+  void noteReflectionFallback(Element element, String what, String typeName) {
+    this.processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+        "no registry generated for " + typeName + " because of " + what
+        + "; falling back to reflection", element);
+  }
+
+  void writeRegistry(TypeElement type, String suffix, String body) {
+    final Elements elements = this.processingEnv.getElementUtils();
+    final String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+    final String binaryName = elements.getBinaryName(type).toString();
+    final String registryName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1)
+                                          .replace('$', '_') + suffix;
+    final String qualifiedName = packageName.isEmpty() ? registryName : packageName + '.' + registryName;
+    if (!this.generatedNames.add(qualifiedName)) {
+      return;
+    }
+
+    final StringBuilder source = new StringBuilder();
+    source.append("// Generated by ").append(SwimProcessor.class.getName()).append(" from ")
+          .append(type.getQualifiedName()).append("; do not edit.\n\n");
+    if (!packageName.isEmpty()) {
+      source.append("package ").append(packageName).append(";\n\n");
+    }
+    source.append("public final class ").append(registryName).append(" {\n")
+          .append("  private ").append(registryName).append("() {\n")
+          .append("    // nop\n")
+          .append("  }\n\n")
+          .append(body)
+          .append("}\n");
+
+    try (Writer writer = this.processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+      writer.write(source.toString());
+    } catch (IOException cause) {
+      this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "failed to generate " + qualifiedName + ": " + cause.getMessage(), type);
+    }
+  }
+
+  /**
+   * Returns {@code true} if generated code in the package of {@code type} can
+   * name {@code type}.
+   */
+  static boolean isAccessible(TypeElement type) {
+    Element element = type;
+    while (element instanceof TypeElement) {
+      final TypeElement typeElement = (TypeElement) element;
+      final NestingKind nestingKind = typeElement.getNestingKind();
+      if (nestingKind != NestingKind.TOP_LEVEL && nestingKind != NestingKind.MEMBER
+          || typeElement.getModifiers().contains(Modifier.PRIVATE)) {
+        return false;
+      }
+      element = typeElement.getEnclosingElement();
+    }
+    return true;
+  }
+
+  /**
+   * Returns {@code true} if {@code type} reflects as a plain {@code Class},
+   * rather than as a parameterized, wildcard, or type variable type.
+   */
+  static boolean isClassType(TypeMirror type) {
+    if (type.getKind() == TypeKind.DECLARED) {
+      return ((DeclaredType) type).getTypeArguments().isEmpty();
+    } else if (type.getKind() == TypeKind.ARRAY) {
+      return isClassType(((ArrayType) type).getComponentType());
+    } else {
+      return type.getKind().isPrimitive();
+    }
+  }
+
+  /**
+   * Returns the source name of the erased {@code type}, or {@code null} if
+   * {@code type} can't be named from generated code.
+   */
+  static String typeName(TypeMirror type) {
+    if (type.getKind() == TypeKind.DECLARED) {
+      final TypeElement typeElement = (TypeElement) ((DeclaredType) type).asElement();
+      return isAccessible(typeElement) ? typeElement.getQualifiedName().toString() : null;
+    } else if (type.getKind() == TypeKind.ARRAY) {
+      final String componentName = typeName(((ArrayType) type).getComponentType());
+      return componentName != null ? componentName + "[]" : null;
+    } else if (type.getKind().isPrimitive()) {
+      return type.toString();
+    }
+    return null;
+  }
+
+  static AnnotationMirror annotationMirror(Element element, String annotationName) {
+    for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+      final TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+      if (annotationType.getQualifiedName().contentEquals(annotationName)) {
+        return annotation;
+      }
+    }
+    return null;
+  }
+
+  Object annotationValue(AnnotationMirror annotation, String name) {
+    final Map<? extends ExecutableElement, ? extends AnnotationValue> values =
+        this.processingEnv.getElementUtils().getElementValuesWithDefaults(annotation);
+    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : values.entrySet()) {
+      if (entry.getKey().getSimpleName().contentEquals(name)) {
+        return entry.getValue().getValue();
+      }
+    }
+    return null;
+  }
+
+  String booleanLiteral(AnnotationMirror annotation) {
+    if (annotation != null) {
+      return Boolean.TRUE.equals(annotationValue(annotation, "value")) ? "Boolean.TRUE" : "Boolean.FALSE";
+    }
+    return "null";
+  }
+
+  static final String SWIM_LANE = "swim.api.SwimLane";
+  static final String SWIM_AGENT = "swim.api.SwimAgent";
+  static final String SWIM_ROUTE = "swim.api.SwimRoute";
+  static final String SWIM_RESIDENT = "swim.api.SwimResident";
+  static final String SWIM_TRANSIENT = "swim.api.SwimTransient";
+  static final String AGENT = "swim.api.agent.Agent";
+  static final String AGENT_TYPE = "swim.api.agent.AgentType";
+  static final String LANE = "swim.api.lane.Lane";
+  static final String PLANE = "swim.api.plane.Plane";
+  static final String AGENT_LANE_ACCESSOR = "swim.runtime.agent.AgentLaneAccessor";
+  static final String AGENT_TYPE_ACCESSOR = "swim.server.AgentTypeAccessor";
+  static final String LANE_REGISTRY_SUFFIX = "_SwimLanes";
+  static final String AGENT_TYPE_REGISTRY_SUFFIX = "_SwimAgentTypes";
+}
@@ -0,0 +1,276 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class SwimProcessorSpec {
+  static final String[] STUBS = {
+    "package swim.api; public @interface SwimLane { String value(); }",
+    "package swim.api; public @interface SwimAgent { String name() default \"\"; }",
+    "package swim.api; public @interface SwimRoute { String value(); }",
+    "package swim.api; public @interface SwimResident { boolean value() default true; }",
+    "package swim.api; public @interface SwimTransient { boolean value() default true; }",
+    "package swim.api.agent; public interface Agent { }",
+    "package swim.api.agent; public interface AgentType<A extends Agent> { }",
+    "package swim.api.agent; public class AgentException extends RuntimeException { "
+        + "public AgentException(String message) { super(message); } }",
+    "package swim.api.lane; public interface Lane { }",
+    "package swim.api.lane; public interface ValueLane<V> extends Lane { }",
+    "package swim.api.lane; public interface MapLane<K, V> extends Lane { }",
+    "package swim.api.plane; public interface Plane { }",
+    "package swim.runtime.agent; public abstract class AgentLaneAccessor<A extends swim.api.agent.Agent> { "
+        + "protected AgentLaneAccessor(String laneUri, Class<?> laneType, java.lang.reflect.Type[] arguments, "
+        + "Boolean isResident, Boolean isTransient) { } "
+        + "public abstract Object getLane(A agent); public abstract void setLane(A agent, Object lane); }",
+    "package swim.server; public abstract class AgentTypeAccessor<P extends swim.api.plane.Plane> { "
+        + "protected AgentTypeAccessor(String agentName, String agentRoute) { } "
+        + "public abstract swim.api.agent.AgentType<?> getAgentType(P plane); }",
+  };
+
+  static List<Diagnostic<? extends JavaFileObject>> compile(Path outputDir, String... sources) throws IOException {
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    final List<JavaFileObject> units = new ArrayList<JavaFileObject>();
+    for (String source : STUBS) {
+      units.add(new SourceFile(source));
+    }
+    for (String source : sources) {
+      units.add(new SourceFile(source));
+    }
+    final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+    final List<String> options = Arrays.asList("-proc:only", "-s", outputDir.toString());
+    final JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null, units);
+    task.setProcessors(Collections.singletonList(new SwimProcessor()));
+    assertTrue(task.call(), diagnostics.getDiagnostics().toString());
+    return diagnostics.getDiagnostics();
+  }
+
+  /**
+   * Compiles {@code sources} against the real swim classes on the test class
+   * path, with the processor enabled, and loads the compiled classes, and
+   * their generated registries, into a new class loader.
+   */
+  static ClassLoader compileAndLoad(Path outputDir, String... sources) throws IOException {
+    final Path classDir = Files.createDirectories(outputDir.resolve("classes"));
+    final Path sourceDir = Files.createDirectories(outputDir.resolve("sources"));
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    final List<JavaFileObject> units = new ArrayList<JavaFileObject>();
+    for (String source : sources) {
+      units.add(new SourceFile(source));
+    }
+    // Tests run on the class path, or, when modular, on the module path.
+    final String classPath = System.getProperty("java.class.path", "") + File.pathSeparator
+                           + System.getProperty("jdk.module.path", "");
+    final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+    final List<String> options = Arrays.asList("-classpath", classPath, "-d", classDir.toString(),
+                                               "-s", sourceDir.toString());
+    final JavaCompiler.CompilationTask task = compiler.getTask(null, null, diagnostics, options, null, units);
+    task.setProcessors(Collections.singletonList(new SwimProcessor()));
+    assertTrue(task.call(), diagnostics.getDiagnostics().toString());
+    return new URLClassLoader(new URL[] {classDir.toUri().toURL()}, SwimProcessorSpec.class.getClassLoader());
+  }
+
+  static Object invokeStatic(String className, String methodName, Class<?> argumentType, Object argument) {
+    try {
+      final Method method = Class.forName(className).getDeclaredMethod(methodName, argumentType);
+      method.setAccessible(true);
+      return method.invoke(null, argument);
+    } catch (ReflectiveOperationException cause) {
+      throw new AssertionError(cause);
+    }
+  }
+
+  static Object[] laneFields(Class<?> agentClass) {
+    try {
+      final Field field = Class.forName("swim.runtime.agent.AgentClass").getDeclaredField("LANE_FIELDS");
+      field.setAccessible(true);
+      return (Object[]) ((ClassValue<?>) field.get(null)).get(agentClass);
+    } catch (ReflectiveOperationException cause) {
+      throw new AssertionError(cause);
+    }
+  }
+
+  static String generated(Path outputDir, String name) throws IOException {
+    final Path path = outputDir.resolve(name.replace('.', '/') + ".java");
+    return Files.exists(path) ? new String(Files.readAllBytes(path), StandardCharsets.UTF_8) : null;
+  }
+
+  @Test
+  public void generateLaneRegistries() throws IOException {
+    final Path outputDir = Files.createTempDirectory("swim-processor");
+    compile(outputDir,
+        "package demo;\n"
+      + "import swim.api.*; import swim.api.lane.*;\n"
+      + "public class DemoAgent implements swim.api.agent.Agent {\n"
+      + "  @SwimLane(\"value\") @SwimResident ValueLane<String> value;\n"
+      + "  @SwimLane(\"map\") protected final MapLane<String, java.util.List<Integer>> map = null;\n"
+      + "  public static class Inner extends DemoAgent {\n"
+      + "    @SwimLane(\"inner/\\\"lane\\\"\") @SwimTransient(false) ValueLane<int[]> inner;\n"
+      + "  }\n"
+      + "}\n");
+
+    final String outer = generated(outputDir, "demo.DemoAgent_SwimLanes");
+    assertTrue(outer.contains("public static swim.runtime.agent.AgentLaneAccessor<?>[] laneAccessors()"));
+    assertTrue(outer.contains("(\"value\", swim.api.lane.ValueLane.class, "
+                            + "new java.lang.reflect.Type[] {java.lang.String.class}, Boolean.TRUE, null)"));
+    assertTrue(outer.contains("agent.value = (swim.api.lane.ValueLane) lane;"));
+    assertTrue(outer.contains("(\"map\", swim.api.lane.MapLane.class, "
+                            + "new java.lang.reflect.Type[] {java.lang.String.class, null}, null, null)"));
+    assertTrue(outer.contains("throw new swim.api.agent.AgentException("));
+    assertFalse(outer.contains("agent.inner"));
+
+    final String inner = generated(outputDir, "demo.DemoAgent_Inner_SwimLanes");
+    assertTrue(inner.contains("AgentLaneAccessor<demo.DemoAgent.Inner>(\"inner/\\\"lane\\\"\", swim.api.lane.ValueLane.class, "
+                            + "new java.lang.reflect.Type[] {int[].class}, null, Boolean.FALSE)"));
+  }
+
+  @Test
+  public void skipClassesWithPrivateLaneFields() throws IOException {
+    final Path outputDir = Files.createTempDirectory("swim-processor");
+    final List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(outputDir,
+        "package demo;\n"
+      + "import swim.api.*; import swim.api.lane.*;\n"
+      + "public class HiddenAgent implements swim.api.agent.Agent {\n"
+      + "  @SwimLane(\"visible\") ValueLane<String> visible;\n"
+      + "  @SwimLane(\"hidden\") private ValueLane<String> hidden;\n"
+      + "}\n");
+    assertEquals(generated(outputDir, "demo.HiddenAgent_SwimLanes"), null);
+    boolean noted = false;
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+      if (diagnostic.getKind() == Diagnostic.Kind.NOTE
+          && diagnostic.getMessage(null).contains("private lane field hidden")) {
+        noted = true;
+      }
+    }
+    assertTrue(noted, diagnostics.toString());
+  }
+
+  @Test
+  public void generateAgentTypeRegistries() throws IOException {
+    final Path outputDir = Files.createTempDirectory("swim-processor");
+    compile(outputDir,
+        "package demo;\n"
+      + "import swim.api.*; import swim.api.agent.*;\n"
+      + "public class DemoPlane implements swim.api.plane.Plane {\n"
+      + "  @SwimAgent(name = \"demo\") @SwimRoute(\"/demo/:id\") AgentType<?> demo;\n"
+      + "  static AgentType<?> other;\n"
+      + "}\n");
+
+    final String plane = generated(outputDir, "demo.DemoPlane_SwimAgentTypes");
+    assertTrue(plane.contains("public static swim.server.AgentTypeAccessor<?>[] agentTypeAccessors()"));
+    assertTrue(plane.contains("AgentTypeAccessor<demo.DemoPlane>(\"demo\", \"/demo/:id\")"));
+    assertTrue(plane.contains("return plane.demo;"));
+    assertTrue(plane.contains("AgentTypeAccessor<demo.DemoPlane>(null, null)"));
+    assertTrue(plane.contains("return demo.DemoPlane.other;"));
+  }
+
+  @Test
+  public void loadGeneratedRegistriesAtRuntime() throws IOException, ReflectiveOperationException {
+    final Path outputDir = Files.createTempDirectory("swim-processor");
+    final ClassLoader classLoader = compileAndLoad(outputDir,
+        "package demo;\n"
+      + "import swim.api.*; import swim.api.agent.*; import swim.api.lane.*;\n"
+      + "public class DemoAgent extends AbstractAgent {\n"
+      + "  @SwimLane(\"value\") ValueLane<String> value;\n"
+      + "  @SwimLane(\"map\") MapLane<String, Integer> map;\n"
+      + "}\n",
+        "package demo;\n"
+      + "import swim.api.*; import swim.api.agent.*; import swim.api.lane.*;\n"
+      + "public class HiddenAgent extends AbstractAgent {\n"
+      + "  @SwimLane(\"hidden\") private ValueLane<String> hidden;\n"
+      + "}\n",
+        "package demo;\n"
+      + "import swim.api.*; import swim.api.agent.*; import swim.api.plane.*;\n"
+      + "public class DemoPlane extends AbstractPlane {\n"
+      + "  @SwimRoute(\"/demo/:id\") AgentType<?> demo;\n"
+      + "}\n");
+    final Class<?> demoAgent = classLoader.loadClass("demo.DemoAgent");
+    final Class<?> hiddenAgent = classLoader.loadClass("demo.HiddenAgent");
+    final Class<?> demoPlane = classLoader.loadClass("demo.DemoPlane");
+
+    // AgentClass resolves the generated lane registry, and caches its accessors.
+    final Object[] generatedLaneFields = (Object[]) invokeStatic("swim.runtime.agent.AgentClass",
+        "generatedLaneFields", Class.class, demoAgent);
+    assertEquals(generatedLaneFields.length, 2);
+    final Object[] demoLaneFields = laneFields(demoAgent);
+    assertEquals(demoLaneFields.length, 2);
+    for (int i = 0; i < demoLaneFields.length; i += 1) {
+      assertTrue(demoLaneFields[i].getClass().getName().startsWith("demo.DemoAgent_SwimLanes$"),
+                 demoLaneFields[i].getClass().getName());
+    }
+
+    // Classes without a registry fall back to reflected lane fields.
+    assertEquals(invokeStatic("swim.runtime.agent.AgentClass", "generatedLaneFields", Class.class, hiddenAgent), null);
+    final Object[] hiddenLaneFields = laneFields(hiddenAgent);
+    assertEquals(hiddenLaneFields.length, 1);
+    assertEquals(hiddenLaneFields[0].getClass().getName(), "swim.runtime.agent.AgentLaneField");
+
+    // ServerPlane resolves the generated agent type registry.
+    final Object[] agentTypeFields = (Object[]) invokeStatic("swim.server.ServerPlane",
+        "generatedAgentTypeFields", Class.class, demoPlane);
+    assertEquals(agentTypeFields.length, 1);
+    assertTrue(agentTypeFields[0].getClass().getName().startsWith("demo.DemoPlane_SwimAgentTypes$"));
+  }
+
+  static final class SourceFile extends SimpleJavaFileObject {
+    final String source;
+
+    SourceFile(String source) {
+      super(URI.create("string:///" + className(source).replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+      this.source = source;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return this.source;
+    }
+
+    static String className(String source) {
+      final Matcher packageMatcher = PACKAGE.matcher(source);
+      final Matcher typeMatcher = TYPE.matcher(source);
+      packageMatcher.find();
+      typeMatcher.find();
+      return packageMatcher.group(1) + '.' + typeMatcher.group(1);
+    }
+
+    static final Pattern PACKAGE = Pattern.compile("package\\s+([\\w.]+)");
+    static final Pattern TYPE = Pattern.compile("(?:class|interface)\\s+(\\w+)");
+  }
+}
@@ -370,7 +370,10 @@ public class RemoteHost extends AbstractTierBinding implements HostBinding, Warp
         absoluteUri = Uri.from(relativeUri.scheme(), UriAuthority.undefined(),
             absoluteUri.path(), absoluteUri.query(), absoluteUri.fragment());
       }
-      absoluteUri = this.resolveCache.put(relativeUri, absoluteUri);
+      // Share the canonical instance, which is the relative URI itself when
+      // resolution leaves it unchanged, so that re-addressing envelopes with
+      // the resolved URI doesn't copy them.
+      absoluteUri = this.resolveCache.put(relativeUri, absoluteUri.intern());
     }
     return absoluteUri;
   }
@@ -222,6 +222,7 @@ final class RemoteHostUplink implements LinkContext, PullRequest<Envelope> {
       this.pullContext.push(remoteEnvelope);
       this.pullContext = null;
     }
+    refeedUp();
   }
 
   @Override
@@ -236,6 +237,28 @@ final class RemoteHostUplink implements LinkContext, PullRequest<Envelope> {
       this.pullContext.skip();
       this.pullContext = null;
     }
+    refeedUp();
+  }
+
+  /**
+   * Feeds this uplink again if the link fed up while it was still pulling,
+   * and so didn't feed the socket itself.
+   */
+  void refeedUp() {
+    int oldStatus;
+    int newStatus;
+    do {
+      oldStatus = this.status;
+      if ((oldStatus & (FEEDING_UP | PULLING_UP)) == FEEDING_UP) {
+        newStatus = oldStatus & ~FEEDING_UP | PULLING_UP;
+      } else {
+        newStatus = oldStatus;
+        break;
+      }
+    } while (oldStatus != newStatus && !STATUS.compareAndSet(this, oldStatus, newStatus));
+    if (oldStatus != newStatus) {
+      this.host.warpSocketContext.feed(this);
+    }
   }
 
   @Override
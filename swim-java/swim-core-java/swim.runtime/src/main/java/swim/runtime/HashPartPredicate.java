@@ -0,0 +1,75 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.runtime;
+
+import swim.structure.Record;
+import swim.structure.Value;
+import swim.uri.Uri;
+import swim.util.Murmur3;
+
+final class HashPartPredicate extends PartPredicate {
+  final int lowerBound;
+  final int upperBound;
+
+  HashPartPredicate(int lowerBound, int upperBound) {
+    this.lowerBound = lowerBound;
+    this.upperBound = upperBound;
+  }
+
+  @Override
+  public boolean test(Uri nodeUri, int nodeHash) {
+    final long dlh = (long) (nodeHash - lowerBound) & 0xFFFFFFFFL;
+    return 0L <= dlh && dlh < ((long) (upperBound - lowerBound) & 0xFFFFFFFFL);
+  }
+
+  @Override
+  public Value toValue() {
+    return Record.create(1).attr("hash", Record.create(2).item(lowerBound).item(upperBound));
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    } else if (other instanceof HashPartPredicate) {
+      final HashPartPredicate that = (HashPartPredicate) other;
+      return lowerBound == that.lowerBound && upperBound == that.upperBound;
+    } else {
+      return false;
+    }
+  }
+
+  private static int hashSeed;
+
+  @Override
+  public int hashCode() {
+    if (hashSeed == 0) {
+      hashSeed = Murmur3.seed(HashPartPredicate.class);
+    }
+    return Murmur3.mash(Murmur3.mix(Murmur3.mix(hashSeed, lowerBound), upperBound));
+  }
+
+  @Override
+  public String toString() {
+    return "PartPredicate" + '.' + "hash" + '(' + lowerBound + ", " + upperBound + ')';
+  }
+
+  public static HashPartPredicate fromValue(Value value) {
+    final Value header = value.getAttr("hash");
+    final int lowerBound = header.getItem(0).intValue();
+    final int upperBound = header.getItem(1).intValue();
+    return new HashPartPredicate(lowerBound, upperBound);
+  }
+}
@@ -24,6 +24,7 @@ import swim.structure.Value;
 import swim.uri.Uri;
 import swim.util.Log;
 import swim.warp.CommandMessage;
+import swim.warp.EventMessage;
 
 public interface LaneBinding extends TierBinding, CellBinding, Log {
   LaneContext laneContext();
@@ -63,4 +64,24 @@ public interface LaneBinding extends TierBinding, CellBinding, Log {
   void closeUplink(Value linkKey);
 
   void pushUpCommand(CommandMessage message);
+
+  /**
+   * Returns {@code true} if this lane keeps its state only in memory, so
+   * that the state is lost when the lane's node closes.  Returns {@code
+   * false} by default, for stateless lanes, and for lanes that persist their
+   * state to a store.
+   */
+  default boolean isTransient() {
+    return false;
+  }
+
+  /**
+   * Returns an event message with the given addresses and {@code body} for
+   * an uplink of this lane to send down.  Lanes may return the same message
+   * to every uplink that sends the same body, so that the message only gets
+   * encoded once.
+   */
+  default EventMessage eventMessage(Uri nodeUri, Uri laneUri, Value body) {
+    return new EventMessage(nodeUri, laneUri, body);
+  }
 }
@@ -33,6 +33,7 @@ import swim.store.ValueDataBinding;
 import swim.structure.Value;
 import swim.uri.Uri;
 import swim.warp.CommandMessage;
+import swim.warp.EventMessage;
 
 public class LaneProxy implements LaneBinding, LaneContext {
   protected final LaneBinding laneBinding;
@@ -157,6 +158,11 @@ public class LaneProxy implements LaneBinding, LaneContext {
     this.laneBinding.closeUplink(linkKey);
   }
 
+  @Override
+  public EventMessage eventMessage(Uri nodeUri, Uri laneUri, Value body) {
+    return this.laneBinding.eventMessage(nodeUri, laneUri, body);
+  }
+
   @Override
   public void pushUpCommand(CommandMessage message) {
     this.laneBinding.pushUpCommand(message);
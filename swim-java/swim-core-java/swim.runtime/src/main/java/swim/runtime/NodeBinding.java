@@ -40,4 +40,30 @@ public interface NodeBinding extends TierBinding, CellBinding {
   LaneBinding getLane(Uri laneUri);
 
   LaneBinding openLane(Uri laneUri, LaneBinding lane);
+
+  /**
+   * Returns {@code true} if this node has had no open uplinks or downlinks,
+   * no pending timers, and no mailbox activity for at least {@code
+   * idleMillis} milliseconds, and can therefore be passivated, to be
+   * reinstantiated from its persistent state when next opened.  Returns
+   * {@code false} by default.
+   *
+   * A reinstantiated node only recovers the state of its persistent lanes.
+   * Nodes with transient lanes are therefore never idle.  Other in-memory
+   * state, such as the plain fields of an agent, starts afresh when a
+   * passivated node gets reinstantiated.
+   */
+  default boolean isIdle(long idleMillis) {
+    return false;
+  }
+
+  /**
+   * Writes any lane state this node has buffered through to its store, so
+   * that the node can be reinstantiated from its persistent state after it's
+   * passivated.  Does nothing by default, for nodes whose lanes write
+   * through to their store.
+   */
+  default void flush() {
+    // nop
+  }
 }
@@ -0,0 +1,67 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.runtime;
+
+import swim.structure.Record;
+import swim.structure.Value;
+import swim.uri.Uri;
+import swim.uri.UriPattern;
+import swim.util.Murmur3;
+
+final class NodePartPredicate extends PartPredicate {
+  final UriPattern nodePattern;
+
+  NodePartPredicate(UriPattern nodePattern) {
+    this.nodePattern = nodePattern;
+  }
+
+  @Override
+  public boolean test(Uri nodeUri, int nodeHash) {
+    return nodePattern.matches(nodeUri);
+  }
+
+  @Override
+  public Value toValue() {
+    return Record.create(1).attr("node", nodePattern.toString());
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    } else if (other instanceof NodePartPredicate) {
+      final NodePartPredicate that = (NodePartPredicate) other;
+      return nodePattern.equals(that.nodePattern);
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return Murmur3.mash(Murmur3.mix(0x6C13D8A9, nodePattern.hashCode()));
+  }
+
+  @Override
+  public String toString() {
+    return "PartPredicate" + '.' + "node" + '(' + nodePattern.toUri() + ')';
+//    previously return "PartPredicate" + '.' + "node" + '(' + nodePattern.getPattern().toUri() + ')';
+  }
+
+  public static NodePartPredicate fromValue(Value value) {
+    final UriPattern nodePattern = UriPattern.parse(value.getAttr("node").stringValue());
+    return new NodePartPredicate(nodePattern);
+  }
+}
@@ -134,6 +134,16 @@ public class NodeProxy implements NodeBinding, NodeContext {
     return this.nodeBinding.openLane(laneUri, lane);
   }
 
+  @Override
+  public boolean isIdle(long idleMillis) {
+    return this.nodeBinding.isIdle(idleMillis);
+  }
+
+  @Override
+  public void flush() {
+    this.nodeBinding.flush();
+  }
+
   @Override
   public LaneBinding injectLane(Uri laneUri, LaneBinding lane) {
     return this.nodeContext.injectLane(laneUri, lane);
@@ -0,0 +1,323 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.runtime;
+
+import java.util.Arrays;
+import swim.collections.FingerTrieSeq;
+import swim.uri.Uri;
+import swim.uri.UriMapper;
+import swim.util.HashGenCacheMap;
+
+/**
+ * Immutable routing index over a sequence of {@link PartBinding}s, which
+ * resolves the first part, in sequence order, whose {@link PartPredicate}
+ * matches a given node URI.  Hash range predicates, and hash ring predicates,
+ * are indexed by sorted tables of hash ranges, resolved with a binary search;
+ * node pattern predicates are compiled into a {@link UriMapper}; all other
+ * predicates are tested in sequence order.  Resolved routes, including
+ * misses, are memoized in a per-index cache, which gets discarded along with
+ * the index when the parts change.
+ */
+public final class PartIndex {
+  final FingerTrieSeq<PartBinding> parts;
+  final PartIndexTable hashTable;
+  final PartIndexTable ringTable;
+  final UriMapper<Integer> nodeMapper;
+  final int[] nodeOrdinals;
+  final int[] otherOrdinals;
+  final HashGenCacheMap<Uri, Integer> routeCache;
+
+  PartIndex(FingerTrieSeq<PartBinding> parts, PartIndexTable hashTable, PartIndexTable ringTable,
+            UriMapper<Integer> nodeMapper, int[] nodeOrdinals, int[] otherOrdinals) {
+    this.parts = parts;
+    this.hashTable = hashTable;
+    this.ringTable = ringTable;
+    this.nodeMapper = nodeMapper;
+    this.nodeOrdinals = nodeOrdinals;
+    this.otherOrdinals = otherOrdinals;
+    this.routeCache = ROUTE_CACHE_SIZE > 0 && parts.size() > 1
+                    ? new HashGenCacheMap<Uri, Integer>(ROUTE_CACHE_SIZE) : null;
+  }
+
+  /**
+   * Returns the sequence of parts indexed by this {@code PartIndex}.
+   */
+  public FingerTrieSeq<PartBinding> parts() {
+    return this.parts;
+  }
+
+  /**
+   * Returns the first part whose predicate matches {@code nodeUri}, or
+   * {@code null} if no part matches.
+   */
+  public PartBinding get(Uri nodeUri) {
+    final HashGenCacheMap<Uri, Integer> routeCache = this.routeCache;
+    Integer ordinal = routeCache != null ? routeCache.get(nodeUri) : null;
+    if (ordinal == null) {
+      ordinal = route(nodeUri);
+      if (routeCache != null) {
+        routeCache.put(nodeUri, ordinal);
+      }
+    }
+    return ordinal >= 0 ? this.parts.get(ordinal) : null;
+  }
+
+  int route(Uri nodeUri) {
+    int ordinal = Integer.MAX_VALUE;
+    int nodeHash = 0;
+    boolean hashed = false;
+
+    if (!this.hashTable.isEmpty()) {
+      nodeHash = nodeUri.hashCode();
+      hashed = true;
+      final int owner = this.hashTable.owner(nodeHash);
+      if (owner >= 0) {
+        ordinal = owner;
+      }
+    }
+
+    if (!this.ringTable.isEmpty()) {
+      if (!hashed) {
+        nodeHash = nodeUri.hashCode();
+        hashed = true;
+      }
+      final int owner = this.ringTable.owner(RingPartPredicate.ringHash(nodeHash));
+      if (owner >= 0 && owner < ordinal) {
+        ordinal = owner;
+      }
+    }
+
+    final int[] nodeOrdinals = this.nodeOrdinals;
+    if (nodeOrdinals.length != 0 && nodeOrdinals[0] < ordinal) {
+      // The mapper resolves the most specific matching pattern, without
+      // backtracking, and disregards the scheme and authority of the node URI;
+      // confirm its candidate, and fall back to testing the patterns of any
+      // earlier parts.
+      final Integer candidate = this.nodeMapper.get(nodeUri);
+      if (candidate != null && candidate < ordinal
+          && this.parts.get(candidate).predicate().test(nodeUri, 0)) {
+        ordinal = candidate;
+      }
+      for (int i = 0, n = nodeOrdinals.length; i < n; i += 1) {
+        final int nodeOrdinal = nodeOrdinals[i];
+        if (nodeOrdinal >= ordinal) {
+          break;
+        } else if (this.parts.get(nodeOrdinal).predicate().test(nodeUri, 0)) {
+          ordinal = nodeOrdinal;
+          break;
+        }
+      }
+    }
+
+    final int[] otherOrdinals = this.otherOrdinals;
+    for (int i = 0, n = otherOrdinals.length; i < n; i += 1) {
+      final int otherOrdinal = otherOrdinals[i];
+      if (otherOrdinal >= ordinal) {
+        break;
+      }
+      if (!hashed) {
+        nodeHash = nodeUri.hashCode();
+        hashed = true;
+      }
+      if (this.parts.get(otherOrdinal).predicate().test(nodeUri, nodeHash)) {
+        ordinal = otherOrdinal;
+        break;
+      }
+    }
+
+    return ordinal != Integer.MAX_VALUE ? ordinal : -1;
+  }
+
+  private static PartIndex empty;
+
+  public static PartIndex empty() {
+    if (empty == null) {
+      empty = new PartIndex(FingerTrieSeq.<PartBinding>empty(), PartIndexTable.empty(), PartIndexTable.empty(),
+                            UriMapper.<Integer>empty(), new int[0], new int[0]);
+    }
+    return empty;
+  }
+
+  public static PartIndex from(FingerTrieSeq<PartBinding> parts) {
+    final int partCount = parts.size();
+    if (partCount == 0) {
+      return empty();
+    }
+
+    // Partition predicates by kind, in sequence order.
+    final PartIndexBuilder hashRanges = new PartIndexBuilder();
+    final PartIndexBuilder ringRanges = new PartIndexBuilder();
+    final int[] nodeOrdinals = new int[partCount];
+    int nodeCount = 0;
+    final int[] otherOrdinals = new int[partCount];
+    int otherCount = 0;
+    for (int i = 0; i < partCount; i += 1) {
+      final PartPredicate predicate = parts.get(i).predicate();
+      if (predicate instanceof HashPartPredicate) {
+        final HashPartPredicate hashPredicate = (HashPartPredicate) predicate;
+        hashRanges.add(hashPredicate.lowerBound, hashPredicate.upperBound, i);
+      } else if (predicate instanceof RingPartPredicate) {
+        final int[] ranges = ((RingPartPredicate) predicate).ranges();
+        for (int j = 0, n = ranges.length; j < n; j += 2) {
+          ringRanges.add(ranges[j], ranges[j + 1], i);
+        }
+      } else if (predicate instanceof NodePartPredicate) {
+        nodeOrdinals[nodeCount] = i;
+        nodeCount += 1;
+      } else {
+        otherOrdinals[otherCount] = i;
+        otherCount += 1;
+      }
+    }
+
+    // Compile node patterns in reverse sequence order, so that earlier
+    // parts take precedence over later parts with identical patterns.
+    UriMapper<Integer> nodeMapper = UriMapper.empty();
+    for (int i = nodeCount - 1; i >= 0; i -= 1) {
+      final NodePartPredicate nodePredicate = (NodePartPredicate) parts.get(nodeOrdinals[i]).predicate();
+      nodeMapper = nodeMapper.updated(nodePredicate.nodePattern, nodeOrdinals[i]);
+    }
+
+    return new PartIndex(parts, hashRanges.build(), ringRanges.build(), nodeMapper,
+                         Arrays.copyOf(nodeOrdinals, nodeCount),
+                         Arrays.copyOf(otherOrdinals, otherCount));
+  }
+
+  static final int ROUTE_CACHE_SIZE;
+
+  static {
+    int routeCacheSize;
+    try {
+      routeCacheSize = Integer.parseInt(System.getProperty("swim.part.route.cache.size"));
+    } catch (NumberFormatException e) {
+      routeCacheSize = 256;
+    }
+    ROUTE_CACHE_SIZE = routeCacheSize;
+  }
+}
+
+final class PartIndexTable {
+  final long[] starts;
+  final int[] owners;
+
+  PartIndexTable(long[] starts, int[] owners) {
+    this.starts = starts;
+    this.owners = owners;
+  }
+
+  boolean isEmpty() {
+    return this.starts.length == 0;
+  }
+
+  /**
+   * Returns the ordinal of the first part whose range covers {@code hash},
+   * or {@code -1} if no range covers {@code hash}.
+   */
+  int owner(int hash) {
+    return this.owners[segment(this.starts, (long) hash & 0xFFFFFFFFL)];
+  }
+
+  static int segment(long[] starts, long hash) {
+    int lo = 0;
+    int hi = starts.length - 1;
+    while (lo < hi) {
+      final int mid = (lo + hi + 1) >>> 1;
+      if (starts[mid] <= hash) {
+        lo = mid;
+      } else {
+        hi = mid - 1;
+      }
+    }
+    return lo;
+  }
+
+  private static PartIndexTable empty;
+
+  static PartIndexTable empty() {
+    if (empty == null) {
+      empty = new PartIndexTable(new long[0], new int[0]);
+    }
+    return empty;
+  }
+}
+
+final class PartIndexBuilder {
+  long[] lowers;
+  long[] uppers;
+  int[] ordinals;
+  int count;
+
+  PartIndexBuilder() {
+    this.lowers = new long[4];
+    this.uppers = new long[4];
+    this.ordinals = new int[4];
+  }
+
+  void add(int lowerBound, int upperBound, int ordinal) {
+    final int count = this.count;
+    if (count == this.ordinals.length) {
+      this.lowers = Arrays.copyOf(this.lowers, 2 * count);
+      this.uppers = Arrays.copyOf(this.uppers, 2 * count);
+      this.ordinals = Arrays.copyOf(this.ordinals, 2 * count);
+    }
+    this.lowers[count] = (long) lowerBound & 0xFFFFFFFFL;
+    this.uppers[count] = (long) upperBound & 0xFFFFFFFFL;
+    this.ordinals[count] = ordinal;
+    this.count = count + 1;
+  }
+
+  PartIndexTable build() {
+    final int count = this.count;
+    if (count == 0) {
+      return PartIndexTable.empty();
+    }
+    final long[] lowers = this.lowers;
+    final long[] uppers = this.uppers;
+
+    // Split the unsigned hash space into segments at every range bound.
+    final long[] bounds = new long[2 * count + 1];
+    for (int i = 0; i < count; i += 1) {
+      bounds[2 * i] = lowers[i];
+      bounds[2 * i + 1] = uppers[i];
+    }
+    bounds[2 * count] = 0L;
+    Arrays.sort(bounds);
+    int segmentCount = 0;
+    for (int i = 0, n = bounds.length; i < n; i += 1) {
+      if (segmentCount == 0 || bounds[segmentCount - 1] != bounds[i]) {
+        bounds[segmentCount] = bounds[i];
+        segmentCount += 1;
+      }
+    }
+    final long[] starts = Arrays.copyOf(bounds, segmentCount);
+    final int[] owners = new int[segmentCount];
+    Arrays.fill(owners, -1);
+
+    // Paint ranges in reverse sequence order, so that earlier parts
+    // overwrite the segments of later parts with overlapping ranges.
+    for (int i = count - 1; i >= 0; i -= 1) {
+      final long lowerBound = lowers[i];
+      final long span = (uppers[i] - lowerBound) & 0xFFFFFFFFL;
+      int j = PartIndexTable.segment(starts, lowerBound);
+      long covered = 0L;
+      while (covered < span) {
+        owners[j] = this.ordinals[i];
+        j = (j + 1) % segmentCount;
+        covered = (starts[j] - lowerBound) & 0xFFFFFFFFL;
+      }
+    }
+    return new PartIndexTable(starts, owners);
+  }
+}
@@ -75,12 +75,27 @@ public abstract class PartPredicate {
     return new HashPartPredicate(lowerBound, upperBound);
   }
 
+  /**
+   * Returns a {@code PartPredicate} that matches the node URIs assigned to
+   * {@code member} by a consistent hash ring over all {@code members}, with
+   * {@code virtualNodes} points on the ring per member.  Adding or removing a
+   * member only reassigns the node URIs on the ring arcs adjacent to that
+   * member's points; all other node URIs keep their current part.  See
+   * {@code MeshTable.rebalance} for changing the membership of a ring whose
+   * members host running agents.
+   */
+  public static PartPredicate ring(String member, String[] members, int virtualNodes) {
+    return new RingPartPredicate(member, members, virtualNodes);
+  }
+
   public static PartPredicate fromValue(Value value) {
     final String tag = value.tag();
     if ("node".equals(tag)) {
       return NodePartPredicate.fromValue(value);
     } else if ("hash".equals(tag)) {
       return HashPartPredicate.fromValue(value);
+    } else if ("ring".equals(tag)) {
+      return RingPartPredicate.fromValue(value);
     } else {
       return null;
     }
@@ -211,104 +226,3 @@ final class AndPartPredicate extends PartPredicate {
     return s.append(')').toString();
   }
 }
-
-final class NodePartPredicate extends PartPredicate {
-  final UriPattern nodePattern;
-
-  NodePartPredicate(UriPattern nodePattern) {
-    this.nodePattern = nodePattern;
-  }
-
-  @Override
-  public boolean test(Uri nodeUri, int nodeHash) {
-    return nodePattern.matches(nodeUri);
-  }
-
-  @Override
-  public Value toValue() {
-    return Record.create(1).attr("node", nodePattern.toString());
-  }
-
-  @Override
-  public boolean equals(Object other) {
-    if (this == other) {
-      return true;
-    } else if (other instanceof NodePartPredicate) {
-      final NodePartPredicate that = (NodePartPredicate) other;
-      return nodePattern.equals(that.nodePattern);
-    } else {
-      return false;
-    }
-  }
-
-  @Override
-  public int hashCode() {
-    return Murmur3.mash(Murmur3.mix(0x6C13D8A9, nodePattern.hashCode()));
-  }
-
-  @Override
-  public String toString() {
-    return "PartPredicate" + '.' + "node" + '(' + nodePattern.toUri() + ')';
-//    previously return "PartPredicate" + '.' + "node" + '(' + nodePattern.getPattern().toUri() + ')';
-  }
-
-  public static NodePartPredicate fromValue(Value value) {
-    final UriPattern nodePattern = UriPattern.parse(value.getAttr("node").stringValue());
-    return new NodePartPredicate(nodePattern);
-  }
-}
-
-final class HashPartPredicate extends PartPredicate {
-  final int lowerBound;
-  final int upperBound;
-
-  HashPartPredicate(int lowerBound, int upperBound) {
-    this.lowerBound = lowerBound;
-    this.upperBound = upperBound;
-  }
-
-  @Override
-  public boolean test(Uri nodeUri, int nodeHash) {
-    final long dlh = (long) (nodeHash - lowerBound) & 0xFFFFFFFFL;
-    return 0L <= dlh && dlh < ((long) (upperBound - lowerBound) & 0xFFFFFFFFL);
-  }
-
-  @Override
-  public Value toValue() {
-    return Record.create(1).attr("hash", Record.create(2).item(lowerBound).item(upperBound));
-  }
-
-  @Override
-  public boolean equals(Object other) {
-    if (this == other) {
-      return true;
-    } else if (other instanceof HashPartPredicate) {
-      final HashPartPredicate that = (HashPartPredicate) other;
-      return lowerBound == that.lowerBound && upperBound == that.upperBound;
-    } else {
-      return false;
-    }
-  }
-
-  private static int hashSeed;
-
-  @Override
-  public int hashCode() {
-    if (hashSeed == 0) {
-      hashSeed = Murmur3.seed(HashPartPredicate.class);
-    }
-    return Murmur3.mash(Murmur3.mix(Murmur3.mix(hashSeed, lowerBound), upperBound));
-  }
-
-  @Override
-  public String toString() {
-    return "PartPredicate" + '.' + "hash" + '(' + lowerBound + ", " + upperBound + ')';
-  }
-
-  public static HashPartPredicate fromValue(Value value) {
-    final Value header = value.getAttr("hash");
-    final int lowerBound = header.getItem(0).intValue();
-    final int upperBound = header.getItem(1).intValue();
-    return new HashPartPredicate(lowerBound, upperBound);
-  }
-}
@@ -0,0 +1,214 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.runtime;
+
+import java.util.Arrays;
+import swim.structure.Record;
+import swim.structure.Value;
+import swim.uri.Uri;
+import swim.util.Murmur3;
+
+/**
+ * Consistent hash ring {@link PartPredicate}, which matches the node URIs
+ * whose ring positions fall on the arcs owned by one member of the ring.
+ * A predicate's membership is fixed; a {@code MeshTable} rebalances onto a
+ * new membership by replacing its ring parts with predicates for the new
+ * members, and migrating the agents whose node URIs change owners, along
+ * with their lane state and open links, to their new owners.
+ */
+final class RingPartPredicate extends PartPredicate {
+  final String member;
+  final String[] members;
+  final int virtualNodes;
+  final long[] points;
+  final int[] owners;
+  final int memberIndex;
+
+  RingPartPredicate(String member, String[] members, int virtualNodes) {
+    if (virtualNodes <= 0) {
+      throw new IllegalArgumentException("non-positive virtual node count: " + virtualNodes);
+    }
+    members = members.clone();
+    Arrays.sort(members);
+    final int memberIndex = Arrays.binarySearch(members, member);
+    if (memberIndex < 0) {
+      throw new IllegalArgumentException("unknown ring member: " + member);
+    }
+    this.member = member;
+    this.members = members;
+    this.virtualNodes = virtualNodes;
+    this.memberIndex = memberIndex;
+
+    // Place virtual nodes on the ring; encode each point with its member
+    // index in the low bits, so that sorting breaks ties deterministically.
+    final int pointCount = members.length * virtualNodes;
+    final long[] entries = new long[pointCount];
+    for (int i = 0, k = 0; i < members.length; i += 1) {
+      final int memberSeed = Murmur3.mix(0x3A7C21E5, members[i]);
+      for (int j = 0; j < virtualNodes; j += 1, k += 1) {
+        final long point = (long) Murmur3.mash(Murmur3.mix(memberSeed, j)) & 0xFFFFFFFFL;
+        entries[k] = point << 31 | (long) i;
+      }
+    }
+    Arrays.sort(entries);
+    this.points = new long[pointCount];
+    this.owners = new int[pointCount];
+    for (int k = 0; k < pointCount; k += 1) {
+      this.points[k] = entries[k] >>> 31;
+      this.owners[k] = (int) (entries[k] & 0x7FFFFFFFL);
+    }
+  }
+
+  /**
+   * Returns the position on the ring of a node URI with the given
+   * {@code nodeHash}.  Node hashes are finalized before placement, so that
+   * similar node URIs spread evenly around the ring.
+   */
+  static int ringHash(int nodeHash) {
+    return Murmur3.mash(nodeHash);
+  }
+
+  /**
+   * Returns the index of the ring member that owns the given {@code nodeHash},
+   * which is the member of the first point at or after its ring position.
+   */
+  int owner(int nodeHash) {
+    final long hash = (long) ringHash(nodeHash) & 0xFFFFFFFFL;
+    final long[] points = this.points;
+    int lo = 0;
+    int hi = points.length;
+    while (lo < hi) {
+      final int mid = (lo + hi) >>> 1;
+      if (points[mid] < hash) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return this.owners[lo < points.length ? lo : 0];
+  }
+
+  /**
+   * Returns the ring position ranges owned by this predicate's member, as
+   * consecutive {@code [lowerBound, upperBound)} pairs, in the same wrapping
+   * form as {@link PartPredicate#hash(int, int)} bounds.
+   */
+  int[] ranges() {
+    final long[] points = this.points;
+    final int[] owners = this.owners;
+    final int pointCount = points.length;
+    int first = 0;
+    while (first < pointCount && owners[first] == this.memberIndex) {
+      first += 1;
+    }
+    if (first == pointCount) {
+      // Sole member; owns the whole ring, split into two halves.
+      return new int[] {0, Integer.MIN_VALUE, Integer.MIN_VALUE, 0};
+    }
+    // Walk the ring starting after a foreign point, coalescing adjacent arcs.
+    int[] ranges = new int[8];
+    int rangeCount = 0;
+    for (int n = 1; n <= pointCount; n += 1) {
+      final int k = (first + n) % pointCount;
+      if (owners[k] == this.memberIndex) {
+        final int lowerBound = (int) points[(k + pointCount - 1) % pointCount] + 1;
+        int end = k;
+        while (n < pointCount && owners[(end + 1) % pointCount] == this.memberIndex) {
+          end = (end + 1) % pointCount;
+          n += 1;
+        }
+        final int upperBound = (int) points[end] + 1;
+        if (rangeCount + 2 > ranges.length) {
+          ranges = Arrays.copyOf(ranges, 2 * ranges.length);
+        }
+        ranges[rangeCount] = lowerBound;
+        ranges[rangeCount + 1] = upperBound;
+        rangeCount += 2;
+      }
+    }
+    return Arrays.copyOf(ranges, rangeCount);
+  }
+
+  @Override
+  public boolean test(Uri nodeUri, int nodeHash) {
+    return owner(nodeHash) == this.memberIndex;
+  }
+
+  @Override
+  public Value toValue() {
+    final Record members = Record.create(this.members.length);
+    for (int i = 0; i < this.members.length; i += 1) {
+      members.add(this.members[i]);
+    }
+    return Record.create(1).attr("ring", Record.create(3).slot("member", this.member)
+        .slot("members", members).slot("vnodes", this.virtualNodes));
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    } else if (other instanceof RingPartPredicate) {
+      final RingPartPredicate that = (RingPartPredicate) other;
+      return this.member.equals(that.member) && Arrays.equals(this.members, that.members)
+          && this.virtualNodes == that.virtualNodes;
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return Murmur3.mash(Murmur3.mix(Murmur3.mix(Murmur3.mix(0x5E2B7A43,
+        this.member.hashCode()), Arrays.hashCode(this.members)), this.virtualNodes));
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder s = new StringBuilder("PartPredicate").append('.').append("ring").append('(')
+        .append('"').append(this.member).append('"').append(", ").append("new String[] {");
+    for (int i = 0; i < this.members.length; i += 1) {
+      if (i > 0) {
+        s.append(", ");
+      }
+      s.append('"').append(this.members[i]).append('"');
+    }
+    return s.append('}').append(", ").append(this.virtualNodes).append(')').toString();
+  }
+
+  public static RingPartPredicate fromValue(Value value) {
+    final Value header = value.getAttr("ring");
+    final String member = header.get("member").stringValue();
+    final Value memberValues = header.get("members");
+    final String[] members = new String[memberValues.length()];
+    for (int i = 0; i < members.length; i += 1) {
+      members[i] = memberValues.getItem(i).stringValue();
+    }
+    final int virtualNodes = header.get("vnodes").intValue(VIRTUAL_NODES);
+    return new RingPartPredicate(member, members, virtualNodes);
+  }
+
+  static final int VIRTUAL_NODES;
+
+  static {
+    int virtualNodes;
+    try {
+      virtualNodes = Integer.parseInt(System.getProperty("swim.part.ring.vnodes"));
+    } catch (NumberFormatException e) {
+      virtualNodes = 64;
+    }
+    VIRTUAL_NODES = virtualNodes;
+  }
+}
@@ -18,6 +18,8 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
 import swim.api.SwimLane;
 import swim.api.SwimResident;
 import swim.api.SwimTransient;
@@ -94,404 +96,415 @@ public abstract class AgentClass<A extends Agent> extends AbstractAgentType<A> {
   }
 
   static void reflectLaneFields(Class<?> agentType, AgentContext agentContext, Agent agent) {
+    final AgentLaneAccessor<Agent>[] laneFields = LANE_FIELDS.get(agentType);
+    for (int i = 0, n = laneFields.length; i < n; i += 1) {
+      final AgentLaneAccessor<Agent> laneField = laneFields[i];
+      final Lane lane = reflectLaneType(agent, laneField);
+      agentContext.openLane(laneField.laneUri, lane);
+    }
+  }
+
+  /**
+   * Returns the lane field accessors of {@code agentType}, and of its
+   * superclasses, in superclass first declaration order.  Computed once per
+   * agent class, and shared by every agent instance of that class.  Classes
+   * with a compile-time generated lane registry use the generated accessors;
+   * all other classes have their declared fields reflected.
+   */
+  @SuppressWarnings("unchecked")
+  static AgentLaneAccessor<Agent>[] reflectLaneFields(Class<?> agentType) {
+    final ArrayList<AgentLaneAccessor<Agent>> laneFields = new ArrayList<AgentLaneAccessor<Agent>>();
+    reflectLaneFields(agentType, laneFields);
+    return laneFields.toArray((AgentLaneAccessor<Agent>[]) new AgentLaneAccessor<?>[laneFields.size()]);
+  }
+
+  static void reflectLaneFields(Class<?> agentType, List<AgentLaneAccessor<Agent>> laneFields) {
     if (agentType != null) {
-      reflectLaneFields(agentType.getSuperclass(), agentContext, agent);
+      reflectLaneFields(agentType.getSuperclass(), laneFields);
+      final AgentLaneAccessor<Agent>[] generatedLaneFields = generatedLaneFields(agentType);
+      if (generatedLaneFields != null) {
+        for (int i = 0; i < generatedLaneFields.length; i += 1) {
+          laneFields.add(generatedLaneFields[i]);
+        }
+        return;
+      }
       final Field[] fields = agentType.getDeclaredFields();
       for (Field field : fields) {
         if (Lane.class.isAssignableFrom(field.getType())) {
-          field.setAccessible(true);
-          reflectLaneField(field, agentContext, agent);
+          final SwimLane swimLane = field.getAnnotation(SwimLane.class);
+          if (swimLane != null) {
+            field.setAccessible(true);
+            laneFields.add(new AgentLaneField(field, Uri.parse(swimLane.value())));
+          }
         }
       }
     }
   }
 
-  static void reflectLaneField(Field field, AgentContext agentContext, Agent agent) {
-    final SwimLane swimLane = field.getAnnotation(SwimLane.class);
-    if (swimLane != null) {
-      final Lane lane = reflectLaneType(agent, field, field.getGenericType());
-      final Uri laneUri = Uri.parse(swimLane.value());
-      agentContext.openLane(laneUri, lane);
+  /**
+   * Returns the lane field accessors of the compile-time generated lane
+   * registry for exactly {@code agentType}, or {@code null} if no registry
+   * was generated for {@code agentType}.
+   */
+  @SuppressWarnings("unchecked")
+  static AgentLaneAccessor<Agent>[] generatedLaneFields(Class<?> agentType) {
+    final ClassLoader classLoader = agentType.getClassLoader();
+    if (classLoader == null || agentType.isArray() || agentType.isPrimitive()) {
+      return null;
     }
-  }
-
-  static Lane reflectLaneType(Agent agent, Field field, Type type) {
-    if (type instanceof ParameterizedType) {
-      return reflectParameterizedLaneType(agent, field, (ParameterizedType) type);
+    final String agentName = agentType.getName();
+    final int packageIndex = agentName.lastIndexOf('.');
+    final String registryName = agentName.substring(0, packageIndex + 1)
+        + agentName.substring(packageIndex + 1).replace('$', '_') + LANE_REGISTRY_SUFFIX;
+    try {
+      final Class<?> registryClass = Class.forName(registryName, true, classLoader);
+      return (AgentLaneAccessor<Agent>[]) registryClass.getMethod("laneAccessors").invoke(null);
+    } catch (ClassNotFoundException | NoSuchMethodException cause) {
+      return null;
+    } catch (ReflectiveOperationException cause) {
+      throw new AgentException(cause);
     }
-    return reflectOtherLaneType(agent, field, type);
   }
 
-  static Lane reflectParameterizedLaneType(Agent agent, Field field, ParameterizedType type) {
-    final Type rawType = type.getRawType();
-    if (rawType instanceof Class<?>) {
-      return reflectLaneTypeArguments(agent, field, (Class<?>) rawType, type.getActualTypeArguments());
+  static final String LANE_REGISTRY_SUFFIX = "_SwimLanes";
+
+  static Lane reflectLaneType(Agent agent, AgentLaneAccessor<Agent> laneField) {
+    final Class<?> laneType = laneField.laneType;
+    if (laneType != null) {
+      return reflectLaneTypeArguments(agent, laneField, laneType);
     }
-    return reflectOtherLaneType(agent, field, type);
+    return reflectOtherLaneType(agent, laneField);
   }
 
-  static Lane reflectLaneTypeArguments(Agent agent, Field field, Class<?> type, Type[] arguments) {
+  static Lane reflectLaneTypeArguments(Agent agent, AgentLaneAccessor<Agent> laneField, Class<?> type) {
     if (CommandLane.class.equals(type)) {
-      return reflectCommandLaneType(agent, field, type, arguments);
+      return reflectCommandLaneType(agent, laneField);
     } else if (DemandLane.class.equals(type)) {
-      return reflectDemandLaneType(agent, field, type, arguments);
+      return reflectDemandLaneType(agent, laneField);
     } else if (DemandMapLane.class.equals(type)) {
-      return reflectDemandMapLaneType(agent, field, type, arguments);
+      return reflectDemandMapLaneType(agent, laneField);
     } else if (JoinMapLane.class.equals(type)) {
-      return reflectJoinMapLaneType(agent, field, type, arguments);
+      return reflectJoinMapLaneType(agent, laneField);
     } else if (JoinValueLane.class.equals(type)) {
-      return reflectJoinValueLaneType(agent, field, type, arguments);
+      return reflectJoinValueLaneType(agent, laneField);
     } else if (ListLane.class.equals(type)) {
-      return reflectListLaneType(agent, field, type, arguments);
+      return reflectListLaneType(agent, laneField);
     } else if (MapLane.class.equals(type)) {
-      return reflectMapLaneType(agent, field, type, arguments);
+      return reflectMapLaneType(agent, laneField);
     } else if (SpatialLane.class.equals(type)) {
-      return reflectSpatialLaneType(agent, field, type, arguments);
+      return reflectSpatialLaneType(agent, laneField);
     } else if (SupplyLane.class.equals(type)) {
-      return reflectSupplyLaneType(agent, field, type, arguments);
+      return reflectSupplyLaneType(agent, laneField);
     } else if (ValueLane.class.equals(type)) {
-      return reflectValueLaneType(agent, field, type, arguments);
+      return reflectValueLaneType(agent, laneField);
     }
-    return reflectOtherLaneType(agent, field, type);
+    return reflectOtherLaneType(agent, laneField);
   }
 
   @SuppressWarnings("unchecked")
-  static Lane reflectCommandLaneType(Agent agent, Field field, Class<?> type, Type[] arguments) {
-    try {
-      Object object = field.get(agent);
-      if (object == null) {
-        object = agent.agentContext().commandLane();
-        field.set(agent, object);
-      }
-      if (object instanceof CommandLaneView<?>) {
-        final CommandLaneView<Object> lane = (CommandLaneView<Object>) object;
-        Form<Object> valueForm = lane.valueForm();
-        final Type valueType = arguments[0];
-        if (valueForm == null && valueType instanceof Class<?>) {
-          valueForm = Form.forClass((Class<?>) valueType);
+  static Lane reflectCommandLaneType(Agent agent, AgentLaneAccessor<Agent> laneField) {
+    Object object = laneField.getLane(agent);
+    if (object == null) {
+      object = agent.agentContext().commandLane();
+      laneField.setLane(agent, object);
+    }
+    if (object instanceof CommandLaneView<?>) {
+      final CommandLaneView<Object> lane = (CommandLaneView<Object>) object;
+      Form<Object> valueForm = lane.valueForm();
+      if (valueForm == null) {
+        valueForm = laneField.form(0);
+        if (valueForm != null) {
           lane.setValueForm(valueForm);
         }
-        return lane;
       }
-      return reflectOtherLaneType(agent, field, type);
-    } catch (IllegalAccessException cause) {
-      throw new AgentException(cause);
+      return lane;
     }
+    return reflectOtherLaneType(agent, laneField);
   }
 
   @SuppressWarnings("unchecked")
-  static Lane reflectDemandLaneType(Agent agent, Field field, Class<?> type, Type[] arguments) {
-    try {
-      Object object = field.get(agent);
-      if (object == null) {
-        object = agent.agentContext().demandLane();
-        field.set(agent, object);
-      }
-      if (object instanceof DemandLaneView<?>) {
-        final DemandLaneView<Object> lane = (DemandLaneView<Object>) object;
-        Form<Object> valueForm = lane.valueForm();
-        final Type valueType = arguments[0];
-        if (valueForm == null && valueType instanceof Class<?>) {
-          valueForm = Form.forClass((Class<?>) valueType);
+  static Lane reflectDemandLaneType(Agent agent, AgentLaneAccessor<Agent> laneField) {
+    Object object = laneField.getLane(agent);
+    if (object == null) {
+      object = agent.agentContext().demandLane();
+      laneField.setLane(agent, object);
+    }
+    if (object instanceof DemandLaneView<?>) {
+      final DemandLaneView<Object> lane = (DemandLaneView<Object>) object;
+      Form<Object> valueForm = lane.valueForm();
+      if (valueForm == null) {
+        valueForm = laneField.form(0);
+        if (valueForm != null) {
           lane.setValueForm(valueForm);
         }
-        return lane;
       }
-      return reflectOtherLaneType(agent, field, type);
-    } catch (IllegalAccessException cause) {
-      throw new AgentException(cause);
+      return lane;
     }
+    return reflectOtherLaneType(agent, laneField);
   }
 
   @SuppressWarnings("unchecked")
-  static Lane reflectDemandMapLaneType(Agent agent, Field field, Class<?> type, Type[] arguments) {
-    try {
-      Object object = field.get(agent);
-      if (object == null) {
-        object = agent.agentContext().demandMapLane();
-        field.set(agent, object);
-      }
-      if (object instanceof DemandMapLaneView<?, ?>) {
-        final DemandMapLaneView<Object, Object> lane = (DemandMapLaneView<Object, Object>) object;
-        Form<Object> keyForm = lane.keyForm();
-        final Type keyType = arguments[0];
-        if (keyForm == null && keyType instanceof Class<?>) {
-          keyForm = Form.forClass((Class<?>) keyType);
+  static Lane reflectDemandMapLaneType(Agent agent, AgentLaneAccessor<Agent> laneField) {
+    Object object = laneField.getLane(agent);
+    if (object == null) {
+      object = agent.agentContext().demandMapLane();
+      laneField.setLane(agent, object);
+    }
+    if (object instanceof DemandMapLaneView<?, ?>) {
+      final DemandMapLaneView<Object, Object> lane = (DemandMapLaneView<Object, Object>) object;
+      Form<Object> keyForm = lane.keyForm();
+      if (keyForm == null) {
+        keyForm = laneField.form(0);
+        if (keyForm != null) {
           lane.setKeyForm(keyForm);
         }
-        Form<Object> valueForm = lane.valueForm();
-        final Type valueType = arguments[1];
-        if (valueForm == null && valueType instanceof Class<?>) {
-          valueForm = Form.forClass((Class<?>) valueType);
+      }
+      Form<Object> valueForm = lane.valueForm();
+      if (valueForm == null) {
+        valueForm = laneField.form(1);
+        if (valueForm != null) {
           lane.setValueForm(valueForm);
         }
-        return lane;
       }
-      return reflectOtherLaneType(agent, field, type);
-    } catch (IllegalAccessException cause) {
-      throw new AgentException(cause);
+      return lane;
     }
+    return reflectOtherLaneType(agent, laneField);
   }
 
   @SuppressWarnings("unchecked")
-  static Lane reflectJoinMapLaneType(Agent agent, Field field, Class<?> type, Type[] arguments) {
-    try {
-      Object object = field.get(agent);
-      if (object == null) {
-        object = agent.agentContext().joinMapLane();
-        field.set(agent, object);
-      }
-      if (object instanceof JoinMapLaneView<?, ?, ?>) {
-        final JoinMapLaneView<Object, Object, Object> lane = (JoinMapLaneView<Object, Object, Object>) object;
-        Form<Object> linkForm = lane.linkForm();
-        final Type linkType = arguments[0];
-        if (linkForm == null && linkType instanceof Class<?>) {
-          linkForm = Form.forClass((Class<?>) linkType);
+  static Lane reflectJoinMapLaneType(Agent agent, AgentLaneAccessor<Agent> laneField) {
+    Object object = laneField.getLane(agent);
+    if (object == null) {
+      object = agent.agentContext().joinMapLane();
+      laneField.setLane(agent, object);
+    }
+    if (object instanceof JoinMapLaneView<?, ?, ?>) {
+      final JoinMapLaneView<Object, Object, Object> lane = (JoinMapLaneView<Object, Object, Object>) object;
+      Form<Object> linkForm = lane.linkForm();
+      if (linkForm == null) {
+        linkForm = laneField.form(0);
+        if (linkForm != null) {
           lane.setLinkForm(linkForm);
         }
-        Form<Object> keyForm = lane.keyForm();
-        final Type keyType = arguments[1];
-        if (keyForm == null && keyType instanceof Class<?>) {
-          keyForm = Form.forClass((Class<?>) keyType);
+      }
+      Form<Object> keyForm = lane.keyForm();
+      if (keyForm == null) {
+        keyForm = laneField.form(1);
+        if (keyForm != null) {
           lane.setKeyForm(keyForm);
         }
-        Form<Object> valueForm = lane.valueForm();
-        final Type valueType = arguments[2];
-        if (valueForm == null && valueType instanceof Class<?>) {
-          valueForm = Form.forClass((Class<?>) valueType);
+      }
+      Form<Object> valueForm = lane.valueForm();
+      if (valueForm == null) {
+        valueForm = laneField.form(2);
+        if (valueForm != null) {
           lane.setValueForm(valueForm);
         }
-        final SwimResident swimResident = field.getAnnotation(SwimResident.class);
-        if (swimResident != null) {
-          lane.isResident(swimResident.value());
-        }
-        final SwimTransient swimTransient = field.getAnnotation(SwimTransient.class);
-        if (swimTransient != null) {
-          lane.isTransient(swimTransient.value());
-        }
-        return lane;
       }
-      return reflectOtherLaneType(agent, field, type);
-    } catch (IllegalAccessException cause) {
-      throw new AgentException(cause);
+      if (laneField.isResident != null) {
+        lane.isResident(laneField.isResident);
+      }
+      if (laneField.isTransient != null) {
+        lane.isTransient(laneField.isTransient);
+      }
+      return lane;
     }
+    return reflectOtherLaneType(agent, laneField);
   }
 
   @SuppressWarnings("unchecked")
-  static Lane reflectJoinValueLaneType(Agent agent, Field field, Class<?> type, Type[] arguments) {
-    try {
-      Object object = field.get(agent);
-      if (object == null) {
-        object = agent.agentContext().joinValueLane();
-        field.set(agent, object);
-      }
-      if (object instanceof JoinValueLaneView<?, ?>) {
-        final JoinValueLaneView<Object, Object> lane = (JoinValueLaneView<Object, Object>) object;
-        Form<Object> keyForm = lane.keyForm();
-        final Type keyType = arguments[0];
-        if (keyForm == null && keyType instanceof Class<?>) {
-          keyForm = Form.forClass((Class<?>) keyType);
+  static Lane reflectJoinValueLaneType(Agent agent, AgentLaneAccessor<Agent> laneField) {
+    Object object = laneField.getLane(agent);
+    if (object == null) {
+      object = agent.agentContext().joinValueLane();
+      laneField.setLane(agent, object);
+    }
+    if (object instanceof JoinValueLaneView<?, ?>) {
+      final JoinValueLaneView<Object, Object> lane = (JoinValueLaneView<Object, Object>) object;
+      Form<Object> keyForm = lane.keyForm();
+      if (keyForm == null) {
+        keyForm = laneField.form(0);
+        if (keyForm != null) {
           lane.setKeyForm(keyForm);
         }
-        Form<Object> valueForm = lane.valueForm();
-        final Type valueType = arguments[1];
-        if (valueForm == null && valueType instanceof Class<?>) {
-          valueForm = Form.forClass((Class<?>) valueType);
+      }
+      Form<Object> valueForm = lane.valueForm();
+      if (valueForm == null) {
+        valueForm = laneField.form(1);
+        if (valueForm != null) {
           lane.setValueForm(valueForm);
         }
-        final SwimResident swimResident = field.getAnnotation(SwimResident.class);
-        if (swimResident != null) {
-          lane.isResident(swimResident.value());
-        }
-        final SwimTransient swimTransient = field.getAnnotation(SwimTransient.class);
-        if (swimTransient != null) {
-          lane.isTransient(swimTransient.value());
-        }
-        return lane;
       }
-      return reflectOtherLaneType(agent, field, type);
-    } catch (IllegalAccessException cause) {
-      throw new AgentException(cause);
+      if (laneField.isResident != null) {
+        lane.isResident(laneField.isResident);
+      }
+      if (laneField.isTransient != null) {
+        lane.isTransient(laneField.isTransient);
+      }
+      return lane;
     }
+    return reflectOtherLaneType(agent, laneField);
   }
 
   @SuppressWarnings("unchecked")
-  static Lane reflectListLaneType(Agent agent, Field field, Class<?> type, Type[] arguments) {
-    try {
-      Object object = field.get(agent);
-      if (object == null) {
-        object = agent.agentContext().listLane();
-        field.set(agent, object);
-      }
-      if (object instanceof ListLaneView<?>) {
-        final ListLaneView<Object> lane = (ListLaneView<Object>) object;
-        Form<Object> valueForm = lane.valueForm();
-        final Type valueType = arguments[0];
-        if (valueForm == null && valueType instanceof Class<?>) {
-          valueForm = Form.forClass((Class<?>) valueType);
+  static Lane reflectListLaneType(Agent agent, AgentLaneAccessor<Agent> laneField) {
+    Object object = laneField.getLane(agent);
+    if (object == null) {
+      object = agent.agentContext().listLane();
+      laneField.setLane(agent, object);
+    }
+    if (object instanceof ListLaneView<?>) {
+      final ListLaneView<Object> lane = (ListLaneView<Object>) object;
+      Form<Object> valueForm = lane.valueForm();
+      if (valueForm == null) {
+        valueForm = laneField.form(0);
+        if (valueForm != null) {
           lane.setValueForm(valueForm);
         }
-        final SwimResident swimResident = field.getAnnotation(SwimResident.class);
-        if (swimResident != null) {
-          lane.isResident(swimResident.value());
-        }
-        final SwimTransient swimTransient = field.getAnnotation(SwimTransient.class);
-        if (swimTransient != null) {
-          lane.isTransient(swimTransient.value());
-        }
-        return lane;
       }
-      return reflectOtherLaneType(agent, field, type);
-    } catch (IllegalAccessException cause) {
-      throw new AgentException(cause);
+      if (laneField.isResident != null) {
+        lane.isResident(laneField.isResident);
+      }
+      if (laneField.isTransient != null) {
+        lane.isTransient(laneField.isTransient);
+      }
+      return lane;
     }
+    return reflectOtherLaneType(agent, laneField);
   }
 
   @SuppressWarnings("unchecked")
-  static Lane reflectMapLaneType(Agent agent, Field field, Class<?> type, Type[] arguments) {
-    try {
-      Object object = field.get(agent);
-      if (object == null) {
-        object = agent.agentContext().mapLane();
-        field.set(agent, object);
-      }
-      if (object instanceof MapLaneView<?, ?>) {
-        final MapLaneView<Object, Object> lane = (MapLaneView<Object, Object>) object;
-        Form<Object> keyForm = lane.keyForm();
-        final Type keyType = arguments[0];
-        if (keyForm == null && keyType instanceof Class<?>) {
-          keyForm = Form.forClass((Class<?>) keyType);
+  static Lane reflectMapLaneType(Agent agent, AgentLaneAccessor<Agent> laneField) {
+    Object object = laneField.getLane(agent);
+    if (object == null) {
+      object = agent.agentContext().mapLane();
+      laneField.setLane(agent, object);
+    }
+    if (object instanceof MapLaneView<?, ?>) {
+      final MapLaneView<Object, Object> lane = (MapLaneView<Object, Object>) object;
+      Form<Object> keyForm = lane.keyForm();
+      if (keyForm == null) {
+        keyForm = laneField.form(0);
+        if (keyForm != null) {
           lane.setKeyForm(keyForm);
         }
-        Form<Object> valueForm = lane.valueForm();
-        final Type valueType = arguments[1];
-        if (valueForm == null && valueType instanceof Class<?>) {
-          valueForm = Form.forClass((Class<?>) valueType);
+      }
+      Form<Object> valueForm = lane.valueForm();
+      if (valueForm == null) {
+        valueForm = laneField.form(1);
+        if (valueForm != null) {
           lane.setValueForm(valueForm);
         }
-        final SwimResident swimResident = field.getAnnotation(SwimResident.class);
-        if (swimResident != null) {
-          lane.isResident(swimResident.value());
-        }
-        final SwimTransient swimTransient = field.getAnnotation(SwimTransient.class);
-        if (swimTransient != null) {
-          lane.isTransient(swimTransient.value());
-        }
-        return lane;
       }
-      return reflectOtherLaneType(agent, field, type);
-    } catch (IllegalAccessException cause) {
-      throw new AgentException(cause);
+      if (laneField.isResident != null) {
+        lane.isResident(laneField.isResident);
+      }
+      if (laneField.isTransient != null) {
+        lane.isTransient(laneField.isTransient);
+      }
+      return lane;
     }
+    return reflectOtherLaneType(agent, laneField);
   }
 
   @SuppressWarnings("unchecked")
-  static Lane reflectSpatialLaneType(Agent agent, Field field, Class<?> type, Type[] arguments) {
-    try {
-      Object object = field.get(agent);
-      if (object == null) {
-        object = agent.agentContext().geospatialLane();
-        field.set(agent, object);
-      }
-      if (object instanceof SpatialLaneView<?, ?, ?>) {
-        final SpatialLaneView<Object, ?, Object> lane = (SpatialLaneView<Object, ?, Object>) object;
-        Form<Object> keyForm = lane.keyForm();
-        final Type keyType = arguments[0];
-        if (keyForm == null && keyType instanceof Class<?>) {
-          keyForm = Form.forClass((Class<?>) keyType);
+  static Lane reflectSpatialLaneType(Agent agent, AgentLaneAccessor<Agent> laneField) {
+    Object object = laneField.getLane(agent);
+    if (object == null) {
+      object = agent.agentContext().geospatialLane();
+      laneField.setLane(agent, object);
+    }
+    if (object instanceof SpatialLaneView<?, ?, ?>) {
+      final SpatialLaneView<Object, ?, Object> lane = (SpatialLaneView<Object, ?, Object>) object;
+      Form<Object> keyForm = lane.keyForm();
+      if (keyForm == null) {
+        keyForm = laneField.form(0);
+        if (keyForm != null) {
           lane.setKeyForm(keyForm);
         }
-        Form<Object> valueForm = lane.valueForm();
-        final Type valueType = arguments[2];
-        if (valueForm == null && valueType instanceof Class<?>) {
-          valueForm = Form.forClass((Class<?>) valueType);
+      }
+      Form<Object> valueForm = lane.valueForm();
+      if (valueForm == null) {
+        valueForm = laneField.form(2);
+        if (valueForm != null) {
           lane.setValueForm(valueForm);
         }
-        final SwimResident swimResident = field.getAnnotation(SwimResident.class);
-        if (swimResident != null) {
-          lane.isResident(swimResident.value());
-        }
-        final SwimTransient swimTransient = field.getAnnotation(SwimTransient.class);
-        if (swimTransient != null) {
-          lane.isTransient(swimTransient.value());
-        }
-        return lane;
       }
-      return reflectOtherLaneType(agent, field, type);
-    } catch (IllegalAccessException cause) {
-      throw new AgentException(cause);
+      if (laneField.isResident != null) {
+        lane.isResident(laneField.isResident);
+      }
+      if (laneField.isTransient != null) {
+        lane.isTransient(laneField.isTransient);
+      }
+      return lane;
     }
+    return reflectOtherLaneType(agent, laneField);
   }
 
   @SuppressWarnings("unchecked")
-  static Lane reflectSupplyLaneType(Agent agent, Field field, Class<?> type, Type[] arguments) {
-    try {
-      Object object = field.get(agent);
-      if (object == null) {
-        object = agent.agentContext().supplyLane();
-        field.set(agent, object);
-      }
-      if (object instanceof SupplyLaneView<?>) {
-        final SupplyLaneView<Object> lane = (SupplyLaneView<Object>) object;
-        Form<Object> valueForm = lane.valueForm();
-        final Type valueType = arguments[0];
-        if (valueForm == null && valueType instanceof Class<?>) {
-          valueForm = Form.forClass((Class<?>) valueType);
+  static Lane reflectSupplyLaneType(Agent agent, AgentLaneAccessor<Agent> laneField) {
+    Object object = laneField.getLane(agent);
+    if (object == null) {
+      object = agent.agentContext().supplyLane();
+      laneField.setLane(agent, object);
+    }
+    if (object instanceof SupplyLaneView<?>) {
+      final SupplyLaneView<Object> lane = (SupplyLaneView<Object>) object;
+      Form<Object> valueForm = lane.valueForm();
+      if (valueForm == null) {
+        valueForm = laneField.form(0);
+        if (valueForm != null) {
           lane.setValueForm(valueForm);
         }
-        return lane;
       }
-      return reflectOtherLaneType(agent, field, type);
-    } catch (IllegalAccessException cause) {
-      throw new AgentException(cause);
+      return lane;
     }
+    return reflectOtherLaneType(agent, laneField);
   }
 
   @SuppressWarnings("unchecked")
-  static Lane reflectValueLaneType(Agent agent, Field field, Class<?> type, Type[] arguments) {
-    try {
-      Object object = field.get(agent);
-      if (object == null) {
-        object = agent.agentContext().valueLane();
-        field.set(agent, object);
-      }
-      if (object instanceof ValueLaneView<?>) {
-        final ValueLaneView<Object> lane = (ValueLaneView<Object>) object;
-        Form<Object> valueForm = lane.valueForm();
-        final Type valueType = arguments[0];
-        if (valueForm == null && valueType instanceof Class<?>) {
-          valueForm = Form.forClass((Class<?>) valueType);
+  static Lane reflectValueLaneType(Agent agent, AgentLaneAccessor<Agent> laneField) {
+    Object object = laneField.getLane(agent);
+    if (object == null) {
+      object = agent.agentContext().valueLane();
+      laneField.setLane(agent, object);
+    }
+    if (object instanceof ValueLaneView<?>) {
+      final ValueLaneView<Object> lane = (ValueLaneView<Object>) object;
+      Form<Object> valueForm = lane.valueForm();
+      if (valueForm == null) {
+        valueForm = laneField.form(0);
+        if (valueForm != null) {
           lane.setValueForm(valueForm);
         }
-        final SwimResident swimResident = field.getAnnotation(SwimResident.class);
-        if (swimResident != null) {
-          lane.isResident(swimResident.value());
-        }
-        final SwimTransient swimTransient = field.getAnnotation(SwimTransient.class);
-        if (swimTransient != null) {
-          lane.isTransient(swimTransient.value());
-        }
-        return lane;
       }
-      return reflectOtherLaneType(agent, field, type);
-    } catch (IllegalAccessException cause) {
-      throw new AgentException(cause);
+      if (laneField.isResident != null) {
+        lane.isResident(laneField.isResident);
+      }
+      if (laneField.isTransient != null) {
+        lane.isTransient(laneField.isTransient);
+      }
+      return lane;
     }
+    return reflectOtherLaneType(agent, laneField);
   }
 
-  static Lane reflectOtherLaneType(Agent agent, Field field, Type type) {
-    try {
-      final Object object = field.get(agent);
-      if (object instanceof Lane) {
-        return (Lane) object;
-      } else {
-        throw new AgentException("unknown lane type: " + type);
-      }
-    } catch (IllegalAccessException cause) {
-      throw new AgentException(cause);
+  static Lane reflectOtherLaneType(Agent agent, AgentLaneAccessor<Agent> laneField) {
+    final Object object = laneField.getLane(agent);
+    if (object instanceof Lane) {
+      return (Lane) object;
+    } else {
+      throw new AgentException("unknown lane type of lane: " + laneField.laneUri);
     }
   }
 
+  static final ClassValue<AgentLaneAccessor<Agent>[]> LANE_FIELDS = new ClassValue<AgentLaneAccessor<Agent>[]>() {
+    @Override
+    protected AgentLaneAccessor<Agent>[] computeValue(Class<?> agentType) {
+      return reflectLaneFields(agentType);
+    }
+  };
+
   static final class ContextConstructor<A extends Agent> extends AgentClass<A> {
     ContextConstructor(Class<? extends A> agentType, Constructor<? extends A> constructor) {
       super(agentType, constructor);
@@ -526,3 +539,61 @@ public abstract class AgentClass<A extends Agent> extends AbstractAgentType<A> {
     }
   }
 }
+
+/**
+ * Reflected accessor for a single {@code @SwimLane} field of an agent class.
+ */
+final class AgentLaneField extends AgentLaneAccessor<Agent> {
+  final Field field;
+
+  AgentLaneField(Field field, Uri laneUri) {
+    super(laneUri, laneType(field.getGenericType()), typeArguments(field.getGenericType()),
+          isResident(field), isTransient(field));
+    this.field = field;
+  }
+
+  @Override
+  public Object getLane(Agent agent) {
+    try {
+      return this.field.get(agent);
+    } catch (IllegalAccessException cause) {
+      throw new AgentException(cause);
+    }
+  }
+
+  @Override
+  public void setLane(Agent agent, Object lane) {
+    try {
+      this.field.set(agent, lane);
+    } catch (IllegalAccessException cause) {
+      throw new AgentException(cause);
+    }
+  }
+
+  static Class<?> laneType(Type type) {
+    if (type instanceof ParameterizedType) {
+      final Type rawType = ((ParameterizedType) type).getRawType();
+      if (rawType instanceof Class<?>) {
+        return (Class<?>) rawType;
+      }
+    }
+    return null;
+  }
+
+  static Type[] typeArguments(Type type) {
+    if (laneType(type) != null) {
+      return ((ParameterizedType) type).getActualTypeArguments();
+    }
+    return null;
+  }
+
+  static Boolean isResident(Field field) {
+    final SwimResident swimResident = field.getAnnotation(SwimResident.class);
+    return swimResident != null ? Boolean.valueOf(swimResident.value()) : null;
+  }
+
+  static Boolean isTransient(Field field) {
+    final SwimTransient swimTransient = field.getAnnotation(SwimTransient.class);
+    return swimTransient != null ? Boolean.valueOf(swimTransient.value()) : null;
+  }
+}
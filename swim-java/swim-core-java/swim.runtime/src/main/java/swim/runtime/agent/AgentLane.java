@@ -153,7 +153,7 @@ public class AgentLane implements LaneContext {
 
   @Override
   public void closeDownlink(LinkBinding link) {
-    // nop
+    this.node.closeDownlink(link);
   }
 
   @Override
@@ -0,0 +1,95 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.runtime.agent;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import swim.api.agent.Agent;
+import swim.structure.Form;
+import swim.uri.Uri;
+
+/**
+ * Instantiation plan for a single {@code @SwimLane} field of an agent class,
+ * which {@link AgentClass} uses to wire up the lanes of new agent instances.
+ * Accessors for each agent class are resolved once, either from a registry
+ * generated at compile time by the {@code swim.processor} annotation
+ * processor, or else by reflecting on the fields of the agent class.
+ *
+ * @param <A> the agent class that declares the lane field.
+ */
+public abstract class AgentLaneAccessor<A extends Agent> {
+  final Uri laneUri;
+  final Class<?> laneType;
+  final Type[] arguments;
+  final AtomicReferenceArray<Form<Object>> forms;
+  final Boolean isResident;
+  final Boolean isTransient;
+
+  /**
+   * @param laneUri the {@code @SwimLane} URI of the lane field.
+   * @param laneType the raw type of a parameterized lane field, or {@code null}
+   *        if the lane field has no type arguments.
+   * @param arguments the type arguments of the lane field, with {@code null}
+   *        entries for type arguments that aren't concrete classes.
+   * @param isResident the {@code @SwimResident} value of the lane field, or
+   *        {@code null} if the lane field isn't annotated.
+   * @param isTransient the {@code @SwimTransient} value of the lane field, or
+   *        {@code null} if the lane field isn't annotated.
+   */
+  protected AgentLaneAccessor(Uri laneUri, Class<?> laneType, Type[] arguments,
+                              Boolean isResident, Boolean isTransient) {
+    this.laneUri = laneUri;
+    this.laneType = laneType;
+    this.arguments = arguments;
+    this.forms = arguments != null ? new AtomicReferenceArray<Form<Object>>(arguments.length) : null;
+    this.isResident = isResident;
+    this.isTransient = isTransient;
+  }
+
+  protected AgentLaneAccessor(String laneUri, Class<?> laneType, Type[] arguments,
+                              Boolean isResident, Boolean isTransient) {
+    this(Uri.parse(laneUri), laneType, arguments, isResident, isTransient);
+  }
+
+  public final Uri laneUri() {
+    return this.laneUri;
+  }
+
+  /**
+   * Returns the current value of the lane field of {@code agent}.
+   */
+  public abstract Object getLane(A agent);
+
+  /**
+   * Assigns {@code lane} to the lane field of {@code agent}.
+   */
+  public abstract void setLane(A agent, Object lane);
+
+  /**
+   * Returns the {@code Form} of the lane type argument at {@code index}, or
+   * {@code null} if the type argument isn't a concrete class.
+   */
+  Form<Object> form(int index) {
+    Form<Object> form = this.forms.get(index);
+    if (form == null) {
+      final Type argument = this.arguments[index];
+      if (argument instanceof Class<?>) {
+        form = Form.forClass((Class<?>) argument);
+        this.forms.lazySet(index, form);
+      }
+    }
+    return form;
+  }
+}
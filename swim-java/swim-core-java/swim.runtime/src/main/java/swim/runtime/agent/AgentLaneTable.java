@@ -0,0 +1,71 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.runtime.agent;
+
+import swim.collections.HashTrieMap;
+import swim.runtime.LaneBinding;
+import swim.uri.Uri;
+
+/**
+ * Immutable open-addressed table of the lanes of an agent, keyed by lane URI.
+ * Lane URIs are interned when lanes are opened, and envelope lane URIs are
+ * interned when parsed, so lookups almost always hit on reference equality
+ * before falling back to {@code Uri.equals}.
+ */
+final class AgentLaneTable {
+  final HashTrieMap<Uri, LaneBinding> lanes;
+  final Uri[] laneUris;
+  final LaneBinding[] laneBindings;
+
+  AgentLaneTable(HashTrieMap<Uri, LaneBinding> lanes, Uri[] laneUris, LaneBinding[] laneBindings) {
+    this.lanes = lanes;
+    this.laneUris = laneUris;
+    this.laneBindings = laneBindings;
+  }
+
+  LaneBinding get(Uri laneUri) {
+    final Uri[] laneUris = this.laneUris;
+    final int mask = laneUris.length - 1;
+    int index = laneUri.hashCode() & mask;
+    Uri key;
+    while ((key = laneUris[index]) != null) {
+      if (key == laneUri || key.equals(laneUri)) {
+        return this.laneBindings[index];
+      }
+      index = (index + 1) & mask;
+    }
+    return null;
+  }
+
+  static AgentLaneTable from(HashTrieMap<Uri, LaneBinding> lanes) {
+    int capacity = 2;
+    while (capacity < 2 * lanes.size()) {
+      capacity <<= 1;
+    }
+    final int mask = capacity - 1;
+    final Uri[] laneUris = new Uri[capacity];
+    final LaneBinding[] laneBindings = new LaneBinding[capacity];
+    for (HashTrieMap.Entry<Uri, LaneBinding> lane : lanes) {
+      final Uri laneUri = lane.getKey();
+      int index = laneUri.hashCode() & mask;
+      while (laneUris[index] != null) {
+        index = (index + 1) & mask;
+      }
+      laneUris[index] = laneUri;
+      laneBindings[index] = lane.getValue();
+    }
+    return new AgentLaneTable(lanes, laneUris, laneBindings);
+  }
+}
@@ -15,7 +15,8 @@
 package swim.runtime.agent;
 
 import java.util.Iterator;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import swim.api.data.DataFactory;
 import swim.api.data.ListData;
@@ -38,6 +39,7 @@ import swim.api.lane.ValueLane;
 import swim.api.policy.Policy;
 import swim.collections.HashTrieMap;
 import swim.concurrent.Call;
+import swim.concurrent.ConcurrentChunkQueue;
 import swim.concurrent.Cont;
 import swim.concurrent.Conts;
 import swim.concurrent.Schedule;
@@ -91,14 +93,41 @@ public class AgentNode extends AbstractTierBinding implements NodeBinding, CellC
 
   volatile HashTrieMap<Uri, LaneBinding> lanes;
 
+  /**
+   * Compact snapshot of {@link #lanes} used for per-message lane dispatch;
+   * rebuilt on lookup whenever {@code lanes} has changed since the snapshot
+   * was taken.
+   */
+  volatile AgentLaneTable laneTable;
+
   volatile HashTrieMap<Value, DataBinding> data;
 
-  final ConcurrentLinkedQueue<Runnable> mailbox;
+  /**
+   * Commands to run on this node's task.  Any thread may add commands, but
+   * only {@link #runTask()} polls them, and a task never runs concurrently
+   * with itself, so the mailbox has the single consumer that
+   * {@code ConcurrentChunkQueue} requires.
+   */
+  final ConcurrentChunkQueue<Runnable> mailbox;
+
+  /**
+   * Time, in milliseconds since the epoch, before which this node is
+   * considered active; advanced by mailbox activity, and by timers to their
+   * scheduled deadlines.
+   */
+  volatile long activeTime;
+
+  /**
+   * Number of downlinks currently opened by this node.
+   */
+  volatile int downlinkCount;
 
   public AgentNode() {
     this.lanes = HashTrieMap.empty();
+    this.laneTable = AgentLaneTable.from(this.lanes);
     this.data = HashTrieMap.empty();
-    this.mailbox = new ConcurrentLinkedQueue<Runnable>();
+    this.mailbox = new ConcurrentChunkQueue<Runnable>();
+    this.activeTime = System.currentTimeMillis();
   }
 
   @Override
@@ -181,11 +210,21 @@ public class AgentNode extends AbstractTierBinding implements NodeBinding, CellC
   @Override
   public LaneBinding getLane(Uri laneUri) {
     laneUri = normalizeLaneUri(laneUri);
-    return this.lanes.get(laneUri);
+    return laneTable().get(laneUri);
+  }
+
+  AgentLaneTable laneTable() {
+    final HashTrieMap<Uri, LaneBinding> lanes = this.lanes;
+    AgentLaneTable laneTable = this.laneTable;
+    if (laneTable.lanes != lanes) {
+      laneTable = AgentLaneTable.from(lanes);
+      this.laneTable = laneTable;
+    }
+    return laneTable;
   }
 
   public LaneBinding openLaneView(Uri laneUri, LaneView laneView) {
-    laneUri = normalizeLaneUri(laneUri);
+    laneUri = normalizeLaneUri(laneUri).intern();
     HashTrieMap<Uri, LaneBinding> oldLanes;
     HashTrieMap<Uri, LaneBinding> newLanes;
     LaneBinding laneBinding = null;
@@ -218,7 +257,7 @@ public class AgentNode extends AbstractTierBinding implements NodeBinding, CellC
 
   @Override
   public LaneBinding openLane(Uri laneUri, LaneBinding lane) {
-    laneUri = normalizeLaneUri(laneUri);
+    laneUri = normalizeLaneUri(laneUri).intern();
     HashTrieMap<Uri, LaneBinding> oldLanes;
     HashTrieMap<Uri, LaneBinding> newLanes;
     LaneBinding laneBinding = null;
@@ -452,8 +491,7 @@ public class AgentNode extends AbstractTierBinding implements NodeBinding, CellC
 
   @Override
   public void openUplink(LinkBinding link) {
-    final Uri laneUri = normalizeLaneUri(link.laneUri());
-    final LaneBinding laneBinding = getLane(laneUri);
+    final LaneBinding laneBinding = getLane(link.laneUri());
     if (laneBinding != null) {
       laneBinding.openUplink(link);
     } else {
@@ -470,12 +508,13 @@ public class AgentNode extends AbstractTierBinding implements NodeBinding, CellC
 
   @Override
   public void openDownlink(LinkBinding link) {
+    DOWNLINK_COUNT.incrementAndGet(this);
     this.nodeContext.openDownlink(link);
   }
 
   @Override
   public void closeDownlink(LinkBinding link) {
-    // nop
+    DOWNLINK_COUNT.decrementAndGet(this);
   }
 
   @Override
@@ -634,6 +673,14 @@ public class AgentNode extends AbstractTierBinding implements NodeBinding, CellC
     return agentTimer;
   }
 
+  @Override
+  public TimerRef setTimer(long millis, long slackMillis, TimerFunction timer) {
+    final Schedule schedule = this.nodeContext.schedule();
+    final AgentTimer agentTimer = new AgentTimer(this, timer);
+    schedule.setTimer(millis, slackMillis, agentTimer);
+    return agentTimer;
+  }
+
   @Override
   public TaskRef task(TaskFunction task) {
     return this.nodeContext.stage().task(task);
@@ -655,8 +702,38 @@ public class AgentNode extends AbstractTierBinding implements NodeBinding, CellC
     return false;
   }
 
+  @Override
+  public boolean isIdle(long idleMillis) {
+    if (this.downlinkCount > 0 || !this.mailbox.isEmpty()
+        || System.currentTimeMillis() - this.activeTime < idleMillis) {
+      return false;
+    }
+    final Iterator<LaneBinding> lanesIterator = this.lanes.valueIterator();
+    while (lanesIterator.hasNext()) {
+      final LaneBinding lane = lanesIterator.next();
+      // Transient lane state would be lost if this node were passivated.
+      if (lane.isTransient() || !lane.getUplinks().isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  void didActivate(long activeTime) {
+    long oldActiveTime;
+    do {
+      oldActiveTime = this.activeTime;
+    } while (activeTime > oldActiveTime && !ACTIVE_TIME.compareAndSet(this, oldActiveTime, activeTime));
+  }
+
+  void timerWillSchedule(long millis) {
+    // Keep the node active at least until the timer fires.
+    didActivate(System.currentTimeMillis() + millis);
+  }
+
   @Override
   public void runTask() {
+    didActivate(System.currentTimeMillis());
     do {
       final Runnable command = this.mailbox.poll();
       if (command != null) {
@@ -685,6 +762,12 @@ public class AgentNode extends AbstractTierBinding implements NodeBinding, CellC
     // nop
   }
 
+  static final AtomicLongFieldUpdater<AgentNode> ACTIVE_TIME =
+      AtomicLongFieldUpdater.newUpdater(AgentNode.class, "activeTime");
+
+  static final AtomicIntegerFieldUpdater<AgentNode> DOWNLINK_COUNT =
+      AtomicIntegerFieldUpdater.newUpdater(AgentNode.class, "downlinkCount");
+
   @SuppressWarnings("unchecked")
   static final AtomicReferenceFieldUpdater<AgentNode, HashTrieMap<Uri, LaneBinding>> LANES =
       AtomicReferenceFieldUpdater.newUpdater(AgentNode.class, (Class<HashTrieMap<Uri, LaneBinding>>) (Class<?>) HashTrieMap.class, "lanes");
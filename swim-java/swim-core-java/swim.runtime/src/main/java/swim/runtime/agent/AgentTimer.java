@@ -53,6 +53,7 @@ public class AgentTimer implements Timer, TimerContext, TimerRef, Runnable {
 
   @Override
   public void timerWillSchedule(long millis) {
+    this.node.timerWillSchedule(millis);
     if (this.timer instanceof Timer) {
       ((Timer) this.timer).timerWillSchedule(millis);
     }
@@ -24,6 +24,8 @@ import swim.collections.FingerTrieSeq;
 import swim.runtime.CellContext;
 import swim.runtime.LinkBinding;
 import swim.runtime.LinkContext;
+import swim.structure.Attr;
+import swim.structure.Record;
 import swim.structure.Value;
 import swim.uri.Uri;
 import swim.util.Log;
@@ -58,6 +60,18 @@ public abstract class DownlinkModem implements LinkBinding, Log {
 
   protected volatile int status;
 
+  /**
+   * Epoch of the remote lane log position last synced to, or {@code 0} if
+   * the remote lane doesn't report its log position.
+   */
+  protected volatile long syncEpoch;
+
+  /**
+   * Version of the remote lane log position last synced to, from which a
+   * reopened link resumes.
+   */
+  protected volatile long syncVersion;
+
   public DownlinkModem(Uri meshUri, Uri hostUri, Uri nodeUri, Uri laneUri,
                        float prio, float rate, Value body) {
     this.meshUri = meshUri;
@@ -544,6 +558,12 @@ public abstract class DownlinkModem implements LinkBinding, Log {
   }
 
   protected SyncRequest syncRequest() {
+    final long syncEpoch = this.syncEpoch;
+    if (syncEpoch != 0L) {
+      final Record since = Record.create(2).slot("epoch", syncEpoch).slot("version", this.syncVersion);
+      return new SyncRequest(this.nodeUri, this.laneUri, this.prio, this.rate,
+                             this.body.concat(Attr.of("since", since)));
+    }
     return new SyncRequest(this.nodeUri, this.laneUri, this.prio, this.rate, this.body);
   }
 
@@ -621,6 +641,14 @@ public abstract class DownlinkModem implements LinkBinding, Log {
   }
 
   protected void didSync(SyncedResponse response) {
+    final Value log = response.body().getAttr("log");
+    if (log.isDefined()) {
+      this.syncVersion = log.get("version").longValue(0L);
+      this.syncEpoch = log.get("epoch").longValue(0L);
+    } else {
+      // The lane keeps no log; resync in full.
+      this.syncEpoch = 0L;
+    }
     int oldStatus;
     int newStatus;
     do {
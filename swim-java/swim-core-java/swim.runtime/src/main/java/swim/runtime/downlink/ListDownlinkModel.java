@@ -61,6 +61,11 @@ public class ListDownlinkModel extends SupplyDownlinkModem<ListDownlinkView<?>>
 
   @Override
   protected void pushDownEvent(EventMessage message) {
+    if (this.syncEpoch != 0L && (this.status & SYNCING) == 0) {
+      // Every list event after the synced response advances the remote
+      // lane log by one version.
+      this.syncVersion += 1L;
+    }
     onEvent(message);
     final Value payload = message.body();
     final String tag = payload.tag();
@@ -14,10 +14,12 @@
 
 package swim.runtime.downlink;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 import swim.collections.BTreeMap;
+import swim.collections.HashTrieMap;
 import swim.structure.Attr;
 import swim.structure.Form;
 import swim.structure.Record;
@@ -220,6 +222,36 @@ public class MapDownlinkModel extends PartialDownlinkModem<MapDownlinkView<?, ?>
     }
   }
 
+  /**
+   * Puts all entries of {@code map} into the downlink state with a single
+   * update, running each view's update callbacks for all entries in one relay
+   * pass, and cueing the updated keys up at once.
+   */
+  @SuppressWarnings("unchecked")
+  public <K, V> void putAll(MapDownlinkView<K, V> view, Map<? extends K, ? extends V> map) {
+    final int n = map.size();
+    if (n == 0) {
+      return;
+    }
+    final Form<K> keyForm = view.keyForm;
+    final Form<V> valueForm = view.valueForm;
+    final MapDownlinkRelayUpdateAll relay = new MapDownlinkRelayUpdateAll(this, n);
+    relay.keyForm = (Form<Object>) keyForm;
+    relay.valueForm = (Form<Object>) valueForm;
+    int i = 0;
+    for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+      final K keyObject = entry.getKey();
+      final V newObject = entry.getValue();
+      relay.keys[i] = keyForm.mold(keyObject).toValue();
+      relay.keyObjects[i] = keyObject;
+      relay.newValues[i] = valueForm.mold(newObject).toValue();
+      relay.newObjects[i] = newObject;
+      i += 1;
+    }
+    relay.stage = view.stage;
+    relay.run();
+  }
+
   @SuppressWarnings("unchecked")
   public <K, V> V remove(MapDownlinkView<K, V> view, K keyObject) {
     final Form<K> keyForm = view.keyForm;
@@ -426,6 +458,116 @@ final class MapDownlinkRelayUpdate extends DownlinkRelay<MapDownlinkModel, MapDo
   }
 }
 
+final class MapDownlinkRelayUpdateAll extends DownlinkRelay<MapDownlinkModel, MapDownlinkView<?, ?>> {
+  Form<Object> keyForm;
+  Form<Object> valueForm;
+  final Value[] keys;
+  final Object[] keyObjects;
+  final Value[] oldValues;
+  final Object[] oldObjects;
+  final Value[] newValues;
+  final Object[] newObjects;
+
+  MapDownlinkRelayUpdateAll(MapDownlinkModel model, int count) {
+    super(model, 1, 3);
+    this.keys = new Value[count];
+    this.keyObjects = new Object[count];
+    this.oldValues = new Value[count];
+    this.oldObjects = new Object[count];
+    this.newValues = new Value[count];
+    this.newObjects = new Object[count];
+  }
+
+  @Override
+  void beginPhase(int phase) {
+    if (phase == 2) {
+      if (this.model.isStateful()) {
+        HashTrieMap<Value, Value> updates = HashTrieMap.empty();
+        for (int i = 0; i < this.keys.length; i += 1) {
+          updates = updates.updated(this.keys[i], this.newValues[i]);
+        }
+        final OrderedMap<Value, Value> oldState = this.model.state.getAndPutAll(updates);
+        for (int i = 0; i < this.keys.length; i += 1) {
+          this.oldValues[i] = oldState.get(this.keys[i]);
+        }
+      }
+      for (int i = 0; i < this.keys.length; i += 1) {
+        if (this.oldValues[i] == null) {
+          this.oldValues[i] = Value.absent();
+        }
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  boolean runPhase(MapDownlinkView<?, ?> view, int phase, boolean preemptive) {
+    final Form<Object> keyForm = (Form<Object>) view.keyForm;
+    if (this.keyForm != keyForm && keyForm != null) {
+      this.keyForm = keyForm;
+      for (int i = 0; i < this.keys.length; i += 1) {
+        this.keyObjects[i] = cast(keyForm, this.keys[i]);
+      }
+    }
+    final Form<Object> valueForm = (Form<Object>) view.valueForm;
+    boolean complete = true;
+    if (phase == 1) {
+      for (int i = 0; i < this.keys.length; i += 1) {
+        this.newValues[i] = view.downlinkWillUpdateValue(this.keys[i], this.newValues[i]);
+      }
+      if (this.valueForm != valueForm && valueForm != null) {
+        this.valueForm = valueForm;
+        for (int i = 0; i < this.keys.length; i += 1) {
+          this.newObjects[i] = valueForm.cast(this.newValues[i]);
+        }
+      }
+      for (int i = 0; i < this.keys.length; i += 1) {
+        if (preemptive) {
+          this.newObjects[i] = ((MapDownlinkView<Object, Object>) view).downlinkWillUpdate(this.keyObjects[i], this.newObjects[i]);
+        }
+        final Map.Entry<Boolean, Object> result = ((MapDownlinkView<Object, Object>) view).dispatchWillUpdate(this.keyObjects[i], this.newObjects[i], preemptive);
+        if (this.newObjects[i] != result.getValue()) {
+          this.newObjects[i] = result.getValue();
+          this.newValues[i] = valueForm.mold(this.newObjects[i]).toValue();
+        }
+        complete = result.getKey() && complete;
+      }
+    } else if (phase == 2) {
+      if (valueForm != null) {
+        this.valueForm = valueForm;
+      }
+      for (int i = 0; i < this.keys.length; i += 1) {
+        view.downlinkDidUpdateValue(this.keys[i], this.newValues[i], this.oldValues[i]);
+        if (valueForm != null) {
+          this.oldObjects[i] = cast(valueForm, this.oldValues[i]);
+          this.newObjects[i] = cast(valueForm, this.newValues[i]);
+        }
+        if (preemptive) {
+          ((MapDownlinkView<Object, Object>) view).downlinkDidUpdate(this.keyObjects[i], this.newObjects[i], this.oldObjects[i]);
+        }
+        complete = ((MapDownlinkView<Object, Object>) view).dispatchDidUpdate(this.keyObjects[i], this.newObjects[i], this.oldObjects[i], preemptive) && complete;
+      }
+    } else {
+      throw new AssertionError(); // unreachable
+    }
+    return complete;
+  }
+
+  @Override
+  void done() {
+    this.model.cueUpKeys(Arrays.asList(this.keys));
+  }
+
+  static Object cast(Form<Object> form, Value value) {
+    final Object object = form.cast(value);
+    if (object != null) {
+      return object;
+    } else {
+      return form.unit();
+    }
+  }
+}
+
 final class MapDownlinkRelayRemove extends DownlinkRelay<MapDownlinkModel, MapDownlinkView<?, ?>> {
   final EventMessage message;
   Form<Object> keyForm;
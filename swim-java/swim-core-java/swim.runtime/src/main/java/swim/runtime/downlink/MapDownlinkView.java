@@ -1170,9 +1170,7 @@ public class MapDownlinkView<K, V> extends DownlinkView implements MapDownlink<K
 
   @Override
   public void putAll(Map<? extends K, ? extends V> map) {
-    for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
-      this.model.put(this, entry.getKey(), entry.getValue());
-    }
+    this.model.putAll(this, map);
   }
 
   @SuppressWarnings("unchecked")
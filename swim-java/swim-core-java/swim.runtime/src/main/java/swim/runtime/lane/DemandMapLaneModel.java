@@ -16,13 +16,52 @@ package swim.runtime.lane;
 
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import swim.api.uplink.Uplink;
 import swim.collections.FingerTrieSeq;
+import swim.collections.HashTrieMap;
+import swim.collections.HashTrieSet;
 import swim.runtime.LinkBinding;
 import swim.structure.Record;
 import swim.structure.Value;
 
 public class DemandMapLaneModel extends LaneModel<DemandMapLaneView<?, ?>, DemandMapLaneUplink> {
+  volatile long cacheMillis;
+
+  /**
+   * Values computed for cued keys, shared by all uplinks of this lane, and
+   * bounded to {@link #CACHE_SIZE} entries.
+   */
+  volatile HashTrieMap<Value, DemandMapLaneCacheEntry> cache;
+
+  /**
+   * Time after which the next insert sweeps expired entries from the cache.
+   */
+  volatile long sweepTime;
+
+  /**
+   * Keys cued since the last {@code OnCueKeys} batch ran.
+   */
+  volatile HashTrieSet<Value> cueQueue;
+
+  public DemandMapLaneModel(long cacheMillis) {
+    this.cacheMillis = cacheMillis;
+    this.cache = HashTrieMap.empty();
+    this.cueQueue = HashTrieSet.empty();
+  }
+
+  public DemandMapLaneModel() {
+    this(0L);
+  }
+
+  public final long cacheMillis() {
+    return this.cacheMillis;
+  }
+
+  public void cacheMillis(long cacheMillis) {
+    this.cacheMillis = cacheMillis;
+  }
+
   @Override
   protected DemandMapLaneUplink createUplink(LinkBinding link) {
     return new DemandMapLaneUplink(this, link);
@@ -34,6 +73,28 @@ public class DemandMapLaneModel extends LaneModel<DemandMapLaneView<?, ?>, Deman
   }
 
   void cueDownKey(Value key) {
+    if (hasOnCueKeys()) {
+      HashTrieSet<Value> oldCueQueue;
+      HashTrieSet<Value> newCueQueue;
+      do {
+        oldCueQueue = this.cueQueue;
+        newCueQueue = oldCueQueue.added(key);
+      } while (oldCueQueue != newCueQueue && !CUE_QUEUE.compareAndSet(this, oldCueQueue, newCueQueue));
+      if (isPreemptiveOnCueKeys()) {
+        // Preemptive batches run on the first uplink to pull a queued key,
+        // without a round trip through the lane's stage.
+        invalidate(key);
+        cueUplinks(key);
+      } else if (oldCueQueue.isEmpty() && !newCueQueue.isEmpty()) {
+        stage().execute(new DemandMapLaneCueKeys(this));
+      }
+    } else {
+      invalidate(key);
+      cueUplinks(key);
+    }
+  }
+
+  void cueUplinks(Value key) {
     FingerTrieSeq<DemandMapLaneUplink> uplinks;
     do {
       uplinks = this.uplinks;
@@ -44,10 +105,100 @@ public class DemandMapLaneModel extends LaneModel<DemandMapLaneView<?, ?>, Deman
   }
 
   void remove(Value key) {
+    invalidate(key);
     sendDown(Record.create(1).attr("remove", Record.create(1).slot("key", key)));
   }
 
+  void invalidate(Value key) {
+    HashTrieMap<Value, DemandMapLaneCacheEntry> oldCache;
+    HashTrieMap<Value, DemandMapLaneCacheEntry> newCache;
+    do {
+      oldCache = this.cache;
+      newCache = oldCache.removed(key);
+    } while (oldCache != newCache && !CACHE.compareAndSet(this, oldCache, newCache));
+  }
+
+  void cache(Value key, Value value, long now, long expiry) {
+    final DemandMapLaneCacheEntry entry = new DemandMapLaneCacheEntry(value, expiry);
+    final boolean sweep = now >= this.sweepTime;
+    HashTrieMap<Value, DemandMapLaneCacheEntry> oldCache;
+    HashTrieMap<Value, DemandMapLaneCacheEntry> newCache;
+    do {
+      oldCache = this.cache;
+      newCache = oldCache;
+      if (sweep || newCache.size() >= CACHE_SIZE && !newCache.containsKey(key)) {
+        newCache = sweep(newCache, key, now);
+      }
+      newCache = newCache.updated(key, entry);
+    } while (!CACHE.compareAndSet(this, oldCache, newCache));
+    if (sweep) {
+      final long cacheMillis = this.cacheMillis;
+      this.sweepTime = now + (cacheMillis > 0L ? cacheMillis : BATCH_MILLIS);
+    }
+  }
+
+  /**
+   * Removes all expired entries from {@code cache}, and, if the cache is
+   * still too full to insert {@code key}, the entry that expires soonest.
+   */
+  static HashTrieMap<Value, DemandMapLaneCacheEntry> sweep(HashTrieMap<Value, DemandMapLaneCacheEntry> cache,
+                                                           Value key, long now) {
+    HashTrieMap<Value, DemandMapLaneCacheEntry> newCache = cache;
+    Value soonestKey = null;
+    long soonestExpiry = Long.MAX_VALUE;
+    for (Map.Entry<Value, DemandMapLaneCacheEntry> entry : cache) {
+      final long expiry = entry.getValue().expiry;
+      if (now >= expiry) {
+        newCache = newCache.removed(entry.getKey());
+      } else if (soonestKey == null || expiry < soonestExpiry) {
+        soonestKey = entry.getKey();
+        soonestExpiry = expiry;
+      }
+    }
+    if (newCache.size() >= CACHE_SIZE && soonestKey != null && !newCache.containsKey(key)) {
+      newCache = newCache.removed(soonestKey);
+    }
+    return newCache;
+  }
+
+  void uncache(Value key, DemandMapLaneCacheEntry entry) {
+    HashTrieMap<Value, DemandMapLaneCacheEntry> oldCache;
+    HashTrieMap<Value, DemandMapLaneCacheEntry> newCache;
+    do {
+      oldCache = this.cache;
+      if (oldCache.get(key) != entry) {
+        break;
+      }
+      newCache = oldCache.removed(key);
+    } while (!CACHE.compareAndSet(this, oldCache, newCache));
+  }
+
   Value nextDownCue(Value key, Uplink uplink) {
+    final long now = System.currentTimeMillis();
+    final DemandMapLaneCacheEntry entry = this.cache.get(key);
+    if (entry != null) {
+      if (now < entry.expiry) {
+        return entry.value;
+      } else {
+        uncache(key, entry);
+      }
+    }
+    if (this.cueQueue.contains(key) && isPreemptiveOnCueKeys()) {
+      cueKeys(true);
+      final DemandMapLaneCacheEntry batchEntry = this.cache.get(key);
+      if (batchEntry != null) {
+        return batchEntry.value;
+      }
+    }
+    final Value value = computeDownCue(key, uplink);
+    final long cacheMillis = this.cacheMillis;
+    if (value != null && cacheMillis > 0L) {
+      cache(key, value, now, now + cacheMillis);
+    }
+    return value;
+  }
+
+  Value computeDownCue(Value key, Uplink uplink) {
     final Object views = this.views;
     if (views instanceof DemandMapLaneView<?, ?>) {
       return ((DemandMapLaneView<?, ?>) views).nextDownCue(key, uplink);
@@ -63,6 +214,92 @@ public class DemandMapLaneModel extends LaneModel<DemandMapLaneView<?, ?>, Deman
     return null;
   }
 
+  boolean hasOnCueKeys() {
+    final Object views = this.views;
+    if (views instanceof DemandMapLaneView<?, ?>) {
+      return ((DemandMapLaneView<?, ?>) views).hasOnCueKeys();
+    } else if (views instanceof LaneView[]) {
+      final LaneView[] viewArray = (LaneView[]) views;
+      for (int i = 0, n = viewArray.length; i < n; i += 1) {
+        if (((DemandMapLaneView<?, ?>) viewArray[i]).hasOnCueKeys()) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  boolean isPreemptiveOnCueKeys() {
+    final Object views = this.views;
+    if (views instanceof DemandMapLaneView<?, ?>) {
+      return ((DemandMapLaneView<?, ?>) views).isPreemptiveOnCueKeys();
+    } else if (views instanceof LaneView[]) {
+      final LaneView[] viewArray = (LaneView[]) views;
+      for (int i = 0, n = viewArray.length; i < n; i += 1) {
+        if (!((DemandMapLaneView<?, ?>) viewArray[i]).isPreemptiveOnCueKeys()) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  Value[] nextDownCues(Value[] keys, boolean preemptive) {
+    final Object views = this.views;
+    if (views instanceof DemandMapLaneView<?, ?>) {
+      return ((DemandMapLaneView<?, ?>) views).nextDownCues(keys, preemptive);
+    } else if (views instanceof LaneView[]) {
+      final LaneView[] viewArray = (LaneView[]) views;
+      for (int i = 0, n = viewArray.length; i < n; i += 1) {
+        final Value[] values = ((DemandMapLaneView<?, ?>) viewArray[i]).nextDownCues(keys, preemptive);
+        if (values != null) {
+          return values;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Computes the values of all keys cued since the last batch in a single
+   * {@code OnCueKeys} pass, and caches them until they expire after
+   * {@code cacheMillis}, or after {@link #BATCH_MILLIS} if no cache time is
+   * set, long enough for every cued uplink to pull them.  Keys the batch
+   * leaves out are computed by {@code OnCueKey} when an uplink pulls them.
+   * A non-{@code preemptive} batch runs on the lane's stage, and cues its
+   * keys to every uplink once computed; a {@code preemptive} batch runs on
+   * the pulling uplink's thread, after its keys have already been cued.
+   */
+  void cueKeys(boolean preemptive) {
+    final HashTrieSet<Value> cueQueue = CUE_QUEUE.getAndSet(this, HashTrieSet.<Value>empty());
+    final int n = cueQueue.size();
+    if (n == 0) {
+      return;
+    }
+    final Value[] keys = new Value[n];
+    int i = 0;
+    for (Value key : cueQueue) {
+      keys[i] = key;
+      i += 1;
+    }
+    final Value[] values = nextDownCues(keys, preemptive);
+    final long cacheMillis = this.cacheMillis;
+    final long now = System.currentTimeMillis();
+    final long expiry = now + (cacheMillis > 0L ? cacheMillis : BATCH_MILLIS);
+    for (i = 0; i < n; i += 1) {
+      final Value key = keys[i];
+      final Value value = values != null ? values[i] : null;
+      if (value != null) {
+        cache(key, value, now, expiry);
+      } else {
+        invalidate(key);
+      }
+      if (!preemptive) {
+        cueUplinks(key);
+      }
+    }
+  }
+
   Iterator<Map.Entry<Value, Value>> syncKeys(Uplink uplink) {
     final Object views = this.views;
     if (views instanceof DemandMapLaneView<?, ?>) {
@@ -78,4 +315,57 @@ public class DemandMapLaneModel extends LaneModel<DemandMapLaneView<?, ?>, Deman
     }
     return null;
   }
+
+  static final int CACHE_SIZE;
+
+  static final long BATCH_MILLIS;
+
+  static {
+    int cacheSize;
+    try {
+      cacheSize = Integer.parseInt(System.getProperty("swim.lane.demand.cache.size"));
+    } catch (NumberFormatException e) {
+      cacheSize = 1024;
+    }
+    CACHE_SIZE = Math.max(1, cacheSize);
+
+    long batchMillis;
+    try {
+      batchMillis = Long.parseLong(System.getProperty("swim.lane.demand.batch.millis"));
+    } catch (NumberFormatException e) {
+      batchMillis = 1000L;
+    }
+    BATCH_MILLIS = Math.max(1L, batchMillis);
+  }
+
+  @SuppressWarnings("unchecked")
+  static final AtomicReferenceFieldUpdater<DemandMapLaneModel, HashTrieMap<Value, DemandMapLaneCacheEntry>> CACHE =
+      AtomicReferenceFieldUpdater.newUpdater(DemandMapLaneModel.class, (Class<HashTrieMap<Value, DemandMapLaneCacheEntry>>) (Class<?>) HashTrieMap.class, "cache");
+
+  @SuppressWarnings("unchecked")
+  static final AtomicReferenceFieldUpdater<DemandMapLaneModel, HashTrieSet<Value>> CUE_QUEUE =
+      AtomicReferenceFieldUpdater.newUpdater(DemandMapLaneModel.class, (Class<HashTrieSet<Value>>) (Class<?>) HashTrieSet.class, "cueQueue");
+}
+
+final class DemandMapLaneCacheEntry {
+  final Value value;
+  final long expiry;
+
+  DemandMapLaneCacheEntry(Value value, long expiry) {
+    this.value = value;
+    this.expiry = expiry;
+  }
+}
+
+final class DemandMapLaneCueKeys implements Runnable {
+  final DemandMapLaneModel laneBinding;
+
+  DemandMapLaneCueKeys(DemandMapLaneModel laneBinding) {
+    this.laneBinding = laneBinding;
+  }
+
+  @Override
+  public void run() {
+    this.laneBinding.cueKeys(false);
+  }
 }
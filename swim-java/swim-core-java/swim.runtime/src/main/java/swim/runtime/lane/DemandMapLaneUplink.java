@@ -17,8 +17,6 @@ package swim.runtime.lane;
 import swim.concurrent.Stage;
 import swim.runtime.LinkBinding;
 import swim.runtime.uplink.PartialUplinkModem;
-import swim.structure.Attr;
-import swim.structure.Record;
 import swim.structure.Value;
 import swim.warp.SyncRequest;
 
@@ -44,7 +42,7 @@ public class DemandMapLaneUplink extends PartialUplinkModem {
   protected Value nextDownKey(Value key) {
     final Value value = this.laneBinding.nextDownCue(key, this);
     if (value != null) {
-      return Attr.of("update", Record.create(1).slot("key", key)).concat(value);
+      return updateDownKey(key, value);
     } else {
       return null;
     }
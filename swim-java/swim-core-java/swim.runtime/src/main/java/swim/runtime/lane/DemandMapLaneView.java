@@ -14,6 +14,7 @@
 
 package swim.runtime.lane;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.Map;
 import swim.api.Link;
@@ -32,6 +33,7 @@ import swim.api.lane.function.DidEnter;
 import swim.api.lane.function.DidLeave;
 import swim.api.lane.function.DidUplink;
 import swim.api.lane.function.OnCueKey;
+import swim.api.lane.function.OnCueKeys;
 import swim.api.lane.function.OnSyncMap;
 import swim.api.lane.function.WillCommand;
 import swim.api.lane.function.WillEnter;
@@ -47,6 +49,7 @@ public class DemandMapLaneView<K, V> extends LaneView implements DemandMapLane<K
   protected final AgentContext agentContext;
   protected Form<K> keyForm;
   protected Form<V> valueForm;
+  protected long cacheMillis;
 
   protected DemandMapLaneModel laneBinding;
 
@@ -77,7 +80,7 @@ public class DemandMapLaneView<K, V> extends LaneView implements DemandMapLane<K
 
   @Override
   public DemandMapLaneModel createLaneBinding() {
-    return new DemandMapLaneModel();
+    return new DemandMapLaneModel(this.cacheMillis);
   }
 
   @Override
@@ -87,8 +90,10 @@ public class DemandMapLaneView<K, V> extends LaneView implements DemandMapLane<K
 
   @Override
   public <K2> DemandMapLaneView<K2, V> keyForm(Form<K2> keyForm) {
-    return new DemandMapLaneView<K2, V>(this.agentContext, keyForm, this.valueForm,
-                                        typesafeObservers(this.observers));
+    final DemandMapLaneView<K2, V> view = new DemandMapLaneView<K2, V>(this.agentContext, keyForm, this.valueForm,
+                                                                       typesafeObservers(this.observers));
+    view.didSetCacheMillis(this.cacheMillis);
+    return view;
   }
 
   @Override
@@ -107,8 +112,10 @@ public class DemandMapLaneView<K, V> extends LaneView implements DemandMapLane<K
 
   @Override
   public <V2> DemandMapLaneView<K, V2> valueForm(Form<V2> valueForm) {
-    return new DemandMapLaneView<K, V2>(this.agentContext, this.keyForm, valueForm,
-                                        typesafeObservers(this.observers));
+    final DemandMapLaneView<K, V2> view = new DemandMapLaneView<K, V2>(this.agentContext, this.keyForm, valueForm,
+                                                                       typesafeObservers(this.observers));
+    view.didSetCacheMillis(this.cacheMillis);
+    return view;
   }
 
   @Override
@@ -121,10 +128,33 @@ public class DemandMapLaneView<K, V> extends LaneView implements DemandMapLane<K
   }
 
   protected Object typesafeObservers(Object observers) {
-    // TODO: filter out OnCueKey, OnSyncMap
+    // TODO: filter out OnCueKey, OnCueKeys, OnSyncMap
     return observers;
   }
 
+  @Override
+  public final long cacheMillis() {
+    return this.cacheMillis;
+  }
+
+  @Override
+  public DemandMapLaneView<K, V> cacheMillis(long cacheMillis) {
+    didSetCacheMillis(cacheMillis);
+
+    // note: marked final given access of concurrently accessed volatile objects
+    final DemandMapLaneModel laneBinding = this.laneBinding;
+
+    if (laneBinding != null) {
+      laneBinding.cacheMillis(this.cacheMillis);
+    }
+
+    return this;
+  }
+
+  void didSetCacheMillis(long cacheMillis) {
+    this.cacheMillis = Math.max(0L, cacheMillis);
+  }
+
   @Override
   public final boolean isSigned() {
     return false; // TODO
@@ -157,6 +187,11 @@ public class DemandMapLaneView<K, V> extends LaneView implements DemandMapLane<K
     return observe(onCue);
   }
 
+  @Override
+  public DemandMapLaneView<K, V> onCueKeys(OnCueKeys<K, V> onCueKeys) {
+    return observe(onCueKeys);
+  }
+
   @Override
   public DemandMapLaneView<K, V> onSync(OnSyncMap<K, V> onSync) {
     return observe(onSync);
@@ -280,6 +315,62 @@ public class DemandMapLaneView<K, V> extends LaneView implements DemandMapLane<K
     }
   }
 
+  /**
+   * Returns the values computed by the first {@code OnCueKeys} observer that
+   * handles {@code keys}.  A {@code preemptive} dispatch, which may run
+   * concurrently with the agent, only invokes preemptive observers.
+   */
+  @SuppressWarnings("unchecked")
+  protected Map<K, V> dispatchOnCueKeys(ArrayList<K> keys, boolean preemptive) {
+    final Lane lane = SwimContext.getLane();
+    SwimContext.setLane(this);
+    try {
+      final Object observers = this.observers;
+      if (observers instanceof OnCueKeys<?, ?>) {
+        if (preemptive && !((OnCueKeys<?, ?>) observers).isPreemptive()) {
+          return null;
+        }
+        try {
+          final Map<K, V> values = ((OnCueKeys<K, V>) observers).onCue(keys);
+          if (values != null) {
+            return values;
+          }
+        } catch (Throwable error) {
+          if (Conts.isNonFatal(error)) {
+            laneDidFail(error);
+          } else {
+            throw error;
+          }
+        }
+      } else if (observers instanceof Object[]) {
+        final Object[] array = (Object[]) observers;
+        for (int i = 0, n = array.length; i < n; i += 1) {
+          final Object observer = array[i];
+          if (observer instanceof OnCueKeys<?, ?>) {
+            if (preemptive && !((OnCueKeys<?, ?>) observer).isPreemptive()) {
+              continue;
+            }
+            try {
+              final Map<K, V> values = ((OnCueKeys<K, V>) observer).onCue(keys);
+              if (values != null) {
+                return values;
+              }
+            } catch (Throwable error) {
+              if (Conts.isNonFatal(error)) {
+                laneDidFail(error);
+              } else {
+                throw error;
+              }
+            }
+          }
+        }
+      }
+      return null;
+    } finally {
+      SwimContext.setLane(lane);
+    }
+  }
+
   @SuppressWarnings("unchecked")
   protected Iterator<Map.Entry<K, V>> dispatchOnSync(Uplink uplink) {
     final Lane oldLane = SwimContext.getLane();
@@ -338,6 +429,65 @@ public class DemandMapLaneView<K, V> extends LaneView implements DemandMapLane<K
     }
   }
 
+  boolean hasOnCueKeys() {
+    final Object observers = this.observers;
+    if (observers instanceof OnCueKeys<?, ?>) {
+      return true;
+    } else if (observers instanceof Object[]) {
+      final Object[] array = (Object[]) observers;
+      for (int i = 0, n = array.length; i < n; i += 1) {
+        if (array[i] instanceof OnCueKeys<?, ?>) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns {@code true} if every {@code OnCueKeys} observer of this view is
+   * preemptive.
+   */
+  boolean isPreemptiveOnCueKeys() {
+    final Object observers = this.observers;
+    if (observers instanceof OnCueKeys<?, ?>) {
+      return ((OnCueKeys<?, ?>) observers).isPreemptive();
+    } else if (observers instanceof Object[]) {
+      final Object[] array = (Object[]) observers;
+      for (int i = 0, n = array.length; i < n; i += 1) {
+        if (array[i] instanceof OnCueKeys<?, ?> && !((OnCueKeys<?, ?>) array[i]).isPreemptive()) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the values computed for a batch of {@code keys}, aligned by
+   * index, or {@code null} if this view has no {@code OnCueKeys} observer.
+   */
+  Value[] nextDownCues(Value[] keys, boolean preemptive) {
+    final int n = keys.length;
+    final ArrayList<K> keyObjects = new ArrayList<K>(n);
+    for (int i = 0; i < n; i += 1) {
+      keyObjects.add(this.keyForm.cast(keys[i]));
+    }
+    final Map<K, V> objects = dispatchOnCueKeys(keyObjects, preemptive);
+    if (objects != null) {
+      final Value[] values = new Value[n];
+      for (int i = 0; i < n; i += 1) {
+        final V object = objects.get(keyObjects.get(i));
+        if (object != null) {
+          values[i] = this.valueForm.mold(object).toValue();
+        }
+      }
+      return values;
+    } else {
+      return null;
+    }
+  }
+
   @SuppressWarnings("unchecked")
   Iterator<Map.Entry<Value, Value>> syncKeys(Uplink uplink) {
     final Iterator<Map.Entry<K, V>> iterator = dispatchOnSync(uplink);
@@ -360,6 +510,11 @@ public class DemandMapLaneView<K, V> extends LaneView implements DemandMapLane<K
   public void remove(K key) {
     this.laneBinding.remove(this.keyForm.mold(key).toValue());
   }
+
+  @Override
+  public void invalidate(K key) {
+    this.laneBinding.invalidate(this.keyForm.mold(key).toValue());
+  }
 }
 
 final class DemandMapLaneIterator<K, V> implements Iterator<Map.Entry<Value, Value>> {
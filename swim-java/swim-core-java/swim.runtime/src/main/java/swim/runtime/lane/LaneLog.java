@@ -0,0 +1,152 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.runtime.lane;
+
+import java.util.concurrent.ThreadLocalRandom;
+import swim.structure.Record;
+import swim.structure.Value;
+
+/**
+ * Bounded log of the most recent changes to a lane, numbered by a lane local
+ * version.  A link that reconnects sends the log position it last synced to
+ * in a {@code @since(epoch: <epoch>, version: <version>)} attribute of its
+ * sync request body; if the log still covers every change after that
+ * position, only those changes are sent down, instead of the whole lane.
+ * The {@code epoch} distinguishes logs of different lane incarnations, whose
+ * versions are unrelated.  Lanes only keep a log if given a positive log
+ * capacity; list lane logs retain whole event bodies.
+ */
+final class LaneLog {
+  final long epoch;
+  final int capacity;
+  Value[] entries;
+  volatile long version;
+
+  LaneLog(int capacity) {
+    long epoch;
+    do {
+      epoch = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+    } while (epoch == 0L);
+    this.epoch = epoch;
+    this.capacity = capacity;
+  }
+
+  long version() {
+    return this.version;
+  }
+
+  /**
+   * Appends a change to this log, returning its version.  Only the append
+   * itself holds the log's monitor; callers fan changes out afterwards.
+   */
+  synchronized long append(Value entry) {
+    final long version = this.version + 1L;
+    Value[] entries = this.entries;
+    if (entries == null || entries.length < this.capacity && version > entries.length) {
+      entries = grow(entries, version);
+    }
+    entries[(int) (version % entries.length)] = entry;
+    this.version = version;
+    return version;
+  }
+
+  Value[] grow(Value[] oldEntries, long version) {
+    final int newCapacity = oldEntries == null ? Math.min(8, this.capacity)
+                          : Math.min(oldEntries.length << 1, this.capacity);
+    final Value[] newEntries = new Value[newCapacity];
+    if (oldEntries != null) {
+      final int oldCapacity = oldEntries.length;
+      final long first = Math.max(1L, version - oldCapacity);
+      for (long v = first; v < version; v += 1L) {
+        newEntries[(int) (v % newCapacity)] = oldEntries[(int) (v % oldCapacity)];
+      }
+    }
+    this.entries = newEntries;
+    return newEntries;
+  }
+
+  /**
+   * Returns the changes after version {@code since}, in order, or
+   * {@code null} if some of them have been trimmed from the log.
+   */
+  synchronized Value[] since(long since) {
+    final long version = this.version;
+    if (since < 0L || since > version) {
+      return null;
+    }
+    final int count = (int) Math.min(version - since, Integer.MAX_VALUE);
+    final Value[] entries = this.entries;
+    if (count == 0) {
+      return new Value[0];
+    } else if (entries == null || count > entries.length) {
+      return null;
+    }
+    final Value[] changes = new Value[count];
+    for (int i = 0; i < count; i += 1) {
+      changes[i] = entries[(int) ((since + 1L + i) % entries.length)];
+    }
+    return changes;
+  }
+
+  /**
+   * Returns the version from which a sync request with the given
+   * {@code body} asks to resume, {@code -1} if the request doesn't resume,
+   * or {@link Long#MAX_VALUE} if it resumes from a position in the log of a
+   * different lane incarnation, whose changes can't be replayed.
+   */
+  long resumeVersion(Value body) {
+    final Value since = body.getAttr("since");
+    if (!since.isDefined()) {
+      return -1L;
+    } else if (since.get("epoch").longValue(0L) == this.epoch) {
+      return Math.max(0L, since.get("version").longValue(0L));
+    } else {
+      return Long.MAX_VALUE;
+    }
+  }
+
+  /**
+   * Returns the {@code @log(epoch: <epoch>, version: <version>)} position of
+   * {@code version} in this log, sent down in synced responses.
+   */
+  Value position(long version) {
+    return Record.create(1).attr("log", Record.create(2).slot("epoch", this.epoch).slot("version", version));
+  }
+
+  /**
+   * Returns a new log that retains up to {@code capacity} changes, or
+   * {@code null} if {@code capacity} disables the log.
+   */
+  static LaneLog create(int capacity) {
+    return capacity > 0 ? new LaneLog(capacity) : null;
+  }
+
+  /**
+   * Default log capacity of map and list lanes; zero, which disables lane
+   * logs, unless overridden by the {@code swim.lane.log.capacity} system
+   * property.
+   */
+  static final int CAPACITY;
+
+  static {
+    int capacity;
+    try {
+      capacity = Integer.parseInt(System.getProperty("swim.lane.log.capacity"));
+    } catch (NumberFormatException error) {
+      capacity = 0;
+    }
+    CAPACITY = Math.max(0, capacity);
+  }
+}
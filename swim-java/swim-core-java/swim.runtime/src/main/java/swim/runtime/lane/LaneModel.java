@@ -51,6 +51,7 @@ import swim.structure.Value;
 import swim.uri.Uri;
 import swim.warp.CommandMessage;
 import swim.warp.Envelope;
+import swim.warp.EventMessage;
 
 public abstract class LaneModel<View extends LaneView, U extends UplinkModem> extends AbstractTierBinding implements LaneBinding {
   protected LaneContext laneContext;
@@ -59,6 +60,13 @@ public abstract class LaneModel<View extends LaneView, U extends UplinkModem> ex
 
   volatile FingerTrieSeq<U> uplinks;
 
+  /**
+   * Most recent event message sent down by an uplink of this lane, reused by
+   * every other uplink that sends down the same body, so that fanned out
+   * events get encoded once per lane, rather than once per uplink.
+   */
+  volatile EventMessage eventMessage;
+
   public LaneModel() {
     this.uplinks = FingerTrieSeq.empty();
   }
@@ -331,6 +339,19 @@ public abstract class LaneModel<View extends LaneView, U extends UplinkModem> ex
     } while (uplinks != this.uplinks);
   }
 
+  @Override
+  public EventMessage eventMessage(Uri nodeUri, Uri laneUri, Value body) {
+    EventMessage message = this.eventMessage;
+    if (message != null && message.body() == body
+        && message.nodeUri() == nodeUri && message.laneUri() == laneUri) {
+      message.share();
+    } else {
+      message = new EventMessage(nodeUri, laneUri, body);
+      this.eventMessage = message;
+    }
+    return message;
+  }
+
   @SuppressWarnings("unchecked")
   protected void sendDown(Value body) {
     FingerTrieSeq<U> uplinks;
@@ -17,6 +17,7 @@ package swim.runtime.lane;
 import java.util.Map;
 import swim.api.Link;
 import swim.api.data.ListData;
+import swim.collections.FingerTrieSeq;
 import swim.runtime.LaneContext;
 import swim.runtime.LinkBinding;
 import swim.structure.Attr;
@@ -28,9 +29,15 @@ import swim.warp.CommandMessage;
 public class ListLaneModel extends LaneModel<ListLaneView<?>, ListLaneUplink> {
   protected int flags;
   protected ListData<Value> data;
+  volatile LaneLog log;
 
-  ListLaneModel(int flags) {
+  ListLaneModel(int flags, int logCapacity) {
     this.flags = flags;
+    this.log = LaneLog.create(logCapacity);
+  }
+
+  ListLaneModel(int flags) {
+    this(flags, LaneLog.CAPACITY);
   }
 
   public ListLaneModel() {
@@ -59,6 +66,30 @@ public class ListLaneModel extends LaneModel<ListLaneView<?>, ListLaneUplink> {
     view.setLaneBinding(this);
   }
 
+  @Override
+  protected void sendDown(Value body) {
+    final LaneLog log = this.log;
+    if (log != null) {
+      // Fan out after the log releases its monitor; the agent sends lane
+      // events from its own stage, so uplinks queue them in version order.
+      final long version = log.append(body);
+      FingerTrieSeq<ListLaneUplink> uplinks;
+      do {
+        uplinks = this.uplinks;
+        for (int i = 0, n = uplinks.size(); i < n; i += 1) {
+          final ListLaneUplink uplink = uplinks.get(i);
+          if (uplink.isConnected()) {
+            uplink.sendDown(log, version, body);
+          } else {
+            closeUplink(uplink.linkKey());
+          }
+        }
+      } while (uplinks != this.uplinks);
+    } else {
+      super.sendDown(body);
+    }
+  }
+
   @Override
   public void onCommand(CommandMessage message) {
     final Value payload = message.body();
@@ -114,6 +145,39 @@ public class ListLaneModel extends LaneModel<ListLaneView<?>, ListLaneUplink> {
     }
   }
 
+  /**
+   * Returns the number of recent changes this lane retains, so that links
+   * that resync from a logged position receive only the changes they missed;
+   * zero if the lane keeps no log.
+   */
+  public final int logCapacity() {
+    final LaneLog log = this.log;
+    return log != null ? log.capacity : 0;
+  }
+
+  /**
+   * Retains up to {@code logCapacity} recent changes to this lane, or none,
+   * if {@code logCapacity} is zero.  Replaces any previous log of a different
+   * capacity, so links resyncing from a position in the previous log sync in
+   * full.
+   */
+  public ListLaneModel logCapacity(int logCapacity) {
+    final int newCapacity = Math.max(0, logCapacity);
+    if (newCapacity != logCapacity()) {
+      this.log = LaneLog.create(newCapacity);
+    }
+    final Object views = this.views;
+    if (views instanceof ListLaneView<?>) {
+      ((ListLaneView<?>) views).didSetLogCapacity(newCapacity);
+    } else if (views instanceof LaneView[]) {
+      final LaneView[] viewArray = (LaneView[]) views;
+      for (int i = 0, n = viewArray.length; i < n; i += 1) {
+        ((ListLaneView<?>) viewArray[i]).didSetLogCapacity(newCapacity);
+      }
+    }
+    return this;
+  }
+
   public final boolean isResident() {
     return (this.flags & RESIDENT) != 0;
   }
@@ -318,7 +382,8 @@ final class ListLaneRelayUpdate extends LaneRelay<ListLaneModel, ListLaneView<?>
   void beginPhase(int phase) {
     if (phase == 2) {
       final Map.Entry<Object, Value> entry;
-      if (model.data.isEmpty()) {
+      if (this.model.data.isEmpty() || this.key == null && this.index >= this.model.data.size()) {
+        // Inserts past the end of the list append.
         entry = null;
       } else {
         entry = this.model.data.getEntry(this.index, this.key);
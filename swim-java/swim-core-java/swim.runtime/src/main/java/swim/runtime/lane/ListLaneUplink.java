@@ -14,16 +14,46 @@
 
 package swim.runtime.lane;
 
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import swim.concurrent.Stage;
 import swim.runtime.LinkBinding;
 import swim.runtime.uplink.SupplyUplinkModem;
+import swim.structure.Attr;
+import swim.structure.Record;
+import swim.structure.Value;
+import swim.warp.SyncRequest;
+import swim.warp.SyncedResponse;
 
 public class ListLaneUplink extends SupplyUplinkModem {
   final ListLaneModel laneBinding;
 
+  final ConcurrentLinkedQueue<ListLaneUplinkEvent> eventQueue;
+
+  /**
+   * Lane log that the last sync positioned this link in, if any.
+   */
+  LaneLog syncLog;
+
+  /**
+   * Lane log version of the last event queued down; guarded by this uplink.
+   */
+  long queuedVersion;
+
+  /**
+   * Lane log version of the last event sent down.
+   */
+  volatile long downVersion;
+
   public ListLaneUplink(ListLaneModel laneBinding, LinkBinding linkBinding) {
     super(linkBinding);
     this.laneBinding = laneBinding;
+    this.eventQueue = new ConcurrentLinkedQueue<ListLaneUplinkEvent>();
+    final LaneLog log = laneBinding.log;
+    this.syncLog = log;
+    this.queuedVersion = log != null ? log.version() : 0L;
+    this.downVersion = this.queuedVersion;
   }
 
   @Override
@@ -35,4 +65,126 @@ public class ListLaneUplink extends SupplyUplinkModem {
   public Stage stage() {
     return this.laneBinding.stage();
   }
+
+  @Override
+  protected boolean downQueueIsEmpty() {
+    return this.eventQueue.isEmpty();
+  }
+
+  @Override
+  public void queueDown(Value body) {
+    final LaneLog log = this.laneBinding.log;
+    this.eventQueue.add(new ListLaneUplinkEvent(log != null ? log.version() : 0L, body));
+  }
+
+  /**
+   * Queues down an event that the lane logged in {@code log} at
+   * {@code version}, skipping events that a concurrent resync already
+   * replayed from the log.
+   */
+  void sendDown(LaneLog log, long version, Value body) {
+    synchronized (this) {
+      if (log == this.syncLog) {
+        if (version <= this.queuedVersion) {
+          return;
+        }
+        this.queuedVersion = version;
+      }
+      this.eventQueue.add(new ListLaneUplinkEvent(version, body));
+    }
+    feedDown();
+  }
+
+  @Override
+  protected Value nextDownQueue() {
+    final ListLaneUplinkEvent event = this.eventQueue.poll();
+    if (event != null) {
+      this.downVersion = event.version;
+      return event.body;
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  protected void willSync(SyncRequest request) {
+    final LaneLog log = this.laneBinding.log;
+    if (log != null) {
+      synchronized (this) {
+        final long since = log.resumeVersion(request.body());
+        if (since >= 0L) {
+          // Events queued since this uplink opened all follow the resumed
+          // position; replace them with every event the link missed.
+          this.eventQueue.clear();
+          final Value[] changes = log.since(since);
+          if (changes != null) {
+            for (int i = 0; i < changes.length; i += 1) {
+              this.eventQueue.add(new ListLaneUplinkEvent(since + 1L + i, changes[i]));
+            }
+            this.queuedVersion = since + changes.length;
+            this.downVersion = since;
+          } else {
+            // The log no longer covers the resumed position; replace the
+            // link's view of the list.
+            final long version = log.version();
+            this.eventQueue.add(new ListLaneUplinkEvent(version, Record.create(1).attr("clear")));
+            syncDown(version);
+            this.queuedVersion = version;
+            this.downVersion = version;
+          }
+        } else {
+          // Sync the list that later events apply to; events queued since
+          // this uplink opened are already reflected in it.
+          this.eventQueue.clear();
+          final long version = log.version();
+          syncDown(version);
+          this.queuedVersion = version;
+          this.downVersion = version;
+        }
+        this.syncLog = log;
+      }
+    } else {
+      synchronized (this) {
+        this.syncLog = null;
+      }
+    }
+    super.willSync(request);
+  }
+
+  /**
+   * Queues down every item of the list, as of lane log {@code version}.
+   */
+  void syncDown(long version) {
+    final Iterator<Map.Entry<Object, Value>> entries = this.laneBinding.data.entryIterator();
+    int index = 0;
+    while (entries.hasNext()) {
+      final Map.Entry<Object, Value> entry = entries.next();
+      final Record header = Record.create(2).slot("key", Value.fromObject(entry.getKey())).slot("index", index);
+      this.eventQueue.add(new ListLaneUplinkEvent(version, Attr.of("update", header).concat(entry.getValue())));
+      index += 1;
+    }
+  }
+
+  @Override
+  protected SyncedResponse syncedResponse() {
+    final LaneLog log;
+    synchronized (this) {
+      log = this.syncLog;
+    }
+    if (log != null) {
+      return new SyncedResponse(nodeUri(), laneUri(), log.position(this.downVersion));
+    } else {
+      return super.syncedResponse();
+    }
+  }
+}
+
+final class ListLaneUplinkEvent {
+  final long version;
+  final Value body;
+
+  ListLaneUplinkEvent(long version, Value body) {
+    this.version = version;
+    this.body = body;
+  }
 }
@@ -61,6 +61,7 @@ public class ListLaneView<V> extends LaneView implements ListLane<V> {
   protected Form<V> valueForm;
 
   protected int flags;
+  protected int logCapacity;
   protected ListLaneModel laneBinding;
   protected ListData<V> dataView;
 
@@ -69,6 +70,7 @@ public class ListLaneView<V> extends LaneView implements ListLane<V> {
     this.agentContext = agentContext;
     this.valueForm = valueForm;
     this.flags = flags;
+    this.logCapacity = LaneLog.CAPACITY;
   }
 
   public ListLaneView(AgentContext agentContext, Form<V> valueForm) {
@@ -92,7 +94,7 @@ public class ListLaneView<V> extends LaneView implements ListLane<V> {
 
   @Override
   public ListLaneModel createLaneBinding() {
-    return new ListLaneModel(this.flags);
+    return new ListLaneModel(this.flags, this.logCapacity);
   }
 
   @Override
@@ -102,8 +104,10 @@ public class ListLaneView<V> extends LaneView implements ListLane<V> {
 
   @Override
   public <V2> ListLaneView<V2> valueForm(Form<V2> valueForm) {
-    return new ListLaneView<V2>(this.agentContext, valueForm, this.flags,
-                                typesafeObservers(this.observers));
+    final ListLaneView<V2> view = new ListLaneView<V2>(this.agentContext, valueForm, this.flags,
+                                                       typesafeObservers(this.observers));
+    view.didSetLogCapacity(this.logCapacity);
+    return view;
   }
 
   @Override
@@ -174,6 +178,29 @@ public class ListLaneView<V> extends LaneView implements ListLane<V> {
     }
   }
 
+  @Override
+  public final int logCapacity() {
+    return this.logCapacity;
+  }
+
+  @Override
+  public ListLaneView<V> logCapacity(int logCapacity) {
+    didSetLogCapacity(logCapacity);
+
+    // note: marked final given access of concurrently accessed volatile objects
+    final ListLaneModel laneBinding = this.laneBinding;
+
+    if (laneBinding != null) {
+      laneBinding.logCapacity(this.logCapacity);
+    }
+
+    return this;
+  }
+
+  void didSetLogCapacity(int logCapacity) {
+    this.logCapacity = Math.max(0, logCapacity);
+  }
+
   @Override
   public final boolean isSigned() {
     return (this.flags & SIGNED) != 0;
@@ -14,24 +14,34 @@
 
 package swim.runtime.lane;
 
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import swim.api.Link;
 import swim.api.data.MapData;
 import swim.collections.FingerTrieSeq;
+import swim.collections.HashTrieMap;
 import swim.runtime.LaneContext;
 import swim.runtime.LinkBinding;
 import swim.structure.Form;
 import swim.structure.Record;
 import swim.structure.Value;
+import swim.util.OrderedMap;
 import swim.warp.CommandMessage;
 
 public class MapLaneModel extends LaneModel<MapLaneView<?, ?>, MapLaneUplink> {
   protected int flags;
   protected MapData<Value, Value> data;
+  volatile LaneLog log;
 
-  MapLaneModel(int flags) {
+  MapLaneModel(int flags, int logCapacity) {
     this.flags = flags;
+    this.log = LaneLog.create(logCapacity);
+  }
+
+  MapLaneModel(int flags) {
+    this(flags, LaneLog.CAPACITY);
   }
 
   public MapLaneModel() {
@@ -86,7 +96,27 @@ public class MapLaneModel extends LaneModel<MapLaneView<?, ?>, MapLaneUplink> {
     }
   }
 
+  @Override
+  protected void sendDown(Value body) {
+    final LaneLog log = this.log;
+    if (log != null) {
+      final String tag = body.tag();
+      if ("remove".equals(tag)) {
+        log.append(body.header("remove").get("key"));
+      } else if ("clear".equals(tag)) {
+        log.append(LOG_CLEAR);
+      } else {
+        log.append(LOG_TRUNCATE);
+      }
+    }
+    super.sendDown(body);
+  }
+
   protected void cueDownKey(Value key) {
+    final LaneLog log = this.log;
+    if (log != null) {
+      log.append(key);
+    }
     FingerTrieSeq<MapLaneUplink> uplinks;
     do {
       uplinks = this.uplinks;
@@ -96,6 +126,56 @@ public class MapLaneModel extends LaneModel<MapLaneView<?, ?>, MapLaneUplink> {
     } while (uplinks != this.uplinks);
   }
 
+  protected void cueDownKeys(Value[] keys) {
+    final LaneLog log = this.log;
+    if (log != null) {
+      for (int i = 0; i < keys.length; i += 1) {
+        log.append(keys[i]);
+      }
+    }
+    final List<Value> keyList = Arrays.asList(keys);
+    FingerTrieSeq<MapLaneUplink> uplinks;
+    do {
+      uplinks = this.uplinks;
+      for (int i = 0, n = uplinks.size(); i < n; i += 1) {
+        uplinks.get(i).cueDownKeys(keyList);
+      }
+    } while (uplinks != this.uplinks);
+  }
+
+  /**
+   * Returns the number of recent changes this lane retains, so that links
+   * that resync from a logged position receive only the changes they missed;
+   * zero if the lane keeps no log.
+   */
+  public final int logCapacity() {
+    final LaneLog log = this.log;
+    return log != null ? log.capacity : 0;
+  }
+
+  /**
+   * Retains up to {@code logCapacity} recent changes to this lane, or none,
+   * if {@code logCapacity} is zero.  Replaces any previous log of a different
+   * capacity, so links resyncing from a position in the previous log sync in
+   * full.
+   */
+  public MapLaneModel logCapacity(int logCapacity) {
+    final int newCapacity = Math.max(0, logCapacity);
+    if (newCapacity != logCapacity()) {
+      this.log = LaneLog.create(newCapacity);
+    }
+    final Object views = this.views;
+    if (views instanceof MapLaneView<?, ?>) {
+      ((MapLaneView<?, ?>) views).didSetLogCapacity(newCapacity);
+    } else if (views instanceof LaneView[]) {
+      final LaneView[] viewArray = (LaneView[]) views;
+      for (int i = 0, n = viewArray.length; i < n; i += 1) {
+        ((MapLaneView<?, ?>) viewArray[i]).didSetLogCapacity(newCapacity);
+      }
+    }
+    return this;
+  }
+
   public final boolean isResident() {
     return (this.flags & RESIDENT) != 0;
   }
@@ -204,6 +284,36 @@ public class MapLaneModel extends LaneModel<MapLaneView<?, ?>, MapLaneUplink> {
     return (V) relay.oldObject;
   }
 
+  /**
+   * Puts all entries of {@code map} into the lane with a single update of
+   * the lane data, running each view's update callbacks for all entries in
+   * one relay pass, and cueing the updated keys to each uplink at once.
+   */
+  @SuppressWarnings("unchecked")
+  public <K, V> void putAll(MapLaneView<K, V> view, Map<? extends K, ? extends V> map) {
+    final int n = map.size();
+    if (n == 0) {
+      return;
+    }
+    final Form<K> keyForm = view.keyForm;
+    final Form<V> valueForm = view.valueForm;
+    final MapLaneRelayUpdateAll relay = new MapLaneRelayUpdateAll(this, null, n);
+    relay.keyForm = (Form<Object>) keyForm;
+    relay.valueForm = (Form<Object>) valueForm;
+    int i = 0;
+    for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+      final K keyObject = entry.getKey();
+      final V newObject = entry.getValue();
+      relay.keys[i] = keyForm.mold(keyObject).toValue();
+      relay.keyObjects[i] = keyObject;
+      relay.newValues[i] = valueForm.mold(newObject).toValue();
+      relay.newObjects[i] = newObject;
+      i += 1;
+    }
+    relay.stage = stage();
+    relay.run();
+  }
+
   @SuppressWarnings("unchecked")
   public <K, V> V remove(MapLaneView<K, V> view, K keyObject) {
     final Form<K> keyForm = view.keyForm;
@@ -247,6 +357,17 @@ public class MapLaneModel extends LaneModel<MapLaneView<?, ?>, MapLaneUplink> {
   static final int RESIDENT = 1 << 0;
   static final int TRANSIENT = 1 << 1;
   static final int SIGNED = 1 << 2;
+
+  /**
+   * Log entry of a clear; other entries are the keys of updated or removed
+   * entries, compared by identity against these sentinels.
+   */
+  static final Value LOG_CLEAR = Record.create(1).attr("clear");
+
+  /**
+   * Log entry of an index based drop or take, which can't be replayed.
+   */
+  static final Value LOG_TRUNCATE = Record.create(1).attr("truncate");
 }
 
 final class MapLaneRelayUpdate extends LaneRelay<MapLaneModel, MapLaneView<?, ?>> {
@@ -366,6 +487,115 @@ final class MapLaneRelayUpdate extends LaneRelay<MapLaneModel, MapLaneView<?, ?>
   }
 }
 
+final class MapLaneRelayUpdateAll extends LaneRelay<MapLaneModel, MapLaneView<?, ?>> {
+  final Link link;
+  Form<Object> keyForm;
+  Form<Object> valueForm;
+  final Value[] keys;
+  final Object[] keyObjects;
+  final Value[] oldValues;
+  final Object[] oldObjects;
+  final Value[] newValues;
+  final Object[] newObjects;
+
+  MapLaneRelayUpdateAll(MapLaneModel model, Link link, int count) {
+    super(model, 1, 3);
+    this.link = link;
+    this.keys = new Value[count];
+    this.keyObjects = new Object[count];
+    this.oldValues = new Value[count];
+    this.oldObjects = new Object[count];
+    this.newValues = new Value[count];
+    this.newObjects = new Object[count];
+  }
+
+  @Override
+  void beginPhase(int phase) {
+    if (phase == 2) {
+      HashTrieMap<Value, Value> updates = HashTrieMap.empty();
+      for (int i = 0; i < this.keys.length; i += 1) {
+        updates = updates.updated(this.keys[i], this.newValues[i]);
+      }
+      // Read the replaced values from the data as it was when the batch was
+      // swapped in, so that concurrent puts can't interleave with the batch.
+      final OrderedMap<Value, Value> oldData = this.model.data.getAndPutAll(updates);
+      for (int i = 0; i < this.keys.length; i += 1) {
+        final Value oldValue = oldData.get(this.keys[i]);
+        this.oldValues[i] = oldValue != null ? oldValue : Value.absent();
+      }
+      if (this.valueForm != null) {
+        for (int i = 0; i < this.keys.length; i += 1) {
+          this.oldObjects[i] = cast(this.valueForm, this.oldValues[i]);
+        }
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  boolean runPhase(MapLaneView<?, ?> view, int phase, boolean preemptive) {
+    final Form<Object> keyForm = (Form<Object>) view.keyForm;
+    if (this.keyForm != keyForm && keyForm != null) {
+      this.keyForm = keyForm;
+      for (int i = 0; i < this.keys.length; i += 1) {
+        this.keyObjects[i] = cast(keyForm, this.keys[i]);
+      }
+    }
+    final Form<Object> valueForm = (Form<Object>) view.valueForm;
+    boolean complete = true;
+    if (phase == 1) {
+      if (this.valueForm != valueForm && valueForm != null) {
+        this.valueForm = valueForm;
+        for (int i = 0; i < this.keys.length; i += 1) {
+          this.newObjects[i] = cast(valueForm, this.newValues[i]);
+        }
+      }
+      for (int i = 0; i < this.keys.length; i += 1) {
+        if (preemptive) {
+          this.newObjects[i] = ((MapLaneView<Object, Object>) view).laneWillUpdate(this.keyObjects[i], this.newObjects[i]);
+        }
+        final Map.Entry<Boolean, Object> result = ((MapLaneView<Object, Object>) view).dispatchWillUpdate(this.link, this.keyObjects[i], this.newObjects[i], preemptive);
+        if (this.newObjects[i] != result.getValue()) {
+          this.newObjects[i] = result.getValue();
+          this.newValues[i] = valueForm.mold(this.newObjects[i]).toValue();
+        }
+        complete = result.getKey() && complete;
+      }
+    } else if (phase == 2) {
+      if (this.valueForm != valueForm && valueForm != null) {
+        this.valueForm = valueForm;
+        for (int i = 0; i < this.keys.length; i += 1) {
+          this.oldObjects[i] = cast(valueForm, this.oldValues[i]);
+          this.newObjects[i] = cast(valueForm, this.newValues[i]);
+        }
+      }
+      for (int i = 0; i < this.keys.length; i += 1) {
+        if (preemptive) {
+          ((MapLaneView<Object, Object>) view).laneDidUpdate(this.keyObjects[i], this.newObjects[i], this.oldObjects[i]);
+        }
+        complete = ((MapLaneView<Object, Object>) view).dispatchDidUpdate(this.link, this.keyObjects[i], this.newObjects[i], this.oldObjects[i], preemptive) && complete;
+      }
+    } else {
+      throw new AssertionError(); // unreachable
+    }
+    return complete;
+  }
+
+  @Override
+  void done() {
+    this.model.cueDownKeys(this.keys);
+  }
+
+  static Object cast(Form<Object> form, Value value) {
+    final Object object = form.cast(value);
+    if (object != null) {
+      return object;
+    } else {
+      return form.unit();
+    }
+  }
+}
+
 final class MapLaneRelayRemove extends LaneRelay<MapLaneModel, MapLaneView<?, ?>> {
   final Link link;
   final CommandMessage message;
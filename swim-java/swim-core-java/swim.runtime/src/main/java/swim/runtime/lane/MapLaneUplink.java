@@ -14,17 +14,34 @@
 
 package swim.runtime.lane;
 
+import java.util.ArrayList;
+import swim.collections.HashTrieSet;
 import swim.concurrent.Stage;
 import swim.runtime.LinkBinding;
 import swim.runtime.uplink.PartialUplinkModem;
-import swim.structure.Attr;
 import swim.structure.Record;
 import swim.structure.Value;
 import swim.warp.SyncRequest;
+import swim.warp.SyncedResponse;
 
 public class MapLaneUplink extends PartialUplinkModem {
   final MapLaneModel laneBinding;
 
+  /**
+   * Lane log that the last sync positioned this link in, if any.
+   */
+  volatile LaneLog syncLog;
+
+  /**
+   * Lane log version that the last sync brought this link up to.
+   */
+  volatile long syncVersion;
+
+  /**
+   * Whether to clear the link's stale view of the lane ahead of a full sync.
+   */
+  volatile boolean clearDown;
+
   public MapLaneUplink(MapLaneModel laneBinding, LinkBinding linkBinding) {
     super(linkBinding);
     this.laneBinding = laneBinding;
@@ -40,19 +57,99 @@ public class MapLaneUplink extends PartialUplinkModem {
     return this.laneBinding.stage();
   }
 
+  @Override
+  protected boolean downQueueIsEmpty() {
+    return !this.clearDown && super.downQueueIsEmpty();
+  }
+
+  @Override
+  protected Value nextDownQueue() {
+    if (this.clearDown) {
+      // Precedes the entries of the full sync.
+      this.clearDown = false;
+      return Record.create(1).attr("clear");
+    }
+    return super.nextDownQueue();
+  }
+
   @Override
   protected Value nextDownKey(Value key) {
     final Value value = this.laneBinding.get(key);
     if (value != null) {
-      return Attr.of("update", Record.create(1).slot("key", key)).concat(value);
+      return updateDownKey(key, value);
     } else {
       return null;
     }
   }
 
+  @Override
+  protected void refilterDown() {
+    cueDownKeys(this.laneBinding.data);
+  }
+
   @Override
   protected void willSync(SyncRequest request) {
-    syncDown(this.laneBinding.iterator());
+    final LaneLog log = this.laneBinding.log;
+    if (log != null) {
+      final long since = log.resumeVersion(request.body());
+      final Value[] changes = since >= 0L ? log.since(since) : null;
+      if (changes != null && resyncDown(changes)) {
+        this.syncVersion = since + changes.length;
+      } else {
+        // A resuming link may hold entries removed from the lane since.
+        this.clearDown = since >= 0L;
+        // Sync everything from a version no later than the synced state.
+        this.syncVersion = log.version();
+        syncDown(this.laneBinding.data.snapshot());
+      }
+    } else {
+      syncDown(this.laneBinding.data.snapshot());
+    }
+    this.syncLog = log;
     super.willSync(request);
   }
+
+  /**
+   * Cues down the latest state of each key changed in the lane log since the
+   * link last synced, returning {@code false} if the changes can't be
+   * replayed by key.
+   */
+  boolean resyncDown(Value[] changes) {
+    int start = 0;
+    for (int i = 0; i < changes.length; i += 1) {
+      final Value change = changes[i];
+      if (change == MapLaneModel.LOG_TRUNCATE) {
+        return false;
+      } else if (change == MapLaneModel.LOG_CLEAR) {
+        start = i + 1;
+      }
+    }
+    if (start > 0) {
+      queueDown(Record.create(1).attr("clear"));
+    }
+    HashTrieSet<Value> keys = HashTrieSet.empty();
+    for (int i = start; i < changes.length; i += 1) {
+      keys = keys.added(changes[i]);
+    }
+    final ArrayList<Value> updatedKeys = new ArrayList<Value>(keys.size());
+    for (Value key : keys) {
+      if (this.laneBinding.data.containsKey(key)) {
+        updatedKeys.add(key);
+      } else {
+        queueDown(Record.create(1).attr("remove", Record.create(1).slot("key", key)));
+      }
+    }
+    cueDownKeys(updatedKeys);
+    return true;
+  }
+
+  @Override
+  protected SyncedResponse syncedResponse() {
+    final LaneLog log = this.syncLog;
+    if (log != null) {
+      return new SyncedResponse(nodeUri(), laneUri(), log.position(this.syncVersion));
+    } else {
+      return super.syncedResponse();
+    }
+  }
 }
@@ -69,6 +69,7 @@ public class MapLaneView<K, V> extends LaneView implements MapLane<K, V> {
   protected Form<V> valueForm;
 
   protected int flags;
+  protected int logCapacity;
   protected MapLaneModel laneBinding;
   protected MapData<K, V> dataView;
 
@@ -85,6 +86,7 @@ public class MapLaneView<K, V> extends LaneView implements MapLane<K, V> {
     this.keyForm = keyForm;
     this.valueForm = valueForm;
     this.flags = flags;
+    this.logCapacity = LaneLog.CAPACITY;
 
     this.input = null;
     this.effects = HashTrieMap.empty();
@@ -114,7 +116,7 @@ public class MapLaneView<K, V> extends LaneView implements MapLane<K, V> {
 
   @Override
   public MapLaneModel createLaneBinding() {
-    return new MapLaneModel(this.flags);
+    return new MapLaneModel(this.flags, this.logCapacity);
   }
 
   @Override
@@ -124,8 +126,10 @@ public class MapLaneView<K, V> extends LaneView implements MapLane<K, V> {
 
   @Override
   public <K2> MapLaneView<K2, V> keyForm(Form<K2> keyForm) {
-    return new MapLaneView<K2, V>(this.agentContext, keyForm, this.valueForm,
-                                  this.flags, typesafeObservers(this.observers));
+    final MapLaneView<K2, V> view = new MapLaneView<K2, V>(this.agentContext, keyForm, this.valueForm,
+                                                           this.flags, typesafeObservers(this.observers));
+    view.didSetLogCapacity(this.logCapacity);
+    return view;
   }
 
   @Override
@@ -144,8 +148,10 @@ public class MapLaneView<K, V> extends LaneView implements MapLane<K, V> {
 
   @Override
   public <V2> MapLaneView<K, V2> valueForm(Form<V2> valueForm) {
-    return new MapLaneView<K, V2>(this.agentContext, this.keyForm, valueForm,
-                                  this.flags, typesafeObservers(this.observers));
+    final MapLaneView<K, V2> view = new MapLaneView<K, V2>(this.agentContext, this.keyForm, valueForm,
+                                                           this.flags, typesafeObservers(this.observers));
+    view.didSetLogCapacity(this.logCapacity);
+    return view;
   }
 
   @Override
@@ -215,6 +221,29 @@ public class MapLaneView<K, V> extends LaneView implements MapLane<K, V> {
     }
   }
 
+  @Override
+  public final int logCapacity() {
+    return this.logCapacity;
+  }
+
+  @Override
+  public MapLaneView<K, V> logCapacity(int logCapacity) {
+    didSetLogCapacity(logCapacity);
+
+    // note: marked final given access of concurrently accessed volatile objects
+    final MapLaneModel laneBinding = this.laneBinding;
+
+    if (laneBinding != null) {
+      laneBinding.logCapacity(this.logCapacity);
+    }
+
+    return this;
+  }
+
+  void didSetLogCapacity(int logCapacity) {
+    this.logCapacity = Math.max(0, logCapacity);
+  }
+
   @Override
   public final boolean isSigned() {
     return (this.flags & SIGNED) != 0;
@@ -1025,9 +1054,7 @@ public class MapLaneView<K, V> extends LaneView implements MapLane<K, V> {
 
   @Override
   public void putAll(Map<? extends K, ? extends V> map) {
-    for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
-      this.laneBinding.put(this, entry.getKey(), entry.getValue());
-    }
+    this.laneBinding.putAll(this, map);
   }
 
   @SuppressWarnings("unchecked")
@@ -101,6 +101,16 @@ public class SpatialLaneModel<S> extends LaneModel<SpatialLaneView<?, S, ?>, Spa
     } while (uplinks != this.uplinks);
   }
 
+  protected void cueDownKey(Value key, S shape) {
+    FingerTrieSeq<SpatialLaneUplink<S>> uplinks;
+    do {
+      uplinks = this.uplinks;
+      for (int i = 0, n = uplinks.size(); i < n; i += 1) {
+        uplinks.get(i).cueDownKey(key, shape);
+      }
+    } while (uplinks != this.uplinks);
+  }
+
   @Override
   protected void didOpenLaneView(SpatialLaneView<?, S, ?> view) {
     view.setLaneBinding(this);
@@ -314,6 +324,10 @@ final class SpatialLaneRelayUpdate<S> extends LaneRelay<SpatialLaneModel<S>, Spa
   void beginPhase(int phase) {
     if (phase == 2) {
       this.oldValue = model.data.put(key, shapeObject, newValue);
+      if (this.oldValue == null) {
+        // Spatial data returns null for absent keys.
+        this.oldValue = Value.absent();
+      }
       if (this.valueForm != null) {
         this.oldObject = this.valueForm.cast(this.oldValue);
         if (this.oldObject == null) {
@@ -400,7 +414,7 @@ final class SpatialLaneRelayUpdate<S> extends LaneRelay<SpatialLaneModel<S>, Spa
 
   @Override
   void done() {
-    this.model.cueDownKey(this.key);
+    this.model.cueDownKey(this.key, this.shapeObject);
   }
 }
 
@@ -445,6 +459,10 @@ final class SpatialLaneRelayMove<S> extends LaneRelay<SpatialLaneModel<S>, Spati
   void beginPhase(int phase) {
     if (phase == 2) {
       this.oldValue = model.data.move(key, oldShapeObject, newShapeObject, newValue);
+      if (this.oldValue == null) {
+        // Spatial data returns null for absent keys.
+        this.oldValue = Value.absent();
+      }
       if (this.valueForm != null) {
         this.oldObject = this.valueForm.cast(this.oldValue);
         if (this.oldObject == null) {
@@ -532,6 +550,7 @@ final class SpatialLaneRelayMove<S> extends LaneRelay<SpatialLaneModel<S>, Spati
 
   @Override
   void done() {
+    final Z2Form<S> shapeForm = this.model.shapeForm;
     final Record header = Record.create(3).slot("key", key).slot("from", shapeForm.mold(this.oldShapeObject).toValue())
         .slot("to", shapeForm.mold(this.newShapeObject).toValue());
     this.model.sendDown(Record.create(1).attr("move", header));
@@ -570,6 +589,10 @@ final class SpatialLaneRelayRemove<S> extends LaneRelay<SpatialLaneModel<S>, Spa
   void beginPhase(int phase) {
     if (phase == 2) {
       this.oldValue = model.data.remove(key, shapeObject);
+      if (this.oldValue == null) {
+        // Spatial data returns null for absent keys.
+        this.oldValue = Value.absent();
+      }
       if (this.valueForm != null) {
         this.oldObject = this.valueForm.cast(this.oldValue);
         if (this.oldObject == null) {
@@ -643,8 +666,8 @@ final class SpatialLaneRelayRemove<S> extends LaneRelay<SpatialLaneModel<S>, Spa
 
   @Override
   void done() {
-    final Record header = Record.create(2).slot("key", key).slot("shape", shapeForm.mold(this.shapeObject).toValue());
-    this.model.sendDown(Record.create(1).attr("move", header));
+    final Record header = Record.create(2).slot("key", key).slot("shape", this.model.shapeForm.mold(this.shapeObject).toValue());
+    this.model.sendDown(Record.create(1).attr("remove", header));
   }
 }
 
@@ -14,22 +14,44 @@
 
 package swim.runtime.lane;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import swim.collections.HashTrieSet;
 import swim.concurrent.Stage;
 import swim.runtime.LinkBinding;
 import swim.runtime.uplink.PartialUplinkModem;
-import swim.structure.Attr;
+import swim.spatial.SpatialMap;
 import swim.structure.Record;
 import swim.structure.Value;
+import swim.warp.CommandMessage;
 import swim.warp.SyncRequest;
 
+/**
+ * Uplink to a spatial lane.  A link may restrict the entries it receives to
+ * those that intersect a viewport shape, given by a {@code @viewport(<shape>)}
+ * attribute in its link body.  Sending a {@code @viewport(<shape>)} command
+ * over the link moves the viewport, and streams {@code @update} events for
+ * the entries that enter it, and {@code @remove} events for the entries that
+ * leave it.  An absent shape lifts the viewport.
+ */
 public class SpatialLaneUplink<S> extends PartialUplinkModem {
   final SpatialLaneModel<S> laneBinding;
 
+  /**
+   * Current viewport, together with the keys of the entries that intersect
+   * it, as last sent down; swapped atomically, so that keys always belong to
+   * the viewport they were tested against.
+   */
+  volatile SpatialLaneUplinkView<S> view;
+
   public SpatialLaneUplink(SpatialLaneModel<S> laneBinding, LinkBinding linkBinding) {
     super(linkBinding);
     this.laneBinding = laneBinding;
+    final Value viewport = linkBinding.body().getAttr("viewport");
+    this.view = new SpatialLaneUplinkView<S>(viewport.isDefined() ? laneBinding.shapeForm.cast(viewport) : null,
+                                             HashTrieSet.<Value>empty());
   }
 
   @Override
@@ -42,11 +64,134 @@ public class SpatialLaneUplink<S> extends PartialUplinkModem {
     return this.laneBinding.stage();
   }
 
+  public final S viewport() {
+    return this.view.viewport;
+  }
+
+  public void cueDownKey(Value key, S shape) {
+    final S viewport = addViewKey(key, shape).viewport;
+    if (viewport == null || this.laneBinding.shapeForm.intersects(viewport, shape)) {
+      cueDownKey(key);
+    } else {
+      // Dropped by queueDown, unless the entry was in view.
+      sendDown(Record.create(1).attr("remove", Record.create(1).slot("key", key)));
+    }
+  }
+
+  /**
+   * Moves this uplink's viewport to {@code newViewport}, sending down the
+   * entries that enter the viewport, and the removal of the entries that
+   * leave it.
+   */
+  public void moveViewport(S newViewport) {
+    HashTrieSet<Value> newViewKeys = HashTrieSet.empty();
+    if (newViewport != null) {
+      final Iterator<SpatialMap.Entry<Value, S, Value>> entries = this.laneBinding.iterator(newViewport);
+      while (entries.hasNext()) {
+        newViewKeys = newViewKeys.added(entries.next().getKey());
+      }
+    }
+    SpatialLaneUplinkView<S> oldView;
+    SpatialLaneUplinkView<S> newView;
+    do {
+      oldView = this.view;
+      if (newViewport != null && oldView.viewport != null) {
+        // Keep the keys that leave the viewport in view until their
+        // removals pass through queueDown.
+        HashTrieSet<Value> viewKeys = newViewKeys;
+        for (Value key : oldView.viewKeys) {
+          viewKeys = viewKeys.added(key);
+        }
+        newView = new SpatialLaneUplinkView<S>(newViewport, viewKeys);
+      } else {
+        newView = new SpatialLaneUplinkView<S>(newViewport, newViewKeys);
+      }
+    } while (!VIEW.compareAndSet(this, oldView, newView));
+    final S oldViewport = oldView.viewport;
+    if (newViewport == null) {
+      if (oldViewport != null) {
+        final ArrayList<Value> keys = new ArrayList<Value>();
+        final Iterator<Value> keyIterator = this.laneBinding.data.keyIterator();
+        while (keyIterator.hasNext()) {
+          keys.add(keyIterator.next());
+        }
+        cueDownKeys(keys);
+      }
+      return;
+    }
+    final HashTrieSet<Value> oldViewKeys;
+    if (oldViewport == null) {
+      // The client holds every entry; replace its view outright.
+      oldViewKeys = HashTrieSet.empty();
+      sendDown(Record.create(1).attr("clear"));
+    } else {
+      oldViewKeys = oldView.viewKeys;
+      for (Value key : oldViewKeys) {
+        if (!newViewKeys.contains(key)) {
+          sendDown(Record.create(1).attr("remove", Record.create(1).slot("key", key)));
+        }
+      }
+    }
+    for (Value key : newViewKeys) {
+      if (!oldViewKeys.contains(key)) {
+        // Re-add keys wiped by the clear sent above.
+        syncViewKey(key, newViewport);
+        cueDownKey(key);
+      }
+    }
+  }
+
+  @Override
+  protected void queueDown(Value body) {
+    final String tag = body.tag();
+    if ("move".equals(tag)) {
+      final Value header = body.header("move");
+      final Value key = header.get("key");
+      final S newShape = this.laneBinding.shapeForm.cast(header.get("to"));
+      final SpatialLaneUplinkView<S> oldView = moveViewKey(key, newShape);
+      final S viewport = oldView.viewport;
+      if (viewport != null) {
+        if (newShape != null && this.laneBinding.shapeForm.intersects(viewport, newShape)) {
+          if (!oldView.viewKeys.contains(key)) {
+            // Entered the viewport; send the whole entry.
+            cueDownKey(key);
+            return;
+          }
+        } else if (oldView.viewKeys.contains(key)) {
+          body = Record.create(1).attr("remove", Record.create(1).slot("key", key));
+        } else {
+          return;
+        }
+      }
+    } else if ("remove".equals(tag)) {
+      final Value key = body.header("remove").get("key");
+      final SpatialLaneUplinkView<S> oldView = moveViewKey(key, null);
+      if (oldView.viewport != null && !oldView.viewKeys.contains(key)) {
+        return;
+      }
+    } else if ("clear".equals(tag)) {
+      clearViewKeys();
+    }
+    super.queueDown(body);
+  }
+
+  @Override
+  protected void pushUpCommand(CommandMessage message) {
+    final Value body = message.body();
+    if ("viewport".equals(body.tag())) {
+      final Value viewport = body.header("viewport");
+      moveViewport(viewport.isDefined() ? this.laneBinding.shapeForm.cast(viewport) : null);
+      cueUp();
+    } else {
+      super.pushUpCommand(message);
+    }
+  }
+
   @Override
   protected Value nextDownKey(Value key) {
     final Value value = this.laneBinding.get(key);
     if (value != null) {
-      return Attr.of("update", Record.create(1).slot("key", key)).concat(value);
+      return updateDownKey(key, value);
     } else {
       return null;
     }
@@ -55,7 +200,135 @@ public class SpatialLaneUplink<S> extends PartialUplinkModem {
   @SuppressWarnings("unchecked")
   @Override
   protected void willSync(SyncRequest request) {
-    syncDown((Iterator<Map.Entry<Value, Value>>) (Iterator<?>) this.laneBinding.iterator());
+    final S viewport = this.view.viewport;
+    if (viewport != null) {
+      syncDown(new SpatialLaneUplinkViewport<S>(this, viewport, this.laneBinding.iterator(viewport)));
+    } else {
+      syncDown((Iterator<Map.Entry<Value, Value>>) (Iterator<?>) this.laneBinding.iterator());
+    }
     super.willSync(request);
   }
+
+  /**
+   * Adds {@code key} to the view, if it has a {@code shape} that intersects
+   * the current viewport; returns the view that was replaced.
+   */
+  SpatialLaneUplinkView<S> addViewKey(Value key, S shape) {
+    SpatialLaneUplinkView<S> oldView;
+    SpatialLaneUplinkView<S> newView;
+    do {
+      oldView = this.view;
+      final S viewport = oldView.viewport;
+      if (viewport != null && this.laneBinding.shapeForm.intersects(viewport, shape)) {
+        newView = oldView.added(key);
+      } else {
+        newView = oldView;
+        break;
+      }
+    } while (oldView != newView && !VIEW.compareAndSet(this, oldView, newView));
+    return oldView;
+  }
+
+  /**
+   * Adds {@code key} to the view, if it has a {@code shape} that intersects
+   * the current viewport, and removes it otherwise; returns the view that was
+   * replaced.  Leaves the view unchanged in the absence of a viewport.
+   */
+  SpatialLaneUplinkView<S> moveViewKey(Value key, S shape) {
+    SpatialLaneUplinkView<S> oldView;
+    SpatialLaneUplinkView<S> newView;
+    do {
+      oldView = this.view;
+      final S viewport = oldView.viewport;
+      if (viewport == null) {
+        newView = oldView;
+        break;
+      } else if (shape != null && this.laneBinding.shapeForm.intersects(viewport, shape)) {
+        newView = oldView.added(key);
+      } else {
+        newView = oldView.removed(key);
+      }
+    } while (oldView != newView && !VIEW.compareAndSet(this, oldView, newView));
+    return oldView;
+  }
+
+  /**
+   * Adds a synced {@code key} to the view, unless the viewport has since
+   * moved away from the {@code viewport} it was synced from.
+   */
+  void syncViewKey(Value key, S viewport) {
+    SpatialLaneUplinkView<S> oldView;
+    SpatialLaneUplinkView<S> newView;
+    do {
+      oldView = this.view;
+      if (oldView.viewport != viewport) {
+        break;
+      }
+      newView = oldView.added(key);
+    } while (oldView != newView && !VIEW.compareAndSet(this, oldView, newView));
+  }
+
+  void clearViewKeys() {
+    SpatialLaneUplinkView<S> oldView;
+    SpatialLaneUplinkView<S> newView;
+    do {
+      oldView = this.view;
+      newView = oldView.cleared();
+    } while (oldView != newView && !VIEW.compareAndSet(this, oldView, newView));
+  }
+
+  @SuppressWarnings("unchecked")
+  static final AtomicReferenceFieldUpdater<SpatialLaneUplink<?>, SpatialLaneUplinkView<?>> VIEW =
+      AtomicReferenceFieldUpdater.newUpdater((Class<SpatialLaneUplink<?>>) (Class<?>) SpatialLaneUplink.class,
+                                             (Class<SpatialLaneUplinkView<?>>) (Class<?>) SpatialLaneUplinkView.class,
+                                             "view");
+}
+
+final class SpatialLaneUplinkView<S> {
+  final S viewport;
+  final HashTrieSet<Value> viewKeys;
+
+  SpatialLaneUplinkView(S viewport, HashTrieSet<Value> viewKeys) {
+    this.viewport = viewport;
+    this.viewKeys = viewKeys;
+  }
+
+  SpatialLaneUplinkView<S> added(Value key) {
+    final HashTrieSet<Value> viewKeys = this.viewKeys.added(key);
+    return viewKeys != this.viewKeys ? new SpatialLaneUplinkView<S>(this.viewport, viewKeys) : this;
+  }
+
+  SpatialLaneUplinkView<S> removed(Value key) {
+    final HashTrieSet<Value> viewKeys = this.viewKeys.removed(key);
+    return viewKeys != this.viewKeys ? new SpatialLaneUplinkView<S>(this.viewport, viewKeys) : this;
+  }
+
+  SpatialLaneUplinkView<S> cleared() {
+    return this.viewKeys.isEmpty() ? this : new SpatialLaneUplinkView<S>(this.viewport, HashTrieSet.<Value>empty());
+  }
+}
+
+final class SpatialLaneUplinkViewport<S> implements Iterator<Map.Entry<Value, Value>> {
+  final SpatialLaneUplink<S> uplink;
+  final S viewport;
+  final Iterator<SpatialMap.Entry<Value, S, Value>> entries;
+
+  SpatialLaneUplinkViewport(SpatialLaneUplink<S> uplink, S viewport,
+                            Iterator<SpatialMap.Entry<Value, S, Value>> entries) {
+    this.uplink = uplink;
+    this.viewport = viewport;
+    this.entries = entries;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return this.entries.hasNext();
+  }
+
+  @Override
+  public Map.Entry<Value, Value> next() {
+    final SpatialMap.Entry<Value, S, Value> entry = this.entries.next();
+    this.uplink.syncViewKey(entry.getKey(), this.viewport);
+    return entry;
+  }
 }
@@ -0,0 +1,130 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.runtime.lane;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import swim.structure.Value;
+
+/**
+ * Ring of the most recent values supplied to a lane, shared by all of the
+ * lane's uplinks.  Each uplink holds a cursor into the ring, in place of its
+ * own queue of pending values.  Values are numbered by a monotonically
+ * increasing sequence number; an uplink whose cursor falls more than a ring's
+ * length behind skips the values that have been overwritten.
+ * <p>
+ * Uplinks read the ring without locking.  Each slot holds an immutable
+ * entry stamped with its sequence number, and appends publish a slot by
+ * advancing the volatile {@code head} only after the slot is written.  A
+ * reader that finds a newer entry in its slot than its cursor expects has
+ * been lapped, and skips ahead.  Appends are serialized among themselves.
+ */
+final class SupplyLaneHistory {
+  final AtomicReferenceArray<SupplyLaneHistoryEntry> entries;
+  final int capacity;
+  final long maxAge;
+  volatile long head;
+
+  SupplyLaneHistory(int capacity, long maxAge) {
+    this.entries = new AtomicReferenceArray<SupplyLaneHistoryEntry>(capacity);
+    this.capacity = capacity;
+    this.maxAge = maxAge;
+  }
+
+  int capacity() {
+    return this.capacity;
+  }
+
+  synchronized void append(Value body) {
+    final long seq = this.head;
+    this.entries.set((int) (seq % this.capacity), new SupplyLaneHistoryEntry(seq, body, System.currentTimeMillis()));
+    this.head = seq + 1L;
+  }
+
+  /**
+   * Returns the sequence number of the oldest value to replay; values older
+   * than the maximum age of this history are not replayed.
+   */
+  long replay() {
+    final long head = this.head;
+    long seq = Math.max(0L, head - this.capacity);
+    if (this.maxAge > 0L) {
+      final long cutoff = System.currentTimeMillis() - this.maxAge;
+      while (seq < head) {
+        final SupplyLaneHistoryEntry entry = this.entries.get((int) (seq % this.capacity));
+        if (entry.seq == seq && entry.time >= cutoff) {
+          break;
+        }
+        seq += 1L;
+      }
+    }
+    return seq;
+  }
+
+  /**
+   * Moves the given {@code uplink}'s cursor to the head of this history, so
+   * that it receives only values appended from now on.
+   */
+  void follow(SupplyLaneUplink uplink) {
+    uplink.cursor = this.head;
+  }
+
+  /**
+   * Moves the given {@code uplink}'s cursor back to the oldest value to
+   * replay.
+   */
+  void rewind(SupplyLaneUplink uplink) {
+    uplink.cursor = replay();
+  }
+
+  boolean isEmpty(SupplyLaneUplink uplink) {
+    return uplink.cursor >= this.head;
+  }
+
+  /**
+   * Returns the value following the given {@code uplink}'s cursor, and
+   * advances the cursor past it; returns {@code null} if the uplink has
+   * caught up with the head of this history.
+   */
+  Value next(SupplyLaneUplink uplink) {
+    long cursor = uplink.cursor;
+    do {
+      final long head = this.head;
+      cursor = Math.max(cursor, head - this.capacity);
+      if (cursor >= head) {
+        uplink.cursor = cursor;
+        return null;
+      }
+      final SupplyLaneHistoryEntry entry = this.entries.get((int) (cursor % this.capacity));
+      if (entry.seq == cursor) {
+        uplink.cursor = cursor + 1L;
+        return entry.body;
+      }
+      // Lapped by concurrent appends; skip the overwritten value.
+      cursor += 1L;
+    } while (true);
+  }
+}
+
+final class SupplyLaneHistoryEntry {
+  final long seq;
+  final Value body;
+  final long time;
+
+  SupplyLaneHistoryEntry(long seq, Value body, long time) {
+    this.seq = seq;
+    this.body = body;
+    this.time = time;
+  }
+}
@@ -15,8 +15,38 @@
 package swim.runtime.lane;
 
 import swim.runtime.LinkBinding;
+import swim.structure.Value;
 
 public class SupplyLaneModel extends LaneModel<SupplyLaneView<?>, SupplyLaneUplink> {
+  volatile SupplyLaneHistory history;
+
+  public SupplyLaneModel(int historySize, long historyMillis) {
+    if (historySize > 0) {
+      this.history = new SupplyLaneHistory(historySize, historyMillis);
+    }
+  }
+
+  public SupplyLaneModel() {
+    this(0, 0L);
+  }
+
+  final SupplyLaneHistory history() {
+    return this.history;
+  }
+
+  /**
+   * Retains the last {@code historySize} supplied values, no older than
+   * {@code historyMillis} milliseconds, if positive, to replay to links
+   * that sync.  A non-positive {@code historySize} disables history.
+   */
+  public void history(int historySize, long historyMillis) {
+    final SupplyLaneHistory oldHistory = this.history;
+    if (oldHistory == null ? historySize > 0 : oldHistory.capacity() != historySize
+                                              || oldHistory.maxAge != historyMillis) {
+      this.history = historySize > 0 ? new SupplyLaneHistory(historySize, historyMillis) : null;
+    }
+  }
+
   @Override
   protected SupplyLaneUplink createUplink(LinkBinding link) {
     return new SupplyLaneUplink(this, link);
@@ -26,4 +56,13 @@ public class SupplyLaneModel extends LaneModel<SupplyLaneView<?>, SupplyLaneUpli
   protected void didOpenLaneView(SupplyLaneView<?> view) {
     view.setLaneBinding(this);
   }
+
+  @Override
+  protected void sendDown(Value body) {
+    final SupplyLaneHistory history = this.history;
+    if (history != null) {
+      history.append(body);
+    }
+    super.sendDown(body);
+  }
 }
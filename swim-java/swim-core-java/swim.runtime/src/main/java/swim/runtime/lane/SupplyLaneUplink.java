@@ -17,13 +17,29 @@ package swim.runtime.lane;
 import swim.concurrent.Stage;
 import swim.runtime.LinkBinding;
 import swim.runtime.uplink.SupplyUplinkModem;
+import swim.structure.Value;
+import swim.warp.SyncRequest;
 
+/**
+ * Uplink to a supply lane.  If the lane retains a history of supplied
+ * values, the uplink reads them through a cursor into the lane's shared
+ * history, instead of queueing its own copy of each value, and replays the
+ * retained history when its link syncs.
+ */
 public class SupplyLaneUplink extends SupplyUplinkModem {
   final SupplyLaneModel laneBinding;
 
+  volatile SupplyLaneHistory history;
+
+  /**
+   * Sequence number of the next history value to send down.
+   */
+  volatile long cursor;
+
   public SupplyLaneUplink(SupplyLaneModel laneBinding, LinkBinding linkBinding) {
     super(linkBinding);
     this.laneBinding = laneBinding;
+    history();
   }
 
   @Override
@@ -35,4 +51,49 @@ public class SupplyLaneUplink extends SupplyUplinkModem {
   public Stage stage() {
     return this.laneBinding.stage();
   }
+
+  SupplyLaneHistory history() {
+    final SupplyLaneHistory history = this.laneBinding.history;
+    if (history != this.history) {
+      if (history != null) {
+        history.follow(this);
+      }
+      this.history = history;
+    }
+    return history;
+  }
+
+  @Override
+  protected boolean downQueueIsEmpty() {
+    final SupplyLaneHistory history = history();
+    return super.downQueueIsEmpty() && (history == null || history.isEmpty(this));
+  }
+
+  @Override
+  public void queueDown(Value body) {
+    if (history() == null) {
+      super.queueDown(body);
+    }
+  }
+
+  @Override
+  protected Value nextDownQueue() {
+    Value body = super.nextDownQueue();
+    if (body == null) {
+      final SupplyLaneHistory history = history();
+      if (history != null) {
+        body = history.next(this);
+      }
+    }
+    return body;
+  }
+
+  @Override
+  protected void willSync(SyncRequest request) {
+    final SupplyLaneHistory history = history();
+    if (history != null) {
+      history.rewind(this);
+    }
+    super.willSync(request);
+  }
 }
@@ -35,6 +35,8 @@ import swim.structure.Form;
 public class SupplyLaneView<V> extends LaneView implements SupplyLane<V> {
   protected final AgentContext agentContext;
   protected Form<V> valueForm;
+  protected int historySize;
+  protected long historyMillis;
 
   protected SupplyLaneModel laneBinding;
 
@@ -64,7 +66,7 @@ public class SupplyLaneView<V> extends LaneView implements SupplyLane<V> {
 
   @Override
   public SupplyLaneModel createLaneBinding() {
-    return new SupplyLaneModel();
+    return new SupplyLaneModel(this.historySize, this.historyMillis);
   }
 
   @Override
@@ -74,7 +76,9 @@ public class SupplyLaneView<V> extends LaneView implements SupplyLane<V> {
 
   @Override
   public <V2> SupplyLaneView<V2> valueForm(Form<V2> valueForm) {
-    return new SupplyLaneView<V2>(this.agentContext, valueForm, this.observers);
+    final SupplyLaneView<V2> view = new SupplyLaneView<V2>(this.agentContext, valueForm, this.observers);
+    view.didSetHistory(this.historySize, this.historyMillis);
+    return view;
   }
 
   @Override
@@ -86,6 +90,35 @@ public class SupplyLaneView<V> extends LaneView implements SupplyLane<V> {
     this.valueForm = valueForm;
   }
 
+  @Override
+  public final int historySize() {
+    return this.historySize;
+  }
+
+  @Override
+  public final long historyMillis() {
+    return this.historyMillis;
+  }
+
+  @Override
+  public SupplyLaneView<V> history(int historySize, long historyMillis) {
+    didSetHistory(historySize, historyMillis);
+
+    // note: marked final given access of concurrently accessed volatile objects
+    final SupplyLaneModel laneBinding = this.laneBinding;
+
+    if (laneBinding != null) {
+      laneBinding.history(historySize, historyMillis);
+    }
+
+    return this;
+  }
+
+  void didSetHistory(int historySize, long historyMillis) {
+    this.historySize = Math.max(0, historySize);
+    this.historyMillis = Math.max(0L, historyMillis);
+  }
+
   @Override
   public final boolean isSigned() {
     return false; // TODO
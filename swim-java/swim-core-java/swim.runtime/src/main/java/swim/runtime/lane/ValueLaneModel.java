@@ -15,6 +15,7 @@
 package swim.runtime.lane;
 
 import java.util.Map;
+import java.util.function.Function;
 import swim.api.Link;
 import swim.api.data.ValueData;
 import swim.runtime.LaneContext;
@@ -62,6 +63,9 @@ public class ValueLaneModel extends LaneModel<ValueLaneView<?>, ValueLaneUplink>
 
   @Override
   public void onCommand(CommandMessage message) {
+    if (isDeduplicated() && isUnchanged(message.body())) {
+      return;
+    }
     new ValueLaneRelaySet(this, null, message, message.body()).run();
   }
 
@@ -119,6 +123,42 @@ public class ValueLaneModel extends LaneModel<ValueLaneView<?>, ValueLaneUplink>
     return this;
   }
 
+  public final boolean isDeduplicated() {
+    return (this.flags & DEDUPLICATED) != 0;
+  }
+
+  public ValueLaneModel isDeduplicated(boolean isDeduplicated) {
+    if (isDeduplicated) {
+      this.flags |= DEDUPLICATED;
+    } else {
+      this.flags &= ~DEDUPLICATED;
+    }
+    final Object views = this.views;
+    if (views instanceof ValueLaneView<?>) {
+      ((ValueLaneView<?>) views).didSetDeduplicated(isDeduplicated);
+    } else if (views instanceof LaneView[]) {
+      final LaneView[] viewArray = (LaneView[]) views;
+      for (int i = 0, n = viewArray.length; i < n; i += 1) {
+        ((ValueLaneView<?>) viewArray[i]).didSetDeduplicated(isDeduplicated);
+      }
+    }
+    return this;
+  }
+
+  boolean isUnchanged(Value newValue) {
+    return isUnchanged(this.data.get(), newValue);
+  }
+
+  /**
+   * Returns {@code true} if {@code newValue} equals {@code oldValue}.  The
+   * values are compared directly: {@code equals} stops at the first item that
+   * differs, whereas hashing {@code newValue} would walk all of it on every
+   * set.
+   */
+  static boolean isUnchanged(Value oldValue, Value newValue) {
+    return oldValue == newValue || oldValue.equals(newValue);
+  }
+
   public final boolean isSigned() {
     return (this.flags & SIGNED) != 0;
   }
@@ -149,6 +189,13 @@ public class ValueLaneModel extends LaneModel<ValueLaneView<?>, ValueLaneUplink>
   public <V> V set(ValueLaneView<V> view, V newObject) {
     final Form<V> valueForm = view.valueForm;
     final Value newValue = valueForm.mold(newObject).toValue();
+    if (isDeduplicated()) {
+      final Value oldValue = this.data.get();
+      if (isUnchanged(oldValue, newValue)) {
+        final V oldObject = valueForm.cast(oldValue);
+        return oldObject != null ? oldObject : valueForm.unit();
+      }
+    }
     final ValueLaneRelaySet relay = new ValueLaneRelaySet(this, null, newValue);
 
     relay.valueForm = (Form<Object>) valueForm;
@@ -167,9 +214,49 @@ public class ValueLaneModel extends LaneModel<ValueLaneView<?>, ValueLaneUplink>
     return (V) relay.oldObject;
   }
 
+  /**
+   * Sets the lane value to {@code newObject} if the current lane value equals
+   * {@code expectedValue} when the new value is stored, after running the
+   * {@code willSet} callbacks.  The relay is handed the lane's stage up
+   * front, so it runs every phase on the calling thread, even for
+   * non-preemptive observers, and the result reflects the write-time check.
+   */
+  @SuppressWarnings("unchecked")
+  public <V> boolean compareAndSet(ValueLaneView<V> view, Value expectedValue, V newObject) {
+    final Form<V> valueForm = view.valueForm;
+    final Value newValue = valueForm.mold(newObject).toValue();
+    if (isDeduplicated() && expectedValue.equals(newValue) && isUnchanged(newValue)) {
+      return true;
+    }
+    final ValueLaneRelaySet relay = new ValueLaneRelaySet(this, null, newValue);
+    relay.expectedValue = expectedValue;
+    relay.valueForm = (Form<Object>) valueForm;
+    relay.oldObject = newObject;
+    relay.newObject = newObject;
+    relay.stage = stage();
+    relay.run();
+    return !relay.rejected;
+  }
+
+  public <V> V update(ValueLaneView<V> view, Function<? super V, ? extends V> function) {
+    final Form<V> valueForm = view.valueForm;
+    do {
+      final Value oldValue = get();
+      V oldObject = valueForm.cast(oldValue);
+      if (oldObject == null) {
+        oldObject = valueForm.unit();
+      }
+      final V newObject = function.apply(oldObject);
+      if (compareAndSet(view, oldValue, newObject)) {
+        return newObject;
+      }
+    } while (true);
+  }
+
   static final int RESIDENT = 1 << 0;
   static final int TRANSIENT = 1 << 1;
   static final int SIGNED = 1 << 2;
+  static final int DEDUPLICATED = 1 << 3;
 }
 
 final class ValueLaneRelaySet extends LaneRelay<ValueLaneModel, ValueLaneView<?>> {
@@ -180,6 +267,9 @@ final class ValueLaneRelaySet extends LaneRelay<ValueLaneModel, ValueLaneView<?>
   Object oldObject;
   Value newValue;
   Object newObject;
+  Value expectedValue;
+  boolean rejected;
+  boolean unchanged;
 
   ValueLaneRelaySet(ValueLaneModel model, Link link, CommandMessage message, Value newValue) {
     super(model, 4);
@@ -198,7 +288,14 @@ final class ValueLaneRelaySet extends LaneRelay<ValueLaneModel, ValueLaneView<?>
   @Override
   void beginPhase(int phase) {
     if (phase == 2) {
-      this.oldValue = this.model.data.set(this.newValue);
+      synchronized (this.model) {
+        if (this.expectedValue != null && !this.expectedValue.equals(this.model.data.get())) {
+          this.rejected = true;
+          return;
+        }
+        this.unchanged = this.model.isDeduplicated() && this.model.isUnchanged(this.newValue);
+        this.oldValue = this.model.data.set(this.newValue);
+      }
       if (this.valueForm != null) {
         this.oldObject = this.valueForm.cast(this.oldValue);
         if (this.oldObject == null) {
@@ -235,6 +332,9 @@ final class ValueLaneRelaySet extends LaneRelay<ValueLaneModel, ValueLaneView<?>
       }
       return result.getKey();
     } else if (phase == 2) {
+      if (this.rejected || this.unchanged) {
+        return true;
+      }
       final Form<Object> valueForm = (Form<Object>) view.valueForm;
       if (this.valueForm != valueForm && valueForm != null) {
         this.valueForm = valueForm;
@@ -263,6 +363,8 @@ final class ValueLaneRelaySet extends LaneRelay<ValueLaneModel, ValueLaneView<?>
 
   @Override
   void done() {
-    this.model.cueDown();
+    if (!this.rejected && !this.unchanged) {
+      this.model.cueDown();
+    }
   }
 }
@@ -17,6 +17,7 @@ package swim.runtime.lane;
 import java.util.AbstractMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.function.Function;
 import swim.api.Link;
 import swim.api.SwimContext;
 import swim.api.agent.AgentContext;
@@ -168,6 +169,33 @@ public class ValueLaneView<V> extends LaneView implements ValueLane<V> {
     }
   }
 
+  @Override
+  public final boolean isDeduplicated() {
+    return (this.flags & DEDUPLICATED) != 0;
+  }
+
+  @Override
+  public ValueLaneView<V> isDeduplicated(boolean isDeduplicated) {
+    didSetDeduplicated(isDeduplicated);
+
+    // note: marked final given access of concurrently accessed volatile objects
+    final ValueLaneModel laneBinding = this.laneBinding;
+
+    if (laneBinding != null) {
+      laneBinding.isDeduplicated(isDeduplicated);
+    }
+
+    return this;
+  }
+
+  void didSetDeduplicated(boolean isDeduplicated) {
+    if (isDeduplicated) {
+      this.flags |= DEDUPLICATED;
+    } else {
+      this.flags &= ~DEDUPLICATED;
+    }
+  }
+
   @Override
   public final boolean isSigned() {
     return (this.flags & SIGNED) != 0;
@@ -417,6 +445,16 @@ public class ValueLaneView<V> extends LaneView implements ValueLane<V> {
     return this.laneBinding.set(this, newValue);
   }
 
+  @Override
+  public boolean compareAndSet(V expectedValue, V newValue) {
+    return this.laneBinding.compareAndSet(this, this.valueForm.mold(expectedValue).toValue(), newValue);
+  }
+
+  @Override
+  public V update(Function<? super V, ? extends V> function) {
+    return this.laneBinding.update(this, function);
+  }
+
   @Override
   public Outlet<? extends V> input() {
     return this.input;
@@ -593,4 +631,5 @@ public class ValueLaneView<V> extends LaneView implements ValueLane<V> {
   static final int RESIDENT = 1 << 0;
   static final int TRANSIENT = 1 << 1;
   static final int SIGNED = 1 << 2;
+  static final int DEDUPLICATED = 1 << 3;
 }
@@ -16,14 +16,25 @@ package swim.runtime.router;
 
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
-import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import swim.api.data.DataFactory;
+import swim.api.data.ListData;
+import swim.api.data.MapData;
 import swim.api.downlink.Downlink;
 import swim.api.policy.Policy;
 import swim.collections.HashTrieMap;
+import swim.collections.HashTrieSet;
+import swim.concurrent.Cont;
+import swim.concurrent.Conts;
 import swim.concurrent.Schedule;
 import swim.concurrent.Stage;
+import swim.concurrent.Sync;
+import swim.concurrent.SyncException;
+import swim.concurrent.TimerFunction;
+import swim.concurrent.TimerRef;
 import swim.math.Z2Form;
 import swim.runtime.AbstractTierBinding;
 import swim.runtime.HostBinding;
@@ -41,6 +52,7 @@ import swim.store.ListDataBinding;
 import swim.store.MapDataBinding;
 import swim.store.SpatialDataBinding;
 import swim.store.ValueDataBinding;
+import swim.structure.Item;
 import swim.structure.Record;
 import swim.structure.Value;
 import swim.uri.Uri;
@@ -48,12 +60,69 @@ import swim.uri.Uri;
 public class HostTable extends AbstractTierBinding implements HostBinding {
   protected HostContext hostContext;
 
-  volatile HashTrieMap<Uri, NodeBinding> nodes;
+  /**
+   * Open node bindings, keyed by node URI.
+   */
+  final ConcurrentHashMap<Uri, NodeBinding> nodes;
+
+  /**
+   * Node instantiations currently in flight, keyed by node URI; ensures that
+   * concurrent opens of the same node instantiate the node exactly once.
+   */
+  final ConcurrentHashMap<Uri, HostTableOpening> openings;
+
+  /**
+   * URIs of the nodes that have been passivated since they were last open;
+   * their lane state lives on only in their stores.
+   */
+  final Set<Uri> passivatedNodes;
+
+  /**
+   * Lane state of nodes migrated to this host, keyed by node URI, staged
+   * until the node is next instantiated.
+   */
+  final ConcurrentHashMap<Uri, Value> imports;
+
+  /**
+   * Most recently built snapshot of {@link #nodes}, returned by {@link
+   * #getNodes()} until the node table next changes.
+   */
+  volatile HostTableSnapshot snapshot;
+
+  /**
+   * Number of changes made to {@link #nodes}; incremented after each change,
+   * so that a snapshot tagged with the version read before it was built
+   * reflects at least every change made before that version.
+   */
+  volatile int version;
+
+  /**
+   * Number of milliseconds a node must remain idle before it gets
+   * passivated; {@code 0} if idle nodes are never passivated.  Defaults to
+   * the {@code swim.node.idle.millis} system property.  Passivated nodes are
+   * reinstantiated from their stores, so in-memory agent fields reset when
+   * they reactivate; see {@link NodeBinding#isIdle(long)}.
+   */
+  final long idleMillis;
+
+  /**
+   * Timer that periodically passivates idle nodes; {@code null} if this host
+   * isn't started, or doesn't passivate idle nodes.
+   */
+  volatile TimerRef passivateTimer;
 
   volatile int flags;
 
+  public HostTable(long idleMillis) {
+    this.nodes = new ConcurrentHashMap<Uri, NodeBinding>();
+    this.openings = new ConcurrentHashMap<Uri, HostTableOpening>();
+    this.passivatedNodes = ConcurrentHashMap.newKeySet();
+    this.imports = new ConcurrentHashMap<Uri, Value>();
+    this.idleMillis = idleMillis;
+  }
+
   public HostTable() {
-    this.nodes = HashTrieMap.empty();
+    this(IDLE_MILLIS);
   }
 
   @Override
@@ -198,9 +267,28 @@ public class HostTable extends AbstractTierBinding implements HostBinding {
     }
   }
 
+  /**
+   * Returns a snapshot of the open nodes of this host.  The snapshot gets
+   * rebuilt, in time linear in the number of nodes, on the first call after
+   * the node table changes; subsequent calls return the cached snapshot.
+   */
   @Override
   public HashTrieMap<Uri, NodeBinding> getNodes() {
-    return this.nodes;
+    final int version = this.version;
+    final HostTableSnapshot snapshot = this.snapshot;
+    if (snapshot != null && snapshot.version == version) {
+      return snapshot.nodes;
+    }
+    HashTrieMap<Uri, NodeBinding> nodes = HashTrieMap.empty();
+    for (Map.Entry<Uri, NodeBinding> entry : this.nodes.entrySet()) {
+      nodes = nodes.updated(entry.getKey(), entry.getValue());
+    }
+    this.snapshot = new HostTableSnapshot(version, nodes);
+    return nodes;
+  }
+
+  void didChangeNodes() {
+    VERSION.incrementAndGet(this);
   }
 
   @Override
@@ -210,97 +298,410 @@ public class HostTable extends AbstractTierBinding implements HostBinding {
 
   @Override
   public NodeBinding openNode(Uri nodeUri) {
-    HashTrieMap<Uri, NodeBinding> oldNodes;
-    HashTrieMap<Uri, NodeBinding> newNodes;
-    NodeBinding nodeBinding = null;
-    do {
-      oldNodes = this.nodes;
-      final NodeBinding node = oldNodes.get(nodeUri);
-      if (node != null) {
-        if (nodeBinding != null) {
-          // Lost creation race.
-          nodeBinding.close();
-        }
-        nodeBinding = node;
-        newNodes = oldNodes;
-        break;
-      } else if (nodeBinding == null) {
+    NodeBinding nodeBinding = this.nodes.get(nodeUri);
+    if (nodeBinding != null) {
+      return nodeBinding;
+    }
+    // Key the node by its canonical URI, so that lookups by interned URIs
+    // compare by identity.
+    nodeUri = nodeUri.intern();
+    final HostTableOpening newOpening = new HostTableOpening(nodeUri, Thread.currentThread());
+    final HostTableOpening opening = this.openings.putIfAbsent(nodeUri, newOpening);
+    if (opening != null) {
+      // Another thread is already instantiating the node; wait for it,
+      // unless the node is recursively opening itself, or waiting would
+      // deadlock with a thread that is waiting on a node we're instantiating.
+      if (opening.thread == Thread.currentThread()) {
+        return opening.nodeBinding;
+      } else if (opening.isPassivation) {
+        // The previous instance of the node is closing; reinstantiate the
+        // node once its lane state has been flushed.
+        opening.awaitNode();
+        return openNode(nodeUri);
+      } else if (opening.awaitNode()) {
+        return opening.getNode();
+      } else {
+        return createNode(nodeUri);
+      }
+    }
+    boolean created = false;
+    try {
+      // Recheck, in case a concurrent opening completed after the initial
+      // lookup, but before our opening was registered.
+      nodeBinding = this.nodes.get(nodeUri);
+      if (nodeBinding == null) {
         nodeBinding = this.hostContext.createNode(nodeUri);
         if (nodeBinding != null) {
           nodeBinding = this.hostContext.injectNode(nodeUri, nodeBinding);
+          newOpening.nodeBinding = nodeBinding;
           final NodeContext nodeContext = createNodeContext(nodeBinding, nodeUri);
           nodeBinding.setNodeContext(nodeContext);
-          newNodes = oldNodes.updated(nodeUri, nodeBinding);
-        } else {
-          newNodes = oldNodes;
-          break;
+          restoreNode(nodeUri, nodeBinding);
+          final NodeBinding oldNodeBinding = this.nodes.putIfAbsent(nodeUri, nodeBinding);
+          if (oldNodeBinding == null) {
+            didChangeNodes();
+            created = true;
+          } else {
+            // Lost race with an explicitly injected node, or with a thread
+            // that instantiated the node to break an opening cycle.
+            nodeBinding.close();
+            nodeBinding = oldNodeBinding;
+          }
         }
-      } else {
-        newNodes = oldNodes.updated(nodeUri, nodeBinding);
       }
-    } while (oldNodes != newNodes && !NODES.compareAndSet(this, oldNodes, newNodes));
-    if (oldNodes != newNodes) {
+      newOpening.bind(nodeBinding);
+    } catch (Throwable error) {
+      newOpening.trap(error);
+      throw error;
+    } finally {
+      this.openings.remove(nodeUri, newOpening);
+    }
+    if (created) {
       activate(nodeBinding);
     }
     return nodeBinding;
   }
 
+  /**
+   * Instantiates the node with the given {@code nodeUri} without registering
+   * an opening, discarding the new node if another thread instantiates it
+   * first.  Used instead of waiting on another thread's opening when the
+   * wait would close a cycle of threads waiting on each other's openings.
+   */
+  NodeBinding createNode(Uri nodeUri) {
+    NodeBinding nodeBinding = this.hostContext.createNode(nodeUri);
+    if (nodeBinding != null) {
+      nodeBinding = this.hostContext.injectNode(nodeUri, nodeBinding);
+      final NodeContext nodeContext = createNodeContext(nodeBinding, nodeUri);
+      nodeBinding.setNodeContext(nodeContext);
+      restoreNode(nodeUri, nodeBinding);
+      final NodeBinding oldNodeBinding = this.nodes.putIfAbsent(nodeUri, nodeBinding);
+      if (oldNodeBinding == null) {
+        didChangeNodes();
+        activate(nodeBinding);
+      } else {
+        nodeBinding.close();
+        nodeBinding = oldNodeBinding;
+      }
+    }
+    return nodeBinding;
+  }
+
   @Override
   public NodeBinding openNode(Uri nodeUri, NodeBinding node) {
-    HashTrieMap<Uri, NodeBinding> oldNodes;
-    HashTrieMap<Uri, NodeBinding> newNodes;
-    NodeBinding nodeBinding = null;
+    if (this.nodes.containsKey(nodeUri)) {
+      return null;
+    }
+    nodeUri = nodeUri.intern();
+    final NodeBinding nodeBinding = this.hostContext.injectNode(nodeUri, node);
+    final NodeContext nodeContext = createNodeContext(nodeBinding, nodeUri);
+    nodeBinding.setNodeContext(nodeContext);
+    restoreNode(nodeUri, nodeBinding);
+    if (this.nodes.putIfAbsent(nodeUri, nodeBinding) != null) {
+      return null;
+    }
+    didChangeNodes();
+    activate(nodeBinding);
+    return nodeBinding;
+  }
+
+  public void closeNode(Uri nodeUri) {
+    final NodeBinding nodeBinding = this.nodes.remove(nodeUri);
+    if (nodeBinding != null) {
+      didChangeNodes();
+      nodeBinding.didClose();
+    }
+  }
+
+  /**
+   * Returns the open node with the given {@code nodeUri}, opening it if
+   * necessary, leased so that it won't be passivated until {@link
+   * #releaseNode(NodeBinding)} is called.  Messages routed to a leased node
+   * are delivered to a live instance of the node.
+   */
+  NodeBinding leaseNode(Uri nodeUri) {
     do {
-      oldNodes = this.nodes;
-      if (oldNodes.containsKey(nodeUri)) {
-        nodeBinding = null;
-        newNodes = oldNodes;
-        break;
-      } else {
-        if (nodeBinding == null) {
-          nodeBinding = this.hostContext.injectNode(nodeUri, node);
-          final NodeContext nodeContext = createNodeContext(nodeBinding, nodeUri);
-          nodeBinding.setNodeContext(nodeContext);
+      final NodeBinding nodeBinding = openNode(nodeUri);
+      if (nodeBinding == null) {
+        return null;
+      }
+      final NodeContext nodeContext = nodeBinding.nodeContext();
+      if (!(nodeContext instanceof HostTableNode) || ((HostTableNode) nodeContext).lease()) {
+        return nodeBinding;
+      }
+      // The node is being passivated; wait for it to close, and reopen it.
+      final HostTableOpening opening = this.openings.get(nodeUri);
+      if (opening != null && opening.isPassivation) {
+        opening.awaitNode();
+      }
+    } while (true);
+  }
+
+  void releaseNode(NodeBinding nodeBinding) {
+    final NodeContext nodeContext = nodeBinding.nodeContext();
+    if (nodeContext instanceof HostTableNode) {
+      ((HostTableNode) nodeContext).release();
+    }
+  }
+
+  /**
+   * Closes every node that has been idle for at least {@link #idleMillis}
+   * milliseconds.  Passivated nodes get reinstantiated, from their
+   * persistent lane state, the next time they're opened.
+   */
+  public void passivateIdleNodes() {
+    final long idleMillis = this.idleMillis;
+    final Iterator<Map.Entry<Uri, NodeBinding>> entries = this.nodes.entrySet().iterator();
+    while (entries.hasNext()) {
+      final Map.Entry<Uri, NodeBinding> entry = entries.next();
+      final Uri nodeUri = entry.getKey();
+      final NodeBinding nodeBinding = entry.getValue();
+      if (nodeBinding.isIdle(idleMillis)) {
+        passivateNode(nodeUri, nodeBinding, idleMillis);
+      }
+    }
+  }
+
+  /**
+   * Closes the given node, provided it's still idle, and no messages are
+   * being routed to it.  Openers of the node wait until the node has been
+   * closed, and its lane state flushed, before instantiating it anew, so
+   * that at most one instance of the node is ever live.
+   */
+  boolean passivateNode(Uri nodeUri, NodeBinding nodeBinding, long idleMillis) {
+    final HostTableOpening passivation = new HostTableOpening(nodeUri, Thread.currentThread(), true);
+    if (this.openings.putIfAbsent(nodeUri, passivation) != null) {
+      // The node is being opened; it's not idle.
+      return false;
+    }
+    try {
+      final NodeContext nodeContext = nodeBinding.nodeContext();
+      final HostTableNode hostNode = nodeContext instanceof HostTableNode ? (HostTableNode) nodeContext : null;
+      if (hostNode != null && !hostNode.passivate()) {
+        // A message is being routed to the node.
+        return false;
+      }
+      // Recheck idleness now that no new messages can reach the node.
+      if (!nodeBinding.isIdle(idleMillis) || !this.nodes.remove(nodeUri, nodeBinding)) {
+        if (hostNode != null) {
+          hostNode.reactivate();
         }
-        newNodes = oldNodes.updated(nodeUri, nodeBinding);
+        return false;
       }
-    } while (oldNodes != newNodes && !NODES.compareAndSet(this, oldNodes, newNodes));
-    if (nodeBinding != null) {
-      activate(nodeBinding);
+      this.passivatedNodes.add(nodeUri);
+      didChangeNodes();
+      nodeBinding.flush();
+      nodeBinding.close();
+      nodeBinding.didClose();
+      return true;
+    } finally {
+      this.openings.remove(nodeUri, passivation);
+      passivation.bind(null);
     }
-    return nodeBinding;
   }
 
-  public void closeNode(Uri nodeUri) {
-    HashTrieMap<Uri, NodeBinding> oldNodes;
-    HashTrieMap<Uri, NodeBinding> newNodes;
-    NodeBinding nodeBinding = null;
+  /**
+   * Writes the lane state staged for the newly instantiated node with the
+   * given {@code nodeUri}, if the node was migrated to this host, through to
+   * the node's stores before the node gets activated.
+   */
+  void restoreNode(Uri nodeUri, NodeBinding nodeBinding) {
+    this.passivatedNodes.remove(nodeUri);
+    final Value state = this.imports.remove(nodeUri);
+    if (state != null) {
+      importState(nodeBinding, state);
+    }
+  }
+
+  /**
+   * Returns {@code true} if the node with the given {@code nodeUri} is open
+   * on this host, or has been passivated since it was last open.
+   */
+  public boolean hasNode(Uri nodeUri) {
+    return this.nodes.containsKey(nodeUri) || this.passivatedNodes.contains(nodeUri);
+  }
+
+  /**
+   * Returns the URIs of the nodes that are open on this host, or that have
+   * been passivated since they were last open.  Nodes whose lane state was
+   * persisted by a previous process, and that haven't been opened since, are
+   * not included.
+   */
+  public HashTrieSet<Uri> nodeUris() {
+    HashTrieSet<Uri> nodeUris = HashTrieSet.empty();
+    for (Uri nodeUri : this.nodes.keySet()) {
+      nodeUris = nodeUris.added(nodeUri);
+    }
+    for (Uri nodeUri : this.passivatedNodes) {
+      nodeUris = nodeUris.added(nodeUri);
+    }
+    return nodeUris;
+  }
+
+  /**
+   * Closes the node with the given {@code nodeUri}, so that it can be
+   * reinstantiated on another host, and binds {@code cont} with the state of
+   * the node's lanes, as exported by {@link #exportState(NodeBinding)}.  A
+   * passivated node gets reinstantiated to export its state; {@code cont}
+   * gets bound with {@code Value.absent()} if the node isn't on this host.
+   *
+   * The state gets exported on the node's own stage, after the messages
+   * already routed to the node have been processed, and {@code cont} gets
+   * bound before the node is closed, so that links to the node can be
+   * rerouted before the node closes them.  Callers must stop routing new
+   * messages to the node first; openers of the node wait until it's closed.
+   */
+  public void evictNode(Uri nodeUri, Cont<Value> cont) {
+    nodeUri = nodeUri.intern();
+    HostTableOpening eviction;
+    NodeBinding nodeBinding;
     do {
-      oldNodes = this.nodes;
-      final NodeBinding node = oldNodes.get(nodeUri);
-      if (node != null) {
-        nodeBinding = node;
-        newNodes = oldNodes.removed(nodeUri);
-      } else {
-        nodeBinding = null;
-        newNodes = oldNodes;
+      if (!this.nodes.containsKey(nodeUri) && this.passivatedNodes.contains(nodeUri)) {
+        openNode(nodeUri);
+      }
+      eviction = new HostTableOpening(nodeUri, Thread.currentThread(), true);
+      final HostTableOpening opening = this.openings.putIfAbsent(nodeUri, eviction);
+      if (opening != null) {
+        // The node is being opened, or passivated; evict it once it settles.
+        opening.awaitNode();
+        continue;
+      }
+      nodeBinding = this.nodes.get(nodeUri);
+      if (nodeBinding != null || !this.passivatedNodes.contains(nodeUri)) {
         break;
       }
-    } while (oldNodes != newNodes && !NODES.compareAndSet(this, oldNodes, newNodes));
+      // The node was passivated again before the eviction got registered.
+      this.openings.remove(nodeUri, eviction);
+      eviction.bind(null);
+    } while (true);
+    if (nodeBinding == null) {
+      this.openings.remove(nodeUri, eviction);
+      eviction.bind(null);
+      cont.bind(Value.absent());
+      return;
+    }
+    final NodeContext nodeContext = nodeBinding.nodeContext();
+    if (nodeContext instanceof HostTableNode) {
+      // Wait for messages already being routed to the node to be delivered.
+      final HostTableNode hostNode = (HostTableNode) nodeContext;
+      while (!hostNode.passivate()) {
+        Thread.yield();
+      }
+    }
+    this.nodes.remove(nodeUri, nodeBinding);
+    didChangeNodes();
+    final HostTableEviction task = new HostTableEviction(this, nodeBinding, eviction, cont);
+    final Stage stage = nodeBinding.unwrapNode(Stage.class);
+    if (stage != null) {
+      stage.execute(task);
+    } else {
+      task.run();
+    }
+  }
+
+  /**
+   * Instantiates the node with the given {@code nodeUri} from the lane
+   * {@code state} exported by the host from which the node migrated.  The
+   * state replaces whatever state the node's stores hold on this host, and
+   * gets written through to them before the node is activated.
+   */
+  public void importNode(Uri nodeUri, Value state) {
+    nodeUri = nodeUri.intern();
+    final NodeBinding nodeBinding = this.nodes.get(nodeUri);
     if (nodeBinding != null) {
-      nodeBinding.didClose();
+      importState(nodeBinding, state);
+      return;
+    }
+    this.imports.put(nodeUri, state);
+    try {
+      openNode(nodeUri);
+    } finally {
+      // Discard the state if no agent routes to the node.
+      this.imports.remove(nodeUri, state);
+    }
+  }
+
+  /**
+   * Returns the contents of the value, map, and list stores of the given
+   * node, as a record of {@code @value(name){value:...}}, {@code
+   * @map(name){key:value,...}}, and {@code @list(name){...}} items.  Spatial
+   * stores aren't exported, since their shape forms aren't known here.
+   */
+  public static Value exportState(NodeBinding nodeBinding) {
+    final Record state = Record.create();
+    final Iterator<DataBinding> dataBindings = nodeBinding.dataBindings();
+    while (dataBindings.hasNext()) {
+      final DataBinding dataBinding = dataBindings.next();
+      // Stores opened by a node are named by {node, name} records; export
+      // the node-relative name.
+      Value name = dataBinding.name();
+      if (name.get("node").isDefined()) {
+        name = name.get("name");
+      }
+      if (dataBinding instanceof ValueDataBinding) {
+        final Value value = ((ValueDataBinding) dataBinding).get();
+        state.add(Record.create(2).attr("value", name).slot("value", value));
+      } else if (dataBinding instanceof MapDataBinding) {
+        final MapDataBinding mapData = (MapDataBinding) dataBinding;
+        final Record map = Record.create(1 + mapData.size()).attr("map", name);
+        for (Map.Entry<Value, Value> entry : mapData) {
+          map.slot(entry.getKey(), entry.getValue());
+        }
+        state.add(map);
+      } else if (dataBinding instanceof ListDataBinding) {
+        final ListDataBinding listData = (ListDataBinding) dataBinding;
+        final Record list = Record.create(1 + listData.size()).attr("list", name);
+        for (Value value : listData) {
+          list.add(value);
+        }
+        state.add(list);
+      }
+    }
+    return state;
+  }
+
+  /**
+   * Replaces the contents of the stores of the given node with the {@code
+   * state} returned by {@link #exportState(NodeBinding)}.
+   */
+  public static void importState(NodeBinding nodeBinding, Value state) {
+    final DataFactory data = nodeBinding.unwrapNode(DataFactory.class);
+    if (data == null) {
+      return;
+    }
+    for (Item item : state) {
+      final Value store = item.toValue();
+      final String tag = store.tag();
+      final Value name = store.header(tag);
+      if ("value".equals(tag)) {
+        data.valueData(name).set(store.get("value"));
+      } else if ("map".equals(tag)) {
+        final MapData<Value, Value> mapData = data.mapData(name);
+        mapData.clear();
+        for (int i = 1, n = store.length(); i < n; i += 1) {
+          final Item entry = store.getItem(i);
+          mapData.put(entry.key(), entry.toValue());
+        }
+      } else if ("list".equals(tag)) {
+        final ListData<Value> listData = data.listData(name);
+        listData.clear();
+        for (int i = 1, n = store.length(); i < n; i += 1) {
+          listData.add(store.getItem(i).toValue());
+        }
+      }
     }
   }
 
   public void closeNodes() {
-    HashTrieMap<Uri, NodeBinding> oldNodes;
-    final HashTrieMap<Uri, NodeBinding> newNodes = HashTrieMap.empty();
-    do {
-      oldNodes = this.nodes;
-    } while (oldNodes != newNodes && !NODES.compareAndSet(this, oldNodes, newNodes));
-    for (NodeBinding nodeBinding : oldNodes.values()) {
-      nodeBinding.close();
-      nodeBinding.didClose();
+    final Iterator<Map.Entry<Uri, NodeBinding>> entries = this.nodes.entrySet().iterator();
+    while (entries.hasNext()) {
+      final Map.Entry<Uri, NodeBinding> entry = entries.next();
+      if (this.nodes.remove(entry.getKey(), entry.getValue())) {
+        didChangeNodes();
+        final NodeBinding nodeBinding = entry.getValue();
+        nodeBinding.close();
+        nodeBinding.didClose();
+      }
     }
   }
 
@@ -381,9 +782,13 @@ public class HostTable extends AbstractTierBinding implements HostBinding {
 
   @Override
   public void openUplink(LinkBinding link) {
-    final NodeBinding nodeBinding = openNode(link.nodeUri());
+    final NodeBinding nodeBinding = leaseNode(link.nodeUri());
     if (nodeBinding != null) {
-      nodeBinding.openUplink(link);
+      try {
+        nodeBinding.openUplink(link);
+      } finally {
+        releaseNode(nodeBinding);
+      }
     } else {
       final ErrorUplinkModem linkContext = new ErrorUplinkModem(link, Record.of().attr("nodeNotFound"));
       link.setLinkContext(linkContext);
@@ -393,9 +798,13 @@ public class HostTable extends AbstractTierBinding implements HostBinding {
 
   @Override
   public void httpUplink(HttpBinding http) {
-    final NodeBinding nodeBinding = openNode(http.nodeUri());
+    final NodeBinding nodeBinding = leaseNode(http.nodeUri());
     if (nodeBinding != null) {
-      nodeBinding.httpUplink(http);
+      try {
+        nodeBinding.httpUplink(http);
+      } finally {
+        releaseNode(nodeBinding);
+      }
     } else {
       final HttpErrorUplinkModem httpContext = new HttpErrorUplinkModem(http);
       http.setHttpContext(httpContext);
@@ -404,9 +813,13 @@ public class HostTable extends AbstractTierBinding implements HostBinding {
 
   @Override
   public void pushUp(PushRequest pushRequest) {
-    final NodeBinding nodeBinding = openNode(pushRequest.envelope().nodeUri());
+    final NodeBinding nodeBinding = leaseNode(pushRequest.envelope().nodeUri());
     if (nodeBinding != null) {
-      nodeBinding.pushUp(pushRequest);
+      try {
+        nodeBinding.pushUp(pushRequest);
+      } finally {
+        releaseNode(nodeBinding);
+      }
     } else {
       pushRequest.didDecline();
     }
@@ -440,7 +853,7 @@ public class HostTable extends AbstractTierBinding implements HostBinding {
   @Override
   protected void willOpen() {
     super.willOpen();
-    final Iterator<NodeBinding> nodesIterator = this.nodes.valueIterator();
+    final Iterator<NodeBinding> nodesIterator = this.nodes.values().iterator();
     while (nodesIterator.hasNext()) {
       nodesIterator.next().open();
     }
@@ -449,7 +862,7 @@ public class HostTable extends AbstractTierBinding implements HostBinding {
   @Override
   protected void willLoad() {
     super.willLoad();
-    final Iterator<NodeBinding> nodesIterator = this.nodes.valueIterator();
+    final Iterator<NodeBinding> nodesIterator = this.nodes.values().iterator();
     while (nodesIterator.hasNext()) {
       nodesIterator.next().load();
     }
@@ -458,16 +871,29 @@ public class HostTable extends AbstractTierBinding implements HostBinding {
   @Override
   protected void willStart() {
     super.willStart();
-    final Iterator<NodeBinding> nodesIterator = this.nodes.valueIterator();
+    final Iterator<NodeBinding> nodesIterator = this.nodes.values().iterator();
     while (nodesIterator.hasNext()) {
       nodesIterator.next().start();
     }
   }
 
+  @Override
+  protected void didStart() {
+    super.didStart();
+    if (this.idleMillis > 0L) {
+      this.passivateTimer = schedule().setTimer(this.idleMillis, new HostTablePassivator(this));
+    }
+  }
+
   @Override
   protected void willStop() {
     super.willStop();
-    final Iterator<NodeBinding> nodesIterator = this.nodes.valueIterator();
+    final TimerRef passivateTimer = this.passivateTimer;
+    if (passivateTimer != null) {
+      this.passivateTimer = null;
+      passivateTimer.cancel();
+    }
+    final Iterator<NodeBinding> nodesIterator = this.nodes.values().iterator();
     while (nodesIterator.hasNext()) {
       nodesIterator.next().stop();
     }
@@ -476,7 +902,7 @@ public class HostTable extends AbstractTierBinding implements HostBinding {
   @Override
   protected void willUnload() {
     super.willUnload();
-    final Iterator<NodeBinding> nodesIterator = this.nodes.valueIterator();
+    final Iterator<NodeBinding> nodesIterator = this.nodes.values().iterator();
     while (nodesIterator.hasNext()) {
       nodesIterator.next().unload();
     }
@@ -485,7 +911,7 @@ public class HostTable extends AbstractTierBinding implements HostBinding {
   @Override
   protected void willClose() {
     super.willClose();
-    final Iterator<NodeBinding> nodesIterator = this.nodes.valueIterator();
+    final Iterator<NodeBinding> nodesIterator = this.nodes.values().iterator();
     while (nodesIterator.hasNext()) {
       nodesIterator.next().close();
     }
@@ -501,15 +927,211 @@ public class HostTable extends AbstractTierBinding implements HostBinding {
     error.printStackTrace();
   }
 
+  static final long IDLE_MILLIS;
+
   static final int PRIMARY = 1 << 0;
   static final int REPLICA = 1 << 1;
   static final int MASTER = 1 << 2;
   static final int SLAVE = 1 << 3;
 
-  @SuppressWarnings("unchecked")
-  static final AtomicReferenceFieldUpdater<HostTable, HashTrieMap<Uri, NodeBinding>> NODES =
-      AtomicReferenceFieldUpdater.newUpdater(HostTable.class, (Class<HashTrieMap<Uri, NodeBinding>>) (Class<?>) HashTrieMap.class, "nodes");
-
   static final AtomicIntegerFieldUpdater<HostTable> FLAGS =
       AtomicIntegerFieldUpdater.newUpdater(HostTable.class, "flags");
+
+  static final AtomicIntegerFieldUpdater<HostTable> VERSION =
+      AtomicIntegerFieldUpdater.newUpdater(HostTable.class, "version");
+
+  static {
+    long idleMillis;
+    try {
+      idleMillis = Long.parseLong(System.getProperty("swim.node.idle.millis"));
+    } catch (NumberFormatException error) {
+      idleMillis = 0L;
+    }
+    IDLE_MILLIS = idleMillis;
+  }
+}
+
+/**
+ * Timer that periodically passivates the idle nodes of a {@code HostTable}.
+ */
+final class HostTablePassivator implements TimerFunction {
+  final HostTable host;
+
+  HostTablePassivator(HostTable host) {
+    this.host = host;
+  }
+
+  @Override
+  public void runTimer() {
+    final HostTable host = this.host;
+    try {
+      host.passivateIdleNodes();
+    } finally {
+      if (host.isStarted()) {
+        // Sweep twice per idle period, bounding passivation latency.
+        host.passivateTimer = host.schedule().setTimer(Math.max(1L, host.idleMillis / 2L), this);
+      }
+    }
+  }
+}
+
+/**
+ * Exports the state of a node evicted from a {@code HostTable}, on the
+ * node's own stage, and then closes the node.
+ */
+final class HostTableEviction implements Runnable {
+  final HostTable host;
+  final NodeBinding nodeBinding;
+  final HostTableOpening eviction;
+  final Cont<Value> cont;
+
+  HostTableEviction(HostTable host, NodeBinding nodeBinding, HostTableOpening eviction, Cont<Value> cont) {
+    this.host = host;
+    this.nodeBinding = nodeBinding;
+    this.eviction = eviction;
+    this.cont = cont;
+  }
+
+  @Override
+  public void run() {
+    final NodeBinding nodeBinding = this.nodeBinding;
+    try {
+      nodeBinding.flush();
+      this.cont.bind(HostTable.exportState(nodeBinding));
+    } catch (Throwable error) {
+      if (Conts.isNonFatal(error)) {
+        this.cont.trap(error);
+      } else {
+        throw error;
+      }
+    } finally {
+      try {
+        nodeBinding.close();
+        nodeBinding.didClose();
+      } finally {
+        this.host.openings.remove(this.eviction.nodeUri, this.eviction);
+        this.eviction.bind(null);
+      }
+    }
+  }
+}
+
+/**
+ * Snapshot of the node table of a {@code HostTable}, tagged with the version
+ * of the node table from which it was built.
+ */
+final class HostTableSnapshot {
+  final int version;
+  final HashTrieMap<Uri, NodeBinding> nodes;
+
+  HostTableSnapshot(int version, HashTrieMap<Uri, NodeBinding> nodes) {
+    this.version = version;
+    this.nodes = nodes;
+  }
+}
+
+/**
+ * In-flight instantiation of a node, awaited by threads that concurrently
+ * open the same node URI.
+ */
+final class HostTableOpening extends Sync<NodeBinding> {
+  /**
+   * URI of the node being instantiated.
+   */
+  final Uri nodeUri;
+
+  /**
+   * Thread instantiating the node.
+   */
+  final Thread thread;
+
+  /**
+   * Node binding under construction; visible to the instantiating thread
+   * before the opening completes, so that a node can recursively open
+   * itself while it initializes.
+   */
+  NodeBinding nodeBinding;
+
+  /**
+   * {@code true} if this opening blocks openers of a node while its previous
+   * instance gets passivated, rather than instantiating the node.
+   */
+  final boolean isPassivation;
+
+  HostTableOpening(Uri nodeUri, Thread thread, boolean isPassivation) {
+    this.nodeUri = nodeUri;
+    this.thread = thread;
+    this.isPassivation = isPassivation;
+  }
+
+  HostTableOpening(Uri nodeUri, Thread thread) {
+    this(nodeUri, thread, false);
+  }
+
+  /**
+   * Waits for the node to be instantiated.  Returns {@code false}, without
+   * waiting, if the instantiating thread is itself waiting, directly or
+   * transitively, on an opening being instantiated by the current thread,
+   * in which case waiting would deadlock.
+   *
+   * @throws SyncException if the current thread is interrupted while
+   *         waiting; the thread's interrupt status is restored.
+   */
+  boolean awaitNode() {
+    final Thread thread = Thread.currentThread();
+    // Publish the wait before checking for cycles, so that of any two threads
+    // that close a cycle, at least one observes it.
+    WAITS.put(thread, this);
+    try {
+      // Passivations never wait on openings, so they can't close a cycle.
+      if (!this.isPassivation && closesCycle(thread)) {
+        return false;
+      }
+      await();
+      return true;
+    } catch (InterruptedException error) {
+      thread.interrupt();
+      throw new SyncException("interrupted while opening node " + this.nodeUri, error);
+    } finally {
+      WAITS.remove(thread, this);
+    }
+  }
+
+  /**
+   * Returns the instantiated node, after {@link #awaitNode()} has returned
+   * {@code true}.
+   */
+  NodeBinding getNode() {
+    try {
+      return await();
+    } catch (InterruptedException error) {
+      Thread.currentThread().interrupt();
+      throw new SyncException("interrupted while opening node " + this.nodeUri, error);
+    }
+  }
+
+  boolean closesCycle(Thread thread) {
+    Thread owner = this.thread;
+    // Any cycle that doesn't pass through the current thread gets broken by
+    // one of its own members, so the walk need not exceed the number of
+    // waiting threads.
+    for (int i = WAITS.size(); i >= 0; i -= 1) {
+      if (owner == thread) {
+        return true;
+      }
+      final HostTableOpening opening = WAITS.get(owner);
+      if (opening == null) {
+        return false;
+      }
+      owner = opening.thread;
+    }
+    return false;
+  }
+
+  /**
+   * Openings on which threads are currently waiting, keyed by waiting thread.
+   * Shared by all hosts, so that cycles spanning hosts are detected too.
+   */
+  static final ConcurrentHashMap<Thread, HostTableOpening> WAITS =
+      new ConcurrentHashMap<Thread, HostTableOpening>();
 }
@@ -14,6 +14,7 @@
 
 package swim.runtime.router;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import swim.api.auth.Identity;
 import swim.api.data.DataFactory;
 import swim.api.downlink.Downlink;
@@ -41,12 +42,52 @@ public class HostTableNode implements NodeContext {
 
   protected final Uri nodeUri;
 
+  /**
+   * Number of messages currently being routed to the node, or'd with the
+   * {@link #PASSIVATING} flag while the node is being passivated.
+   */
+  volatile int leases;
+
   public HostTableNode(HostTable host, NodeBinding node, Uri nodeUri) {
     this.host = host;
     this.node = node;
     this.nodeUri = nodeUri;
   }
 
+  /**
+   * Acquires a lease that prevents the node from being passivated while a
+   * message is routed to it.  Returns {@code false} if the node is already
+   * being passivated.
+   */
+  boolean lease() {
+    int oldLeases;
+    do {
+      oldLeases = this.leases;
+      if ((oldLeases & PASSIVATING) != 0) {
+        return false;
+      }
+    } while (!LEASES.compareAndSet(this, oldLeases, oldLeases + 1));
+    return true;
+  }
+
+  void release() {
+    LEASES.decrementAndGet(this);
+  }
+
+  /**
+   * Flags the node as being passivated, provided no leases are held.
+   */
+  boolean passivate() {
+    return LEASES.compareAndSet(this, 0, PASSIVATING);
+  }
+
+  /**
+   * Clears the passivating flag, after passivation was abandoned.
+   */
+  void reactivate() {
+    LEASES.compareAndSet(this, PASSIVATING, 0);
+  }
+
   @Override
   public final Uri meshUri() {
     return this.host.meshUri();
@@ -250,4 +291,9 @@ public class HostTableNode implements NodeContext {
   public void willClose() {
     // nop
   }
+
+  static final int PASSIVATING = 1 << 31;
+
+  static final AtomicIntegerFieldUpdater<HostTableNode> LEASES =
+      AtomicIntegerFieldUpdater.newUpdater(HostTableNode.class, "leases");
 }
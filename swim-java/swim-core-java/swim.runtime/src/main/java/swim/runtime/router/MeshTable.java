@@ -25,12 +25,14 @@ import swim.concurrent.Schedule;
 import swim.concurrent.Stage;
 import swim.math.Z2Form;
 import swim.runtime.AbstractTierBinding;
+import swim.runtime.HostBinding;
 import swim.runtime.HttpBinding;
 import swim.runtime.LinkBinding;
 import swim.runtime.MeshBinding;
 import swim.runtime.MeshContext;
 import swim.runtime.PartBinding;
 import swim.runtime.PartContext;
+import swim.runtime.PartIndex;
 import swim.runtime.PushRequest;
 import swim.runtime.TierContext;
 import swim.runtime.uplink.ErrorUplinkModem;
@@ -44,18 +46,42 @@ import swim.structure.Record;
 import swim.structure.Text;
 import swim.structure.Value;
 import swim.uri.Uri;
+import swim.warp.CommandMessage;
+import swim.warp.Envelope;
 
 public class MeshTable extends AbstractTierBinding implements MeshBinding {
   protected MeshContext meshContext;
 
   volatile FingerTrieSeq<PartBinding> parts;
 
+  volatile PartIndex partIndex;
+
   volatile PartBinding gateway;
 
   volatile PartBinding ourself;
 
+  /**
+   * Consistent hash ring over which this mesh places its nodes; {@code null}
+   * if this mesh isn't partitioned by a ring.
+   */
+  volatile MeshTableRing ring;
+
+  /**
+   * Handoff of nodes to a new ring in progress; {@code null} if this mesh
+   * isn't rebalancing.
+   */
+  volatile MeshTableRebalance rebalance;
+
+  /**
+   * Rebalance commands received from other members before this member
+   * started its own rebalance; guarded by {@code this}.
+   */
+  FingerTrieSeq<Value> rebalanceMessages;
+
   public MeshTable() {
     this.parts = FingerTrieSeq.empty();
+    this.partIndex = PartIndex.empty();
+    this.rebalanceMessages = FingerTrieSeq.empty();
   }
 
   @Override
@@ -137,6 +163,17 @@ public class MeshTable extends AbstractTierBinding implements MeshBinding {
     return this.parts;
   }
 
+  PartIndex partIndex(FingerTrieSeq<PartBinding> parts) {
+    PartIndex partIndex = this.partIndex;
+    if (partIndex.parts() != parts) {
+      partIndex = PartIndex.from(parts);
+      if (parts == this.parts) {
+        this.partIndex = partIndex;
+      }
+    }
+    return partIndex;
+  }
+
   boolean isMetaNode(Uri nodeUri) {
     return !meshUri().isDefined() && "swim".equals(nodeUri.schemeName());
   }
@@ -146,12 +183,9 @@ public class MeshTable extends AbstractTierBinding implements MeshBinding {
     if (isMetaNode(nodeUri)) {
       return this.ourself;
     }
-    final FingerTrieSeq<PartBinding> parts = this.parts;
-    for (int i = 0, n = parts.size(); i < n; i += 1) {
-      final PartBinding part = parts.get(i);
-      if (part.predicate().test(nodeUri)) {
-        return part;
-      }
+    final PartBinding part = partIndex(this.parts).get(nodeUri);
+    if (part != null) {
+      return part;
     }
     return this.gateway;
   }
@@ -180,13 +214,7 @@ public class MeshTable extends AbstractTierBinding implements MeshBinding {
       if (isMetaNode(nodeUri)) {
         part = this.ourself;
       } else {
-        for (int i = 0, n = oldParts.size(); i < n; i += 1) {
-          final PartBinding oldPart = oldParts.get(i);
-          if (oldPart.predicate().test(nodeUri)) {
-            part = oldPart;
-            break;
-          }
-        }
+        part = partIndex(oldParts).get(nodeUri);
       }
       if (part != null) {
         if (partBinding != null) {
@@ -320,6 +348,151 @@ public class MeshTable extends AbstractTierBinding implements MeshBinding {
     }
   }
 
+  /**
+   * Places the nodes of this mesh on a consistent hash ring over the given
+   * {@code members}, with {@code virtualNodes} points per member, where
+   * {@code member} is the host URI by which the other members reach this
+   * host.  Nodes owned by other members get routed to their hosts; nodes
+   * owned by this host, if it's a member, get routed to its gateway.  Agents
+   * already running are left where they are, and links already open through
+   * a previous ring get rerouted; use {@link #rebalance(Uri[])} to change the
+   * membership of a ring whose members host running agents.
+   */
+  public synchronized void openRing(Uri member, Uri[] members, int virtualNodes) {
+    if (this.rebalance != null) {
+      throw new IllegalStateException("mesh is rebalancing");
+    }
+    final MeshTableRing oldRing = this.ring;
+    final MeshTableRing newRing = createRing(member, members, virtualNodes);
+    this.ring = newRing;
+    if (oldRing != null) {
+      oldRing.close();
+    }
+  }
+
+  /**
+   * Moves this mesh onto a consistent hash ring over the new {@code members},
+   * keeping the current ring's virtual node count, and this host's member
+   * URI.  Every member of the current ring, and of the new ring, must
+   * rebalance onto the same new members.
+   *
+   * Nodes this host loses get evicted, and their lane state migrates, over
+   * WARP, to their new owners, which instantiate them from it; open links to
+   * them get rerouted to their new owners, without being closed.  Messages
+   * and links to nodes changing owners are held, on both sides, until their
+   * state has been handed off.  Until every member has started rebalancing,
+   * a member that hasn't yet may forward messages for nodes it's gaining
+   * back to their previous owner.  Spatial lane state isn't migrated.
+   */
+  public void rebalance(Uri... members) {
+    final MeshTableRebalance rebalance;
+    final Value[] messages;
+    synchronized (this) {
+      final MeshTableRing oldRing = this.ring;
+      if (oldRing == null) {
+        throw new IllegalStateException("mesh has no ring");
+      } else if (this.rebalance != null) {
+        throw new IllegalStateException("mesh is already rebalancing");
+      }
+      final MeshTableRing newRing = new MeshTableRing(oldRing.member, members, oldRing.virtualNodes);
+      rebalance = new MeshTableRebalance(this, oldRing, newRing);
+      this.rebalance = rebalance;
+      messages = this.rebalanceMessages.toArray(new Value[this.rebalanceMessages.size()]);
+      this.rebalanceMessages = FingerTrieSeq.empty();
+      openRingParts(oldRing, newRing);
+      this.ring = newRing;
+    }
+    rebalance.start(messages);
+  }
+
+  /**
+   * Returns {@code true} if this mesh is handing off nodes to a new ring.
+   */
+  public boolean isRebalancing() {
+    return this.rebalance != null;
+  }
+
+  void didRebalance(MeshTableRebalance rebalance) {
+    synchronized (this) {
+      if (this.rebalance == rebalance) {
+        this.rebalance = null;
+      }
+    }
+  }
+
+  MeshTableRing createRing(Uri member, Uri[] members, int virtualNodes) {
+    final MeshTableRing newRing = new MeshTableRing(member, members, virtualNodes);
+    openRingParts(this.ring, newRing);
+    return newRing;
+  }
+
+  /**
+   * Creates the parts that route to the members of {@code newRing} other
+   * than this host, and puts them in place of the parts of {@code oldRing},
+   * ahead of the gateway, which then only receives the nodes this host owns.
+   */
+  void openRingParts(MeshTableRing oldRing, MeshTableRing newRing) {
+    final Uri[] members = newRing.members;
+    for (int i = 0; i < members.length; i += 1) {
+      if (!members[i].equals(newRing.member)) {
+        final Value partKey = Text.from(members[i].toString());
+        PartBinding part = new PartTable(newRing.predicates[i]);
+        part = this.meshContext.injectPart(partKey, part);
+        final PartContext partContext = createPartContext(part, partKey);
+        part.setPartContext(partContext);
+        final HostBinding host = part.openHost(members[i]);
+        part.setMaster(host);
+        newRing.parts[i] = part;
+      }
+    }
+    FingerTrieSeq<PartBinding> oldParts;
+    FingerTrieSeq<PartBinding> newParts;
+    do {
+      oldParts = this.parts;
+      newParts = FingerTrieSeq.empty();
+      for (int i = 0; i < newRing.parts.length; i += 1) {
+        if (newRing.parts[i] != null) {
+          newParts = newParts.appended(newRing.parts[i]);
+        }
+      }
+      for (int i = 0, n = oldParts.size(); i < n; i += 1) {
+        final PartBinding part = oldParts.get(i);
+        if (oldRing == null || !oldRing.hasPart(part)) {
+          newParts = newParts.appended(part);
+        }
+      }
+    } while (!PARTS.compareAndSet(this, oldParts, newParts));
+    for (int i = 0; i < newRing.parts.length; i += 1) {
+      if (newRing.parts[i] != null) {
+        activate(newRing.parts[i]);
+      }
+    }
+  }
+
+  /**
+   * Returns {@code true} if the given push request carries a rebalance
+   * command from another member of this mesh's ring.
+   */
+  boolean isRebalanceCommand(PushRequest pushRequest) {
+    final Envelope envelope = pushRequest.envelope();
+    return this.ring != null && envelope instanceof CommandMessage
+        && MeshTableRebalance.NODE_URI.equals(envelope.nodeUri())
+        && MeshTableRebalance.LANE_URI.equals(envelope.laneUri());
+  }
+
+  void receiveRebalance(Value body) {
+    final MeshTableRebalance rebalance;
+    synchronized (this) {
+      rebalance = this.rebalance;
+      if (rebalance == null) {
+        // Handle the command once this member starts rebalancing too.
+        this.rebalanceMessages = this.rebalanceMessages.appended(body);
+        return;
+      }
+    }
+    rebalance.receive(body);
+  }
+
   @Override
   public Iterator<DataBinding> dataBindings() {
     return Collections.emptyIterator();
@@ -386,6 +559,10 @@ public class MeshTable extends AbstractTierBinding implements MeshBinding {
 
   @Override
   public void openUplink(LinkBinding link) {
+    final MeshTableRebalance rebalance = this.rebalance;
+    if (rebalance != null && !isMetaNode(link.nodeUri()) && rebalance.hold(link.nodeUri(), link)) {
+      return;
+    }
     final PartBinding partBinding = openPart(link.nodeUri());
     if (partBinding != null) {
       partBinding.openUplink(link);
@@ -419,6 +596,15 @@ public class MeshTable extends AbstractTierBinding implements MeshBinding {
 
   @Override
   public void pushUp(PushRequest pushRequest) {
+    if (isRebalanceCommand(pushRequest)) {
+      receiveRebalance(pushRequest.envelope().body());
+      pushRequest.didDeliver();
+      return;
+    }
+    final MeshTableRebalance rebalance = this.rebalance;
+    if (rebalance != null && !isMetaNode(pushRequest.nodeUri()) && rebalance.hold(pushRequest.nodeUri(), pushRequest)) {
+      return;
+    }
     final PartBinding partBinding = openPart(pushRequest.nodeUri());
     if (partBinding != null) {
       partBinding.pushUp(pushRequest);
@@ -0,0 +1,435 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.runtime.router;
+
+import java.util.ArrayList;
+import swim.collections.HashTrieMap;
+import swim.collections.HashTrieSet;
+import swim.concurrent.Cont;
+import swim.runtime.HostBinding;
+import swim.runtime.LinkBinding;
+import swim.runtime.PartBinding;
+import swim.runtime.PushRequest;
+import swim.runtime.scope.ScopePushRequest;
+import swim.structure.Record;
+import swim.structure.Value;
+import swim.uri.Uri;
+import swim.warp.CommandMessage;
+
+/**
+ * Handoff of the nodes of a {@link MeshTable} from one consistent hash ring
+ * to another.  Every member of both rings runs its own rebalance.
+ *
+ * Each member of the old ring evicts the nodes it loses from its local host,
+ * sends each node's exported lane state to the node's new owner in a {@code
+ * @migrate} command, and then reopens the links to the node, which reroutes
+ * them to the new owner.  Messages and links to a node being evicted are
+ * held until the node has been handed off, and then get rerouted too.
+ *
+ * Each member of the new ring holds the messages and links to the nodes it
+ * gains until their state has been imported, or until their previous owner
+ * has reported, in a {@code @rebalanced} command, that it has handed off
+ * every node it lost; a gained node that its previous owner never
+ * instantiated has no state to wait for.  Nodes that change owners are never
+ * forwarded back to their previous owner, so they can't bounce between
+ * members while the handoff is in progress.
+ *
+ * Rebalance commands travel over the same WARP connections as the links they
+ * hand off, addressed to the {@link #NODE_URI} meta node.
+ */
+final class MeshTableRebalance {
+  final MeshTable mesh;
+  final MeshTableRing oldRing;
+  final MeshTableRing newRing;
+
+  /**
+   * Host of the nodes this member owns; {@code null} if the mesh has no
+   * local host from which to evict nodes.
+   */
+  final HostTable host;
+
+  /**
+   * Gateway part of the mesh, whose uplinks to evicted nodes get reopened.
+   */
+  final PartTable gateway;
+
+  /**
+   * Nodes this member has handed off to their new owners.
+   */
+  HashTrieSet<Uri> evicted;
+
+  /**
+   * Nodes migrated to this member whose state has been imported.
+   */
+  HashTrieSet<Uri> imported;
+
+  /**
+   * Number of nodes this member has migrated to each new owner.
+   */
+  HashTrieMap<Uri, Integer> exportCounts;
+
+  /**
+   * Number of nodes imported from each previous owner.
+   */
+  HashTrieMap<Uri, Integer> importCounts;
+
+  /**
+   * Number of nodes each previous owner has reported migrating to this
+   * member, once it has handed off every node it lost.
+   */
+  HashTrieMap<Uri, Integer> reportedCounts;
+
+  /**
+   * Push requests and links held until the nodes they address settle.
+   */
+  final ArrayList<Object> held;
+
+  /**
+   * Number of node evictions in progress.
+   */
+  int evictions;
+
+  /**
+   * {@code true} once this member has handed off every node it lost.
+   */
+  boolean handedOff;
+
+  /**
+   * {@code true} once every node this member gains has settled.
+   */
+  boolean done;
+
+  MeshTableRebalance(MeshTable mesh, MeshTableRing oldRing, MeshTableRing newRing) {
+    this.mesh = mesh;
+    this.oldRing = oldRing;
+    this.newRing = newRing;
+    final PartBinding gateway = mesh.gateway;
+    this.gateway = gateway != null ? gateway.unwrapPart(PartTable.class) : null;
+    final HostBinding master = gateway != null ? gateway.getMaster() : null;
+    this.host = master != null ? master.unwrapHost(HostTable.class) : null;
+    this.evicted = HashTrieSet.empty();
+    this.imported = HashTrieSet.empty();
+    this.exportCounts = HashTrieMap.empty();
+    this.importCounts = HashTrieMap.empty();
+    this.reportedCounts = HashTrieMap.empty();
+    this.held = new ArrayList<Object>();
+  }
+
+  Uri member() {
+    return this.newRing.member;
+  }
+
+  /**
+   * Returns {@code true} if the node with the given {@code nodeUri} is
+   * changing owners, and hasn't yet been handed off, or imported.
+   */
+  boolean isUnsettled(Uri nodeUri) {
+    final Uri oldOwner = this.oldRing.owner(nodeUri);
+    final Uri newOwner = this.newRing.owner(nodeUri);
+    if (oldOwner == null || newOwner == null || oldOwner.equals(newOwner)) {
+      return false;
+    }
+    final Uri member = member();
+    if (member.equals(oldOwner)) {
+      return !this.evicted.contains(nodeUri) && this.host != null && this.host.hasNode(nodeUri);
+    } else if (member.equals(newOwner)) {
+      return !this.imported.contains(nodeUri) && !isFinished(oldOwner);
+    } else {
+      return false;
+    }
+  }
+
+  /**
+   * Returns {@code true} if the given previous owner has reported handing
+   * off every node it lost, and all of the nodes it migrated to this member
+   * have been imported.
+   */
+  boolean isFinished(Uri oldOwner) {
+    final Integer reportedCount = this.reportedCounts.get(oldOwner);
+    if (reportedCount == null) {
+      return false;
+    }
+    final Integer importCount = this.importCounts.get(oldOwner);
+    return (importCount != null ? importCount : 0) >= reportedCount;
+  }
+
+  /**
+   * Holds the given push request, or link, if the node it addresses is
+   * unsettled; returns {@code true} if the request was held.
+   */
+  synchronized boolean hold(Uri nodeUri, Object request) {
+    if (!this.done && isUnsettled(nodeUri)) {
+      this.held.add(request);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Removes and returns the held requests whose nodes have settled.
+   */
+  Object[] releaseSettled() {
+    final ArrayList<Object> released = new ArrayList<Object>();
+    for (int i = 0; i < this.held.size(); ) {
+      final Object request = this.held.get(i);
+      if (this.done || !isUnsettled(nodeUri(request))) {
+        released.add(request);
+        this.held.remove(i);
+      } else {
+        i += 1;
+      }
+    }
+    return released.toArray();
+  }
+
+  static Uri nodeUri(Object request) {
+    if (request instanceof PushRequest) {
+      return ((PushRequest) request).nodeUri();
+    } else {
+      return ((LinkBinding) request).nodeUri();
+    }
+  }
+
+  /**
+   * Routes the given released requests through the mesh again.
+   */
+  void reroute(Object[] requests) {
+    for (int i = 0; i < requests.length; i += 1) {
+      final Object request = requests[i];
+      if (request instanceof PushRequest) {
+        this.mesh.pushUp((PushRequest) request);
+      } else {
+        this.mesh.openUplink((LinkBinding) request);
+      }
+    }
+  }
+
+  void start(Value[] messages) {
+    for (int i = 0; i < messages.length; i += 1) {
+      receive(messages[i]);
+    }
+    evictNodes();
+  }
+
+  /**
+   * Evicts the nodes this member loses from its local host, rescanning the
+   * host once every eviction has completed, to catch nodes instantiated
+   * while the previous evictions were in progress.
+   */
+  void evictNodes() {
+    final Uri member = member();
+    HashTrieSet<Uri> lostNodes = HashTrieSet.empty();
+    if (this.host != null && this.oldRing.contains(member)) {
+      for (Uri nodeUri : this.host.nodeUris()) {
+        if (!this.mesh.isMetaNode(nodeUri) && member.equals(this.oldRing.owner(nodeUri))
+            && !member.equals(this.newRing.owner(nodeUri))) {
+          lostNodes = lostNodes.added(nodeUri);
+        }
+      }
+    }
+    synchronized (this) {
+      for (Uri nodeUri : lostNodes) {
+        if (this.evicted.contains(nodeUri)) {
+          lostNodes = lostNodes.removed(nodeUri);
+        }
+      }
+      this.evictions += lostNodes.size();
+    }
+    if (lostNodes.isEmpty()) {
+      didEvictNodes();
+    } else {
+      for (Uri nodeUri : lostNodes) {
+        this.host.evictNode(nodeUri, new MeshTableEviction(this, nodeUri));
+      }
+    }
+  }
+
+  /**
+   * Sends the exported {@code state} of an evicted node to its new owner,
+   * and reroutes the node's held requests, and open links, to it.
+   */
+  void handOff(Uri nodeUri, Value state) {
+    final Uri newOwner = this.newRing.owner(nodeUri);
+    final PartBinding part = this.newRing.part(newOwner);
+    if (part != null) {
+      final Value body = Record.create(2)
+          .attr("migrate", Record.create(2).slot("from", member().toString()).slot("node", nodeUri.toString()))
+          .slot("state", state);
+      part.pushUp(command(body));
+    }
+    final Object[] released;
+    synchronized (this) {
+      final Integer exportCount = this.exportCounts.get(newOwner);
+      this.exportCounts = this.exportCounts.updated(newOwner, exportCount != null ? exportCount + 1 : 1);
+      this.evicted = this.evicted.added(nodeUri);
+      released = releaseSettled();
+    }
+    if (this.gateway != null) {
+      this.gateway.reopenUplinks(nodeUri);
+    }
+    reroute(released);
+  }
+
+  void didEvictNode() {
+    final boolean rescan;
+    synchronized (this) {
+      this.evictions -= 1;
+      rescan = this.evictions == 0;
+    }
+    if (rescan) {
+      evictNodes();
+    }
+  }
+
+  /**
+   * Reports to every other member of the new ring the number of nodes this
+   * member migrated to it, and retires the parts of the old ring, rerouting
+   * the links still open through them.
+   */
+  void didEvictNodes() {
+    final Uri member = member();
+    if (this.oldRing.contains(member)) {
+      final Uri[] members = this.newRing.members;
+      for (int i = 0; i < members.length; i += 1) {
+        final PartBinding part = this.newRing.parts[i];
+        if (part != null) {
+          final Integer exportCount;
+          synchronized (this) {
+            exportCount = this.exportCounts.get(members[i]);
+          }
+          final Value body = Record.create(1).attr("rebalanced", Record.create(2)
+              .slot("from", member.toString()).slot("count", exportCount != null ? exportCount : 0));
+          part.pushUp(command(body));
+        }
+      }
+    }
+    this.oldRing.close();
+    synchronized (this) {
+      this.handedOff = true;
+    }
+    complete();
+  }
+
+  /**
+   * Handles a {@code @migrate} or {@code @rebalanced} command received from
+   * another member.  Commands that don't come from a previous owner of the
+   * nodes they concern are ignored.
+   */
+  void receive(Value body) {
+    final String tag = body.tag();
+    final Value header = body.header(tag);
+    final Uri from = Uri.parse(header.get("from").stringValue(""));
+    if (!this.oldRing.contains(from)) {
+      return;
+    }
+    final Object[] released;
+    if ("migrate".equals(tag)) {
+      final Uri nodeUri = Uri.parse(header.get("node").stringValue(""));
+      if (!from.equals(this.oldRing.owner(nodeUri)) || !member().equals(this.newRing.owner(nodeUri))) {
+        return;
+      }
+      if (this.host != null) {
+        this.host.importNode(nodeUri, body.get("state"));
+      }
+      synchronized (this) {
+        final Integer importCount = this.importCounts.get(from);
+        this.importCounts = this.importCounts.updated(from, importCount != null ? importCount + 1 : 1);
+        this.imported = this.imported.added(nodeUri);
+        released = releaseSettled();
+      }
+    } else if ("rebalanced".equals(tag)) {
+      synchronized (this) {
+        this.reportedCounts = this.reportedCounts.updated(from, header.get("count").intValue(0));
+        released = releaseSettled();
+      }
+    } else {
+      return;
+    }
+    reroute(released);
+    complete();
+  }
+
+  /**
+   * Completes the rebalance once this member has handed off every node it
+   * lost, and every previous owner has finished handing off the nodes this
+   * member gains.
+   */
+  void complete() {
+    final Object[] released;
+    synchronized (this) {
+      if (this.done || !this.handedOff) {
+        return;
+      }
+      final Uri member = member();
+      if (this.newRing.contains(member)) {
+        final Uri[] oldMembers = this.oldRing.members;
+        for (int i = 0; i < oldMembers.length; i += 1) {
+          if (!member.equals(oldMembers[i]) && !isFinished(oldMembers[i])) {
+            return;
+          }
+        }
+      }
+      this.done = true;
+      released = releaseSettled();
+    }
+    this.mesh.didRebalance(this);
+    reroute(released);
+  }
+
+  PushRequest command(Value body) {
+    final CommandMessage message = new CommandMessage(NODE_URI, LANE_URI, body);
+    return new ScopePushRequest(this.mesh.meshUri(), Uri.empty(), null, message, 0.0f);
+  }
+
+  /**
+   * Meta node to which members address rebalance commands.
+   */
+  static final Uri NODE_URI = Uri.parse("swim:meta:mesh");
+
+  /**
+   * Lane to which members address rebalance commands.
+   */
+  static final Uri LANE_URI = Uri.parse("rebalance");
+}
+
+/**
+ * Hands off a node once its {@code HostTable} has exported its state.
+ */
+final class MeshTableEviction implements Cont<Value> {
+  final MeshTableRebalance rebalance;
+  final Uri nodeUri;
+
+  MeshTableEviction(MeshTableRebalance rebalance, Uri nodeUri) {
+    this.rebalance = rebalance;
+    this.nodeUri = nodeUri;
+  }
+
+  @Override
+  public void bind(Value state) {
+    try {
+      this.rebalance.handOff(this.nodeUri, state);
+    } finally {
+      this.rebalance.didEvictNode();
+    }
+  }
+
+  @Override
+  public void trap(Throwable error) {
+    // The node's state remains in this host's stores; hand off the node
+    // regardless, so that its held requests don't wait forever.
+    this.rebalance.mesh.error(error);
+    bind(Value.absent());
+  }
+}
@@ -0,0 +1,111 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.runtime.router;
+
+import swim.runtime.PartBinding;
+import swim.runtime.PartPredicate;
+import swim.uri.Uri;
+
+/**
+ * Consistent hash ring of member hosts over which a {@code MeshTable}
+ * places its nodes, together with the parts that route to its members
+ * other than this host.
+ */
+final class MeshTableRing {
+  /**
+   * Host URI by which the other members reach this host.
+   */
+  final Uri member;
+
+  final Uri[] members;
+
+  final int virtualNodes;
+
+  final PartPredicate[] predicates;
+
+  /**
+   * Part routing to each member; {@code null} for this host.
+   */
+  final PartBinding[] parts;
+
+  MeshTableRing(Uri member, Uri[] members, int virtualNodes) {
+    final String[] memberNames = new String[members.length];
+    for (int i = 0; i < members.length; i += 1) {
+      memberNames[i] = members[i].toString();
+    }
+    this.member = member;
+    this.members = members.clone();
+    this.virtualNodes = virtualNodes;
+    this.predicates = new PartPredicate[members.length];
+    for (int i = 0; i < members.length; i += 1) {
+      this.predicates[i] = PartPredicate.ring(memberNames[i], memberNames, virtualNodes);
+    }
+    this.parts = new PartBinding[members.length];
+  }
+
+  boolean contains(Uri member) {
+    for (int i = 0; i < this.members.length; i += 1) {
+      if (member.equals(this.members[i])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the member that owns the node with the given {@code nodeUri}.
+   */
+  Uri owner(Uri nodeUri) {
+    final int nodeHash = nodeUri.hashCode();
+    for (int i = 0; i < this.predicates.length; i += 1) {
+      if (this.predicates[i].test(nodeUri, nodeHash)) {
+        return this.members[i];
+      }
+    }
+    return null;
+  }
+
+  PartBinding part(Uri member) {
+    for (int i = 0; i < this.members.length; i += 1) {
+      if (member.equals(this.members[i])) {
+        return this.parts[i];
+      }
+    }
+    return null;
+  }
+
+  boolean hasPart(PartBinding part) {
+    for (int i = 0; i < this.parts.length; i += 1) {
+      if (part == this.parts[i]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Reopens the links still open through the parts of this ring, which
+   * reroutes them through the mesh's current parts, and closes the parts.
+   */
+  void close() {
+    for (int i = 0; i < this.parts.length; i += 1) {
+      final PartBinding part = this.parts[i];
+      if (part != null) {
+        part.reopenUplinks();
+        part.close();
+      }
+    }
+  }
+}
@@ -252,6 +252,18 @@ public class PartTable extends AbstractTierBinding implements PartBinding {
     }
   }
 
+  /**
+   * Reopens the uplinks of this part to the node with the given {@code
+   * nodeUri}, rerouting them after the node has moved to another part.
+   */
+  void reopenUplinks(Uri nodeUri) {
+    for (PartTableUplink uplink : this.uplinks.values()) {
+      if (nodeUri.equals(uplink.nodeUri())) {
+        uplink.reopen();
+      }
+    }
+  }
+
   @Override
   public Iterator<DataBinding> dataBindings() {
     return Collections.emptyIterator();
@@ -14,29 +14,86 @@
 
 package swim.runtime.uplink;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import swim.collections.HashTrieSet;
 import swim.runtime.LinkBinding;
 import swim.structure.Record;
+import swim.structure.Text;
 import swim.structure.Value;
+import swim.util.OrderedMap;
 
+/**
+ * Uplink that streams a keyed lane one entry at a time.  A link may restrict
+ * the entries it receives by including any combination of the following
+ * attributes in its link body:
+ * <ul>
+ * <li>{@code @range(lower: <key>, upper: <key>)}: keys greater than or equal
+ * to {@code lower}, and less than {@code upper}; either bound may be
+ * omitted.</li>
+ * <li>{@code @prefix("<text>")}: text keys that begin with the given
+ * prefix.</li>
+ * <li>{@code @filter(<expression>)}: entries for which the given Recon
+ * expression evaluates to {@code true} in the scope of a
+ * {@code {key: <key>, value: <value>}} record, such as
+ * {@code @filter($value.price > 10)}.</li>
+ * </ul>
+ * Ordered syncs stream an immutable snapshot of the lane, in key order, and
+ * interleave live changes to keys that have already been sent down, after
+ * every {@code swim.uplink.sync.budget} synced entries.  Changes to keys that
+ * haven't yet been reached are sent in place of the stale snapshot entries,
+ * or after the sync completes.
+ */
 public abstract class PartialUplinkModem extends UplinkModem {
   final ConcurrentLinkedQueue<Value> downQueue;
 
+  final PartialUplinkFilter filter;
+
   volatile Iterator<Map.Entry<Value, Value>> syncQueue;
 
   volatile HashTrieSet<Value> keyQueue;
 
   volatile Value lastKey;
 
+  /**
+   * Greatest key sent down by the current ordered sync.
+   */
+  volatile Value syncKey;
+
+  /**
+   * Keys changed ahead of the current ordered sync, whose snapshot entries
+   * are stale; {@code null} when no ordered sync is in progress.
+   */
+  volatile HashTrieSet<Value> syncKeyQueue;
+
+  /**
+   * Number of synced entries remaining to be sent down before live changes
+   * are interleaved; only accessed by the serialized pull down cycle.
+   */
+  int syncBudget;
+
+  /**
+   * Keys sent down that passed a value dependent {@code @filter}, and whose
+   * removal must therefore be sent down if they stop passing it.
+   */
+  volatile HashTrieSet<Value> filterKeys;
+
   public PartialUplinkModem(LinkBinding linkBinding) {
     super(linkBinding);
     this.downQueue = new ConcurrentLinkedQueue<Value>();
+    this.filter = PartialUplinkFilter.fromBody(linkBinding.body());
     this.keyQueue = HashTrieSet.empty();
+    this.filterKeys = HashTrieSet.empty();
+  }
+
+  public final boolean isFiltered() {
+    return this.filter != null;
   }
 
   @Override
@@ -46,14 +103,135 @@ public abstract class PartialUplinkModem extends UplinkModem {
 
   @Override
   protected void queueDown(Value body) {
+    final PartialUplinkFilter filter = this.filter;
+    if (filter != null) {
+      final String tag = body.tag();
+      if ("remove".equals(tag)) {
+        final Value key = body.header("remove").get("key");
+        if (!filter.matchesKey(key) || filter.isValueDependent() && !removeFilterKey(key)) {
+          return;
+        }
+      } else if ("clear".equals(tag)) {
+        this.filterKeys = HashTrieSet.empty();
+      } else if ("drop".equals(tag) || "take".equals(tag)) {
+        // Index based truncations don't translate to a filtered view of the
+        // lane; replace the view with the entries that remain.
+        this.filterKeys = HashTrieSet.empty();
+        this.downQueue.add(Record.create(1).attr("clear"));
+        refilterDown();
+        return;
+      }
+    }
+    if (this.syncKeyQueue != null && "remove".equals(body.tag())) {
+      deferDownKey(body.header("remove").get("key"));
+    }
     this.downQueue.add(body);
   }
 
   public void syncDown(Iterator<Map.Entry<Value, Value>> syncQueue) {
+    final PartialUplinkFilter filter = this.filter;
+    if (filter != null && syncQueue != null) {
+      syncQueue = new PartialUplinkFilterIterator(filter, syncQueue);
+    }
     this.syncQueue = syncQueue;
+    flushSyncKeys();
+  }
+
+  /**
+   * Syncs the entries of an ordered {@code map}, seeking directly to the key
+   * range selected by this uplink's filter, if any.  {@code map} should be an
+   * immutable snapshot of the lane; live changes to the lane must continue to
+   * be cued down by key while the sync is in progress.
+   */
+  public void syncDown(OrderedMap<Value, Value> map) {
+    flushSyncKeys();
+    this.syncKey = null;
+    // Keys cued before the snapshot was taken must not overtake their
+    // snapshot entries.
+    this.syncKeyQueue = KEY_QUEUE.getAndSet(this, HashTrieSet.<Value>empty());
+    this.syncBudget = SYNC_BUDGET;
+    final PartialUplinkFilter filter = this.filter;
+    if (filter != null) {
+      this.syncQueue = filter.iterator(map);
+    } else {
+      this.syncQueue = map.iterator();
+    }
+  }
+
+  /**
+   * Defers a change to {@code key} until the current ordered sync reaches
+   * it, returning {@code false} if no ordered sync is in progress, or if
+   * {@code key} has already been synced.
+   */
+  boolean deferDownKey(Value key) {
+    HashTrieSet<Value> oldSyncKeyQueue;
+    HashTrieSet<Value> newSyncKeyQueue;
+    do {
+      oldSyncKeyQueue = this.syncKeyQueue;
+      if (oldSyncKeyQueue == null) {
+        return false;
+      }
+      final Value syncKey = this.syncKey;
+      if (syncKey != null && key.compareTo(syncKey) <= 0) {
+        return false;
+      }
+      newSyncKeyQueue = oldSyncKeyQueue.added(key);
+    } while (oldSyncKeyQueue != newSyncKeyQueue && !SYNC_KEY_QUEUE.compareAndSet(this, oldSyncKeyQueue, newSyncKeyQueue));
+    return true;
+  }
+
+  boolean undeferDownKey(Value key) {
+    HashTrieSet<Value> oldSyncKeyQueue;
+    HashTrieSet<Value> newSyncKeyQueue;
+    do {
+      oldSyncKeyQueue = this.syncKeyQueue;
+      if (oldSyncKeyQueue == null) {
+        return false;
+      }
+      newSyncKeyQueue = oldSyncKeyQueue.removed(key);
+    } while (oldSyncKeyQueue != newSyncKeyQueue && !SYNC_KEY_QUEUE.compareAndSet(this, oldSyncKeyQueue, newSyncKeyQueue));
+    return oldSyncKeyQueue != newSyncKeyQueue;
+  }
+
+  /**
+   * Ends the current ordered sync, if any, cueing down the keys whose changes
+   * were deferred.
+   */
+  void flushSyncKeys() {
+    final HashTrieSet<Value> syncKeyQueue = SYNC_KEY_QUEUE.getAndSet(this, null);
+    if (syncKeyQueue != null && !syncKeyQueue.isEmpty()) {
+      cueDownKeys(syncKeyQueue);
+    }
+  }
+
+  /**
+   * Cues down all keys of an ordered {@code map} that pass this uplink's
+   * filter.
+   */
+  protected void cueDownKeys(OrderedMap<Value, Value> map) {
+    final PartialUplinkFilter filter = this.filter;
+    final Iterator<Map.Entry<Value, Value>> entries = filter != null ? filter.iterator(map) : map.iterator();
+    final ArrayList<Value> keys = new ArrayList<Value>();
+    while (entries.hasNext()) {
+      keys.add(entries.next().getKey());
+    }
+    cueDownKeys(keys);
+  }
+
+  /**
+   * Re-sends the entries that pass this uplink's filter, after the lane was
+   * truncated by index.  Subclasses that can enumerate their entries should
+   * cue them down; the client view is cleared beforehand.
+   */
+  protected void refilterDown() {
+    // hook
   }
 
   public void cueDownKey(Value key) {
+    final PartialUplinkFilter filter = this.filter;
+    if (filter != null && !filter.matchesKey(key) || deferDownKey(key)) {
+      return;
+    }
     HashTrieSet<Value> oldKeyQueue;
     HashTrieSet<Value> newKeyQueue;
     do {
@@ -66,6 +244,25 @@ public abstract class PartialUplinkModem extends UplinkModem {
   }
 
   public void cueDownKeys(Collection<? extends Value> keys) {
+    final PartialUplinkFilter filter = this.filter;
+    if (filter != null) {
+      final ArrayList<Value> filteredKeys = new ArrayList<Value>(keys.size());
+      for (Value key : keys) {
+        if (filter.matchesKey(key)) {
+          filteredKeys.add(key);
+        }
+      }
+      keys = filteredKeys;
+    }
+    if (this.syncKeyQueue != null) {
+      final ArrayList<Value> liveKeys = new ArrayList<Value>(keys.size());
+      for (Value key : keys) {
+        if (!deferDownKey(key)) {
+          liveKeys.add(key);
+        }
+      }
+      keys = liveKeys;
+    }
     if (!keys.isEmpty()) {
       HashTrieSet<Value> oldKeyQueue;
       HashTrieSet<Value> newKeyQueue;
@@ -79,21 +276,113 @@ public abstract class PartialUplinkModem extends UplinkModem {
 
   protected abstract Value nextDownKey(Value key);
 
+  /**
+   * Returns the event that updates {@code key} to {@code value}, if the entry
+   * passes this uplink's filter.  Returns an event that removes {@code key}
+   * if the entry stopped passing a value dependent filter, or {@code null} if
+   * the entry should not be sent down.
+   */
+  protected Value updateDownKey(Value key, Value value) {
+    final PartialUplinkFilter filter = this.filter;
+    if (filter == null) {
+      return updateEvent(key, value);
+    } else if (!filter.isValueDependent()) {
+      return filter.matchesKey(key) ? updateEvent(key, value) : null;
+    } else if (filter.matches(key, value)) {
+      addFilterKey(key);
+      return updateEvent(key, value);
+    } else if (removeFilterKey(key)) {
+      return Record.create(1).attr("remove", Record.create(1).slot("key", key));
+    } else {
+      return null;
+    }
+  }
+
+  static Value updateEvent(Value key, Value value) {
+    return Record.create(1).attr("update", Record.create(1).slot("key", key)).concat(value);
+  }
+
+  void addFilterKey(Value key) {
+    HashTrieSet<Value> oldFilterKeys;
+    HashTrieSet<Value> newFilterKeys;
+    do {
+      oldFilterKeys = this.filterKeys;
+      newFilterKeys = oldFilterKeys.added(key);
+    } while (oldFilterKeys != newFilterKeys && !FILTER_KEYS.compareAndSet(this, oldFilterKeys, newFilterKeys));
+  }
+
+  boolean removeFilterKey(Value key) {
+    HashTrieSet<Value> oldFilterKeys;
+    HashTrieSet<Value> newFilterKeys;
+    do {
+      oldFilterKeys = this.filterKeys;
+      newFilterKeys = oldFilterKeys.removed(key);
+    } while (oldFilterKeys != newFilterKeys && !FILTER_KEYS.compareAndSet(this, oldFilterKeys, newFilterKeys));
+    return oldFilterKeys != newFilterKeys;
+  }
+
+  @Override
+  protected int cueDownCount() {
+    return this.keyQueue.size();
+  }
+
   @Override
   protected Value nextDownQueue() {
     final Iterator<Map.Entry<Value, Value>> syncQueue = this.syncQueue;
     if (syncQueue != null) {
-      if (syncQueue.hasNext()) {
+      final boolean ordered = this.syncKeyQueue != null;
+      if (ordered && this.syncBudget <= 0) {
+        this.syncBudget = SYNC_BUDGET;
+        final Value body = nextDownLive();
+        if (body != null) {
+          return body;
+        }
+      }
+      while (syncQueue.hasNext()) {
         final Map.Entry<Value, Value> entry = syncQueue.next();
-        return Record.of().attr("update", Record.of().slot("key", entry.getKey())).concat(entry.getValue());
-      } else {
-        this.syncQueue = null;
-        return null;
+        final Value key = entry.getKey();
+        if (ordered) {
+          this.syncBudget -= 1;
+          this.syncKey = key;
+          if (undeferDownKey(key)) {
+            // Changed since the snapshot; send the live entry instead.
+            final Value body = nextDownKey(key);
+            if (body != null) {
+              return body;
+            } else {
+              continue;
+            }
+          }
+        }
+        final PartialUplinkFilter filter = this.filter;
+        if (filter != null && filter.isValueDependent()) {
+          addFilterKey(key);
+        }
+        return Record.of().attr("update", Record.of().slot("key", key)).concat(entry.getValue());
       }
+      this.syncQueue = null;
+      flushSyncKeys();
+      return null;
     }
     return this.downQueue.poll();
   }
 
+  /**
+   * Returns a live change to a key that the current ordered sync has already
+   * sent down, if one can be sent ahead of the rest of the sync.
+   */
+  Value nextDownLive() {
+    final Value body = this.downQueue.peek();
+    if (body != null) {
+      // Removes of unsynced keys were deferred when queued; anything else
+      // must wait for the sync to complete.
+      return "remove".equals(body.tag()) ? this.downQueue.poll() : null;
+    } else if (!this.keyQueue.isEmpty() && rate() <= 0f) {
+      return nextDownCue();
+    }
+    return null;
+  }
+
   @Override
   protected Value nextDownCue() {
     HashTrieSet<Value> oldKeyQueue;
@@ -123,4 +412,149 @@ public abstract class PartialUplinkModem extends UplinkModem {
   @SuppressWarnings("unchecked")
   static final AtomicReferenceFieldUpdater<PartialUplinkModem, HashTrieSet<Value>> KEY_QUEUE =
       AtomicReferenceFieldUpdater.newUpdater(PartialUplinkModem.class, (Class<HashTrieSet<Value>>) (Class<?>) HashTrieSet.class, "keyQueue");
+
+  @SuppressWarnings("unchecked")
+  static final AtomicReferenceFieldUpdater<PartialUplinkModem, HashTrieSet<Value>> FILTER_KEYS =
+      AtomicReferenceFieldUpdater.newUpdater(PartialUplinkModem.class, (Class<HashTrieSet<Value>>) (Class<?>) HashTrieSet.class, "filterKeys");
+
+  @SuppressWarnings("unchecked")
+  static final AtomicReferenceFieldUpdater<PartialUplinkModem, HashTrieSet<Value>> SYNC_KEY_QUEUE =
+      AtomicReferenceFieldUpdater.newUpdater(PartialUplinkModem.class, (Class<HashTrieSet<Value>>) (Class<?>) HashTrieSet.class, "syncKeyQueue");
+
+  static final int SYNC_BUDGET;
+
+  static {
+    int syncBudget;
+    try {
+      syncBudget = Integer.parseInt(System.getProperty("swim.uplink.sync.budget"));
+    } catch (NumberFormatException error) {
+      syncBudget = 64;
+    }
+    SYNC_BUDGET = Math.max(1, syncBudget);
+  }
+}
+
+final class PartialUplinkFilter {
+  final Value lower;
+  final Value upper;
+  final Text prefix;
+  final Value predicate;
+
+  PartialUplinkFilter(Value lower, Value upper, Text prefix, Value predicate) {
+    this.lower = lower;
+    this.upper = upper;
+    this.prefix = prefix;
+    this.predicate = predicate;
+  }
+
+  boolean isValueDependent() {
+    return this.predicate != null;
+  }
+
+  boolean matchesKey(Value key) {
+    if (this.lower != null && key.compareTo(this.lower) < 0) {
+      return false;
+    } else if (this.upper != null && key.compareTo(this.upper) >= 0) {
+      return false;
+    } else if (this.prefix != null && !(key instanceof Text
+        && key.stringValue().startsWith(this.prefix.stringValue()))) {
+      return false;
+    }
+    return true;
+  }
+
+  boolean matches(Value key, Value value) {
+    if (!matchesKey(key)) {
+      return false;
+    } else if (this.predicate != null) {
+      final Record scope = Record.create(2).slot("key", key).slot("value", value);
+      return this.predicate.evaluate(scope).booleanValue(false);
+    }
+    return true;
+  }
+
+  /**
+   * Returns {@code true} if no key ordered after {@code key} can pass this
+   * filter.
+   */
+  boolean isPastKey(Value key) {
+    if (this.upper != null && key.compareTo(this.upper) >= 0) {
+      return true;
+    } else if (this.prefix != null && key.compareTo(this.prefix) > 0) {
+      return !(key instanceof Text && key.stringValue().startsWith(this.prefix.stringValue()));
+    }
+    return false;
+  }
+
+  Iterator<Map.Entry<Value, Value>> iterator(OrderedMap<Value, Value> map) {
+    Value lower = this.lower;
+    if (this.prefix != null && (lower == null || lower.compareTo(this.prefix) < 0)) {
+      lower = this.prefix;
+    }
+    final Value upper = this.upper;
+    final OrderedMap<Value, Value> range;
+    if (lower != null && upper != null) {
+      if (lower.compareTo(upper) >= 0) {
+        return Collections.emptyIterator();
+      }
+      range = map.subMap(lower, upper);
+    } else if (lower != null) {
+      range = map.tailMap(lower);
+    } else if (upper != null) {
+      range = map.headMap(upper);
+    } else {
+      range = map;
+    }
+    return new PartialUplinkFilterIterator(this, range.iterator());
+  }
+
+  static PartialUplinkFilter fromBody(Value body) {
+    final Value range = body.getAttr("range");
+    final Value prefix = body.getAttr("prefix");
+    final Value predicate = body.getAttr("filter");
+    if (!range.isDefined() && !prefix.isDefined() && !predicate.isDefined()) {
+      return null;
+    }
+    final Value lower = range.get("lower");
+    final Value upper = range.get("upper");
+    return new PartialUplinkFilter(lower.isDefined() ? lower : null,
+                                   upper.isDefined() ? upper : null,
+                                   prefix instanceof Text ? (Text) prefix : null,
+                                   predicate.isDefined() ? predicate : null);
+  }
+}
+
+final class PartialUplinkFilterIterator implements Iterator<Map.Entry<Value, Value>> {
+  final PartialUplinkFilter filter;
+  final Iterator<Map.Entry<Value, Value>> iterator;
+  Map.Entry<Value, Value> nextEntry;
+
+  PartialUplinkFilterIterator(PartialUplinkFilter filter, Iterator<Map.Entry<Value, Value>> iterator) {
+    this.filter = filter;
+    this.iterator = iterator;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (this.nextEntry == null && this.iterator.hasNext()) {
+      final Map.Entry<Value, Value> entry = this.iterator.next();
+      final Value key = entry.getKey();
+      if (this.filter.isPastKey(key)) {
+        break;
+      } else if (this.filter.matches(key, entry.getValue())) {
+        this.nextEntry = entry;
+      }
+    }
+    return this.nextEntry != null;
+  }
+
+  @Override
+  public Map.Entry<Value, Value> next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    final Map.Entry<Value, Value> entry = this.nextEntry;
+    this.nextEntry = null;
+    return entry;
+  }
 }
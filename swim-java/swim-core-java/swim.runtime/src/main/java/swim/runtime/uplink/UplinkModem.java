@@ -36,6 +36,8 @@ import swim.api.uplink.function.OnUnlinked;
 import swim.collections.FingerTrieSeq;
 import swim.concurrent.Conts;
 import swim.concurrent.Stage;
+import swim.concurrent.TimerFunction;
+import swim.concurrent.TimerRef;
 import swim.runtime.LaneBinding;
 import swim.runtime.LinkBinding;
 import swim.runtime.LinkContext;
@@ -59,6 +61,19 @@ public abstract class UplinkModem implements LinkContext, Uplink {
   protected volatile int status;
   protected volatile Object observers; // Observer | Observer[]
 
+  /**
+   * Number of cued events remaining to be sent down before the next rate
+   * limited tick; only accessed by the serialized pull down cycle.
+   */
+  int cueDownBudget;
+
+  /**
+   * Pending timer that lifts the {@code THROTTLED_DOWN} state at the next
+   * rate limited tick, if throttled; cancelled when the uplink unlinks or
+   * closes.
+   */
+  volatile TimerRef throttleTimer;
+
   UplinkModem(LinkBinding linkBinding, Value linkKey) {
     this.linkBinding = linkBinding;
     this.linkKey = linkKey.commit();
@@ -759,7 +774,7 @@ public abstract class UplinkModem implements LinkContext, Uplink {
   protected EventMessage nextDownQueueEvent() {
     final Value body = nextDownQueue();
     if (body != null) {
-      return new EventMessage(nodeUri(), laneUri(), body);
+      return laneBinding().eventMessage(nodeUri(), laneUri(), body);
     } else {
       return null;
     }
@@ -772,7 +787,7 @@ public abstract class UplinkModem implements LinkContext, Uplink {
   protected EventMessage nextDownCueEvent() {
     final Value body = nextDownCue();
     if (body != null) {
-      return new EventMessage(nodeUri(), laneUri(), body);
+      return laneBinding().eventMessage(nodeUri(), laneUri(), body);
     } else {
       return null;
     }
@@ -780,6 +795,13 @@ public abstract class UplinkModem implements LinkContext, Uplink {
 
   public void sendDown(Value body) {
     queueDown(body);
+    feedDown();
+  }
+
+  /**
+   * Starts pulling queued events down the link, unless already pulling.
+   */
+  protected void feedDown() {
     int oldStatus;
     int newStatus;
     do {
@@ -796,7 +818,7 @@ public abstract class UplinkModem implements LinkContext, Uplink {
     int newStatus;
     do {
       oldStatus = this.status;
-      if ((oldStatus & LINKED) != 0) {
+      if ((oldStatus & (LINKED | THROTTLED_DOWN)) == LINKED) {
         newStatus = oldStatus | FEEDING_DOWN | CUED_DOWN;
       } else {
         newStatus = oldStatus | CUED_DOWN;
@@ -851,7 +873,7 @@ public abstract class UplinkModem implements LinkContext, Uplink {
       } else {
         do {
           oldStatus = this.status;
-          if ((oldStatus & CUED_DOWN) == 0 && downQueueIsEmpty()) {
+          if ((oldStatus & (CUED_DOWN | THROTTLED_DOWN)) != CUED_DOWN && downQueueIsEmpty()) {
             newStatus = oldStatus & ~FEEDING_DOWN;
           } else {
             newStatus = oldStatus;
@@ -860,23 +882,26 @@ public abstract class UplinkModem implements LinkContext, Uplink {
         } while (!STATUS.compareAndSet(this, oldStatus, newStatus));
         if (oldStatus == newStatus) {
           this.linkBinding.feedDown();
+        } else {
+          refeedDown();
         }
       }
     } else {
       EventMessage message = nextDownQueueEvent();
-      if (message == null && (oldStatus & CUED_DOWN) != 0) {
+      if (message == null && (oldStatus & (CUED_DOWN | THROTTLED_DOWN)) == CUED_DOWN) {
         do {
           oldStatus = this.status;
           newStatus = oldStatus & ~CUED_DOWN;
         } while (!STATUS.compareAndSet(this, oldStatus, newStatus));
-        message = nextDownCueEvent();
+        message = pullDownCueEvent();
       }
       if (message != null) {
         pullDownEvent(message);
         this.linkBinding.pushDown(message);
         do {
           oldStatus = this.status;
-          if ((oldStatus & (SYNCING | CUED_DOWN)) == 0 && downQueueIsEmpty()) {
+          if ((oldStatus & SYNCING) == 0 && (oldStatus & (CUED_DOWN | THROTTLED_DOWN)) != CUED_DOWN
+              && downQueueIsEmpty()) {
             newStatus = oldStatus & ~FEEDING_DOWN;
           } else {
             newStatus = oldStatus | FEEDING_DOWN;
@@ -884,6 +909,8 @@ public abstract class UplinkModem implements LinkContext, Uplink {
         } while (oldStatus != newStatus && !STATUS.compareAndSet(this, oldStatus, newStatus));
         if ((newStatus & FEEDING_DOWN) != 0) {
           this.linkBinding.feedDown();
+        } else {
+          refeedDown();
         }
       } else if ((oldStatus & SYNCING) != 0) {
         final SyncedResponse response = syncedResponse();
@@ -891,7 +918,7 @@ public abstract class UplinkModem implements LinkContext, Uplink {
         this.linkBinding.pushDown(response);
         do {
           oldStatus = this.status;
-          if ((oldStatus & CUED_DOWN) == 0 && downQueueIsEmpty()) {
+          if ((oldStatus & (CUED_DOWN | THROTTLED_DOWN)) != CUED_DOWN && downQueueIsEmpty()) {
             newStatus = oldStatus & ~(SYNCING | FEEDING_DOWN);
           } else {
             newStatus = oldStatus & ~SYNCING;
@@ -899,12 +926,14 @@ public abstract class UplinkModem implements LinkContext, Uplink {
         } while (!STATUS.compareAndSet(this, oldStatus, newStatus));
         if ((newStatus & FEEDING_DOWN) != 0) {
           this.linkBinding.feedDown();
+        } else {
+          refeedDown();
         }
       } else {
         this.linkBinding.skipDown();
         do {
           oldStatus = this.status;
-          if ((oldStatus & CUED_DOWN) == 0 && downQueueIsEmpty()) {
+          if ((oldStatus & (CUED_DOWN | THROTTLED_DOWN)) != CUED_DOWN && downQueueIsEmpty()) {
             newStatus = oldStatus & ~FEEDING_DOWN;
           } else {
             newStatus = oldStatus;
@@ -913,11 +942,100 @@ public abstract class UplinkModem implements LinkContext, Uplink {
         } while (!STATUS.compareAndSet(this, oldStatus, newStatus));
         if ((newStatus & FEEDING_DOWN) != 0) {
           this.linkBinding.feedDown();
+        } else {
+          refeedDown();
         }
       }
     }
   }
 
+  /**
+   * Resumes feeding after this uplink stops, if an event was queued down
+   * while it was still feeding, and so didn't feed down itself.
+   */
+  void refeedDown() {
+    if (!downQueueIsEmpty()) {
+      feedDown();
+    }
+  }
+
+  /**
+   * Returns the number of cued events that can be sent down in a single rate
+   * limited tick; defaults to one event, since cued events conflate to the
+   * latest state of the lane.
+   */
+  protected int cueDownCount() {
+    return 1;
+  }
+
+  EventMessage pullDownCueEvent() {
+    if (this.cueDownBudget <= 0) {
+      this.cueDownBudget = Math.max(1, cueDownCount());
+    }
+    final EventMessage message = nextDownCueEvent();
+    this.cueDownBudget -= 1;
+    if (this.cueDownBudget == 0) {
+      throttleDown();
+    }
+    return message;
+  }
+
+  /**
+   * Holds back cued events until the next tick of the link's requested
+   * {@link #rate()}, if any, so that cued updates conflate in the meantime.
+   * Queued events continue to flow while throttled.
+   */
+  void throttleDown() {
+    final float rate = rate();
+    if (rate > 0f) {
+      int oldStatus;
+      int newStatus;
+      do {
+        oldStatus = this.status;
+        newStatus = oldStatus | THROTTLED_DOWN;
+      } while (oldStatus != newStatus && !STATUS.compareAndSet(this, oldStatus, newStatus));
+      final long tickMillis = Math.max(1L, (long) (1000.0 / rate));
+      final TimerRef throttleTimer = laneBinding().schedule().setTimer(tickMillis, new UplinkModemThrottle(this));
+      final TimerRef oldThrottleTimer = THROTTLE_TIMER.getAndSet(this, throttleTimer);
+      if (oldThrottleTimer != null) {
+        oldThrottleTimer.cancel();
+      }
+    }
+  }
+
+  /**
+   * Cancels the pending throttle timer, if any, so that closed uplinks don't
+   * linger on the lane's schedule.
+   */
+  void cancelThrottle() {
+    final TimerRef throttleTimer = THROTTLE_TIMER.getAndSet(this, null);
+    if (throttleTimer != null) {
+      throttleTimer.cancel();
+    }
+    int oldStatus;
+    int newStatus;
+    do {
+      oldStatus = this.status;
+      newStatus = oldStatus & ~THROTTLED_DOWN;
+    } while (oldStatus != newStatus && !STATUS.compareAndSet(this, oldStatus, newStatus));
+  }
+
+  void unthrottleDown() {
+    THROTTLE_TIMER.set(this, null);
+    int oldStatus;
+    int newStatus;
+    do {
+      oldStatus = this.status;
+      newStatus = oldStatus & ~THROTTLED_DOWN;
+      if ((newStatus & (LINKED | CUED_DOWN)) == (LINKED | CUED_DOWN)) {
+        newStatus |= FEEDING_DOWN;
+      }
+    } while (oldStatus != newStatus && !STATUS.compareAndSet(this, oldStatus, newStatus));
+    if ((oldStatus & FEEDING_DOWN) != (newStatus & FEEDING_DOWN)) {
+      this.linkBinding.feedDown();
+    }
+  }
+
   protected void pullDownEvent(EventMessage message) {
     onEvent(message);
     dispatchOnEvent(message);
@@ -1106,6 +1224,7 @@ public abstract class UplinkModem implements LinkContext, Uplink {
 
   @Override
   public void close() {
+    cancelThrottle();
     closeUp();
   }
 
@@ -1115,6 +1234,7 @@ public abstract class UplinkModem implements LinkContext, Uplink {
 
   @Override
   public void didCloseDown() {
+    cancelThrottle();
   }
 
   protected void onEvent(EventMessage message) {
@@ -1276,14 +1396,31 @@ public abstract class UplinkModem implements LinkContext, Uplink {
   static final int FEEDING_DOWN = 1 << 5;
   static final int FEEDING_UP = 1 << 6;
   static final int PULLING_UP = 1 << 7;
+  static final int THROTTLED_DOWN = 1 << 8;
 
   static final AtomicIntegerFieldUpdater<UplinkModem> STATUS =
       AtomicIntegerFieldUpdater.newUpdater(UplinkModem.class, "status");
 
+  static final AtomicReferenceFieldUpdater<UplinkModem, TimerRef> THROTTLE_TIMER =
+      AtomicReferenceFieldUpdater.newUpdater(UplinkModem.class, TimerRef.class, "throttleTimer");
+
   static final AtomicReferenceFieldUpdater<UplinkModem, Object> OBSERVERS =
       AtomicReferenceFieldUpdater.newUpdater(UplinkModem.class, Object.class, "observers");
 }
 
+final class UplinkModemThrottle implements TimerFunction {
+  final UplinkModem uplink;
+
+  UplinkModemThrottle(UplinkModem uplink) {
+    this.uplink = uplink;
+  }
+
+  @Override
+  public void runTimer() {
+    this.uplink.unthrottleDown();
+  }
+}
+
 final class UplinkModemPullDown implements Runnable {
   final UplinkModem uplink;
 
@@ -0,0 +1,168 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.runtime;
+
+import java.util.Random;
+import org.testng.annotations.Test;
+import swim.collections.FingerTrieSeq;
+import swim.runtime.router.PartTable;
+import swim.uri.Uri;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class PartIndexSpec {
+  static FingerTrieSeq<PartBinding> parts(PartPredicate... predicates) {
+    FingerTrieSeq<PartBinding> parts = FingerTrieSeq.empty();
+    for (int i = 0; i < predicates.length; i += 1) {
+      parts = parts.appended(new PartTable(predicates[i]));
+    }
+    return parts;
+  }
+
+  static PartBinding scan(FingerTrieSeq<PartBinding> parts, Uri nodeUri) {
+    for (int i = 0, n = parts.size(); i < n; i += 1) {
+      final PartBinding part = parts.get(i);
+      if (part.predicate().test(nodeUri)) {
+        return part;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns node URIs whose hashes spread across the whole hash space; the
+   * hashes of sequentially numbered node URIs cluster.
+   */
+  static Uri[] nodeUris(int nodeCount) {
+    final Random random = new Random(nodeCount);
+    final Uri[] nodeUris = new Uri[nodeCount];
+    for (int i = 0; i < nodeCount; i += 1) {
+      nodeUris[i] = Uri.parse("/node/" + Long.toString(random.nextLong() & Long.MAX_VALUE, 36));
+    }
+    return nodeUris;
+  }
+
+  static void assertRoutesLikeScan(FingerTrieSeq<PartBinding> parts, int nodeCount) {
+    final PartIndex index = PartIndex.from(parts);
+    final Uri[] nodeUris = nodeUris(nodeCount);
+    for (int i = 0; i < nodeCount; i += 1) {
+      final Uri nodeUri = nodeUris[i];
+      final PartBinding expected = scan(parts, nodeUri);
+      assertSame(index.get(nodeUri), expected, nodeUri.toString());
+      // Second lookup hits the route cache.
+      assertSame(index.get(nodeUri), expected, nodeUri.toString());
+    }
+  }
+
+  @Test
+  public void testWrappedHashRanges() {
+    final PartPredicate wrapped = PartPredicate.hash(0xC0000000, 0x40000000);
+    assertTrue(wrapped.test(Uri.empty(), 0xC0000000));
+    assertTrue(wrapped.test(Uri.empty(), 0xFFFFFFFF));
+    assertTrue(wrapped.test(Uri.empty(), 0));
+    assertTrue(wrapped.test(Uri.empty(), 0x3FFFFFFF));
+    assertFalse(wrapped.test(Uri.empty(), 0x40000000));
+    assertFalse(wrapped.test(Uri.empty(), 0xBFFFFFFF));
+
+    final FingerTrieSeq<PartBinding> parts = parts(wrapped, PartPredicate.hash(0x40000000, 0xC0000000));
+    final PartIndex index = PartIndex.from(parts);
+    boolean low = false;
+    boolean high = false;
+    final Uri[] nodeUris = nodeUris(1000);
+    for (int i = 0; i < 1000; i += 1) {
+      final Uri nodeUri = nodeUris[i];
+      final int nodeHash = nodeUri.hashCode();
+      final PartBinding part = index.get(nodeUri);
+      if (nodeHash >= 0 && nodeHash < 0x40000000) {
+        assertSame(part, parts.get(0));
+        low = true;
+      } else if (nodeHash < 0 && nodeHash >= 0xC0000000) {
+        assertSame(part, parts.get(0));
+        high = true;
+      } else {
+        assertSame(part, parts.get(1));
+      }
+    }
+    // Both sides of the wrapped range were exercised.
+    assertTrue(low);
+    assertTrue(high);
+  }
+
+  @Test
+  public void testUncoveredHashRanges() {
+    final FingerTrieSeq<PartBinding> parts = parts(PartPredicate.hash(0xF0000000, 0x10000000));
+    final PartIndex index = PartIndex.from(parts);
+    final Uri[] nodeUris = nodeUris(1000);
+    for (int i = 0; i < 1000; i += 1) {
+      final Uri nodeUri = nodeUris[i];
+      final int nodeHash = nodeUri.hashCode();
+      if ((nodeHash < 0 && nodeHash >= 0xF0000000) || (nodeHash >= 0 && nodeHash < 0x10000000)) {
+        assertSame(index.get(nodeUri), parts.get(0));
+      } else {
+        assertNull(index.get(nodeUri));
+      }
+    }
+  }
+
+  @Test
+  public void testFirstMatchAcrossOverlappingHashRanges() {
+    assertRoutesLikeScan(parts(PartPredicate.hash(0x00000000, 0x80000000),
+                               PartPredicate.hash(0x40000000, 0xC0000000),
+                               PartPredicate.hash(0xC0000000, 0x40000000),
+                               PartPredicate.any()), 2000);
+  }
+
+  @Test
+  public void testFirstMatchAcrossNodePatterns() {
+    final FingerTrieSeq<PartBinding> parts = parts(PartPredicate.node("/node/1"),
+                                                   PartPredicate.node("/node/:id"),
+                                                   PartPredicate.node("/node/1"),
+                                                   PartPredicate.any());
+    final PartIndex index = PartIndex.from(parts);
+    assertSame(index.get(Uri.parse("/node/1")), parts.get(0));
+    assertSame(index.get(Uri.parse("/node/2")), parts.get(1));
+    assertSame(index.get(Uri.parse("/other")), parts.get(3));
+    assertRoutesLikeScan(parts, 100);
+  }
+
+  @Test
+  public void testFirstMatchAcrossPredicateKinds() {
+    final FingerTrieSeq<PartBinding> parts = parts(PartPredicate.hash(0x00000000, 0x40000000),
+                                                   PartPredicate.node("/node/:id"),
+                                                   PartPredicate.hash(0x40000000, 0x00000000),
+                                                   PartPredicate.any());
+    final PartIndex index = PartIndex.from(parts);
+    final Uri[] nodeUris = nodeUris(1000);
+    for (int i = 0; i < 1000; i += 1) {
+      final Uri nodeUri = nodeUris[i];
+      final int nodeHash = nodeUri.hashCode();
+      // The earlier hash range wins over the later node pattern, which wins
+      // over the later hash range.
+      assertSame(index.get(nodeUri), nodeHash >= 0 && nodeHash < 0x40000000 ? parts.get(0) : parts.get(1));
+    }
+    assertRoutesLikeScan(parts, 1000);
+  }
+
+  @Test
+  public void testEmptyIndex() {
+    final PartIndex index = PartIndex.from(FingerTrieSeq.<PartBinding>empty());
+    assertSame(index, PartIndex.empty());
+    assertEquals(index.parts().size(), 0);
+    assertNull(index.get(Uri.parse("/node")));
+  }
+}
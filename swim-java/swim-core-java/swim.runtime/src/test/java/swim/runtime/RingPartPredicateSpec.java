@@ -0,0 +1,142 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.runtime;
+
+import org.testng.annotations.Test;
+import swim.collections.FingerTrieSeq;
+import swim.recon.Recon;
+import swim.uri.Uri;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class RingPartPredicateSpec {
+  static PartPredicate[] ring(String[] members, int virtualNodes) {
+    final PartPredicate[] predicates = new PartPredicate[members.length];
+    for (int i = 0; i < members.length; i += 1) {
+      predicates[i] = PartPredicate.ring(members[i], members, virtualNodes);
+    }
+    return predicates;
+  }
+
+  static int owner(PartPredicate[] predicates, Uri nodeUri) {
+    int owner = -1;
+    for (int i = 0; i < predicates.length; i += 1) {
+      if (predicates[i].test(nodeUri)) {
+        assertEquals(owner, -1, "multiple owners of " + nodeUri);
+        owner = i;
+      }
+    }
+    assertTrue(owner >= 0, "no owner of " + nodeUri);
+    return owner;
+  }
+
+  @Test
+  public void assignEveryNodeToExactlyOneMember() {
+    final String[] members = {"a", "b", "c", "d"};
+    final PartPredicate[] predicates = ring(members, 64);
+    final Uri[] nodeUris = PartIndexSpec.nodeUris(4000);
+    final int[] counts = new int[members.length];
+    for (int i = 0; i < nodeUris.length; i += 1) {
+      counts[owner(predicates, nodeUris[i])] += 1;
+    }
+    for (int i = 0; i < members.length; i += 1) {
+      // Virtual nodes keep every member within a loose band of its fair share.
+      assertTrue(counts[i] > nodeUris.length / 8 && counts[i] < nodeUris.length * 3 / 8,
+                 members[i] + " owns " + counts[i] + " of " + nodeUris.length + " nodes");
+    }
+  }
+
+  @Test
+  public void placeNodesIndependentlyOfMemberOrder() {
+    final PartPredicate[] predicates = ring(new String[] {"a", "b", "c"}, 16);
+    final PartPredicate[] permuted = ring(new String[] {"c", "a", "b"}, 16);
+    final Uri[] nodeUris = PartIndexSpec.nodeUris(1000);
+    for (int i = 0; i < nodeUris.length; i += 1) {
+      // Predicates for the same member compare equal, regardless of the
+      // order in which the members were listed.
+      assertEquals(predicates[owner(predicates, nodeUris[i])], permuted[owner(permuted, nodeUris[i])]);
+    }
+  }
+
+  @Test
+  public void onlyMoveNodesToAddedMembers() {
+    final PartPredicate[] before = ring(new String[] {"a", "b", "c"}, 64);
+    final PartPredicate[] after = ring(new String[] {"a", "b", "c", "d"}, 64);
+    final Uri[] nodeUris = PartIndexSpec.nodeUris(4000);
+    int moved = 0;
+    for (int i = 0; i < nodeUris.length; i += 1) {
+      final int oldOwner = owner(before, nodeUris[i]);
+      final int newOwner = owner(after, nodeUris[i]);
+      if (newOwner != oldOwner) {
+        assertEquals(newOwner, 3, nodeUris[i] + " moved between existing members");
+        moved += 1;
+      }
+    }
+    // The added member takes over roughly a quarter of the nodes.
+    assertTrue(moved > nodeUris.length / 8 && moved < nodeUris.length * 3 / 8,
+               moved + " of " + nodeUris.length + " nodes moved");
+  }
+
+  @Test
+  public void routeRingPartsLikeTheirPredicates() {
+    final PartPredicate[] predicates = ring(new String[] {"a", "b", "c", "d", "e"}, 32);
+    FingerTrieSeq<PartBinding> parts = PartIndexSpec.parts(predicates);
+    final PartIndex index = PartIndex.from(parts);
+    final Uri[] nodeUris = PartIndexSpec.nodeUris(4000);
+    for (int i = 0; i < nodeUris.length; i += 1) {
+      assertSame(index.get(nodeUris[i]), parts.get(owner(predicates, nodeUris[i])));
+    }
+  }
+
+  @Test
+  public void assignTheWholeRingToSoleMembers() {
+    final PartPredicate[] predicates = ring(new String[] {"a"}, 8);
+    final FingerTrieSeq<PartBinding> parts = PartIndexSpec.parts(predicates);
+    final PartIndex index = PartIndex.from(parts);
+    final Uri[] nodeUris = PartIndexSpec.nodeUris(1000);
+    for (int i = 0; i < nodeUris.length; i += 1) {
+      assertTrue(predicates[0].test(nodeUris[i]));
+      assertSame(index.get(nodeUris[i]), parts.get(0));
+    }
+  }
+
+  @Test
+  public void moldAndCastRingPredicates() {
+    final PartPredicate predicate = PartPredicate.ring("b", new String[] {"a", "b", "c"}, 16);
+    assertEquals(PartPredicate.fromValue(predicate.toValue()), predicate);
+    assertEquals(PartPredicate.form().cast(Recon.parse("@ring(member: b, members: {a, b, c}, vnodes: 16)")),
+                 predicate);
+    assertEquals(PartPredicate.form().cast(Recon.parse("@ring(member: b, members: {a, b, c})")),
+                 PartPredicate.ring("b", new String[] {"a", "b", "c"}, RingPartPredicate.VIRTUAL_NODES));
+  }
+
+  @Test
+  public void rejectInvalidRings() {
+    try {
+      PartPredicate.ring("x", new String[] {"a", "b"}, 16);
+      fail();
+    } catch (IllegalArgumentException expected) {
+      // unknown member
+    }
+    try {
+      PartPredicate.ring("a", new String[] {"a", "b"}, 0);
+      fail();
+    } catch (IllegalArgumentException expected) {
+      // no virtual nodes
+    }
+  }
+}
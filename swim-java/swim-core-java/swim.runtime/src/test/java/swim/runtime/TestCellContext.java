@@ -0,0 +1,156 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.runtime;
+
+import swim.api.data.DataFactory;
+import swim.api.downlink.Downlink;
+import swim.api.policy.Policy;
+import swim.concurrent.Schedule;
+import swim.concurrent.Stage;
+import swim.math.Z2Form;
+import swim.store.ListDataBinding;
+import swim.store.MapDataBinding;
+import swim.store.SpatialDataBinding;
+import swim.store.ValueDataBinding;
+import swim.structure.Value;
+import swim.uri.Uri;
+
+public class TestCellContext implements CellContext {
+  private final Policy policy;
+  private final Schedule schedule;
+  private final Stage stage;
+  private final DataFactory data;
+
+  public TestCellContext(Policy policy, Schedule schedule, Stage stage, DataFactory data) {
+    this.policy = policy;
+    this.schedule = schedule;
+    this.stage = stage;
+    this.data = data;
+  }
+
+  public TestCellContext(Stage stage) {
+    this(null, stage, stage, null);
+  }
+
+  public TestCellContext() {
+    this(null, null, null, null);
+  }
+
+  @Override
+  public Uri meshUri() {
+    return Uri.empty();
+  }
+
+  @Override
+  public Policy policy() {
+    return policy;
+  }
+
+  @Override
+  public Schedule schedule() {
+    return schedule;
+  }
+
+  @Override
+  public Stage stage() {
+    return stage;
+  }
+
+  @Override
+  public DataFactory data() {
+    return data;
+  }
+
+  @Override
+  public ListDataBinding openListData(Value name) {
+    return null;
+  }
+
+  @Override
+  public ListDataBinding injectListData(ListDataBinding dataBinding) {
+    return dataBinding;
+  }
+
+  @Override
+  public MapDataBinding openMapData(Value name) {
+    return null;
+  }
+
+  @Override
+  public MapDataBinding injectMapData(MapDataBinding dataBinding) {
+    return dataBinding;
+  }
+
+  @Override
+  public <S> SpatialDataBinding<S> openSpatialData(Value name, Z2Form<S> shapeForm) {
+    return null;
+  }
+
+  @Override
+  public <S> SpatialDataBinding<S> injectSpatialData(SpatialDataBinding<S> dataBinding) {
+    return dataBinding;
+  }
+
+  @Override
+  public ValueDataBinding openValueData(Value name) {
+    return null;
+  }
+
+  @Override
+  public ValueDataBinding injectValueData(ValueDataBinding dataBinding) {
+    return dataBinding;
+  }
+
+  @Override
+  public LinkBinding bindDownlink(Downlink downlink) {
+    return null;
+  }
+
+  @Override
+  public void openDownlink(LinkBinding link) {
+  }
+
+  @Override
+  public void closeDownlink(LinkBinding link) {
+  }
+
+  @Override
+  public void httpDownlink(HttpBinding http) {
+  }
+
+  @Override
+  public void pushDown(PushRequest pushRequest) {
+  }
+
+  @Override
+  public void trace(Object message) {
+  }
+
+  @Override
+  public void debug(Object message) {
+  }
+
+  @Override
+  public void info(Object message) {
+  }
+
+  @Override
+  public void warn(Object message) {
+  }
+
+  @Override
+  public void error(Object message) {
+  }
+}
@@ -0,0 +1,82 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.runtime.agent;
+
+import org.testng.annotations.Test;
+import swim.api.SwimLane;
+import swim.api.agent.AbstractAgent;
+import swim.api.agent.Agent;
+import swim.api.lane.CommandLane;
+import swim.api.lane.MapLane;
+import swim.api.lane.ValueLane;
+import swim.uri.Uri;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+public class AgentClassSpec {
+  static class TestAgent extends AbstractAgent {
+    @SwimLane("value")
+    ValueLane<String> value;
+
+    @SwimLane("map")
+    MapLane<String, Integer> map;
+
+    CommandLane<String> unannotated;
+  }
+
+  static class TestSubAgent extends TestAgent {
+    @SwimLane("command")
+    CommandLane<String> command;
+  }
+
+  static class TestOtherAgent extends AbstractAgent {
+    @SwimLane("value")
+    ValueLane<String> value;
+  }
+
+  static Uri[] laneUris(AgentLaneAccessor<Agent>[] laneFields) {
+    final Uri[] laneUris = new Uri[laneFields.length];
+    for (int i = 0; i < laneFields.length; i += 1) {
+      laneUris[i] = laneFields[i].laneUri();
+    }
+    return laneUris;
+  }
+
+  @Test
+  public void reflectLaneFieldsOncePerAgentClass() {
+    final AgentLaneAccessor<Agent>[] laneFields = AgentClass.LANE_FIELDS.get(TestAgent.class);
+    assertEquals(laneUris(laneFields), new Uri[] {Uri.parse("value"), Uri.parse("map")});
+    // Subsequent lookups hit the cache, and share the reflected accessors.
+    assertSame(AgentClass.LANE_FIELDS.get(TestAgent.class), laneFields);
+    assertSame(AgentClass.LANE_FIELDS.get(TestAgent.class)[0], laneFields[0]);
+  }
+
+  @Test
+  public void cacheLaneFieldsSeparatelyPerAgentClass() {
+    final AgentLaneAccessor<Agent>[] agentLaneFields = AgentClass.LANE_FIELDS.get(TestAgent.class);
+    final AgentLaneAccessor<Agent>[] subAgentLaneFields = AgentClass.LANE_FIELDS.get(TestSubAgent.class);
+    final AgentLaneAccessor<Agent>[] otherAgentLaneFields = AgentClass.LANE_FIELDS.get(TestOtherAgent.class);
+    assertNotSame(subAgentLaneFields, agentLaneFields);
+    assertNotSame(otherAgentLaneFields, agentLaneFields);
+    // Superclass lanes come first, in declaration order.
+    assertEquals(laneUris(subAgentLaneFields),
+                 new Uri[] {Uri.parse("value"), Uri.parse("map"), Uri.parse("command")});
+    assertEquals(laneUris(otherAgentLaneFields), new Uri[] {Uri.parse("value")});
+    assertNotSame(otherAgentLaneFields[0], agentLaneFields[0]);
+    assertSame(AgentClass.LANE_FIELDS.get(TestSubAgent.class), subAgentLaneFields);
+    assertSame(AgentClass.LANE_FIELDS.get(TestOtherAgent.class), otherAgentLaneFields);
+  }
+}
@@ -0,0 +1,168 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.runtime.agent;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.testng.annotations.Test;
+import swim.collections.HashTrieMap;
+import swim.concurrent.Theater;
+import swim.runtime.LaneBinding;
+import swim.runtime.NodeBinding;
+import swim.runtime.TestHostContext;
+import swim.runtime.lane.CommandLaneModel;
+import swim.runtime.router.HostTable;
+import swim.uri.Uri;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class AgentLaneTableSpec {
+  static AgentNode openNode(Theater stage) {
+    final HostTable host = new HostTable(0L);
+    host.setHostContext(new TestHostContext(Uri.empty(), stage) {
+      @Override
+      public NodeBinding createNode(Uri nodeUri) {
+        return new AgentNode();
+      }
+    });
+    return (AgentNode) host.openNode(Uri.parse("/node"));
+  }
+
+  @Test
+  public void resolveCollidingLaneUris() {
+    // Find two lane URIs that hash to the same slot of a two lane table.
+    final int mask = 3;
+    final Uri laneUri0 = Uri.parse("lane0");
+    Uri laneUri1 = null;
+    for (int i = 1; laneUri1 == null; i += 1) {
+      final Uri laneUri = Uri.parse("lane" + i);
+      if ((laneUri.hashCode() & mask) == (laneUri0.hashCode() & mask)) {
+        laneUri1 = laneUri;
+      }
+    }
+    final LaneBinding lane0 = new CommandLaneModel();
+    final LaneBinding lane1 = new CommandLaneModel();
+    final AgentLaneTable table = AgentLaneTable.from(HashTrieMap.<Uri, LaneBinding>empty()
+        .updated(laneUri0, lane0).updated(laneUri1, lane1));
+    assertEquals(table.laneUris.length, mask + 1);
+    assertSame(table.get(laneUri0), lane0);
+    assertSame(table.get(laneUri1), lane1);
+    // Equal, but not identical, lane URIs resolve too.
+    assertSame(table.get(Uri.parse(laneUri1.toString())), lane1);
+    assertNull(table.get(Uri.parse("missing")));
+  }
+
+  @Test
+  public void resolveManyLaneUris() {
+    HashTrieMap<Uri, LaneBinding> lanes = HashTrieMap.empty();
+    for (int i = 0; i < 200; i += 1) {
+      lanes = lanes.updated(Uri.parse("lane/" + i), new CommandLaneModel());
+    }
+    final AgentLaneTable table = AgentLaneTable.from(lanes);
+    // The table stays at most half full, so probes for missing lanes end.
+    assertTrue(table.laneUris.length >= 2 * lanes.size());
+    for (int i = 0; i < 200; i += 1) {
+      assertSame(table.get(Uri.parse("lane/" + i)), lanes.get(Uri.parse("lane/" + i)));
+      assertNull(table.get(Uri.parse("missing/" + i)));
+    }
+  }
+
+  @Test
+  public void rebuildLaneTablesAfterLanesChange() {
+    final Theater stage = new Theater();
+    try {
+      stage.start();
+      final AgentNode node = openNode(stage);
+      final LaneBinding laneA = node.openLane(Uri.parse("a"), new CommandLaneModel());
+      assertSame(node.getLane(Uri.parse("a")), laneA);
+      final AgentLaneTable snapshot = node.laneTable();
+      // Lookups reuse the table while the lanes are unchanged.
+      assertSame(node.laneTable(), snapshot);
+
+      final LaneBinding laneB = node.openLane(Uri.parse("b"), new CommandLaneModel());
+      assertSame(node.getLane(Uri.parse("b")), laneB);
+      assertSame(node.getLane(Uri.parse("a")), laneA);
+      assertNotSame(node.laneTable(), snapshot);
+      // The stale snapshot is left intact.
+      assertNull(snapshot.get(Uri.parse("b")));
+
+      node.closeLane(Uri.parse("a"));
+      assertNull(node.getLane(Uri.parse("a")));
+      assertSame(node.getLane(Uri.parse("b")), laneB);
+      // Lane URIs with queries resolve to their lanes.
+      assertSame(node.getLane(Uri.parse("b?q")), laneB);
+    } finally {
+      stage.stop();
+    }
+  }
+
+  @Test
+  public void lookUpLanesConcurrentlyWithRebuilds() throws InterruptedException {
+    final Theater stage = new Theater();
+    try {
+      stage.start();
+      final AgentNode node = openNode(stage);
+      final int stableCount = 16;
+      final LaneBinding[] stableLanes = new LaneBinding[stableCount];
+      for (int i = 0; i < stableCount; i += 1) {
+        stableLanes[i] = node.openLane(Uri.parse("stable/" + i), new CommandLaneModel());
+      }
+      final int readerCount = 4;
+      final CountDownLatch stopLatch = new CountDownLatch(1);
+      final CountDownLatch readerLatch = new CountDownLatch(readerCount);
+      final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+      for (int r = 0; r < readerCount; r += 1) {
+        new Thread() {
+          @Override
+          public void run() {
+            try {
+              while (stopLatch.getCount() != 0L) {
+                for (int i = 0; i < stableCount; i += 1) {
+                  final LaneBinding lane = node.getLane(Uri.parse("stable/" + i));
+                  if (lane != stableLanes[i]) {
+                    throw new AssertionError("lost lane stable/" + i);
+                  }
+                }
+              }
+            } catch (Throwable error) {
+              failure.compareAndSet(null, error);
+            } finally {
+              readerLatch.countDown();
+            }
+          }
+        }.start();
+      }
+      // Churn transient lanes, forcing a table rebuild on every lookup.
+      for (int i = 0; i < 2000; i += 1) {
+        final Uri laneUri = Uri.parse("transient/" + (i % 8));
+        final LaneBinding lane = node.openLane(laneUri, new CommandLaneModel());
+        assertSame(node.getLane(laneUri), lane);
+        node.closeLane(laneUri);
+        assertNull(node.getLane(laneUri));
+      }
+      stopLatch.countDown();
+      assertTrue(readerLatch.await(5L, TimeUnit.SECONDS));
+      assertNull(failure.get());
+      assertNotEquals(node.laneTable().laneUris.length, 0);
+    } finally {
+      stage.stop();
+    }
+  }
+}
@@ -0,0 +1,101 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.runtime.lane;
+
+import org.testng.annotations.Test;
+import swim.structure.Num;
+import swim.structure.Record;
+import swim.structure.Value;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+public class LaneLogSpec {
+  static void assertSince(LaneLog log, long since) {
+    final Value[] changes = log.since(since);
+    assertNotNull(changes, "since " + since + " at version " + log.version());
+    assertEquals(changes.length, (int) (log.version() - since));
+    for (int i = 0; i < changes.length; i += 1) {
+      assertEquals(changes[i], Num.from(since + 1L + i));
+    }
+  }
+
+  @Test
+  public void replayChangesSinceVersion() {
+    final LaneLog log = LaneLog.create(100);
+    assertEquals(log.version(), 0L);
+    for (int i = 1; i <= 5; i += 1) {
+      assertEquals(log.append(Num.from(i)), (long) i);
+    }
+    assertSince(log, 0L);
+    assertSince(log, 2L);
+    assertEquals(log.since(5L).length, 0);
+    assertNull(log.since(6L));
+    assertNull(log.since(-1L));
+  }
+
+  @Test
+  public void replayAcrossGrowthAndWrapBoundaries() {
+    // Grows from 8 to 16 to 20 entries, then wraps every 20 versions.
+    final int capacity = 20;
+    final LaneLog log = LaneLog.create(capacity);
+    for (int version = 1; version <= 5 * capacity + 3; version += 1) {
+      log.append(Num.from(version));
+      final long oldest = Math.max(0L, version - capacity);
+      for (long since = oldest; since <= version; since += 1L) {
+        assertSince(log, since);
+      }
+      if (oldest > 0L) {
+        assertNull(log.since(oldest - 1L));
+      }
+    }
+  }
+
+  @Test
+  public void replayFromLogsSmallerThanTheInitialGrowth() {
+    final LaneLog log = LaneLog.create(3);
+    for (int version = 1; version <= 10; version += 1) {
+      log.append(Num.from(version));
+      assertSince(log, Math.max(0L, version - 3L));
+    }
+    assertNull(log.since(6L));
+  }
+
+  @Test
+  public void resumeFromLogPositions() {
+    final LaneLog log = LaneLog.create(8);
+    log.append(Num.from(1));
+    log.append(Num.from(2));
+    final Value position = log.position(log.version());
+    assertEquals(position.getAttr("log").get("epoch").longValue(), log.epoch);
+    assertEquals(position.getAttr("log").get("version").longValue(), 2L);
+
+    final Value resume = Record.create(1).attr("since", position.getAttr("log"));
+    assertEquals(log.resumeVersion(resume), 2L);
+    assertEquals(log.resumeVersion(Value.absent()), -1L);
+
+    final LaneLog other = LaneLog.create(8);
+    assertNotEquals(other.epoch, log.epoch);
+    assertEquals(other.resumeVersion(resume), Long.MAX_VALUE);
+    assertNull(other.since(other.resumeVersion(resume)));
+  }
+
+  @Test
+  public void disableLogsWithoutCapacity() {
+    assertNull(LaneLog.create(0));
+    assertNull(LaneLog.create(-1));
+  }
+}
@@ -0,0 +1,445 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.runtime.router;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.testng.annotations.Test;
+import swim.collections.HashTrieMap;
+import swim.concurrent.Stage;
+import swim.concurrent.SyncException;
+import swim.concurrent.Theater;
+import swim.runtime.NodeBinding;
+import swim.runtime.PushRequest;
+import swim.runtime.TestHostContext;
+import swim.runtime.TestPushRequest;
+import swim.runtime.agent.AgentNode;
+import swim.runtime.downlink.EventDownlinkModel;
+import swim.runtime.lane.CommandLaneModel;
+import swim.structure.Value;
+import swim.uri.Uri;
+import swim.warp.CommandMessage;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class HostTableSpec {
+  @Test
+  public void openConcurrentlyOpenedNodesOnce() throws Throwable {
+    final Theater stage = new Theater();
+    final Uri nodeUri = Uri.parse("/node");
+    final int threadCount = 8;
+    final AtomicInteger createCount = new AtomicInteger();
+    final CountDownLatch createLatch = new CountDownLatch(1);
+    final HostTable host = new HostTable(0L);
+    host.setHostContext(new TestHostContext(Uri.empty(), stage) {
+      @Override
+      public NodeBinding createNode(Uri nodeUri) {
+        createCount.incrementAndGet();
+        try {
+          // Hold the opening open while the other threads pile up on it.
+          createLatch.await(100L, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException cause) {
+          throw new AssertionError(cause);
+        }
+        return new AgentNode();
+      }
+    });
+    try {
+      stage.start();
+      final CyclicBarrier barrier = new CyclicBarrier(threadCount);
+      final NodeBinding[] nodes = new NodeBinding[threadCount];
+      final Thread[] threads = new Thread[threadCount];
+      for (int i = 0; i < threadCount; i += 1) {
+        final int index = i;
+        threads[i] = new Thread() {
+          @Override
+          public void run() {
+            try {
+              barrier.await();
+              nodes[index] = host.openNode(nodeUri);
+            } catch (Exception cause) {
+              throw new AssertionError(cause);
+            }
+          }
+        };
+        threads[i].start();
+      }
+      for (int i = 0; i < threadCount; i += 1) {
+        threads[i].join(5000L);
+        assertFalse(threads[i].isAlive());
+      }
+      assertEquals(createCount.get(), 1);
+      assertNotNull(nodes[0]);
+      for (int i = 0; i < threadCount; i += 1) {
+        assertSame(nodes[i], nodes[0]);
+      }
+      assertSame(host.getNode(nodeUri), nodes[0]);
+    } finally {
+      stage.stop();
+    }
+  }
+
+  @Test
+  public void openCrossThreadNodeCyclesWithoutDeadlock() throws Throwable {
+    final Theater stage = new Theater();
+    final Uri xUri = Uri.parse("/x");
+    final Uri yUri = Uri.parse("/y");
+    final ConcurrentHashMap<Uri, AtomicInteger> createCounts = new ConcurrentHashMap<Uri, AtomicInteger>();
+    createCounts.put(xUri, new AtomicInteger());
+    createCounts.put(yUri, new AtomicInteger());
+    final CyclicBarrier createBarrier = new CyclicBarrier(2);
+    final HostTable host = new HostTable(0L);
+    host.setHostContext(new TestHostContext(Uri.empty(), stage) {
+      @Override
+      public NodeBinding createNode(Uri nodeUri) {
+        if (createCounts.get(nodeUri).incrementAndGet() == 1) {
+          try {
+            // Wait until both threads are instantiating their nodes,
+            // then have each node open the other one.
+            createBarrier.await(5L, TimeUnit.SECONDS);
+          } catch (Exception cause) {
+            throw new AssertionError(cause);
+          }
+          assertNotNull(host.openNode(nodeUri == xUri ? yUri : xUri));
+        }
+        return new AgentNode();
+      }
+    });
+    try {
+      stage.start();
+      final AtomicReference<NodeBinding> xNode = new AtomicReference<NodeBinding>();
+      final AtomicReference<NodeBinding> yNode = new AtomicReference<NodeBinding>();
+      final Thread xThread = new Thread() {
+        @Override
+        public void run() {
+          xNode.set(host.openNode(xUri));
+        }
+      };
+      final Thread yThread = new Thread() {
+        @Override
+        public void run() {
+          yNode.set(host.openNode(yUri));
+        }
+      };
+      xThread.start();
+      yThread.start();
+      xThread.join(5000L);
+      yThread.join(5000L);
+      assertFalse(xThread.isAlive(), "deadlocked opening " + xUri);
+      assertFalse(yThread.isAlive(), "deadlocked opening " + yUri);
+      assertNotNull(xNode.get());
+      assertNotNull(yNode.get());
+      // Whichever thread broke the cycle instantiated a second, discarded
+      // instance; both threads must still agree on the registered node.
+      assertSame(host.getNode(xUri), xNode.get());
+      assertSame(host.getNode(yUri), yNode.get());
+    } finally {
+      stage.stop();
+    }
+  }
+
+  @Test
+  public void failInterruptedNodeOpenings() throws Throwable {
+    final Theater stage = new Theater();
+    final Uri nodeUri = Uri.parse("/node");
+    final CountDownLatch createLatch = new CountDownLatch(1);
+    final CountDownLatch openLatch = new CountDownLatch(1);
+    final HostTable host = new HostTable(0L);
+    host.setHostContext(new TestHostContext(Uri.empty(), stage) {
+      @Override
+      public NodeBinding createNode(Uri nodeUri) {
+        createLatch.countDown();
+        try {
+          openLatch.await();
+        } catch (InterruptedException cause) {
+          throw new AssertionError(cause);
+        }
+        return new AgentNode();
+      }
+    });
+    try {
+      stage.start();
+      final Thread opener = new Thread() {
+        @Override
+        public void run() {
+          host.openNode(nodeUri);
+        }
+      };
+      opener.start();
+      assertTrue(createLatch.await(5L, TimeUnit.SECONDS));
+      Thread.currentThread().interrupt();
+      try {
+        host.openNode(nodeUri);
+        fail();
+      } catch (SyncException expected) {
+        assertTrue(Thread.interrupted());
+      }
+      openLatch.countDown();
+      opener.join(5000L);
+      assertNotNull(host.getNode(nodeUri));
+    } finally {
+      stage.stop();
+    }
+  }
+
+  @Test
+  public void cacheNodeSnapshotsUntilNodesChange() {
+    final Theater stage = new Theater();
+    final HostTable host = new HostTable(0L);
+    host.setHostContext(new TestNodeHostContext(stage));
+    try {
+      stage.start();
+      final HashTrieMap<Uri, NodeBinding> snapshot0 = host.getNodes();
+      assertTrue(snapshot0.isEmpty());
+      assertSame(host.getNodes(), snapshot0);
+      final NodeBinding node = host.openNode(Uri.parse("/node"));
+      final HashTrieMap<Uri, NodeBinding> snapshot1 = host.getNodes();
+      assertNotSame(snapshot1, snapshot0);
+      assertEquals(snapshot1.size(), 1);
+      assertSame(snapshot1.get(Uri.parse("/node")), node);
+      assertSame(host.getNodes(), snapshot1);
+      host.closeNode(Uri.parse("/node"));
+      assertTrue(host.getNodes().isEmpty());
+    } finally {
+      stage.stop();
+    }
+  }
+
+  @Test
+  public void reopenPassivatedNodes() {
+    final Theater stage = new Theater();
+    final Uri nodeUri = Uri.parse("/node");
+    final HostTable host = new HostTable(1L);
+    final TestPassivationHostContext hostContext = new TestPassivationHostContext(stage);
+    host.setHostContext(hostContext);
+    try {
+      stage.start();
+      final TestPassivationNode node0 = (TestPassivationNode) host.openNode(nodeUri);
+      node0.idle = false;
+      host.passivateIdleNodes();
+      assertSame(host.getNode(nodeUri), node0);
+      assertFalse(node0.closed);
+
+      node0.idle = true;
+      host.passivateIdleNodes();
+      assertNull(host.getNode(nodeUri));
+      assertTrue(node0.flushed);
+      assertTrue(node0.closed);
+
+      final TestPassivationNode node1 = (TestPassivationNode) host.openNode(nodeUri);
+      assertNotSame(node1, node0);
+      assertEquals(hostContext.createCount.get(), 2);
+    } finally {
+      stage.stop();
+    }
+  }
+
+  @Test
+  public void keepNodesWithTransientLanesActive() throws InterruptedException {
+    final Theater stage = new Theater();
+    final Uri nodeUri = Uri.parse("/node");
+    final HostTable host = new HostTable(1L);
+    host.setHostContext(new TestNodeHostContext(stage));
+    try {
+      stage.start();
+      final AgentNode node = (AgentNode) host.openNode(nodeUri);
+      final TestTransientLane lane = new TestTransientLane();
+      node.openLane(Uri.parse("lane"), lane);
+      Thread.sleep(5L);
+      // Passivation would lose the transient lane's state.
+      assertFalse(node.isIdle(1L));
+      host.passivateIdleNodes();
+      assertSame(host.getNode(nodeUri), node);
+
+      lane.isTransient = false;
+      assertTrue(node.isIdle(1L));
+      host.passivateIdleNodes();
+      assertNull(host.getNode(nodeUri));
+    } finally {
+      stage.stop();
+    }
+  }
+
+  @Test
+  public void passivateNodesAfterLanesCloseTheirDownlinks() throws InterruptedException {
+    final Theater stage = new Theater();
+    final Uri nodeUri = Uri.parse("/node");
+    final HostTable host = new HostTable(1L);
+    host.setHostContext(new TestNodeHostContext(stage));
+    try {
+      stage.start();
+      final AgentNode node = (AgentNode) host.openNode(nodeUri);
+      final CommandLaneModel lane = new CommandLaneModel();
+      node.openLane(Uri.parse("lane"), lane);
+      final EventDownlinkModel downlink = new EventDownlinkModel(Uri.empty(), Uri.empty(), Uri.parse("/join"),
+                                                                 Uri.parse("lane"), 0.0f, 0.0f, Value.absent());
+      lane.openDownlink(downlink);
+      Thread.sleep(5L);
+      // Downlinks opened by lanes, such as join lanes, keep their node active.
+      assertFalse(node.isIdle(1L));
+      host.passivateIdleNodes();
+      assertSame(host.getNode(nodeUri), node);
+
+      lane.closeDownlink(downlink);
+      assertTrue(node.isIdle(1L));
+      host.passivateIdleNodes();
+      assertNull(host.getNode(nodeUri));
+    } finally {
+      stage.stop();
+    }
+  }
+
+  @Test
+  public void passivateNodesWithMessagesInFlight() throws Throwable {
+    final Theater stage = new Theater();
+    final Uri nodeUri = Uri.parse("/node");
+    final int threadCount = 4;
+    final int passivationCount = 100;
+    final HostTable host = new HostTable(1L);
+    final TestPassivationHostContext hostContext = new TestPassivationHostContext(stage);
+    host.setHostContext(hostContext);
+    try {
+      stage.start();
+      final AtomicInteger pushCount = new AtomicInteger();
+      final CountDownLatch stopLatch = new CountDownLatch(1);
+      final CountDownLatch pushLatch = new CountDownLatch(threadCount);
+      for (int i = 0; i < threadCount; i += 1) {
+        new Thread() {
+          @Override
+          public void run() {
+            try {
+              while (stopLatch.getCount() != 0L) {
+                host.pushUp(new TestPushRequest(new CommandMessage(nodeUri, Uri.parse("lane"))));
+                pushCount.incrementAndGet();
+              }
+            } finally {
+              pushLatch.countDown();
+            }
+          }
+        }.start();
+      }
+      // Keep passivating the node while messages are being routed to it,
+      // until it has been reinstantiated enough times.
+      final long deadline = System.currentTimeMillis() + 10000L;
+      while (hostContext.createCount.get() < passivationCount && System.currentTimeMillis() < deadline) {
+        host.passivateIdleNodes();
+      }
+      stopLatch.countDown();
+      assertTrue(pushLatch.await(5L, TimeUnit.SECONDS));
+      host.passivateIdleNodes();
+      assertNull(host.getNode(nodeUri));
+
+      assertTrue(hostContext.createCount.get() >= passivationCount, "node instantiations");
+      assertEquals(hostContext.droppedCount.get(), 0, "messages delivered to closed nodes");
+      assertEquals(hostContext.deliveredCount.get(), pushCount.get());
+      assertEquals(hostContext.maxLiveCount.get(), 1, "concurrently live node instances");
+    } finally {
+      stage.stop();
+    }
+  }
+
+  static class TestNodeHostContext extends TestHostContext {
+    TestNodeHostContext(Stage stage) {
+      super(Uri.empty(), stage);
+    }
+
+    @Override
+    public NodeBinding createNode(Uri nodeUri) {
+      return new AgentNode();
+    }
+  }
+
+  static class TestTransientLane extends CommandLaneModel {
+    volatile boolean isTransient = true;
+
+    @Override
+    public boolean isTransient() {
+      return this.isTransient;
+    }
+  }
+
+  static class TestPassivationHostContext extends TestHostContext {
+    final AtomicInteger createCount = new AtomicInteger();
+    final AtomicInteger liveCount = new AtomicInteger();
+    final AtomicInteger maxLiveCount = new AtomicInteger();
+    final AtomicInteger deliveredCount = new AtomicInteger();
+    final AtomicInteger droppedCount = new AtomicInteger();
+
+    TestPassivationHostContext(Stage stage) {
+      super(Uri.empty(), stage);
+    }
+
+    @Override
+    public NodeBinding createNode(Uri nodeUri) {
+      this.createCount.incrementAndGet();
+      final int liveCount = this.liveCount.incrementAndGet();
+      int maxLiveCount;
+      do {
+        maxLiveCount = this.maxLiveCount.get();
+      } while (liveCount > maxLiveCount && !this.maxLiveCount.compareAndSet(maxLiveCount, liveCount));
+      return new TestPassivationNode(this);
+    }
+  }
+
+  static class TestPassivationNode extends AgentNode {
+    final TestPassivationHostContext hostContext;
+    volatile boolean idle = true;
+    volatile boolean flushed;
+    volatile boolean closed;
+
+    TestPassivationNode(TestPassivationHostContext hostContext) {
+      this.hostContext = hostContext;
+    }
+
+    @Override
+    public boolean isIdle(long idleMillis) {
+      return this.idle;
+    }
+
+    @Override
+    public void pushUp(PushRequest pushRequest) {
+      if (this.closed) {
+        this.hostContext.droppedCount.incrementAndGet();
+        pushRequest.didDecline();
+      } else {
+        this.hostContext.deliveredCount.incrementAndGet();
+        pushRequest.didDeliver();
+      }
+    }
+
+    @Override
+    public void flush() {
+      assertFalse(this.closed);
+      this.flushed = true;
+    }
+
+    @Override
+    public void didClose() {
+      assertTrue(this.flushed);
+      this.closed = true;
+      this.hostContext.liveCount.decrementAndGet();
+    }
+  }
+}
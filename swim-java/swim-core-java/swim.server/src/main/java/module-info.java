@@ -22,6 +22,7 @@ module swim.server {
   requires transitive swim.security;
   requires transitive swim.store;
   requires transitive swim.store.mem;
+  requires java.management;
 
   exports swim.server;
 
@@ -0,0 +1,49 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.server;
+
+import swim.api.agent.AgentType;
+import swim.api.plane.Plane;
+
+/**
+ * Accessor for a single {@link AgentType} field of a plane class, which
+ * {@link ServerPlane} uses to register the agent types of a newly
+ * materialized plane.  Accessors for each plane class are resolved from a
+ * registry generated at compile time by the {@code swim.processor}
+ * annotation processor, when present; otherwise the fields of the plane
+ * class get reflected.
+ *
+ * @param <P> the plane class that declares the agent type field.
+ */
+public abstract class AgentTypeAccessor<P extends Plane> {
+  final String agentName;
+  final String agentRoute;
+
+  /**
+   * @param agentName the {@code @SwimAgent} name of the agent type field, or
+   *        {@code null} if the field isn't annotated.
+   * @param agentRoute the {@code @SwimRoute} pattern of the agent type field,
+   *        or {@code null} if the field isn't annotated.
+   */
+  protected AgentTypeAccessor(String agentName, String agentRoute) {
+    this.agentName = agentName;
+    this.agentRoute = agentRoute;
+  }
+
+  /**
+   * Returns the current value of the agent type field of {@code plane}.
+   */
+  public abstract AgentType<?> getAgentType(P plane);
+}
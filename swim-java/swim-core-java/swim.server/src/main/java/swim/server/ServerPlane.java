@@ -36,6 +36,7 @@ import swim.api.policy.Policy;
 import swim.api.policy.PolicyDirective;
 import swim.collections.FingerTrieSeq;
 import swim.collections.HashTrieMap;
+import swim.concurrent.InstrumentedTheater;
 import swim.concurrent.Schedule;
 import swim.concurrent.Stage;
 import swim.concurrent.Theater;
@@ -78,10 +79,12 @@ import swim.store.Storage;
 import swim.store.StorageLoader;
 import swim.store.ValueDataBinding;
 import swim.store.mem.MemStorage;
+import swim.structure.Record;
 import swim.structure.Value;
 import swim.uri.Uri;
 import swim.uri.UriMapper;
 import swim.uri.UriPath;
+import swim.uri.UriPathTrie;
 import swim.uri.UriPattern;
 
 public class ServerPlane extends AbstractTierBinding implements RootContext, PlaneContext, AuthenticatorContext {
@@ -107,6 +110,8 @@ public class ServerPlane extends AbstractTierBinding implements RootContext, Pla
 
   volatile UriMapper<AgentType<?>> agentRoutes;
 
+  volatile UriPathTrie<AgentType<?>> agentRouteTrie;
+
   public ServerPlane(Theater stage, HttpEndpoint endpoint, RootBinding root) {
     this.stage = stage;
     this.endpoint = endpoint;
@@ -114,6 +119,7 @@ public class ServerPlane extends AbstractTierBinding implements RootContext, Pla
     this.authenticators = FingerTrieSeq.empty();
     this.agentTypes = HashTrieMap.empty();
     this.agentRoutes = UriMapper.empty();
+    this.agentRouteTrie = UriPathTrie.compile(this.agentRoutes);
   }
 
   @Override
@@ -350,7 +356,21 @@ public class ServerPlane extends AbstractTierBinding implements RootContext, Pla
   @SuppressWarnings("unchecked")
   @Override
   public <S extends Agent> AgentType<S> getAgentRoute(Uri nodeUri) {
-    return (AgentType<S>) this.agentRoutes.get(nodeUri);
+    return (AgentType<S>) agentRouteTrie().get(nodeUri);
+  }
+
+  /**
+   * Returns the compiled form of {@link #agentRoutes}, recompiling it if the
+   * agent routes have changed since it was last compiled.
+   */
+  UriPathTrie<AgentType<?>> agentRouteTrie() {
+    final UriMapper<AgentType<?>> agentRoutes = this.agentRoutes;
+    UriPathTrie<AgentType<?>> agentRouteTrie = this.agentRouteTrie;
+    if (agentRouteTrie.mapper() != agentRoutes) {
+      agentRouteTrie = UriPathTrie.compile(agentRoutes);
+      this.agentRouteTrie = agentRouteTrie;
+    }
+    return agentRouteTrie;
   }
 
   @Override
@@ -422,15 +442,36 @@ public class ServerPlane extends AbstractTierBinding implements RootContext, Pla
 
   @Override
   public NodeBinding createNode(Uri meshUri, Value partKey, Uri hostUri, Uri nodeUri) {
-    final AgentType<?> agentType = this.agentRoutes.get(nodeUri);
-    if (agentType != null) {
-      final Value props = agentType.props(nodeUri);
+    if (this.stage instanceof InstrumentedTheater && ServerTheaterNode.NODE_URI.equals(nodeUri)
+        && "swim".equals(partKey.stringValue())) {
+      return new ServerTheaterNode((InstrumentedTheater) this.stage);
+    }
+    final UriPathTrie<AgentType<?>> agentRouteTrie = agentRouteTrie();
+    final String[] captures = new String[agentRouteTrie.maxVariableCount()];
+    final int route = agentRouteTrie.match(nodeUri, captures);
+    if (route >= 0) {
+      final AgentType<?> agentType = agentRouteTrie.value(route);
+      final Value props;
+      if (agentType instanceof AgentClass<?> && agentRouteTrie.pattern(route).equals(agentType.route().toUri())) {
+        props = agentRouteProps(agentRouteTrie, route, captures);
+      } else {
+        props = agentType.props(nodeUri);
+      }
       return new AgentModel(agentType, props);
     } else {
       return null;
     }
   }
 
+  static Value agentRouteProps(UriPathTrie<AgentType<?>> agentRouteTrie, int route, String[] captures) {
+    final String[] names = agentRouteTrie.variableNames(route);
+    final Record props = Record.create(names.length);
+    for (int i = 0; i < names.length; i += 1) {
+      props.slot(names[i], captures[i]);
+    }
+    return props;
+  }
+
   public ServerPart getServerPart(Value partKey) {
     final PartBinding partBinding = this.root.getNetwork().getPart(partKey);
     if (partBinding != null) {
@@ -729,6 +770,16 @@ public class ServerPlane extends AbstractTierBinding implements RootContext, Pla
       return;
     }
     reflectAgentTypeFields(type.getSuperclass(), planeContext, plane, planeDef);
+    final AgentTypeAccessor<Plane>[] agentTypeFields = generatedAgentTypeFields(type);
+    if (agentTypeFields != null) {
+      for (int i = 0; i < agentTypeFields.length; i += 1) {
+        final AgentTypeAccessor<Plane> agentTypeField = agentTypeFields[i];
+        final AgentType<?> agentType = agentTypeField.getAgentType(plane);
+        materializeAgentType(agentType, agentTypeField.agentName, agentTypeField.agentRoute,
+                             planeContext, planeDef);
+      }
+      return;
+    }
     final Field[] fields = type.getDeclaredFields();
     for (Field field : fields) {
       if (AgentType.class.isAssignableFrom(field.getType())) {
@@ -738,49 +789,86 @@ public class ServerPlane extends AbstractTierBinding implements RootContext, Pla
     }
   }
 
+  /**
+   * Returns the agent type field accessors of the compile-time generated
+   * agent type registry for exactly {@code planeType}, or {@code null} if no
+   * registry was generated for {@code planeType}.
+   */
+  @SuppressWarnings("unchecked")
+  static AgentTypeAccessor<Plane>[] generatedAgentTypeFields(Class<?> planeType) {
+    final ClassLoader classLoader = planeType.getClassLoader();
+    if (classLoader == null) {
+      return null;
+    }
+    final String planeName = planeType.getName();
+    final int packageIndex = planeName.lastIndexOf('.');
+    final String registryName = planeName.substring(0, packageIndex + 1)
+        + planeName.substring(packageIndex + 1).replace('$', '_') + AGENT_TYPE_REGISTRY_SUFFIX;
+    try {
+      final Class<?> registryClass = Class.forName(registryName, true, classLoader);
+      return (AgentTypeAccessor<Plane>[]) registryClass.getMethod("agentTypeAccessors").invoke(null);
+    } catch (ClassNotFoundException | NoSuchMethodException cause) {
+      return null;
+    } catch (ReflectiveOperationException cause) {
+      throw new PlaneException(cause);
+    }
+  }
+
   static void reflectAgentTypeField(Field field, PlaneContext planeContext, Plane plane, PlaneDef planeDef) {
     try {
       final AgentType<?> agentType = (AgentType) field.get(plane);
-      final Class<?> agentClass = agentType.type();
+      final SwimAgent swimAgent = field.getAnnotation(SwimAgent.class);
+      final SwimRoute swimRoute = field.getAnnotation(SwimRoute.class);
+      materializeAgentType(agentType, swimAgent != null ? swimAgent.name() : null,
+                           swimRoute != null ? swimRoute.value() : null, planeContext, planeDef);
+    } catch (IllegalAccessException cause) {
+      throw new PlaneException(cause);
+    }
+  }
 
-      String name = null;
-      SwimAgent swimAgent = field.getAnnotation(SwimAgent.class);
-      if (swimAgent == null) {
-        swimAgent = agentClass.getAnnotation(SwimAgent.class);
-      }
+  static void materializeAgentType(AgentType<?> agentType, String agentName, String agentRoute,
+                                   PlaneContext planeContext, PlaneDef planeDef) {
+    final Class<?> agentClass = agentType.type();
+
+    String name = agentName;
+    if (name == null) {
+      final SwimAgent swimAgent = agentClass.getAnnotation(SwimAgent.class);
       if (swimAgent != null) {
         name = swimAgent.name();
       }
-      if (name == null || name.length() == 0) {
-        name = agentClass.getName();
-      }
-      planeContext.addAgentType(name, agentType);
+    }
+    if (name == null || name.length() == 0) {
+      name = agentClass.getName();
+    }
+    planeContext.addAgentType(name, agentType);
 
-      AgentTypeDef agentTypeDef = planeDef != null ? planeDef.getAgentTypeDef(name) : null;
+    AgentTypeDef agentTypeDef = planeDef != null ? planeDef.getAgentTypeDef(name) : null;
 
-      UriPattern route = agentTypeDef != null ? agentTypeDef.route() : null;
-      if (route == null) {
-        SwimRoute swimRoute = field.getAnnotation(SwimRoute.class);
-        if (swimRoute == null) {
-          swimRoute = agentClass.getAnnotation(SwimRoute.class);
-        }
+    UriPattern route = agentTypeDef != null ? agentTypeDef.route() : null;
+    if (route == null) {
+      String routePattern = agentRoute;
+      if (routePattern == null) {
+        final SwimRoute swimRoute = agentClass.getAnnotation(SwimRoute.class);
         if (swimRoute != null) {
-          route = UriPattern.parse(swimRoute.value());
-          if (agentTypeDef != null) {
-            agentTypeDef = agentTypeDef.route(route);
-          }
+          routePattern = swimRoute.value();
         }
       }
-      if (route != null) {
-        planeContext.addAgentRoute(route, agentType);
+      if (routePattern != null) {
+        route = UriPattern.parse(routePattern);
+        if (agentTypeDef != null) {
+          agentTypeDef = agentTypeDef.route(route);
+        }
       }
+    }
+    if (route != null) {
+      planeContext.addAgentRoute(route, agentType);
+    }
 
-      if (agentTypeDef == null) {
-        agentTypeDef = new AgentTypeDef(name, route, agentClass.getName());
-      }
-      agentType.setAgentTypeContext(agentTypeDef);
-    } catch (IllegalAccessException cause) {
-      throw new PlaneException(cause);
+    if (agentTypeDef == null) {
+      agentTypeDef = new AgentTypeDef(name, route, agentClass.getName());
     }
+    agentType.setAgentTypeContext(agentTypeDef);
   }
+
+  static final String AGENT_TYPE_REGISTRY_SUFFIX = "_SwimAgentTypes";
 }
@@ -117,7 +117,7 @@ public class ServerRuntime implements ServerLinker {
   }
 
   public ServerPlane materializePlane(String name, Class<? extends Plane> planeClass, PlaneDef planeDef, StoreDef storeDef) {
-    final Theater stage = new Theater();
+    final Theater stage = createStage();
     final RootBinding root = this.router.createRoot();
     final ServerPlane planeContext = new ServerPlane(stage, new HttpEndpoint(stage), root);
 
@@ -139,6 +139,14 @@ public class ServerRuntime implements ServerLinker {
     return planeContext;
   }
 
+  /**
+   * Returns a new stage on which to execute a plane; a {@link ServerTheater}
+   * if the {@code swim.theater.instrumented} system property is set.
+   */
+  protected Theater createStage() {
+    return INSTRUMENTED ? new ServerTheater() : new Theater();
+  }
+
   public void materializeImplicitMesh(ServerPlane planeContext) {
     final MeshBinding network = planeContext.root.openMesh(Uri.empty(), this.router.createMesh());
 
@@ -274,6 +282,13 @@ public class ServerRuntime implements ServerLinker {
     // TODO
   }
 
+  /**
+   * When {@code true}, planes execute on a {@link ServerTheater} that
+   * profiles task execution by agent type, and exposes the profiles through
+   * JMX and the {@code swim:meta:theater} meta agent.
+   */
+  static final boolean INSTRUMENTED = Boolean.getBoolean("swim.theater.instrumented");
+
   @SuppressWarnings("unchecked")
   static final AtomicReferenceFieldUpdater<ServerRuntime, HashTrieMap<String, ServerPlane>> PLANES =
       AtomicReferenceFieldUpdater.newUpdater(ServerRuntime.class, (Class<HashTrieMap<String, ServerPlane>>) (Class<?>) HashTrieMap.class, "planes");
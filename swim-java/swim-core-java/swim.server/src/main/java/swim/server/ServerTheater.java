@@ -0,0 +1,92 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.server;
+
+import java.lang.management.ManagementFactory;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import swim.concurrent.InstrumentedTheater;
+import swim.concurrent.TaskFunction;
+import swim.runtime.agent.AgentModel;
+
+/**
+ * {@link InstrumentedTheater} that groups agent node tasks by the Java class
+ * of the agents they host, so that task profiles identify which agent types
+ * consume the thread pool.  While running, a {@code ServerTheater} is
+ * registered as a platform MXBean named after its thread pool; theaters
+ * whose names collide are registered under the name with a numeric suffix.
+ */
+public class ServerTheater extends InstrumentedTheater implements ServerTheaterMXBean {
+  /**
+   * JMX name under which this theater is registered while running; {@code
+   * null} if not registered.
+   */
+  volatile ObjectName objectName;
+
+  public ServerTheater(String name) {
+    super(name);
+  }
+
+  public ServerTheater() {
+    super();
+  }
+
+  @Override
+  protected String taskType(TaskFunction task) {
+    if (task instanceof AgentModel) {
+      return ((AgentModel) task).agentType().type().getName();
+    } else {
+      return super.taskType(task);
+    }
+  }
+
+  @Override
+  protected void didStart() {
+    super.didStart();
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    String name = getName();
+    int suffix = 1;
+    do {
+      try {
+        final ObjectName objectName = new ObjectName("swim.server:type=Theater,name=" + ObjectName.quote(name));
+        server.registerMBean(this, objectName);
+        this.objectName = objectName;
+        break;
+      } catch (InstanceAlreadyExistsException error) {
+        suffix += 1;
+        name = getName() + '#' + suffix;
+      } catch (JMException error) {
+        didFail(error);
+        break;
+      }
+    } while (true);
+  }
+
+  @Override
+  protected void didStop() {
+    final ObjectName objectName = this.objectName;
+    if (objectName != null) {
+      this.objectName = null;
+      try {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+      } catch (JMException error) {
+        didFail(error);
+      }
+    }
+    super.didStop();
+  }
+}
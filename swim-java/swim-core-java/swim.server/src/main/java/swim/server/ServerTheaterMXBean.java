@@ -0,0 +1,84 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.server;
+
+import java.util.Map;
+import swim.concurrent.TaskProfile;
+
+/**
+ * JMX management interface of a {@link ServerTheater}.
+ */
+public interface ServerTheaterMXBean {
+  /**
+   * Returns the name of the theater's thread pool.
+   */
+  String getName();
+
+  /**
+   * Returns the target number of worker threads in the thread pool.
+   */
+  int getParallelism();
+
+  /**
+   * Returns the number of worker threads that have started, but not yet
+   * terminated.
+   */
+  int getPoolSize();
+
+  /**
+   * Returns the estimated number of worker threads that are currently
+   * executing tasks.
+   */
+  int getActiveThreadCount();
+
+  /**
+   * Returns the estimated number of worker threads that are neither blocked
+   * nor waiting for work.
+   */
+  int getRunningThreadCount();
+
+  /**
+   * Returns the estimated number of tasks queued by worker threads.
+   */
+  long getQueuedTaskCount();
+
+  /**
+   * Returns the estimated number of tasks submitted by external threads that
+   * have not yet started executing.
+   */
+  int getQueuedSubmissionCount();
+
+  /**
+   * Returns the estimated number of tasks stolen between worker queues.
+   */
+  long getStealCount();
+
+  /**
+   * Returns the ratio of active worker threads to the target parallelism;
+   * values at or above {@code 1.0} indicate a saturated pool.
+   */
+  double getSaturation();
+
+  /**
+   * Returns the queue wait and run time statistics for every type of task
+   * executed by the theater, keyed by task type.
+   */
+  Map<String, TaskProfile> getTaskProfiles();
+
+  /**
+   * Discards all recorded task statistics.
+   */
+  void resetTaskProfiles();
+}
@@ -0,0 +1,189 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.server;
+
+import java.util.Iterator;
+import java.util.Map;
+import swim.api.lane.function.OnCue;
+import swim.api.lane.function.OnCueKey;
+import swim.api.lane.function.OnSyncMap;
+import swim.api.uplink.Uplink;
+import swim.concurrent.InstrumentedTheater;
+import swim.concurrent.TaskProfile;
+import swim.concurrent.TimerFunction;
+import swim.concurrent.TimerRef;
+import swim.runtime.NodeContext;
+import swim.runtime.agent.AgentNode;
+import swim.runtime.lane.DemandLaneView;
+import swim.runtime.lane.DemandMapLaneView;
+import swim.structure.Form;
+import swim.structure.Record;
+import swim.structure.Slot;
+import swim.structure.Text;
+import swim.structure.Value;
+import swim.uri.Uri;
+
+/**
+ * Meta agent node that exposes the thread pool gauges and task profiles of
+ * an {@link InstrumentedTheater}.  The {@code pool} lane streams pool
+ * saturation gauges, and the {@code tasks} lane streams queue wait and run
+ * time statistics keyed by task type; both lanes are re-cued periodically.
+ */
+public class ServerTheaterNode extends AgentNode implements TimerFunction {
+  final InstrumentedTheater theater;
+  final DemandLaneView<Value> poolLane;
+  final DemandMapLaneView<Value, Value> tasksLane;
+  TimerRef refreshTimer;
+
+  public ServerTheaterNode(InstrumentedTheater theater) {
+    this.theater = theater;
+    this.poolLane = new DemandLaneView<Value>(null, Form.forValue());
+    this.tasksLane = new DemandMapLaneView<Value, Value>(null, Form.forValue(), Form.forValue());
+  }
+
+  @Override
+  public void setNodeContext(NodeContext nodeContext) {
+    super.setNodeContext(nodeContext);
+    openLane(POOL_LANE_URI, this.poolLane.onCue(new ServerTheaterPoolCue(this.theater)));
+    final ServerTheaterTasksCue tasksCue = new ServerTheaterTasksCue(this.theater);
+    openLane(TASKS_LANE_URI, this.tasksLane.onCue(tasksCue).onSync(tasksCue));
+  }
+
+  @Override
+  protected void didStart() {
+    super.didStart();
+    this.refreshTimer = setTimer(REFRESH_PERIOD, this);
+  }
+
+  @Override
+  protected void willStop() {
+    final TimerRef refreshTimer = this.refreshTimer;
+    if (refreshTimer != null) {
+      refreshTimer.cancel();
+      this.refreshTimer = null;
+    }
+    super.willStop();
+  }
+
+  @Override
+  public void runTimer() {
+    this.poolLane.cue();
+    final Iterator<TaskProfile> profiles = this.theater.taskProfileIterator();
+    while (profiles.hasNext()) {
+      this.tasksLane.cue(Text.from(profiles.next().getType()));
+    }
+    if (isStarted()) {
+      this.refreshTimer = setTimer(REFRESH_PERIOD, this);
+    }
+  }
+
+  static Value toValue(TaskProfile profile) {
+    return Record.create(9)
+        .slot("runCount", profile.getRunCount())
+        .slot("failureCount", profile.getFailureCount())
+        .slot("meanWaitNanos", profile.getMeanWaitNanos())
+        .slot("p99WaitNanos", profile.getP99WaitNanos())
+        .slot("maxWaitNanos", profile.getMaxWaitNanos())
+        .slot("meanRunNanos", profile.getMeanRunNanos())
+        .slot("p99RunNanos", profile.getP99RunNanos())
+        .slot("maxRunNanos", profile.getMaxRunNanos())
+        .slot("totalRunNanos", profile.getTotalRunNanos());
+  }
+
+  /**
+   * Node URI of the theater meta agent.
+   */
+  public static final Uri NODE_URI = Uri.parse("swim:meta:theater");
+
+  static final Uri POOL_LANE_URI = Uri.parse("pool");
+  static final Uri TASKS_LANE_URI = Uri.parse("tasks");
+
+  static final long REFRESH_PERIOD;
+
+  static {
+    long refreshPeriod;
+    try {
+      refreshPeriod = Long.parseLong(System.getProperty("swim.theater.meta.refresh.millis"));
+    } catch (NumberFormatException error) {
+      refreshPeriod = 1000L;
+    }
+    REFRESH_PERIOD = refreshPeriod;
+  }
+}
+
+final class ServerTheaterPoolCue implements OnCue<Value> {
+  final InstrumentedTheater theater;
+
+  ServerTheaterPoolCue(InstrumentedTheater theater) {
+    this.theater = theater;
+  }
+
+  @Override
+  public Value onCue(Uplink uplink) {
+    final InstrumentedTheater theater = this.theater;
+    return Record.create(8)
+        .slot("parallelism", theater.getParallelism())
+        .slot("poolSize", theater.getPoolSize())
+        .slot("activeThreadCount", theater.getActiveThreadCount())
+        .slot("runningThreadCount", theater.getRunningThreadCount())
+        .slot("queuedTaskCount", theater.getQueuedTaskCount())
+        .slot("queuedSubmissionCount", theater.getQueuedSubmissionCount())
+        .slot("stealCount", theater.getStealCount())
+        .slot("saturation", theater.getSaturation());
+  }
+}
+
+final class ServerTheaterTasksCue implements OnCueKey<Value, Value>, OnSyncMap<Value, Value> {
+  final InstrumentedTheater theater;
+
+  ServerTheaterTasksCue(InstrumentedTheater theater) {
+    this.theater = theater;
+  }
+
+  @Override
+  public Value onCue(Value key, Uplink uplink) {
+    final TaskProfile profile = this.theater.getTaskProfile(key.stringValue());
+    return profile != null ? ServerTheaterNode.toValue(profile) : null;
+  }
+
+  @Override
+  public Iterator<Map.Entry<Value, Value>> onSync(Uplink uplink) {
+    return new ServerTheaterTasksIterator(this.theater.taskProfileIterator());
+  }
+}
+
+final class ServerTheaterTasksIterator implements Iterator<Map.Entry<Value, Value>> {
+  final Iterator<TaskProfile> profiles;
+
+  ServerTheaterTasksIterator(Iterator<TaskProfile> profiles) {
+    this.profiles = profiles;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return this.profiles.hasNext();
+  }
+
+  @Override
+  public Map.Entry<Value, Value> next() {
+    final TaskProfile profile = this.profiles.next();
+    return Slot.of(Text.from(profile.getType()), ServerTheaterNode.toValue(profile));
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+}
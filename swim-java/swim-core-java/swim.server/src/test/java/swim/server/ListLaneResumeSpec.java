@@ -0,0 +1,289 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.server;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import swim.api.SwimLane;
+import swim.api.SwimRoute;
+import swim.api.agent.AbstractAgent;
+import swim.api.agent.AgentType;
+import swim.api.downlink.EventDownlink;
+import swim.api.downlink.ListDownlink;
+import swim.api.downlink.function.DidSync;
+import swim.api.lane.CommandLane;
+import swim.api.lane.ListLane;
+import swim.api.lane.function.OnCommand;
+import swim.api.plane.AbstractPlane;
+import swim.linker.StoreDef;
+import swim.observable.function.DidClear;
+import swim.observable.function.DidUpdateIndex;
+import swim.recon.Recon;
+import swim.structure.Item;
+import swim.structure.Record;
+import swim.structure.Value;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class ListLaneResumeSpec {
+  private static volatile CountDownLatch edited;
+
+  @SwimRoute("/list/:name")
+  static class TestListResumeAgent extends AbstractAgent {
+    @SwimLane("list")
+    ListLane<String> testList = this.<String>listLane()
+        .valueClass(String.class)
+        .logCapacity(64);
+
+    @SwimLane("edit")
+    CommandLane<Value> edit = this.<Value>commandLane()
+        .onCommand(new OnCommand<Value>() {
+          @Override
+          public void onCommand(Value body) {
+            // A lone op arrives unwrapped.
+            final Value ops = body.tag() != null ? Record.of(body) : body;
+            for (Item op : ops) {
+              final Value value = op.toValue();
+              final String tag = value.tag();
+              final Value header = value.header(tag);
+              if ("add".equals(tag)) {
+                testList.add(header.stringValue());
+              } else if ("clear".equals(tag)) {
+                testList.clear();
+              } else if ("capacity".equals(tag)) {
+                testList.logCapacity(header.intValue());
+              }
+            }
+            edited.countDown();
+          }
+        });
+  }
+
+  static class TestListResumePlane extends AbstractPlane {
+    final AgentType<?> listAgent = agentClass(TestListResumeAgent.class);
+  }
+
+  private ServerRuntime server;
+  private ServerPlane plane;
+  private TestRelay relay;
+  private EventDownlink<Value> editLink;
+  private ListDownlink<String> listLink;
+  private final ConcurrentLinkedQueue<String> events = new ConcurrentLinkedQueue<String>();
+  private final Semaphore synced = new Semaphore(0);
+  private volatile CountDownLatch ended;
+
+  @BeforeMethod
+  public void startServer() throws Exception {
+    server = new ServerRuntime();
+    plane = server.materializePlane("listResume", TestListResumePlane.class, storeDef("listResume"));
+    server.start();
+    plane.bind("localhost", 53556);
+    relay = new TestRelay(53557, 53556);
+    relay.start();
+    editLink = null;
+    listLink = null;
+    events.clear();
+    synced.drainPermits();
+    ended = new CountDownLatch(1);
+  }
+
+  @AfterMethod
+  public void stopServer() {
+    if (listLink != null) {
+      listLink.close();
+    }
+    if (editLink != null) {
+      editLink.close();
+    }
+    relay.close();
+    server.stop();
+    delete("listResume");
+  }
+
+  private void edit(String ops) throws InterruptedException {
+    edited = new CountDownLatch(1);
+    editLink.command(Recon.parse(ops));
+    assertTrue(edited.await(5, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Edits the lane, and syncs a downlink to it through the relay.
+   */
+  private void open(String nodeUri, String ops) throws InterruptedException {
+    editLink = plane.downlink()
+        .hostUri("swim://localhost:53556/")
+        .nodeUri(nodeUri)
+        .laneUri("edit")
+        .open();
+    edit(ops);
+    listLink = plane.downlinkList()
+        .valueClass(String.class)
+        .hostUri("swim://localhost:53557/")
+        .nodeUri(nodeUri)
+        .laneUri("list")
+        .didUpdate(new DidUpdateIndex<String>() {
+          @Override
+          public void didUpdate(int index, String newValue, String oldValue) {
+            events.add("update " + index + " " + newValue);
+            if ("end".equals(newValue)) {
+              ended.countDown();
+            }
+          }
+        })
+        .didClear(new DidClear() {
+          @Override
+          public void didClear() {
+            events.add("clear");
+          }
+        })
+        .didSync(new DidSync() {
+          @Override
+          public void didSync() {
+            synced.release();
+          }
+        })
+        .open();
+    assertTrue(synced.tryAcquire(5, TimeUnit.SECONDS));
+    events.clear();
+  }
+
+  /**
+   * Edits the lane while the downlink is disconnected, and returns the
+   * events the downlink receives on resync.
+   */
+  private List<String> reconnect(String ops) throws InterruptedException {
+    relay.disconnect();
+    edit(ops);
+    relay.reconnect();
+    assertTrue(synced.tryAcquire(10, TimeUnit.SECONDS));
+    return new ArrayList<String>(events);
+  }
+
+  private List<String> items() {
+    final ArrayList<String> items = new ArrayList<String>();
+    for (int i = 0, n = listLink.size(); i < n; i += 1) {
+      items.add(listLink.get(i));
+    }
+    return items;
+  }
+
+  private void assertItems(String... items) {
+    assertEquals(items(), Arrays.asList(items));
+  }
+
+  @Test
+  public void resumeWithChangesSinceSync() throws InterruptedException {
+    open("/list/since", "{@add(a),@add(b)}");
+    final List<String> events = reconnect("{@add(c),@add(d)}");
+    assertEquals(events, Arrays.asList("update 2 c", "update 3 d"));
+    assertItems("a", "b", "c", "d");
+  }
+
+  @Test
+  public void resyncInFullWhenLogTrimmed() throws InterruptedException {
+    open("/list/trimmed", "{@capacity(4),@add(a),@add(b)}");
+    final List<String> events = reconnect("{@add(c),@add(d),@add(e),@add(f),@add(g)}");
+    assertEquals(events, Arrays.asList("clear", "update 0 a", "update 1 b", "update 2 c", "update 3 d",
+                                       "update 4 e", "update 5 f", "update 6 g"));
+    assertItems("a", "b", "c", "d", "e", "f", "g");
+  }
+
+  @Test
+  public void resyncInFullWhenLogEpochChanges() throws InterruptedException {
+    open("/list/epoch", "{@add(a),@add(b)}");
+    final List<String> events = reconnect("{@capacity(32),@add(c)}");
+    assertEquals(events, Arrays.asList("clear", "update 0 a", "update 1 b", "update 2 c"));
+    assertItems("a", "b", "c");
+  }
+
+  @Test
+  public void replayClearsWithinLog() throws InterruptedException {
+    open("/list/clear", "{@add(a),@add(b)}");
+    final List<String> events = reconnect("{@add(c),@clear,@add(x)}");
+    assertEquals(events, Arrays.asList("update 2 c", "clear", "update 0 x"));
+    assertItems("x");
+  }
+
+  @Test
+  public void resyncWhileAppending() throws InterruptedException {
+    final int count = 200;
+    open("/list/race", "{@capacity(1024),@add(0),@add(1)}");
+    relay.disconnect();
+    edit("{@add(2),@add(3)}");
+    // Append while the downlink resyncs from the lane log.
+    assertTrue(relay.awaitHeld(5000L));
+    relay.reconnect();
+    for (int i = 4; i < count; i += 1) {
+      editLink.command(Recon.parse("{@add(" + i + ")}"));
+      Thread.sleep(1L);
+    }
+    editLink.command(Recon.parse("{@add(end)}"));
+    assertTrue(synced.tryAcquire(10, TimeUnit.SECONDS));
+    assertTrue(ended.await(10, TimeUnit.SECONDS));
+
+    // Every append arrives exactly once, in order.
+    final ArrayList<String> expectedEvents = new ArrayList<String>();
+    final ArrayList<String> expectedItems = new ArrayList<String>();
+    for (int i = 0; i < count; i += 1) {
+      if (i >= 2) {
+        expectedEvents.add("update " + i + " " + i);
+      }
+      expectedItems.add(Integer.toString(i));
+    }
+    expectedEvents.add("update " + count + " end");
+    expectedItems.add("end");
+    assertEquals(new ArrayList<String>(events), expectedEvents);
+    assertEquals(items(), expectedItems);
+  }
+
+  private StoreDef storeDef(String value) {
+    return new StoreDef(System.getProperty("java.io.tmpdir") + "/swim/" + value);
+  }
+
+  private void delete(String name) {
+    final String dirName = System.getProperty("java.io.tmpdir") + "/swim/" + name;
+    deleteR(dirName);
+  }
+
+  private void deleteR(String name) {
+    final File dir = new File(name);
+    if (!dir.exists()) {
+      return;
+    }
+    for (File file : dir.listFiles()) {
+      if (file.isDirectory()) {
+        deleteR(file.getAbsolutePath());
+      }
+      try {
+        file.delete();
+      } catch (Exception e) {
+        System.out.println("WARNING: failed to remove from " + name);
+      }
+    }
+    try {
+      dir.delete();
+    } catch (Exception swallow) {
+    }
+  }
+}
@@ -0,0 +1,283 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.server;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import swim.api.SwimLane;
+import swim.api.SwimRoute;
+import swim.api.agent.AbstractAgent;
+import swim.api.agent.AgentType;
+import swim.api.downlink.EventDownlink;
+import swim.api.downlink.MapDownlink;
+import swim.api.downlink.function.DidSync;
+import swim.api.lane.CommandLane;
+import swim.api.lane.MapLane;
+import swim.api.lane.function.OnCommand;
+import swim.api.plane.AbstractPlane;
+import swim.linker.StoreDef;
+import swim.observable.function.DidClear;
+import swim.observable.function.DidRemoveKey;
+import swim.observable.function.DidUpdateKey;
+import swim.recon.Recon;
+import swim.structure.Item;
+import swim.structure.Record;
+import swim.structure.Value;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class MapLaneResumeSpec {
+  private static volatile CountDownLatch edited;
+
+  @SwimRoute("/map/:name")
+  static class TestMapResumeAgent extends AbstractAgent {
+    @SwimLane("map")
+    MapLane<String, String> testMap = this.<String, String>mapLane()
+        .keyClass(String.class)
+        .valueClass(String.class)
+        .logCapacity(64);
+
+    @SwimLane("edit")
+    CommandLane<Value> edit = this.<Value>commandLane()
+        .onCommand(new OnCommand<Value>() {
+          @Override
+          public void onCommand(Value body) {
+            // A lone op arrives unwrapped.
+            final Value ops = body.tag() != null ? Record.of(body) : body;
+            for (Item op : ops) {
+              final Value value = op.toValue();
+              final String tag = value.tag();
+              final Value header = value.header(tag);
+              if ("put".equals(tag)) {
+                testMap.put(header.getItem(0).stringValue(), header.getItem(1).stringValue());
+              } else if ("remove".equals(tag)) {
+                testMap.remove(header.stringValue());
+              } else if ("clear".equals(tag)) {
+                testMap.clear();
+              } else if ("drop".equals(tag)) {
+                testMap.drop(header.intValue());
+              } else if ("capacity".equals(tag)) {
+                testMap.logCapacity(header.intValue());
+              }
+            }
+            edited.countDown();
+          }
+        });
+  }
+
+  static class TestMapResumePlane extends AbstractPlane {
+    final AgentType<?> mapAgent = agentClass(TestMapResumeAgent.class);
+  }
+
+  private ServerRuntime server;
+  private ServerPlane plane;
+  private TestRelay relay;
+  private EventDownlink<Value> editLink;
+  private MapDownlink<String, String> mapLink;
+  private final ConcurrentLinkedQueue<String> events = new ConcurrentLinkedQueue<String>();
+  private final Semaphore synced = new Semaphore(0);
+
+  @BeforeMethod
+  public void startServer() throws Exception {
+    server = new ServerRuntime();
+    plane = server.materializePlane("mapResume", TestMapResumePlane.class, storeDef("mapResume"));
+    server.start();
+    plane.bind("localhost", 53556);
+    relay = new TestRelay(53557, 53556);
+    relay.start();
+    editLink = null;
+    mapLink = null;
+    events.clear();
+    synced.drainPermits();
+  }
+
+  @AfterMethod
+  public void stopServer() {
+    if (mapLink != null) {
+      mapLink.close();
+    }
+    if (editLink != null) {
+      editLink.close();
+    }
+    relay.close();
+    server.stop();
+    delete("mapResume");
+  }
+
+  private void edit(String ops) throws InterruptedException {
+    edited = new CountDownLatch(1);
+    editLink.command(Recon.parse(ops));
+    assertTrue(edited.await(5, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Edits the lane, and syncs a downlink to it through the relay.
+   */
+  private void open(String nodeUri, String ops) throws InterruptedException {
+    editLink = plane.downlink()
+        .hostUri("swim://localhost:53556/")
+        .nodeUri(nodeUri)
+        .laneUri("edit")
+        .open();
+    edit(ops);
+    mapLink = plane.downlinkMap()
+        .keyClass(String.class)
+        .valueClass(String.class)
+        .hostUri("swim://localhost:53557/")
+        .nodeUri(nodeUri)
+        .laneUri("map")
+        .didUpdate(new DidUpdateKey<String, String>() {
+          @Override
+          public void didUpdate(String key, String newValue, String oldValue) {
+            events.add("update " + key + " " + newValue);
+          }
+        })
+        .didRemove(new DidRemoveKey<String, String>() {
+          @Override
+          public void didRemove(String key, String oldValue) {
+            events.add("remove " + key);
+          }
+        })
+        .didClear(new DidClear() {
+          @Override
+          public void didClear() {
+            events.add("clear");
+          }
+        })
+        .didSync(new DidSync() {
+          @Override
+          public void didSync() {
+            synced.release();
+          }
+        })
+        .open();
+    assertTrue(synced.tryAcquire(5, TimeUnit.SECONDS));
+    events.clear();
+  }
+
+  /**
+   * Edits the lane while the downlink is disconnected, and returns the
+   * events the downlink receives on resync.
+   */
+  private List<String> reconnect(String ops) throws InterruptedException {
+    relay.disconnect();
+    edit(ops);
+    relay.reconnect();
+    assertTrue(synced.tryAcquire(10, TimeUnit.SECONDS));
+    return new ArrayList<String>(events);
+  }
+
+  private static List<String> sorted(List<String> events) {
+    final ArrayList<String> sorted = new ArrayList<String>(events);
+    Collections.sort(sorted);
+    return sorted;
+  }
+
+  private void assertEntries(String... entries) {
+    final ArrayList<String> actual = new ArrayList<String>();
+    for (String key : mapLink.keySet()) {
+      actual.add(key + " " + mapLink.get(key));
+    }
+    assertEquals(sorted(actual), Arrays.asList(entries));
+  }
+
+  @Test
+  public void resumeWithChangesSinceSync() throws InterruptedException {
+    open("/map/since", "{@put(a,1),@put(b,2),@put(c,3),@put(d,4)}");
+    final List<String> events = reconnect("{@put(b,5),@remove(c),@put(e,6)}");
+    assertEquals(sorted(events), Arrays.asList("remove c", "update b 5", "update e 6"));
+    assertEntries("a 1", "b 5", "d 4", "e 6");
+  }
+
+  @Test
+  public void resyncInFullWhenLogTrimmed() throws InterruptedException {
+    open("/map/trimmed", "{@capacity(4),@put(a,1),@put(b,2),@put(c,3),@put(d,4)}");
+    final List<String> events = reconnect("{@remove(a),@put(e,5),@put(f,6),@put(g,7),@put(h,8)}");
+    assertEquals(events.get(0), "clear");
+    assertEquals(sorted(events.subList(1, events.size())),
+                 Arrays.asList("update b 2", "update c 3", "update d 4", "update e 5",
+                               "update f 6", "update g 7", "update h 8"));
+    assertEntries("b 2", "c 3", "d 4", "e 5", "f 6", "g 7", "h 8");
+  }
+
+  @Test
+  public void resyncInFullWhenLogEpochChanges() throws InterruptedException {
+    open("/map/epoch", "{@put(a,1),@put(b,2)}");
+    final List<String> events = reconnect("{@capacity(32),@put(c,3)}");
+    assertEquals(events.get(0), "clear");
+    assertEquals(sorted(events.subList(1, events.size())),
+                 Arrays.asList("update a 1", "update b 2", "update c 3"));
+    assertEntries("a 1", "b 2", "c 3");
+  }
+
+  @Test
+  public void replayClearsWithinLog() throws InterruptedException {
+    open("/map/clear", "{@put(a,1),@put(b,2)}");
+    final List<String> events = reconnect("{@put(c,3),@clear,@put(x,7),@put(y,8)}");
+    assertEquals(events.get(0), "clear");
+    assertEquals(sorted(events.subList(1, events.size())), Arrays.asList("update x 7", "update y 8"));
+    assertEntries("x 7", "y 8");
+  }
+
+  @Test
+  public void resyncInFullWhenLogTruncated() throws InterruptedException {
+    open("/map/truncate", "{@put(a,1),@put(b,2),@put(c,3),@put(d,4)}");
+    final List<String> events = reconnect("{@put(e,5),@drop(2)}");
+    assertEquals(events.get(0), "clear");
+    assertEquals(sorted(events.subList(1, events.size())),
+                 Arrays.asList("update c 3", "update d 4", "update e 5"));
+    assertEntries("c 3", "d 4", "e 5");
+  }
+
+  private StoreDef storeDef(String value) {
+    return new StoreDef(System.getProperty("java.io.tmpdir") + "/swim/" + value);
+  }
+
+  private void delete(String name) {
+    final String dirName = System.getProperty("java.io.tmpdir") + "/swim/" + name;
+    deleteR(dirName);
+  }
+
+  private void deleteR(String name) {
+    final File dir = new File(name);
+    if (!dir.exists()) {
+      return;
+    }
+    for (File file : dir.listFiles()) {
+      if (file.isDirectory()) {
+        deleteR(file.getAbsolutePath());
+      }
+      try {
+        file.delete();
+      } catch (Exception e) {
+        System.out.println("WARNING: failed to remove from " + name);
+      }
+    }
+    try {
+      dir.delete();
+    } catch (Exception swallow) {
+    }
+  }
+}
@@ -28,11 +28,15 @@ import swim.api.SwimLane;
 import swim.api.SwimRoute;
 import swim.api.agent.AbstractAgent;
 import swim.api.agent.AgentType;
+import swim.api.downlink.EventDownlink;
 import swim.api.downlink.MapDownlink;
 import swim.api.downlink.function.DidReceive;
+import swim.api.downlink.function.DidSync;
+import swim.api.lane.CommandLane;
 import swim.api.lane.JoinMapLane;
 import swim.api.lane.MapLane;
 import swim.api.lane.function.DidDownlinkMap;
+import swim.api.lane.function.OnCommand;
 import swim.api.lane.function.WillCommand;
 import swim.api.lane.function.WillDownlinkMap;
 import swim.api.plane.AbstractPlane;
@@ -51,6 +55,8 @@ import swim.observable.function.WillTake;
 import swim.observable.function.WillUpdateKey;
 import swim.recon.Recon;
 import swim.structure.Form;
+import swim.structure.Item;
+import swim.structure.Record;
 import swim.structure.Value;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
@@ -78,6 +84,19 @@ public class MapLaneSpec {
     @SwimLane("map3")
     MapLane<Value, Value> testMap3;
 
+    @SwimLane("putAll")
+    CommandLane<Value> putAll = this.<Value>commandLane()
+        .onCommand(new OnCommand<Value>() {
+          @Override
+          public void onCommand(Value value) {
+            HashTrieMap<String, String> entries = HashTrieMap.empty();
+            for (Item item : value) {
+              entries = entries.updated(item.key().stringValue(), item.toValue().stringValue());
+            }
+            testMap.putAll(entries);
+          }
+        });
+
     class TestMapLaneController implements WillUpdateKey<String, String>, DidUpdateKey<String, String>,
         WillRemoveKey<String>, DidRemoveKey<String, String>, WillClear, DidClear,
         WillDrop, DidDrop, WillTake, DidTake {
@@ -750,6 +769,123 @@ public class MapLaneSpec {
     verifyMapLaneValuesSet(downlinkMap.values(), String.class, expected.values());
   }
 
+  @Test
+  public void testFilteredLink() throws InterruptedException {
+    final CountDownLatch didReceive = new CountDownLatch(3);
+    // Links share a connection per node and lane, so the filtered link
+    // connects to the server through a different host address.
+    final MapDownlink<String, String> filterLink = plane.downlinkMap()
+        .keyClass(String.class)
+        .valueClass(String.class)
+        .hostUri("swim://127.0.0.1:53556/")
+        .nodeUri("/map/words")
+        .laneUri("map")
+        .body(Recon.parse("@prefix(\"th\")@filter($value == \"definite article\")"))
+        .observe(new DidReceive() {
+          @Override
+          public void didReceive(Value value) {
+            System.out.println("didReceive: " + Recon.toString(value));
+            didReceive.countDown();
+          }
+        })
+        .open();
+    mapLink.put("a", "definite article");
+    mapLink.put("the", "definite article");
+    mapLink.put("this", "demonstrative");
+    mapLink.put("there", "definite article");
+    mapLink.put("the", "article");
+    didReceive.await(2, TimeUnit.SECONDS);
+
+    assertEquals(filterLink.size(), 1);
+    assertEquals(filterLink.get("there"), "definite article");
+    filterLink.close();
+  }
+
+  @Test
+  public void testPutAll() throws InterruptedException {
+    final CountDownLatch didReceive = new CountDownLatch(3);
+    mapLink.observe(new DidReceive() {
+      @Override
+      public void didReceive(Value value) {
+        System.out.println("didReceive: " + Recon.toString(value));
+        didReceive.countDown();
+      }
+    });
+    final EventDownlink<Value> commandLink = plane.downlink()
+        .hostUri("swim://localhost:53556/")
+        .nodeUri("/map/words")
+        .laneUri("putAll")
+        .open();
+    commandLink.command(Record.of().slot("a", "alpha").slot("b", "bravo").slot("c", "charlie"));
+    didReceive.await(2, TimeUnit.SECONDS);
+
+    HashTrieMap<String, String> expected = HashTrieMap.of("a", "alpha").updated("b", "bravo").updated("c", "charlie");
+    verifyMapLaneEntrySet(mapLink.entrySet(), String.class, String.class, expected);
+    verifyMapLaneValuesSet(testMapCopy.values(), String.class, expected.values());
+
+    final CountDownLatch didUpdate = new CountDownLatch(2);
+    mapLink.observe(new DidUpdateKey<String, String>() {
+      @Override
+      public void didUpdate(String key, String newValue, String oldValue) {
+        didUpdate.countDown();
+      }
+    });
+    mapLink.putAll(HashTrieMap.of("b", "beta").updated("d", "delta"));
+    didUpdate.await(2, TimeUnit.SECONDS);
+    Thread.sleep(500);
+
+    expected = expected.updated("b", "beta").updated("d", "delta");
+    verifyMapLaneEntrySet(mapLink.entrySet(), String.class, String.class, expected);
+    verifyMapLaneValuesSet(testMapCopy.values(), String.class, expected.values());
+    commandLink.close();
+  }
+
+  @Test
+  public void testSyncWhileUpdating() throws InterruptedException {
+    final int count = 500;
+    for (int i = 0; i < count; i += 1) {
+      mapLink.put("k" + (1000 + i), "0");
+      if (i % 50 == 49) {
+        Thread.sleep(100);
+      }
+    }
+    Thread.sleep(1000);
+
+    final CountDownLatch didSync = new CountDownLatch(1);
+    final MapDownlink<String, String> syncLink = plane.downlinkMap()
+        .keyClass(String.class)
+        .valueClass(String.class)
+        .hostUri("swim://127.0.0.1:53556/")
+        .nodeUri("/map/words")
+        .laneUri("map")
+        .observe(new DidSync() {
+          @Override
+          public void didSync() {
+            didSync.countDown();
+          }
+        })
+        .open();
+    // Change the lane while the link syncs.
+    for (int i = 0; i < count; i += 7) {
+      mapLink.put("k" + (1000 + i), "1");
+    }
+    for (int i = 3; i < count; i += 11) {
+      if (i % 7 != 0) {
+        mapLink.remove("k" + (1000 + i));
+      }
+    }
+    mapLink.put("k0999", "1");
+    mapLink.put("k1500", "1");
+    didSync.await(5, TimeUnit.SECONDS);
+    Thread.sleep(1000);
+
+    assertEquals(syncLink.size(), mapLink.size());
+    for (Map.Entry<String, String> entry : mapLink.entrySet()) {
+      assertEquals(syncLink.get(entry.getKey()), entry.getValue());
+    }
+    syncLink.close();
+  }
+
   private <K, V> void verifyMapLaneValuesSet(Collection<V> values, Class<?> valueClass, Collection<String> expectedValues) {
     assertEquals(values.size(), expectedValues.size());
     final Iterator<V> valueIterator = values.iterator();
@@ -0,0 +1,230 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import swim.api.SwimLane;
+import swim.api.SwimRoute;
+import swim.api.agent.AbstractAgent;
+import swim.api.agent.AgentType;
+import swim.api.downlink.MapDownlink;
+import swim.api.downlink.function.DidSync;
+import swim.api.downlink.function.DidUnlink;
+import swim.api.lane.CommandLane;
+import swim.api.lane.MapLane;
+import swim.api.lane.function.OnCommand;
+import swim.api.plane.AbstractPlane;
+import swim.observable.function.DidUpdateKey;
+import swim.runtime.router.HostTable;
+import swim.runtime.router.MeshTable;
+import swim.structure.Record;
+import swim.structure.Value;
+import swim.uri.Uri;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class MeshRebalanceSpec {
+  @SwimRoute("/ring/:id")
+  static class TestRingAgent extends AbstractAgent {
+    @SwimLane("map")
+    MapLane<String, String> testMap = this.<String, String>mapLane()
+        .keyClass(String.class)
+        .valueClass(String.class);
+
+    @SwimLane("put")
+    CommandLane<Value> put = this.<Value>commandLane()
+        .onCommand(new OnCommand<Value>() {
+          @Override
+          public void onCommand(Value body) {
+            testMap.put(body.getItem(0).stringValue(), body.getItem(1).stringValue());
+          }
+        });
+  }
+
+  static class TestRingPlane extends AbstractPlane {
+    final AgentType<?> ringAgent = agentClass(TestRingAgent.class);
+  }
+
+  static final int NODE_COUNT = 8;
+
+  static final Uri MEMBER_A = Uri.parse("warp://localhost:53570");
+  static final Uri MEMBER_B = Uri.parse("warp://localhost:53571");
+
+  private ServerRuntime serverA;
+  private ServerRuntime serverB;
+  private ServerPlane planeA;
+  private ServerPlane planeB;
+  private MeshTable meshA;
+  private MeshTable meshB;
+  private final List<MapDownlink<String, String>> mapLinks = new ArrayList<MapDownlink<String, String>>();
+  private final ConcurrentLinkedQueue<String> events = new ConcurrentLinkedQueue<String>();
+
+  @BeforeMethod
+  public void startServers() {
+    serverA = new ServerRuntime();
+    planeA = serverA.materializePlane("ringA", TestRingPlane.class);
+    serverB = new ServerRuntime();
+    planeB = serverB.materializePlane("ringB", TestRingPlane.class);
+    serverA.start();
+    serverB.start();
+    planeA.bind("localhost", 53570);
+    planeB.bind("localhost", 53571);
+    meshA = planeA.root.openMesh(Uri.empty()).unwrapMesh(MeshTable.class);
+    meshB = planeB.root.openMesh(Uri.empty()).unwrapMesh(MeshTable.class);
+    mapLinks.clear();
+    events.clear();
+  }
+
+  @AfterMethod
+  public void stopServers() {
+    for (MapDownlink<String, String> mapLink : mapLinks) {
+      mapLink.close();
+    }
+    serverA.stop();
+    serverB.stop();
+  }
+
+  static HostTable host(MeshTable mesh) {
+    return mesh.getGateway().getMaster().unwrapHost(HostTable.class);
+  }
+
+  static String nodeUri(int i) {
+    return "/ring/" + i;
+  }
+
+  private MapDownlink<String, String> openMap(ServerPlane plane, Uri hostUri, final String nodeUri,
+                                              final CountDownLatch synced) {
+    final MapDownlink<String, String> mapLink = plane.downlinkMap()
+        .keyClass(String.class)
+        .valueClass(String.class)
+        .hostUri(hostUri)
+        .nodeUri(nodeUri)
+        .laneUri("map")
+        .didUpdate(new DidUpdateKey<String, String>() {
+          @Override
+          public void didUpdate(String key, String newValue, String oldValue) {
+            events.add(nodeUri + " " + key + " " + newValue);
+          }
+        })
+        .didUnlink(new DidUnlink() {
+          @Override
+          public void didUnlink() {
+            events.add(nodeUri + " unlinked");
+          }
+        })
+        .didSync(new DidSync() {
+          @Override
+          public void didSync() {
+            synced.countDown();
+          }
+        })
+        .open();
+    mapLinks.add(mapLink);
+    return mapLink;
+  }
+
+  private void put(String nodeUri, String key, String value) {
+    planeA.downlink()
+        .hostUri(MEMBER_A)
+        .nodeUri(nodeUri)
+        .laneUri("put")
+        .open()
+        .command(Record.of(key, value));
+  }
+
+  private static void awaitEvent(ConcurrentLinkedQueue<String> events, String event) throws InterruptedException {
+    for (int i = 0; i < 500 && !events.contains(event); i += 1) {
+      Thread.sleep(10L);
+    }
+    assertTrue(events.contains(event), event);
+  }
+
+  private static void awaitRebalanced(MeshTable mesh) throws InterruptedException {
+    for (int i = 0; i < 500 && mesh.isRebalancing(); i += 1) {
+      Thread.sleep(10L);
+    }
+    assertFalse(mesh.isRebalancing());
+  }
+
+  @Test
+  public void migrateNodeStateAndLinksOnRebalance() throws InterruptedException {
+    // B joins a single member ring, owning nothing until the rebalance.
+    meshA.openRing(MEMBER_A, new Uri[] {MEMBER_A}, 64);
+    meshB.openRing(MEMBER_B, new Uri[] {MEMBER_A}, 64);
+
+    final CountDownLatch synced = new CountDownLatch(NODE_COUNT);
+    for (int i = 0; i < NODE_COUNT; i += 1) {
+      openMap(planeA, MEMBER_A, nodeUri(i), synced);
+    }
+    assertTrue(synced.await(5, TimeUnit.SECONDS));
+    for (int i = 0; i < NODE_COUNT; i += 1) {
+      put(nodeUri(i), "a", "before" + i);
+    }
+    for (int i = 0; i < NODE_COUNT; i += 1) {
+      awaitEvent(events, nodeUri(i) + " a before" + i);
+    }
+
+    meshA.rebalance(MEMBER_A, MEMBER_B);
+    meshB.rebalance(MEMBER_A, MEMBER_B);
+    awaitRebalanced(meshA);
+    awaitRebalanced(meshB);
+
+    final HostTable hostA = host(meshA);
+    final HostTable hostB = host(meshB);
+    int movedCount = 0;
+    for (int i = 0; i < NODE_COUNT; i += 1) {
+      final Uri nodeUri = Uri.parse(nodeUri(i));
+      if (hostB.getNode(nodeUri) != null) {
+        assertNull(hostA.getNode(nodeUri));
+        movedCount += 1;
+      } else {
+        assertNotNull(hostA.getNode(nodeUri));
+      }
+    }
+    assertTrue(movedCount > 0 && movedCount < NODE_COUNT, "moved " + movedCount + " nodes");
+
+    // Links opened through A before the rebalance keep receiving updates,
+    // routed through A to whichever member now owns each node.
+    for (int i = 0; i < NODE_COUNT; i += 1) {
+      put(nodeUri(i), "b", "after" + i);
+    }
+    for (int i = 0; i < NODE_COUNT; i += 1) {
+      awaitEvent(events, nodeUri(i) + " b after" + i);
+      assertFalse(events.contains(nodeUri(i) + " unlinked"));
+      assertEquals(mapLinks.get(i).get("a"), "before" + i);
+    }
+
+    // Links opened directly to B sync the migrated state of B's nodes.
+    for (int i = 0; i < NODE_COUNT; i += 1) {
+      if (hostB.getNode(Uri.parse(nodeUri(i))) != null) {
+        final CountDownLatch syncedB = new CountDownLatch(1);
+        final MapDownlink<String, String> mapLink = openMap(planeB, MEMBER_B, nodeUri(i), syncedB);
+        assertTrue(syncedB.await(5, TimeUnit.SECONDS));
+        assertEquals(mapLink.get("a"), "before" + i);
+        assertEquals(mapLink.get("b"), "after" + i);
+      }
+    }
+  }
+}
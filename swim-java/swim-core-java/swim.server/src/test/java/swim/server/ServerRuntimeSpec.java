@@ -15,8 +15,15 @@
 package swim.server;
 
 import java.io.File;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import org.testng.annotations.Test;
 import swim.api.SwimLane;
 import swim.api.SwimRoute;
@@ -37,25 +44,35 @@ import swim.api.function.DidClose;
 import swim.api.function.DidConnect;
 import swim.api.function.DidDisconnect;
 import swim.api.lane.CommandLane;
+import swim.api.lane.DemandMapLane;
 import swim.api.lane.JoinValueLane;
+import swim.api.lane.SpatialLane;
+import swim.api.lane.SupplyLane;
 import swim.api.lane.ValueLane;
 import swim.api.lane.function.DidDownlinkValue;
 import swim.api.lane.function.OnCommand;
+import swim.api.lane.function.OnCueKey;
+import swim.api.lane.function.OnCueKeys;
 import swim.api.lane.function.WillDownlinkValue;
 import swim.api.plane.AbstractPlane;
+import swim.api.uplink.Uplink;
 import swim.collections.HashTrieMap;
+import swim.collections.HashTrieSet;
 import swim.linker.StoreDef;
+import swim.math.R2Shape;
 import swim.observable.function.DidSet;
 import swim.observable.function.DidUpdateKey;
 import swim.observable.function.WillSet;
 import swim.observable.function.WillUpdateKey;
 import swim.recon.Recon;
+import swim.structure.Item;
 import swim.structure.Record;
 import swim.structure.Value;
 import swim.uri.Uri;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotEquals;
 import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
 public class ServerRuntimeSpec {
@@ -194,6 +211,600 @@ public class ServerRuntimeSpec {
     }
   }
 
+  static final AtomicInteger DEDUPLICATED_SETS = new AtomicInteger();
+
+  @SwimRoute("/dedup/:name")
+  static class TestDeduplicatedValueLaneAgent extends AbstractAgent {
+    @SwimLane("value")
+    ValueLane<String> testValue = this.<String>valueLane()
+        .valueClass(String.class)
+        .isDeduplicated(true)
+        .didSet(new DidSet<String>() {
+          @Override
+          public void didSet(String newValue, String oldValue) {
+            System.out.println(testValue.nodeUri().toString() + " didSet newValue: " + newValue + "; oldValue: " + oldValue);
+            DEDUPLICATED_SETS.incrementAndGet();
+          }
+        });
+
+    @SwimLane("set")
+    CommandLane<Value> set = this.<Value>commandLane()
+        .onCommand(new OnCommand<Value>() {
+          @Override
+          public void onCommand(Value value) {
+            for (Item item : value) {
+              testValue.set(item.stringValue());
+            }
+          }
+        });
+
+    @SwimLane("count")
+    ValueLane<Integer> count = this.<Integer>valueLane()
+        .valueClass(Integer.class);
+
+    @SwimLane("increment")
+    CommandLane<Value> increment = this.<Value>commandLane()
+        .onCommand(new OnCommand<Value>() {
+          @Override
+          public void onCommand(Value value) {
+            count.update(new Function<Integer, Integer>() {
+              @Override
+              public Integer apply(Integer count) {
+                return count + 1;
+              }
+            });
+          }
+        });
+
+    @SwimLane("swap")
+    CommandLane<String> swap = this.<String>commandLane()
+        .valueClass(String.class)
+        .onCommand(new OnCommand<String>() {
+          @Override
+          public void onCommand(String value) {
+            final boolean swapped = testValue.compareAndSet("b", value);
+            final boolean rejected = !testValue.compareAndSet("b", "z");
+            System.out.println(testValue.nodeUri().toString() + " swapped: " + swapped + "; rejected: " + rejected);
+            if (swapped && rejected) {
+              testValue.set(value + "!");
+            }
+          }
+        });
+  }
+
+  static class TestDeduplicatedValuePlane extends AbstractPlane {
+    final AgentType<?> valueAgent = agentClass(TestDeduplicatedValueLaneAgent.class);
+  }
+
+  @Test
+  public void testDeduplicatedValueLane() throws InterruptedException {
+    final String name = "dedupValue";
+    final ServerRuntime server = new ServerRuntime();
+    final ServerPlane plane = server.materializePlane(name, TestDeduplicatedValuePlane.class, storeDef(name));
+    DEDUPLICATED_SETS.set(0);
+    try {
+      server.start();
+      plane.bind("localhost", 53556);
+      final CountDownLatch didSwap = new CountDownLatch(1);
+      final ValueDownlink<String> valueLink = plane.downlinkValue()
+          .valueClass(String.class)
+          .hostUri("swim://localhost:53556/")
+          .nodeUri("/dedup/hello")
+          .laneUri("value")
+          .didSet(new DidSet<String>() {
+            @Override
+            public void didSet(String newValue, String oldValue) {
+              if ("c!".equals(newValue)) {
+                didSwap.countDown();
+              }
+            }
+          })
+          .open();
+      final CountDownLatch didCount = new CountDownLatch(1);
+      final ValueDownlink<Integer> countLink = plane.downlinkValue()
+          .valueClass(Integer.class)
+          .hostUri("swim://localhost:53556/")
+          .nodeUri("/dedup/hello")
+          .laneUri("count")
+          .didSet(new DidSet<Integer>() {
+            @Override
+            public void didSet(Integer newValue, Integer oldValue) {
+              if (newValue != null && newValue == 10) {
+                didCount.countDown();
+              }
+            }
+          })
+          .open();
+      final EventDownlink<Value> setLink = plane.downlink()
+          .hostUri("swim://localhost:53556/")
+          .nodeUri("/dedup/hello")
+          .laneUri("set")
+          .open();
+      setLink.command(Record.of("a", "a", "a", "b", "b"));
+      Thread.sleep(500);
+      assertEquals(DEDUPLICATED_SETS.get(), 2);
+
+      final EventDownlink<String> swapLink = plane.downlink()
+          .valueClass(String.class)
+          .hostUri("swim://localhost:53556/")
+          .nodeUri("/dedup/hello")
+          .laneUri("swap")
+          .open();
+      swapLink.command(Value.fromObject("c"));
+      didSwap.await(2, TimeUnit.SECONDS);
+      assertEquals(valueLink.get(), "c!");
+
+      final EventDownlink<Value> incrementLink = plane.downlink()
+          .hostUri("swim://localhost:53556/")
+          .nodeUri("/dedup/hello")
+          .laneUri("increment")
+          .open();
+      for (int i = 0; i < 10; i += 1) {
+        incrementLink.command(Value.extant());
+      }
+      didCount.await(2, TimeUnit.SECONDS);
+      assertEquals((int) countLink.get(), 10);
+    } finally {
+      server.stop();
+      delete(name);
+    }
+  }
+
+  @SwimRoute("/throttle/:name")
+  static class TestThrottledValueLaneAgent extends AbstractAgent {
+    @SwimLane("value")
+    ValueLane<Integer> testValue = this.<Integer>valueLane()
+        .valueClass(Integer.class);
+
+    @SwimLane("set")
+    CommandLane<Integer> set = this.<Integer>commandLane()
+        .valueClass(Integer.class)
+        .onCommand(new OnCommand<Integer>() {
+          @Override
+          public void onCommand(Integer value) {
+            testValue.set(value);
+          }
+        });
+  }
+
+  static class TestThrottledValuePlane extends AbstractPlane {
+    final AgentType<?> valueAgent = agentClass(TestThrottledValueLaneAgent.class);
+  }
+
+  @Test
+  public void testThrottledValueLane() throws InterruptedException {
+    final String name = "throttledValue";
+    final ServerRuntime server = new ServerRuntime();
+    final ServerPlane plane = server.materializePlane(name, TestThrottledValuePlane.class, storeDef(name));
+    final float rate = 10f;
+    final long tickMillis = (long) (1000f / rate);
+    try {
+      server.start();
+      plane.bind("localhost", 53556);
+      final AtomicInteger eventCount = new AtomicInteger();
+      final CountDownLatch didSync = new CountDownLatch(1);
+      final CountDownLatch didSetLast = new CountDownLatch(1);
+      final CountDownLatch didResume = new CountDownLatch(1);
+      final ValueDownlink<Integer> valueLink = plane.downlinkValue()
+          .valueClass(Integer.class)
+          .hostUri("swim://localhost:53556/")
+          .nodeUri("/throttle/hello")
+          .laneUri("value")
+          .rate(rate)
+          .didSync(new DidSync() {
+            @Override
+            public void didSync() {
+              didSync.countDown();
+            }
+          })
+          .didSet(new DidSet<Integer>() {
+            @Override
+            public void didSet(Integer newValue, Integer oldValue) {
+              if (newValue != null) {
+                eventCount.incrementAndGet();
+                if (newValue == 100) {
+                  didSetLast.countDown();
+                } else if (newValue == 200) {
+                  didResume.countDown();
+                }
+              }
+            }
+          })
+          .open();
+      assertTrue(didSync.await(2, TimeUnit.SECONDS));
+      final EventDownlink<Integer> setLink = plane.downlink()
+          .valueClass(Integer.class)
+          .hostUri("swim://localhost:53556/")
+          .nodeUri("/throttle/hello")
+          .laneUri("set")
+          .open();
+      final long t0 = System.currentTimeMillis();
+      for (int i = 1; i <= 100; i += 1) {
+        setLink.command(Value.fromObject(i));
+        Thread.sleep(5L);
+      }
+      // The latest value always gets through, once the throttle lifts.
+      assertTrue(didSetLast.await(2, TimeUnit.SECONDS));
+      final long dt = System.currentTimeMillis() - t0;
+      // At most one conflated event per tick, plus the first event sent
+      // immediately, and one more for ticks straddling the measurement.
+      assertTrue(eventCount.get() <= 2 + dt / tickMillis,
+                 eventCount.get() + " events in " + dt + " ms");
+      assertEquals((int) valueLink.get(), 100);
+
+      // Once the throttle has lifted, an idle uplink resumes sending.
+      Thread.sleep(2 * tickMillis);
+      setLink.command(Value.fromObject(200));
+      assertTrue(didResume.await(2, TimeUnit.SECONDS));
+      assertEquals((int) valueLink.get(), 200);
+    } finally {
+      server.stop();
+      delete(name);
+    }
+  }
+
+  @SwimRoute("/spatial/:name")
+  static class TestSpatialLaneAgent extends AbstractAgent {
+    @SwimLane("spatial")
+    SpatialLane<String, R2Shape, String> spatial = this.geospatialLane()
+        .keyClass(String.class)
+        .valueClass(String.class);
+  }
+
+  static class TestSpatialPlane extends AbstractPlane {
+    final AgentType<?> spatialAgent = agentClass(TestSpatialLaneAgent.class);
+  }
+
+  static Value nextEvent(BlockingQueue<Value> events, String tag, String key) throws InterruptedException {
+    final Value event = events.poll(2, TimeUnit.SECONDS);
+    assertNotNull(event, "expected @" + tag + "(key: " + key + ")");
+    assertEquals(event.tag(), tag, Recon.toString(event));
+    assertEquals(event.header(tag).get("key").stringValue(), key, Recon.toString(event));
+    return event;
+  }
+
+  static HashTrieSet<String> nextKeys(BlockingQueue<Value> events, String tag, int count)
+      throws InterruptedException {
+    HashTrieSet<String> keys = HashTrieSet.empty();
+    for (int i = 0; i < count; i += 1) {
+      final Value event = events.poll(2, TimeUnit.SECONDS);
+      assertNotNull(event, "expected " + count + " @" + tag + " events");
+      assertEquals(event.tag(), tag, Recon.toString(event));
+      keys = keys.added(event.header(tag).get("key").stringValue());
+    }
+    return keys;
+  }
+
+  @Test
+  public void testSpatialLaneViewport() throws InterruptedException {
+    final String name = "spatial";
+    final ServerRuntime server = new ServerRuntime();
+    final ServerPlane plane = server.materializePlane(name, TestSpatialPlane.class, storeDef(name));
+    try {
+      server.start();
+      plane.bind("localhost", 53556);
+      final BlockingQueue<Value> viewEvents = new LinkedBlockingQueue<Value>();
+      final BlockingQueue<Value> allEvents = new LinkedBlockingQueue<Value>();
+      final CountDownLatch didLink = new CountDownLatch(2);
+      final EventDownlink<Value> viewLink = plane.downlink()
+          .hostUri("swim://localhost:53556/")
+          .nodeUri("/spatial/hello")
+          .laneUri("spatial")
+          .body(Recon.parse("@viewport(@box(0, 0, 20, 20))"))
+          .onEvent(new OnEvent<Value>() {
+            @Override
+            public void onEvent(Value event) {
+              viewEvents.add(event);
+            }
+          })
+          .didLink(new DidLink() {
+            @Override
+            public void didLink() {
+              didLink.countDown();
+            }
+          })
+          .open();
+      // Distinct host, so the link isn't multiplexed with the viewport link.
+      plane.downlink()
+          .hostUri("swim://127.0.0.1:53556/")
+          .nodeUri("/spatial/hello")
+          .laneUri("spatial")
+          .onEvent(new OnEvent<Value>() {
+            @Override
+            public void onEvent(Value event) {
+              allEvents.add(event);
+            }
+          })
+          .didLink(new DidLink() {
+            @Override
+            public void didLink() {
+              didLink.countDown();
+            }
+          })
+          .open();
+      assertTrue(didLink.await(2, TimeUnit.SECONDS));
+
+      viewLink.command(Recon.parse("@update(key: a, shape: @point(10, 10)) A"));
+      nextEvent(viewEvents, "update", "a");
+      // Entries outside the viewport aren't sent down.
+      viewLink.command(Recon.parse("@update(key: b, shape: @point(50, 50)) B"));
+      viewLink.command(Recon.parse("@update(key: d, shape: @point(5, 5)) D"));
+      nextEvent(viewEvents, "update", "d");
+
+      // Commanded moves and removes reach the viewport with the lane's shape form.
+      viewLink.command(Recon.parse("@move(key: b, from: @point(50, 50), to: @point(15, 15)) B"));
+      nextEvent(viewEvents, "update", "b");
+      viewLink.command(Recon.parse("@remove(key: a, shape: @point(10, 10))"));
+      nextEvent(viewEvents, "remove", "a");
+
+      // Links without a viewport see moves and removes under their own tags.
+      Value event;
+      do {
+        event = allEvents.poll(2, TimeUnit.SECONDS);
+        assertNotNull(event);
+      } while ("update".equals(event.tag()));
+      assertEquals(event.tag(), "move", Recon.toString(event));
+      assertEquals(event.header("move").get("key").stringValue(), "b");
+      nextEvent(allEvents, "remove", "a");
+
+      // Moving the viewport removes the entries that left it, and sends the
+      // entries that entered it.
+      viewLink.command(Recon.parse("@viewport(@box(40, 40, 60, 60))"));
+      assertEquals(nextKeys(viewEvents, "remove", 2), HashTrieSet.of("b", "d"));
+      viewLink.command(Recon.parse("@update(key: c, shape: @point(50, 50)) C"));
+      nextEvent(viewEvents, "update", "c");
+      viewLink.command(Recon.parse("@move(key: c, from: @point(50, 50), to: @point(10, 10)) C"));
+      nextEvent(viewEvents, "remove", "c");
+
+      // Lifting the viewport sends every entry.
+      viewLink.command(Recon.parse("@viewport"));
+      assertEquals(nextKeys(viewEvents, "update", 3), HashTrieSet.of("b", "c", "d"));
+      // Restoring a viewport clears the client's view, and resends the
+      // entries in view, which then leave it as usual.
+      viewLink.command(Recon.parse("@viewport(@box(0, 0, 12, 12))"));
+      final Value cleared = viewEvents.poll(2, TimeUnit.SECONDS);
+      assertNotNull(cleared);
+      assertEquals(cleared.tag(), "clear");
+      assertEquals(nextKeys(viewEvents, "update", 2), HashTrieSet.of("c", "d"));
+      viewLink.command(Recon.parse("@move(key: d, from: @point(5, 5), to: @point(50, 50)) D"));
+      nextEvent(viewEvents, "remove", "d");
+    } finally {
+      server.stop();
+      delete(name);
+    }
+  }
+
+  @SwimRoute("/supply/:name")
+  static class TestSupplyLaneAgent extends AbstractAgent {
+    @SwimLane("supply")
+    SupplyLane<String> supply = this.<String>supplyLane()
+        .valueClass(String.class)
+        .history(3, 0L);
+
+    @SwimLane("push")
+    CommandLane<Value> push = this.<Value>commandLane()
+        .onCommand(new OnCommand<Value>() {
+          @Override
+          public void onCommand(Value value) {
+            for (Item item : value) {
+              supply.push(item.stringValue());
+            }
+          }
+        });
+  }
+
+  static class TestSupplyPlane extends AbstractPlane {
+    final AgentType<?> supplyAgent = agentClass(TestSupplyLaneAgent.class);
+  }
+
+  @Test
+  public void testReplaySupplyLaneHistory() throws InterruptedException {
+    final String name = "supplyHistory";
+    final ServerRuntime server = new ServerRuntime();
+    final ServerPlane plane = server.materializePlane(name, TestSupplyPlane.class, storeDef(name));
+    try {
+      server.start();
+      plane.bind("localhost", 53556);
+      final EventDownlink<Value> pushLink = plane.downlink()
+          .hostUri("swim://localhost:53556/")
+          .nodeUri("/supply/hello")
+          .laneUri("push")
+          .open();
+      pushLink.command(Record.of("a", "b", "c", "d"));
+      Thread.sleep(500);
+
+      final StringBuilder events = new StringBuilder();
+      final CountDownLatch didReceive = new CountDownLatch(4);
+      final CountDownLatch didSync = new CountDownLatch(1);
+      plane.downlink()
+          .valueClass(String.class)
+          .hostUri("swim://localhost:53556/")
+          .nodeUri("/supply/hello")
+          .laneUri("supply")
+          .keepSynced(true)
+          .onEvent(new OnEvent<String>() {
+            @Override
+            public void onEvent(String value) {
+              System.out.println("supply onEvent: " + value);
+              synchronized (events) {
+                events.append(value);
+              }
+              didReceive.countDown();
+            }
+          })
+          .didSync(new DidSync() {
+            @Override
+            public void didSync() {
+              didSync.countDown();
+            }
+          })
+          .open();
+      didSync.await(2, TimeUnit.SECONDS);
+      pushLink.command(Record.of("e"));
+      didReceive.await(2, TimeUnit.SECONDS);
+      synchronized (events) {
+        assertEquals(events.toString(), "bcde");
+      }
+    } finally {
+      server.stop();
+      delete(name);
+    }
+  }
+
+  static final AtomicInteger CACHED_CUES = new AtomicInteger();
+  static final AtomicInteger BATCHED_KEYS = new AtomicInteger();
+  static final AtomicInteger PREEMPTED_KEYS = new AtomicInteger();
+
+  @SwimRoute("/demand/:name")
+  static class TestDemandMapLaneAgent extends AbstractAgent {
+    @SwimLane("cached")
+    DemandMapLane<String, String> cached = this.<String, String>demandMapLane()
+        .keyClass(String.class)
+        .valueClass(String.class)
+        .cacheMillis(60000L)
+        .onCue(new OnCueKey<String, String>() {
+          @Override
+          public String onCue(String key, Uplink uplink) {
+            CACHED_CUES.incrementAndGet();
+            return key.toUpperCase();
+          }
+        });
+
+    @SwimLane("batched")
+    DemandMapLane<String, String> batched = this.<String, String>demandMapLane()
+        .keyClass(String.class)
+        .valueClass(String.class)
+        .onCueKeys(new OnCueKeys<String, String>() {
+          @Override
+          public Map<String, String> onCue(Collection<String> keys) {
+            System.out.println("batched onCue keys: " + keys);
+            BATCHED_KEYS.addAndGet(keys.size());
+            final HashMap<String, String> values = new HashMap<String, String>();
+            for (String key : keys) {
+              values.put(key, key + "!");
+            }
+            return values;
+          }
+        });
+
+    @SwimLane("preempted")
+    DemandMapLane<String, String> preempted = this.<String, String>demandMapLane()
+        .keyClass(String.class)
+        .valueClass(String.class)
+        .onCueKeys(new OnCueKeys<String, String>() {
+          @Override
+          public Map<String, String> onCue(Collection<String> keys) {
+            PREEMPTED_KEYS.addAndGet(keys.size());
+            final HashMap<String, String> values = new HashMap<String, String>();
+            for (String key : keys) {
+              values.put(key, key + "?");
+            }
+            return values;
+          }
+
+          @Override
+          public boolean isPreemptive() {
+            return true;
+          }
+        });
+
+    @SwimLane("cue")
+    CommandLane<Value> cue = this.<Value>commandLane()
+        .onCommand(new OnCommand<Value>() {
+          @Override
+          public void onCommand(Value value) {
+            for (Item item : value) {
+              cached.cue(item.stringValue());
+              batched.cue(item.stringValue());
+              preempted.cue(item.stringValue());
+            }
+          }
+        });
+  }
+
+  static class TestDemandMapPlane extends AbstractPlane {
+    final AgentType<?> demandAgent = agentClass(TestDemandMapLaneAgent.class);
+  }
+
+  @Test
+  public void testCacheDemandMapLaneCues() throws InterruptedException {
+    final String name = "demandMapCache";
+    final ServerRuntime server = new ServerRuntime();
+    final ServerPlane plane = server.materializePlane(name, TestDemandMapPlane.class, storeDef(name));
+    CACHED_CUES.set(0);
+    BATCHED_KEYS.set(0);
+    PREEMPTED_KEYS.set(0);
+    try {
+      server.start();
+      plane.bind("localhost", 53556);
+      final CountDownLatch didLink = new CountDownLatch(4);
+      final CountDownLatch didUpdate = new CountDownLatch(12);
+      class DemandMapLinkController implements DidLink, DidUpdateKey<String, String> {
+        @Override
+        public void didLink() {
+          didLink.countDown();
+        }
+
+        @Override
+        public void didUpdate(String key, String newValue, String oldValue) {
+          System.out.println("DemandMapLinkController didUpdate key: " + key + "; newValue: " + newValue);
+          didUpdate.countDown();
+        }
+      }
+      final MapDownlink<String, String> cachedLink1 = plane.downlinkMap()
+          .keyClass(String.class)
+          .valueClass(String.class)
+          .hostUri("swim://localhost:53556/")
+          .nodeUri("/demand/hello")
+          .laneUri("cached")
+          .observe(new DemandMapLinkController())
+          .open();
+      final MapDownlink<String, String> cachedLink2 = plane.downlinkMap()
+          .keyClass(String.class)
+          .valueClass(String.class)
+          .hostUri("swim://127.0.0.1:53556/")
+          .nodeUri("/demand/hello")
+          .laneUri("cached")
+          .observe(new DemandMapLinkController())
+          .open();
+      final MapDownlink<String, String> batchedLink = plane.downlinkMap()
+          .keyClass(String.class)
+          .valueClass(String.class)
+          .hostUri("swim://localhost:53556/")
+          .nodeUri("/demand/hello")
+          .laneUri("batched")
+          .observe(new DemandMapLinkController())
+          .open();
+      final MapDownlink<String, String> preemptedLink = plane.downlinkMap()
+          .keyClass(String.class)
+          .valueClass(String.class)
+          .hostUri("swim://localhost:53556/")
+          .nodeUri("/demand/hello")
+          .laneUri("preempted")
+          .observe(new DemandMapLinkController())
+          .open();
+      didLink.await(2, TimeUnit.SECONDS);
+
+      final EventDownlink<Value> cueLink = plane.downlink()
+          .hostUri("swim://localhost:53556/")
+          .nodeUri("/demand/hello")
+          .laneUri("cue")
+          .open();
+      cueLink.command(Record.of("a", "b", "c"));
+      didUpdate.await(2, TimeUnit.SECONDS);
+      assertEquals(cachedLink1.get("b"), "B");
+      assertEquals(cachedLink2.get("b"), "B");
+      assertEquals(batchedLink.get("b"), "b!");
+      assertEquals(preemptedLink.get("b"), "b?");
+      assertEquals(CACHED_CUES.get(), 3);
+      assertEquals(BATCHED_KEYS.get(), 3);
+      assertEquals(PREEMPTED_KEYS.get(), 3);
+    } finally {
+      server.stop();
+      delete(name);
+    }
+  }
+
   @Test
   public void testHalfOpenLinkToValueLane() throws InterruptedException {
     final String name = "halfOpenValue";
@@ -0,0 +1,211 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.server;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.testng.annotations.Test;
+import swim.api.SwimLane;
+import swim.api.SwimRoute;
+import swim.api.agent.AbstractAgent;
+import swim.api.agent.AgentType;
+import swim.api.downlink.EventDownlink;
+import swim.api.downlink.MapDownlink;
+import swim.api.downlink.ValueDownlink;
+import swim.api.lane.CommandLane;
+import swim.api.plane.AbstractPlane;
+import swim.concurrent.Theater;
+import swim.linker.StoreDef;
+import swim.observable.function.DidSet;
+import swim.observable.function.DidUpdateKey;
+import swim.structure.Value;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class ServerTheaterSpec {
+  @Test
+  public void registerPlatformMXBean() throws Exception {
+    final ServerTheater theater = new ServerTheater("ServerTheaterSpec.jmx");
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName objectName = new ObjectName("swim.server:type=Theater,name="
+                                                 + ObjectName.quote("ServerTheaterSpec.jmx"));
+    try {
+      theater.start();
+      assertEquals(theater.objectName, objectName);
+      assertTrue(server.isRegistered(objectName));
+      assertEquals(server.getAttribute(objectName, "Name"), "ServerTheaterSpec.jmx");
+      assertNotNull(server.getAttribute(objectName, "TaskProfiles"));
+      assertEquals(server.getAttribute(objectName, "Parallelism"), theater.getParallelism());
+    } finally {
+      theater.stop();
+    }
+    assertNull(theater.objectName);
+    assertFalse(server.isRegistered(objectName));
+  }
+
+  @Test
+  public void registerTheatersWithCollidingNames() throws Exception {
+    final ServerTheater theater0 = new ServerTheater("ServerTheaterSpec.collide");
+    final ServerTheater theater1 = new ServerTheater("ServerTheaterSpec.collide");
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      theater0.start();
+      theater1.start();
+      final ObjectName objectName0 = theater0.objectName;
+      final ObjectName objectName1 = theater1.objectName;
+      // Both theaters stay visible, under distinct names.
+      assertNotNull(objectName0);
+      assertNotNull(objectName1);
+      assertNotEquals(objectName0, objectName1);
+      assertEquals(server.getAttribute(objectName0, "Parallelism"), theater0.getParallelism());
+      assertEquals(server.getAttribute(objectName1, "Parallelism"), theater1.getParallelism());
+      theater0.stop();
+      assertFalse(server.isRegistered(objectName0));
+      assertTrue(server.isRegistered(objectName1));
+    } finally {
+      theater0.stop();
+      theater1.stop();
+    }
+  }
+
+  @SwimRoute("/theater/:name")
+  static class TestTheaterAgent extends AbstractAgent {
+    @SwimLane("ping")
+    CommandLane<Value> ping = this.<Value>commandLane();
+  }
+
+  static class TestTheaterPlane extends AbstractPlane {
+    final AgentType<?> theaterAgent = agentClass(TestTheaterAgent.class);
+  }
+
+  @Test
+  public void linkToTheaterMetaLanes() throws InterruptedException {
+    final String name = "theater";
+    final ServerRuntime server = new ServerRuntime() {
+      @Override
+      protected Theater createStage() {
+        return new ServerTheater("ServerTheaterSpec.meta");
+      }
+    };
+    final ServerPlane plane = server.materializePlane(name, TestTheaterPlane.class, storeDef(name));
+    final ServerTheater theater = (ServerTheater) plane.stage;
+    final String agentType = TestTheaterAgent.class.getName();
+    try {
+      server.start();
+      plane.bind("localhost", 53556);
+      final EventDownlink<Value> pingLink = plane.downlink()
+          .hostUri("swim://localhost:53556/")
+          .nodeUri("/theater/hello")
+          .laneUri("ping")
+          .open();
+      for (int i = 0; i < 10; i += 1) {
+        pingLink.command(Value.fromObject(i));
+      }
+
+      final AtomicReference<Value> pool = new AtomicReference<Value>();
+      final CountDownLatch didSetPool = new CountDownLatch(1);
+      final ValueDownlink<Value> poolLink = plane.downlinkValue()
+          .hostUri("swim://localhost:53556/")
+          .nodeUri(ServerTheaterNode.NODE_URI)
+          .laneUri("pool")
+          .didSet(new DidSet<Value>() {
+            @Override
+            public void didSet(Value newValue, Value oldValue) {
+              if (newValue.isDefined()) {
+                pool.set(newValue);
+                didSetPool.countDown();
+              }
+            }
+          })
+          .open();
+
+      final AtomicReference<Value> profile = new AtomicReference<Value>();
+      final CountDownLatch didUpdateProfile = new CountDownLatch(1);
+      final MapDownlink<Value, Value> tasksLink = plane.downlinkMap()
+          .hostUri("swim://localhost:53556/")
+          .nodeUri(ServerTheaterNode.NODE_URI)
+          .laneUri("tasks")
+          .didUpdate(new DidUpdateKey<Value, Value>() {
+            @Override
+            public void didUpdate(Value key, Value newValue, Value oldValue) {
+              if (agentType.equals(key.stringValue()) && newValue.get("runCount").longValue(0L) > 0L) {
+                profile.set(newValue);
+                didUpdateProfile.countDown();
+              }
+            }
+          })
+          .open();
+
+      // The pool lane reports the gauges of the plane's theater.
+      assertTrue(didSetPool.await(5, TimeUnit.SECONDS));
+      assertEquals(pool.get().get("parallelism").intValue(), theater.getParallelism());
+      assertTrue(pool.get().get("poolSize").intValue() > 0);
+      assertTrue(pool.get().get("saturation").isDefined());
+
+      // The tasks lane reports the profile of the agent that ran the pings.
+      assertTrue(didUpdateProfile.await(5, TimeUnit.SECONDS));
+      assertTrue(profile.get().get("runCount").longValue() > 0L);
+      assertEquals(profile.get().get("failureCount").longValue(), 0L);
+      assertTrue(profile.get().get("totalRunNanos").longValue() > 0L);
+      assertNotNull(theater.getTaskProfile(agentType));
+
+      pingLink.close();
+      poolLink.close();
+      tasksLink.close();
+    } finally {
+      server.stop();
+      delete(name);
+    }
+  }
+
+  private StoreDef storeDef(String value) {
+    return new StoreDef(System.getProperty("java.io.tmpdir") + "/swim/" + value);
+  }
+
+  private void delete(String name) {
+    final String dirName = System.getProperty("java.io.tmpdir") + "/swim/" + name;
+    deleteR(dirName);
+  }
+
+  private void deleteR(String name) {
+    final File dir = new File(name);
+    if (!dir.exists()) {
+      return;
+    }
+    for (File file : dir.listFiles()) {
+      if (file.isDirectory()) {
+        deleteR(file.getAbsolutePath());
+      }
+      try {
+        file.delete();
+      } catch (Exception e) {
+        System.out.println("WARNING: failed to remove from " + name);
+      }
+    }
+    try {
+      dir.delete();
+    } catch (Exception swallow) {
+    }
+  }
+}
@@ -0,0 +1,174 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.server;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+
+/**
+ * TCP relay that severs and restores the connections of the clients linked
+ * through it, so that their downlinks reconnect and resume.
+ */
+final class TestRelay {
+  final ServerSocket serverSocket;
+  final int targetPort;
+  final ArrayList<Socket> sockets;
+  boolean paused;
+  int held;
+
+  TestRelay(int port, int targetPort) throws IOException {
+    this.serverSocket = new ServerSocket();
+    this.serverSocket.setReuseAddress(true);
+    this.serverSocket.bind(new InetSocketAddress(port));
+    this.targetPort = targetPort;
+    this.sockets = new ArrayList<Socket>();
+  }
+
+  void start() {
+    final Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        accept();
+      }
+    }, "TestRelay");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Closes all relayed connections, and holds new ones until {@link
+   * #reconnect()}.
+   */
+  synchronized void disconnect() {
+    this.paused = true;
+    for (Socket socket : this.sockets) {
+      close(socket);
+    }
+    this.sockets.clear();
+  }
+
+  /**
+   * Waits for a client to reconnect while held.
+   */
+  synchronized boolean awaitHeld(long timeoutMillis) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + timeoutMillis;
+    long remaining = timeoutMillis;
+    while (this.held == 0 && remaining > 0L) {
+      wait(remaining);
+      remaining = deadline - System.currentTimeMillis();
+    }
+    return this.held != 0;
+  }
+
+  synchronized void reconnect() {
+    this.paused = false;
+    this.held = 0;
+    notifyAll();
+  }
+
+  void close() {
+    close(this.serverSocket);
+    disconnect();
+    reconnect();
+  }
+
+  void accept() {
+    while (!this.serverSocket.isClosed()) {
+      final Socket client;
+      try {
+        client = this.serverSocket.accept();
+      } catch (IOException e) {
+        return;
+      }
+      final Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          relay(client);
+        }
+      }, "TestRelay");
+      thread.setDaemon(true);
+      thread.start();
+    }
+  }
+
+  void relay(Socket client) {
+    synchronized (this) {
+      try {
+        if (this.paused) {
+          this.held += 1;
+          notifyAll();
+          do {
+            wait();
+          } while (this.paused);
+        }
+      } catch (InterruptedException e) {
+        close(client);
+        return;
+      }
+      this.sockets.add(client);
+    }
+    final Socket server;
+    try {
+      server = new Socket(InetAddress.getLoopbackAddress(), this.targetPort);
+    } catch (IOException e) {
+      close(client);
+      return;
+    }
+    synchronized (this) {
+      this.sockets.add(server);
+    }
+    final Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        pump(server, client);
+      }
+    }, "TestRelay");
+    thread.setDaemon(true);
+    thread.start();
+    pump(client, server);
+  }
+
+  static void pump(Socket from, Socket to) {
+    final byte[] buffer = new byte[4096];
+    try {
+      final InputStream input = from.getInputStream();
+      final OutputStream output = to.getOutputStream();
+      int count;
+      while ((count = input.read(buffer)) >= 0) {
+        output.write(buffer, 0, count);
+        output.flush();
+      }
+    } catch (IOException swallow) {
+      // closed
+    } finally {
+      close(from);
+      close(to);
+    }
+  }
+
+  static void close(Closeable closeable) {
+    try {
+      closeable.close();
+    } catch (IOException swallow) {
+    }
+  }
+}
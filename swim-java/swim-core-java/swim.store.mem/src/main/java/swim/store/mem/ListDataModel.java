@@ -126,7 +126,7 @@ public class ListDataModel implements ListDataBinding {
 
   @Override
   public boolean isEmpty() {
-    return false;
+    return this.tree.isEmpty();
   }
 
   @Override
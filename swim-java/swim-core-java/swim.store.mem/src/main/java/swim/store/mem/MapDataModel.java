@@ -289,6 +289,15 @@ public class MapDataModel implements MapDataBinding {
     this.tree.putAll(items);
   }
 
+  @Override
+  public OrderedMap<Value, Value> getAndPutAll(Map<? extends Value, ? extends Value> items) {
+    for (Map.Entry<? extends Value, ? extends Value> entry : items.entrySet()) {
+      entry.getKey().commit();
+      entry.getValue().commit();
+    }
+    return this.tree.getAndPutAll(items);
+  }
+
   @Override
   public Value remove(Object key) {
     Value res = this.tree.remove(key);
@@ -56,6 +56,7 @@ public class MemStorage implements Storage {
       final DataBinding oldTree = oldTrees.get(name);
       if (oldTree != null) {
         tree = (ListDataModel) oldTree;
+        break;
       } else {
         if (tree == null) {
           tree = new ListDataModel(name, new STreeList<Value>());
@@ -82,6 +83,7 @@ public class MemStorage implements Storage {
       final DataBinding oldTree = oldTrees.get(name);
       if (oldTree != null) {
         tree = (MapDataModel) oldTree;
+        break;
       } else {
         if (tree == null) {
           tree = new MapDataModel(name, new BTreeMap<Value, Value, Value>());
@@ -109,6 +111,7 @@ public class MemStorage implements Storage {
       final DataBinding oldTree = oldTrees.get(name);
       if (oldTree != null) {
         tree = (SpatialDataModel<S>) oldTree;
+        break;
       } else {
         if (tree == null) {
           tree = new SpatialDataModel<S>(name, new QTreeMap<Value, S, Value>(shapeForm));
@@ -135,6 +138,7 @@ public class MemStorage implements Storage {
       final DataBinding oldTree = oldTrees.get(name);
       if (oldTree != null) {
         tree = (ValueDataModel) oldTree;
+        break;
       } else {
         if (tree == null) {
           tree = new ValueDataModel(name, Value.absent());
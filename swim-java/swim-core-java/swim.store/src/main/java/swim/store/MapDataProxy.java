@@ -240,6 +240,11 @@ public class MapDataProxy implements MapDataBinding, MapDataContext {
     this.dataBinding.putAll(items);
   }
 
+  @Override
+  public OrderedMap<Value, Value> getAndPutAll(Map<? extends Value, ? extends Value> items) {
+    return this.dataBinding.getAndPutAll(items);
+  }
+
   @Override
   public Value remove(Object key) {
     return this.dataBinding.remove(key);
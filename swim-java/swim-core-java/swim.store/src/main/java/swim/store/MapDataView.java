@@ -14,7 +14,9 @@
 
 package swim.store;
 
+import java.util.Map;
 import swim.api.data.MapData;
+import swim.collections.HashTrieMap;
 import swim.structure.Form;
 import swim.structure.Value;
 import swim.structure.collections.ValueEntry;
@@ -94,6 +96,15 @@ public class MapDataView<K, V> extends ValueOrderedMap<K, V> implements MapData<
     ((MapDataBinding) this.inner).take(upper);
   }
 
+  @Override
+  public OrderedMap<K, V> getAndPutAll(Map<? extends K, ? extends V> items) {
+    HashTrieMap<Value, Value> values = HashTrieMap.empty();
+    for (Map.Entry<? extends K, ? extends V> item : items.entrySet()) {
+      values = values.updated(this.keyForm.mold(item.getKey()).toValue(), this.valueForm.mold(item.getValue()).toValue());
+    }
+    return new ValueOrderedMap<K, V>(((MapDataBinding) this.inner).getAndPutAll(values), this.keyForm, this.valueForm);
+  }
+
   @Override
   public OrderedMap<K, V> snapshot() {
     return new ValueOrderedMap<K, V>(((MapDataBinding) this.inner).snapshot(), this.keyForm, this.valueForm);
@@ -23,6 +23,7 @@ import swim.codec.Format;
 import swim.codec.Output;
 import swim.structure.Form;
 import swim.structure.Kind;
+import swim.util.HashGenCacheMap;
 
 public class Uri implements Comparable<Uri>, Debug, Display {
   protected final UriScheme scheme;
@@ -31,6 +32,7 @@ public class Uri implements Comparable<Uri>, Debug, Display {
   protected final UriQuery query;
   protected final UriFragment fragment;
   String string;
+  int hash;
 
   protected Uri(UriScheme scheme, UriAuthority authority, UriPath path,
                 UriQuery query, UriFragment fragment) {
@@ -434,14 +436,37 @@ public class Uri implements Comparable<Uri>, Debug, Display {
     if (this == other) {
       return true;
     } else if (other instanceof Uri) {
-      return toString().equals(((Uri) other).toString());
+      final Uri that = (Uri) other;
+      return hashCode() == that.hashCode() && toString().equals(that.toString());
     }
     return false;
   }
 
   @Override
   public final int hashCode() {
-    return toString().hashCode();
+    int hash = this.hash;
+    if (hash == 0) {
+      hash = toString().hashCode();
+      this.hash = hash;
+    }
+    return hash;
+  }
+
+  /**
+   * Returns a canonical instance of this {@code Uri}, which is identical to
+   * the canonical instance of every equal {@code Uri} interned while it
+   * remains cached.  Interning the URIs used as lookup keys on hot paths
+   * lets most key comparisons succeed by identity.  Equality never depends
+   * on interning; evicted URIs simply get reinterned.
+   */
+  public final Uri intern() {
+    final HashGenCacheMap<Uri, Uri> internCache = internCache();
+    final Uri uri = internCache.get(this);
+    if (uri != null) {
+      return uri;
+    } else {
+      return internCache.put(this, this);
+    }
   }
 
   @Override
@@ -487,6 +512,10 @@ public class Uri implements Comparable<Uri>, Debug, Display {
 
   private static UriParser standardParser;
 
+  private static HashGenCacheMap<Uri, Uri> internCache;
+
+  private static HashGenCacheMap<String, Uri> parseCache;
+
   public static Uri empty() {
     if (empty == null) {
       empty = new Uri(UriScheme.undefined(), UriAuthority.undefined(), UriPath.empty(),
@@ -552,6 +581,32 @@ public class Uri implements Comparable<Uri>, Debug, Display {
     return from(null, null, path, null, null);
   }
 
+  static HashGenCacheMap<Uri, Uri> internCache() {
+    if (internCache == null) {
+      int internCacheSize;
+      try {
+        internCacheSize = Integer.parseInt(System.getProperty("swim.uri.intern.cache.size"));
+      } catch (NumberFormatException e) {
+        internCacheSize = 1024;
+      }
+      internCache = new HashGenCacheMap<Uri, Uri>(internCacheSize);
+    }
+    return internCache;
+  }
+
+  static HashGenCacheMap<String, Uri> parseCache() {
+    if (parseCache == null) {
+      int parseCacheSize;
+      try {
+        parseCacheSize = Integer.parseInt(System.getProperty("swim.uri.parse.cache.size"));
+      } catch (NumberFormatException e) {
+        parseCacheSize = 1024;
+      }
+      parseCache = new HashGenCacheMap<String, Uri>(parseCacheSize);
+    }
+    return parseCache;
+  }
+
   public static UriParser standardParser() {
     if (standardParser == null) {
       standardParser = new UriParser();
@@ -559,8 +614,18 @@ public class Uri implements Comparable<Uri>, Debug, Display {
     return standardParser;
   }
 
+  /**
+   * Parses a {@code Uri} from its string representation, returning a shared,
+   * interned instance when the same string was recently parsed.
+   */
   public static Uri parse(String string) {
-    return standardParser().parseAbsoluteString(string);
+    final HashGenCacheMap<String, Uri> parseCache = parseCache();
+    final Uri uri = parseCache.get(string);
+    if (uri != null) {
+      return uri;
+    } else {
+      return parseCache.put(string, standardParser().parseAbsoluteString(string).intern());
+    }
   }
 
   static boolean isUnreservedChar(int c) {
@@ -24,6 +24,8 @@ import swim.codec.Output;
 import swim.util.HashGenCacheSet;
 
 public abstract class UriPath implements Collection<String>, Comparable<UriPath>, Debug, Display {
+  int hash;
+
   protected UriPath() {
     // stub
   }
@@ -415,14 +417,20 @@ public abstract class UriPath implements Collection<String>, Comparable<UriPath>
     if (this == other) {
       return true;
     } else if (other instanceof UriPath) {
-      return toString().equals(((UriPath) other).toString());
+      final UriPath that = (UriPath) other;
+      return hashCode() == that.hashCode() && toString().equals(that.toString());
     }
     return false;
   }
 
   @Override
   public final int hashCode() {
-    return toString().hashCode();
+    int hash = this.hash;
+    if (hash == 0) {
+      hash = toString().hashCode();
+      this.hash = hash;
+    }
+    return hash;
   }
 
   @Override
@@ -0,0 +1,392 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.uri;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compiled, immutable routing automaton over the patterns of a {@link
+ * UriMapper}.  Pattern paths are compiled into a segment trie whose literal
+ * transitions live in a single open-addressed table, and whose variable
+ * transitions are a single wildcard edge per state.  The segment index of
+ * every path variable is precomputed per route, so that {@link #match(Uri)}
+ * resolves a route in one allocation-free pass over the path, and {@link
+ * #match(Uri, String[])} captures its variables in that same pass.
+ * <p>
+ * Like {@code UriMapper}, literal segments take precedence over variables;
+ * unlike {@code UriMapper}, a failed literal branch backtracks to the
+ * variable branch of the same state.  Queries and fragments of matched URIs
+ * are ignored, and routes whose patterns have a scheme only match URIs with
+ * that scheme.  Routes with the same path shape share a terminal state, and
+ * are chained there by scheme; a route for the URI's scheme takes precedence
+ * over a route without a scheme, and a later route replaces an earlier one
+ * with the same scheme.
+ */
+public final class UriPathTrie<T> {
+  final UriMapper<T> mapper;
+  final int[] wildcards;
+  final int[] terminals;
+  final int[] nextRoutes;
+  final int[] slotStates;
+  final String[] slotSegments;
+  final int[] slotTargets;
+  final Uri[] patterns;
+  final Object[] values;
+  final String[] schemes;
+  final String[][] variableNames;
+  final int[][] variableIndexes;
+  final int maxVariableCount;
+
+  UriPathTrie(UriMapper<T> mapper, int[] wildcards, int[] terminals, int[] nextRoutes,
+              int[] slotStates, String[] slotSegments, int[] slotTargets, Uri[] patterns,
+              Object[] values, String[] schemes, String[][] variableNames,
+              int[][] variableIndexes, int maxVariableCount) {
+    this.mapper = mapper;
+    this.wildcards = wildcards;
+    this.terminals = terminals;
+    this.nextRoutes = nextRoutes;
+    this.slotStates = slotStates;
+    this.slotSegments = slotSegments;
+    this.slotTargets = slotTargets;
+    this.patterns = patterns;
+    this.values = values;
+    this.schemes = schemes;
+    this.variableNames = variableNames;
+    this.variableIndexes = variableIndexes;
+    this.maxVariableCount = maxVariableCount;
+  }
+
+  /**
+   * Returns the mapper from which this trie was compiled.
+   */
+  public UriMapper<T> mapper() {
+    return this.mapper;
+  }
+
+  /**
+   * Returns the number of routes in this trie.
+   */
+  public int size() {
+    return this.patterns.length;
+  }
+
+  /**
+   * Returns the index of the route that matches {@code uri}, or {@code -1}
+   * if no route matches {@code uri}.
+   */
+  public int match(Uri uri) {
+    return match(uri.scheme(), uri.path(), 0, null, 0);
+  }
+
+  /**
+   * Returns the index of the route that matches {@code uri}, or {@code -1}
+   * if no route matches {@code uri}, and writes the values of the matched
+   * route's path variables into {@code captures}, in the same order as
+   * {@link #variableNames(int)}.  {@code captures} must have room for
+   * {@link #maxVariableCount()} values; its other elements are unspecified.
+   */
+  public int match(Uri uri, String[] captures) {
+    return match(uri.scheme(), uri.path(), 0, captures, 0);
+  }
+
+  int match(UriScheme scheme, UriPath path, int state, String[] captures, int variable) {
+    if (path.isEmpty()) {
+      return terminal(scheme, state);
+    }
+    final String segment = path.head();
+    final UriPath tail = path.tail();
+    final int next = literal(state, segment);
+    if (next >= 0) {
+      final int route = match(scheme, tail, next, captures, variable);
+      if (route >= 0) {
+        return route;
+      }
+    }
+    final int wildcard = this.wildcards[state];
+    if (wildcard >= 0) {
+      if (captures != null) {
+        captures[variable] = segment;
+      }
+      return match(scheme, tail, wildcard, captures, variable + 1);
+    }
+    return -1;
+  }
+
+  int terminal(UriScheme scheme, int state) {
+    int fallback = -1;
+    for (int route = this.terminals[state]; route >= 0; route = this.nextRoutes[route]) {
+      final String routeScheme = this.schemes[route];
+      if (routeScheme == null) {
+        if (fallback < 0) {
+          fallback = route;
+        }
+      } else if (routeScheme.equals(scheme.name())) {
+        return route;
+      }
+    }
+    return fallback;
+  }
+
+  int literal(int state, String segment) {
+    final String[] slotSegments = this.slotSegments;
+    final int mask = slotSegments.length - 1;
+    int slot = slotHash(state, segment) & mask;
+    String slotSegment;
+    while ((slotSegment = slotSegments[slot]) != null) {
+      if (this.slotStates[slot] == state && slotSegment.equals(segment)) {
+        return this.slotTargets[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the value mapped by the route that matches {@code uri}, or {@code
+   * null} if no route matches {@code uri}.
+   */
+  public T get(Uri uri) {
+    final int route = match(uri);
+    return route >= 0 ? value(route) : null;
+  }
+
+  /**
+   * Returns the pattern of the route at index {@code route}.
+   */
+  public Uri pattern(int route) {
+    return this.patterns[route];
+  }
+
+  /**
+   * Returns the value mapped by the route at index {@code route}.
+   */
+  @SuppressWarnings("unchecked")
+  public T value(int route) {
+    return (T) this.values[route];
+  }
+
+  /**
+   * Returns the names of the path variables of the route at index {@code
+   * route}, in path order.  The returned array must not be mutated.
+   */
+  public String[] variableNames(int route) {
+    return this.variableNames[route];
+  }
+
+  /**
+   * Returns the largest number of path variables of any route in this trie.
+   */
+  public int maxVariableCount() {
+    return this.maxVariableCount;
+  }
+
+  /**
+   * Returns the values of the path variables of the route at index {@code
+   * route}, extracted from {@code uri}, in the same order as {@link
+   * #variableNames(int)}.  {@code uri} must be matched by {@code route}.
+   */
+  public String[] unapply(int route, Uri uri) {
+    final int[] variableIndexes = this.variableIndexes[route];
+    final int variableCount = variableIndexes.length;
+    final String[] variableValues = new String[variableCount];
+    UriPath path = uri.path();
+    int segmentIndex = 0;
+    for (int i = 0; i < variableCount; i += 1) {
+      final int variableIndex = variableIndexes[i];
+      while (segmentIndex < variableIndex) {
+        path = path.tail();
+        segmentIndex += 1;
+      }
+      variableValues[i] = path.head();
+    }
+    return variableValues;
+  }
+
+  static int slotHash(int state, String segment) {
+    final int hash = segment.hashCode() * 0x9E3779B9 + state;
+    return hash ^ (hash >>> 16);
+  }
+
+  public static <T> UriPathTrie<T> compile(UriMapper<T> mapper) {
+    final UriPathTrieBuilder<T> builder = new UriPathTrieBuilder<T>(mapper);
+    for (Map.Entry<Uri, T> route : mapper) {
+      builder.add(route.getKey(), route.getValue());
+    }
+    return builder.bind();
+  }
+}
+
+final class UriPathTrieBuilder<T> {
+  final UriMapper<T> mapper;
+  final ArrayList<HashMap<String, Integer>> literals;
+  final ArrayList<Integer> wildcards;
+  final ArrayList<Integer> terminals;
+  final ArrayList<Integer> nextRoutes;
+  final ArrayList<Uri> patterns;
+  final ArrayList<Object> values;
+  final ArrayList<String> schemes;
+  final ArrayList<String[]> variableNames;
+  final ArrayList<int[]> variableIndexes;
+  int transitionCount;
+  int maxVariableCount;
+
+  UriPathTrieBuilder(UriMapper<T> mapper) {
+    this.mapper = mapper;
+    this.literals = new ArrayList<HashMap<String, Integer>>();
+    this.wildcards = new ArrayList<Integer>();
+    this.terminals = new ArrayList<Integer>();
+    this.nextRoutes = new ArrayList<Integer>();
+    this.patterns = new ArrayList<Uri>();
+    this.values = new ArrayList<Object>();
+    this.schemes = new ArrayList<String>();
+    this.variableNames = new ArrayList<String[]>();
+    this.variableIndexes = new ArrayList<int[]>();
+    this.transitionCount = 0;
+    this.maxVariableCount = 0;
+    addState();
+  }
+
+  int addState() {
+    final int state = this.wildcards.size();
+    this.literals.add(null);
+    this.wildcards.add(-1);
+    this.terminals.add(-1);
+    return state;
+  }
+
+  void add(Uri pattern, T value) {
+    final ArrayList<String> names = new ArrayList<String>();
+    final ArrayList<Integer> indexes = new ArrayList<Integer>();
+    int state = 0;
+    int segmentIndex = 0;
+    UriPath path = pattern.path();
+    while (!path.isEmpty()) {
+      final String segment = path.head();
+      int next;
+      if (!segment.isEmpty() && segment.charAt(0) == ':') {
+        names.add(segment.substring(1));
+        indexes.add(segmentIndex);
+        next = this.wildcards.get(state);
+        if (next < 0) {
+          next = addState();
+          this.wildcards.set(state, next);
+        }
+      } else {
+        HashMap<String, Integer> literals = this.literals.get(state);
+        if (literals == null) {
+          literals = new HashMap<String, Integer>();
+          this.literals.set(state, literals);
+        }
+        final Integer target = literals.get(segment);
+        if (target != null) {
+          next = target;
+        } else {
+          next = addState();
+          literals.put(segment, next);
+          this.transitionCount += 1;
+        }
+      }
+      state = next;
+      segmentIndex += 1;
+      path = path.tail();
+    }
+
+    final int route = this.patterns.size();
+    final String scheme = pattern.scheme().isDefined() ? pattern.scheme().name() : null;
+    this.patterns.add(pattern);
+    this.values.add(value);
+    this.schemes.add(scheme);
+    final int variableCount = names.size();
+    final int[] variableIndexes = new int[variableCount];
+    for (int i = 0; i < variableCount; i += 1) {
+      variableIndexes[i] = indexes.get(i);
+    }
+    this.variableNames.add(names.toArray(new String[variableCount]));
+    this.variableIndexes.add(variableIndexes);
+    this.maxVariableCount = Math.max(this.maxVariableCount, variableCount);
+    addTerminal(state, route, scheme);
+  }
+
+  /**
+   * Chains {@code route} onto the terminal routes of {@code state}, in place
+   * of any earlier route with the same {@code scheme}.
+   */
+  void addTerminal(int state, int route, String scheme) {
+    int previous = -1;
+    int next = this.terminals.get(state);
+    while (next >= 0) {
+      final String nextScheme = this.schemes.get(next);
+      if (scheme == null ? nextScheme == null : scheme.equals(nextScheme)) {
+        next = this.nextRoutes.get(next);
+        break;
+      }
+      previous = next;
+      next = this.nextRoutes.get(next);
+    }
+    this.nextRoutes.add(next);
+    if (previous >= 0) {
+      this.nextRoutes.set(previous, route);
+    } else {
+      this.terminals.set(state, route);
+    }
+  }
+
+  UriPathTrie<T> bind() {
+    final int stateCount = this.wildcards.size();
+    final int[] wildcards = new int[stateCount];
+    final int[] terminals = new int[stateCount];
+    for (int state = 0; state < stateCount; state += 1) {
+      wildcards[state] = this.wildcards.get(state);
+      terminals[state] = this.terminals.get(state);
+    }
+
+    int slotCount = 2;
+    while (slotCount < 2 * this.transitionCount) {
+      slotCount <<= 1;
+    }
+    final int mask = slotCount - 1;
+    final int[] slotStates = new int[slotCount];
+    final String[] slotSegments = new String[slotCount];
+    final int[] slotTargets = new int[slotCount];
+    for (int state = 0; state < stateCount; state += 1) {
+      final HashMap<String, Integer> literals = this.literals.get(state);
+      if (literals != null) {
+        for (Map.Entry<String, Integer> literal : literals.entrySet()) {
+          final String segment = literal.getKey();
+          int slot = UriPathTrie.slotHash(state, segment) & mask;
+          while (slotSegments[slot] != null) {
+            slot = (slot + 1) & mask;
+          }
+          slotStates[slot] = state;
+          slotSegments[slot] = segment;
+          slotTargets[slot] = literal.getValue();
+        }
+      }
+    }
+
+    final int routeCount = this.patterns.size();
+    final int[] nextRoutes = new int[routeCount];
+    for (int route = 0; route < routeCount; route += 1) {
+      nextRoutes[route] = this.nextRoutes.get(route);
+    }
+    return new UriPathTrie<T>(this.mapper, wildcards, terminals, nextRoutes, slotStates, slotSegments,
+                              slotTargets, this.patterns.toArray(new Uri[routeCount]), this.values.toArray(),
+                              this.schemes.toArray(new String[routeCount]),
+                              this.variableNames.toArray(new String[routeCount][]),
+                              this.variableIndexes.toArray(new int[routeCount][]), this.maxVariableCount);
+  }
+}
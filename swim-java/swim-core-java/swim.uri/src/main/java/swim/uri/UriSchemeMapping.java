@@ -83,6 +83,8 @@ final class UriSchemeMapping<T> extends UriSchemeMapper<T> {
   UriSchemeMapper<T> merged(UriSchemeMapper<T> that) {
     if (that instanceof UriSchemeMapping<?>) {
       return merged((UriSchemeMapping<T>) that);
+    } else if (that.isEmpty()) {
+      return this;
     } else {
       return that;
     }
@@ -228,4 +228,14 @@ public class UriMapperSpec {
     assertEquals(mapper.get("/a/c"), "C");
     assertNull(mapper.get("/x/y"));
   }
+
+  @Test
+  public void mergeLiteralsIntoVariableMappings() {
+    final UriMapper<String> mapper = UriMapper.<String>empty()
+        .updated("/a/:x", "X")
+        .updated("/a/b", "B");
+    assertEquals(mapper.size(), 2);
+    assertEquals(mapper.get("/a/b"), "B");
+    assertEquals(mapper.get("/a/c"), "X");
+  }
 }
@@ -0,0 +1,122 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.uri;
+
+import java.util.Random;
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class UriPathTrieSpec {
+  static UriPathTrie<String> trie(String... routes) {
+    UriMapper<String> mapper = UriMapper.empty();
+    for (int i = 0; i < routes.length; i += 1) {
+      mapper = mapper.updated(routes[i], routes[i]);
+    }
+    return UriPathTrie.compile(mapper);
+  }
+
+  @Test
+  public void matchLiteralAndVariableRoutes() {
+    final UriPathTrie<String> trie = trie("/a/b", "/a/:x", "/:y/c", "/a/b/:z/");
+    assertEquals(trie.size(), 4);
+    assertEquals(trie.get(Uri.parse("/a/b")), "/a/b");
+    assertEquals(trie.get(Uri.parse("/a/q")), "/a/:x");
+    assertEquals(trie.get(Uri.parse("/q/c")), "/:y/c");
+    assertEquals(trie.get(Uri.parse("/a/b/1/")), "/a/b/:z/");
+    assertNull(trie.get(Uri.parse("/a/b/1")));
+    assertNull(trie.get(Uri.parse("/a")));
+    assertNull(trie.get(Uri.parse("/q/d")));
+    assertTrue(trie.match(Uri.parse("/q/d")) < 0);
+  }
+
+  @Test
+  public void backtrackFromFailedLiteralBranches() {
+    final UriPathTrie<String> trie = trie("/a/b", "/:x/c");
+    assertEquals(trie.get(Uri.parse("/a/c")), "/:x/c");
+  }
+
+  @Test
+  public void ignoreQueriesAndFragments() {
+    final UriPathTrie<String> trie = trie("/unit/:id");
+    assertEquals(trie.get(Uri.parse("/unit/1?q=2#f")), "/unit/:id");
+  }
+
+  @Test
+  public void unapplyPathVariables() {
+    final UriPathTrie<String> trie = trie("/house/:house/room/:room", "/house/:house");
+    final Uri uri = Uri.parse("/house/h1/room/r2");
+    final int route = trie.match(uri);
+    assertEquals(trie.value(route), "/house/:house/room/:room");
+    assertEquals(trie.pattern(route), Uri.parse("/house/:house/room/:room"));
+    assertEquals(trie.variableNames(route), new String[] {"house", "room"});
+    assertEquals(trie.unapply(route, uri), new String[] {"h1", "r2"});
+    final String[] captures = new String[trie.maxVariableCount()];
+    assertEquals(trie.match(uri, captures), route);
+    assertEquals(captures, new String[] {"h1", "r2"});
+    assertEquals(UriPattern.parse("/house/:house/room/:room").unapply(uri).get("room"), "r2");
+  }
+
+  @Test
+  public void captureVariablesAfterBacktracking() {
+    final UriPathTrie<String> trie = trie("/a/:x/c", "/:y/b/d");
+    final String[] captures = new String[trie.maxVariableCount()];
+    final int route = trie.match(Uri.parse("/a/b/d"), captures);
+    assertEquals(trie.value(route), "/:y/b/d");
+    assertEquals(captures[0], "a");
+  }
+
+  @Test
+  public void keepRoutesWithTheSamePathAndDifferentSchemes() {
+    final UriPathTrie<String> trie = trie("warp:/unit/:id", "swim:/unit/:id");
+    assertEquals(trie.get(Uri.parse("warp:/unit/1")), "warp:/unit/:id");
+    assertEquals(trie.get(Uri.parse("swim:/unit/1")), "swim:/unit/:id");
+    assertNull(trie.get(Uri.parse("http:/unit/1")));
+    assertNull(trie.get(Uri.parse("/unit/1")));
+  }
+
+  @Test
+  public void matchEverythingUriMapperMatches() {
+    final Random random = new Random(42L);
+    final String[] segments = {"a", "b", "c", ":x", ":y"};
+    UriMapper<String> mapper = UriMapper.empty();
+    for (int i = 0; i < 200; i += 1) {
+      final String pattern = randomPath(random, segments);
+      mapper = mapper.updated(pattern, pattern);
+    }
+    final UriPathTrie<String> trie = UriPathTrie.compile(mapper);
+    for (int i = 0; i < 2000; i += 1) {
+      final Uri uri = Uri.parse(randomPath(random, new String[] {"a", "b", "c", "d"}));
+      final String expected = mapper.get(uri);
+      final String actual = trie.get(uri);
+      if (expected != null) {
+        assertEquals(actual, expected, uri.toString());
+      }
+      if (actual != null) {
+        assertTrue(UriPattern.parse(actual).matches(uri), uri.toString());
+      }
+    }
+  }
+
+  static String randomPath(Random random, String[] segments) {
+    final StringBuilder path = new StringBuilder();
+    final int depth = 1 + random.nextInt(4);
+    for (int i = 0; i < depth; i += 1) {
+      path.append('/').append(segments[random.nextInt(segments.length)]);
+    }
+    return path.toString();
+  }
+}
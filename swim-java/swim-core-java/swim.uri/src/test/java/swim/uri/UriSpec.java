@@ -0,0 +1,67 @@
+// Copyright 2015-2019 SWIM.AI inc.
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package swim.uri;
+
+import org.testng.annotations.Test;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+public class UriSpec {
+  @Test
+  public void hashEqualUris() {
+    final Uri x = Uri.standardParser().parseAbsoluteString("warp://example.com/node?q#f");
+    final Uri y = Uri.standardParser().parseAbsoluteString("warp://example.com/node?q#f");
+    assertNotSame(x, y);
+    assertEquals(x, y);
+    assertEquals(x.hashCode(), y.hashCode());
+    assertEquals(x.hashCode(), "warp://example.com/node?q#f".hashCode());
+    assertEquals(x.hashCode(), x.hashCode());
+  }
+
+  @Test
+  public void distinguishUnequalUris() {
+    assertNotEquals(Uri.parse("/a/b"), Uri.parse("/a/c"));
+    assertNotEquals(Uri.parse("/a/b"), Uri.parse("/a/b/"));
+    assertNotEquals(Uri.parse("/a/b"), UriPath.parse("/a/b"));
+  }
+
+  @Test
+  public void hashEqualPaths() {
+    final UriPath x = UriPath.parse("/a/b/c");
+    final UriPath y = UriPath.from("/", "a", "/", "b").appendedSlash().appendedSegment("c");
+    assertEquals(x, y);
+    assertEquals(x.hashCode(), y.hashCode());
+    assertEquals(x.hashCode(), "/a/b/c".hashCode());
+    assertNotEquals(x, UriPath.parse("/a/b"));
+  }
+
+  @Test
+  public void internEqualUris() {
+    final Uri x = Uri.standardParser().parseAbsoluteString("/intern/node");
+    final Uri y = Uri.standardParser().parseAbsoluteString("/intern/node");
+    assertNotSame(x, y);
+    assertSame(x.intern(), y.intern());
+    assertEquals(y.intern(), y);
+  }
+
+  @Test
+  public void parseCanonicalUris() {
+    final Uri x = Uri.parse("/parse/node");
+    assertSame(Uri.parse("/parse/node"), x);
+    assertSame(Uri.standardParser().parseAbsoluteString("/parse/node").intern(), x);
+  }
+}
@@ -48,6 +48,9 @@ public final class CommandMessage extends LaneAddressed {
 
   @Override
   public CommandMessage nodeUri(Uri nodeUri) {
+    if (nodeUri == this.nodeUri) {
+      return this;
+    }
     return new CommandMessage(nodeUri, this.laneUri, this.body);
   }
 
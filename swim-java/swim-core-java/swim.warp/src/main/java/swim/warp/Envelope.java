@@ -14,11 +14,13 @@
 
 package swim.warp;
 
+import swim.codec.Binary;
 import swim.codec.Debug;
 import swim.codec.Decoder;
 import swim.codec.Encoder;
 import swim.codec.Format;
 import swim.codec.Output;
+import swim.codec.Utf8;
 import swim.codec.Writer;
 import swim.recon.Recon;
 import swim.structure.Form;
@@ -26,6 +28,14 @@ import swim.structure.Value;
 import swim.uri.Uri;
 
 public abstract class Envelope implements Debug {
+  /**
+   * UTF-8 Recon encoding of this envelope, computed once and copied by every
+   * connection that writes this envelope; {@code null} if this envelope has
+   * not been shared, and {@code SHARED} if this envelope has been shared,
+   * but not yet encoded.
+   */
+  volatile byte[] reconData;
+
   Envelope() {
     // stub
   }
@@ -51,8 +61,37 @@ public abstract class Envelope implements Debug {
     return ((Form<Envelope>) form()).mold(this).toValue();
   }
 
+  /**
+   * Returns {@code true} if this envelope has been {@linkplain #share()
+   * shared} by multiple writers.
+   */
+  public boolean isShared() {
+    return this.reconData != null;
+  }
+
+  /**
+   * Marks this envelope as being written to more than one connection, such
+   * as when fanning out an event to many uplinks, so that {@link
+   * #reconEncoder()} encodes this envelope once, and shares the encoded bytes
+   * with all subsequent writers.
+   */
+  public void share() {
+    if (this.reconData == null) {
+      this.reconData = SHARED;
+    }
+  }
+
   public Encoder<?, Envelope> reconEncoder() {
-    return new EnvelopeEncoder(this);
+    byte[] reconData = this.reconData;
+    if (reconData == null) {
+      return new EnvelopeEncoder(this);
+    } else if (reconData == SHARED) {
+      final Output<byte[]> output = Utf8.encodedOutput(Binary.byteArrayOutput());
+      writeRecon(output);
+      reconData = output.bind();
+      this.reconData = reconData;
+    }
+    return Binary.byteArrayWriter(this, reconData);
   }
 
   public Writer<?, ?> reconWriter() {
@@ -75,6 +114,8 @@ public abstract class Envelope implements Debug {
     return Format.debug(this);
   }
 
+  static final byte[] SHARED = new byte[0];
+
   private static Decoder<Envelope> decoder;
   private static Encoder<Envelope, Envelope> encoder;
 
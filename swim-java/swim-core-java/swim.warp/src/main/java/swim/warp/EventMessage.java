@@ -20,6 +20,12 @@ import swim.structure.Value;
 import swim.uri.Uri;
 
 public final class EventMessage extends LaneAddressed {
+  /**
+   * Most recent copy of this shared message readdressed to a different node
+   * URI, reused by all writers that readdress this message the same way.
+   */
+  volatile EventMessage readdressed;
+
   public EventMessage(Uri nodeUri, Uri laneUri, Value body) {
     super(nodeUri, laneUri, body);
   }
@@ -48,6 +54,17 @@ public final class EventMessage extends LaneAddressed {
 
   @Override
   public EventMessage nodeUri(Uri nodeUri) {
+    if (nodeUri == this.nodeUri) {
+      return this;
+    } else if (isShared()) {
+      EventMessage readdressed = this.readdressed;
+      if (readdressed == null || readdressed.nodeUri != nodeUri) {
+        readdressed = new EventMessage(nodeUri, this.laneUri, this.body);
+        readdressed.share();
+        this.readdressed = readdressed;
+      }
+      return readdressed;
+    }
     return new EventMessage(nodeUri, this.laneUri, this.body);
   }
 
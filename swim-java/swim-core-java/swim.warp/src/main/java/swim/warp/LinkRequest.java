@@ -64,6 +64,9 @@ public final class LinkRequest extends LinkAddressed {
 
   @Override
   public LinkRequest nodeUri(Uri nodeUri) {
+    if (nodeUri == this.nodeUri) {
+      return this;
+    }
     return new LinkRequest(nodeUri, this.laneUri, this.prio, this.rate, this.body);
   }
 
@@ -64,6 +64,9 @@ public final class LinkedResponse extends LinkAddressed {
 
   @Override
   public LinkedResponse nodeUri(Uri nodeUri) {
+    if (nodeUri == this.nodeUri) {
+      return this;
+    }
     return new LinkedResponse(nodeUri, this.laneUri, this.prio, this.rate, this.body);
   }
 
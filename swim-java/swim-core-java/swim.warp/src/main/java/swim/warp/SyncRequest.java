@@ -64,6 +64,9 @@ public final class SyncRequest extends LinkAddressed {
 
   @Override
   public SyncRequest nodeUri(Uri nodeUri) {
+    if (nodeUri == this.nodeUri) {
+      return this;
+    }
     return new SyncRequest(nodeUri, this.laneUri, this.prio, this.rate, this.body);
   }
 
@@ -48,6 +48,9 @@ public final class SyncedResponse extends LaneAddressed {
 
   @Override
   public SyncedResponse nodeUri(Uri nodeUri) {
+    if (nodeUri == this.nodeUri) {
+      return this;
+    }
     return new SyncedResponse(nodeUri, this.laneUri, this.body);
   }
 
@@ -48,6 +48,9 @@ public final class UnlinkRequest extends LaneAddressed {
 
   @Override
   public UnlinkRequest nodeUri(Uri nodeUri) {
+    if (nodeUri == this.nodeUri) {
+      return this;
+    }
     return new UnlinkRequest(nodeUri, this.laneUri, this.body);
   }
 
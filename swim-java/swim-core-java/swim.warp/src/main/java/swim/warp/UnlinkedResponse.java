@@ -48,6 +48,9 @@ public final class UnlinkedResponse extends LaneAddressed {
 
   @Override
   public UnlinkedResponse nodeUri(Uri nodeUri) {
+    if (nodeUri == this.nodeUri) {
+      return this;
+    }
     return new UnlinkedResponse(nodeUri, this.laneUri, this.body);
   }
 
@@ -14,9 +14,18 @@
 
 package swim.warp;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import org.testng.annotations.Test;
+import swim.codec.Binary;
+import swim.codec.OutputBuffer;
 import swim.structure.Attr;
 import swim.structure.Record;
+import swim.uri.Uri;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 import static swim.warp.Assertions.assertParses;
 import static swim.warp.Assertions.assertWrites;
 
@@ -50,4 +59,33 @@ public class EventMessageSpec {
     assertWrites(new EventMessage("node/uri", "lane_uri", Record.of(Attr.of("test"))),
                  "@event(node:\"node/uri\",lane:lane_uri)@test");
   }
+
+  @Test
+  public void encodeSharedEventsOnce() {
+    final EventMessage message = new EventMessage("node/uri", "lane_uri", Record.of(Attr.of("test")));
+    assertFalse(message.isShared());
+    message.share();
+    assertTrue(message.isShared());
+    assertEquals(encode(message), "@event(node:\"node/uri\",lane:lane_uri)@test");
+    assertEquals(encode(message), "@event(node:\"node/uri\",lane:lane_uri)@test");
+  }
+
+  @Test
+  public void reuseReaddressedSharedEvents() {
+    final Uri nodeUri = Uri.parse("remote/uri");
+    final EventMessage message = new EventMessage("node/uri", "lane_uri");
+    assertEquals(message.nodeUri(nodeUri), message.nodeUri(nodeUri));
+    message.share();
+    final EventMessage readdressed = message.nodeUri(nodeUri);
+    assertTrue(readdressed.isShared());
+    assertSame(message.nodeUri(nodeUri), readdressed);
+    assertEquals(encode(readdressed), "@event(node:\"remote/uri\",lane:lane_uri)");
+  }
+
+  static String encode(Envelope envelope) {
+    final byte[] buffer = new byte[256];
+    final OutputBuffer<ByteBuffer> output = Binary.outputBuffer(buffer);
+    assertTrue(envelope.reconEncoder().pull(output).isDone());
+    return new String(buffer, 0, output.index(), StandardCharsets.UTF_8);
+  }
 }